@@ -0,0 +1,70 @@
+package com.itence.mryang.twoboxing.solver.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itence.mryang.twoboxing.solver.SolverApi.TspResponse;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import method.graph.TravelingSalesman;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A repeated Held-Karp request answered by the memory tier of {@link ResultCache}, against
+ * solving it again. Both include hashing the matrix, as every request does; the memory hit should
+ * be several orders of magnitude faster.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResultCacheBenchmark {
+
+    @Param({"18"})
+    int cities;
+
+    private int[][] distances;
+    private ResultCache cache;
+
+    @Setup
+    public void setUp() throws Exception {
+        Random random = new Random(11);
+        distances = new int[cities][cities];
+        for (int i = 0; i < cities; i++) {
+            for (int j = i + 1; j < cities; j++) {
+                distances[i][j] = distances[j][i] = 1 + random.nextInt(1000);
+            }
+        }
+        cache = new ResultCache(100, null, new ObjectMapper());
+        cache.get(InstanceHash.tsp("HELD_KARP", distances, 0), "tsp", TspResponse.class,
+                () -> CompletableFuture.completedFuture(solve())).get();
+    }
+
+    @Benchmark
+    public TspResponse memoryHit() throws Exception {
+        return cache.get(InstanceHash.tsp("HELD_KARP", distances, 0), "tsp", TspResponse.class,
+                () -> CompletableFuture.completedFuture(solve())).get();
+    }
+
+    @Benchmark
+    public TspResponse recompute() {
+        InstanceHash.tsp("HELD_KARP", distances, 0);
+        return solve();
+    }
+
+    private TspResponse solve() {
+        TravelingSalesman.Tour tour = TravelingSalesman.heldKarp(distances, 1);
+        return new TspResponse(tour.distance(), tour.order());
+    }
+}
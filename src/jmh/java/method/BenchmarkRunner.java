@@ -0,0 +1,29 @@
+package method;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point for the {@code jmh} Maven profile.
+ * <p>
+ * Accepts the usual JMH command line (benchmark regex, {@code -p name=value}, {@code -f}, ...)
+ * and always attaches the GC profiler, so every run reports {@code gc.alloc.rate.norm}
+ * (bytes allocated per operation) next to throughput and average time.
+ * </p>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
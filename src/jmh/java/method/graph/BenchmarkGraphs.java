@@ -0,0 +1,130 @@
+package method.graph;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded graph fixtures shared by the benchmarks. Every shape is produced both as a
+ * {@link CsrGraph} and in the boxed forms the original APIs accept, so the two can be compared
+ * on identical inputs.
+ */
+public final class BenchmarkGraphs {
+
+    static final long SEED = 0x5EED_2025L;
+
+    /** Structural families the benchmarks are parameterised with. */
+    public enum Shape {
+        /** Uniform random digraph with average out-degree 4. */
+        SPARSE,
+        /** Uniform random digraph with average out-degree {@code max(4, n / 16)}. */
+        DENSE,
+        /** Random DAG: every edge points from a lower to a higher id. */
+        DAG;
+
+        int degree(int nodes) {
+            return this == DENSE ? Math.max(4, nodes / 16) : 4;
+        }
+    }
+
+    private BenchmarkGraphs() {
+    }
+
+    static CsrGraph directed(Shape shape, int nodes) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int degree = shape.degree(nodes);
+        CsrGraph.Builder builder = CsrGraph.builder(nodes);
+        for (int u = 0; u < nodes; u++) {
+            for (int k = 0; k < degree; k++) {
+                if (shape == Shape.DAG) {
+                    if (u + 1 < nodes) {
+                        builder.addEdge(u, random.nextInt(u + 1, nodes));
+                    }
+                } else {
+                    builder.addEdge(u, random.nextInt(nodes));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /** Random bipartite graph with {@code nodes} vertices per side and the given average left degree. */
+    static CsrGraph bipartite(int nodes, int degree) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        CsrGraph.Builder builder = CsrGraph.builder(nodes, nodes);
+        for (int u = 0; u < nodes; u++) {
+            for (int k = 0; k < degree; k++) {
+                builder.addEdge(u, random.nextInt(nodes));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Random assignment instance with {@code nodes} vertices per side: the pair {@code (u, u)} plus
+     * {@code degree - 1} random pairs per left vertex, costs in {@code [0, 10^6)} as edge weights.
+     */
+    static CsrGraph assignmentCosts(int nodes, int degree) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        CsrGraph.Builder builder = CsrGraph.builder(nodes, nodes);
+        for (int u = 0; u < nodes; u++) {
+            for (int k = 0; k < degree; k++) {
+                builder.addEdge(u, k == 0 ? u : random.nextInt(nodes), random.nextInt(1_000_000), 0);
+            }
+        }
+        return builder.build();
+    }
+
+    /** Random digraph with costs in {@code [1, 100]} and resources in {@code [1, maxEdgeResource]}. */
+    static ConstrainedShortestPath.Graph resourceGraph(Shape shape, int nodes, int maxEdgeResource) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        ConstrainedShortestPath.Graph graph = new ConstrainedShortestPath.Graph(nodes);
+        CsrGraph topology = directed(shape, nodes);
+        for (int u = 0; u < nodes; u++) {
+            for (int e = topology.firstEdge(u); e < topology.endEdge(u); e++) {
+                graph.addEdge(u, topology.target(e), random.nextInt(1, 101), random.nextInt(1, maxEdgeResource + 1));
+            }
+        }
+        return graph;
+    }
+
+    /** Symmetric distance matrix of random points on a 1000 x 1000 grid. */
+    static int[][] euclideanMatrix(int cities) {
+        SplittableRandom random = new SplittableRandom(SEED);
+        int[] x = new int[cities];
+        int[] y = new int[cities];
+        for (int i = 0; i < cities; i++) {
+            x[i] = random.nextInt(1000);
+            y[i] = random.nextInt(1000);
+        }
+        int[][] matrix = new int[cities][cities];
+        for (int i = 0; i < cities; i++) {
+            for (int j = 0; j < cities; j++) {
+                matrix[i][j] = (int) Math.round(Math.hypot(x[i] - x[j], y[i] - y[j]));
+            }
+        }
+        return matrix;
+    }
+
+    static List<List<Integer>> toAdjacencyList(CsrGraph graph) {
+        List<List<Integer>> adj = new ArrayList<>(graph.getNumNodes());
+        for (int u = 0; u < graph.getNumNodes(); u++) {
+            List<Integer> row = new ArrayList<>(graph.degree(u));
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                row.add(graph.target(e));
+            }
+            adj.add(row);
+        }
+        return adj;
+    }
+
+    static HashMap<Integer, List<Integer>> toAdjacencyMap(CsrGraph graph) {
+        HashMap<Integer, List<Integer>> adj = new HashMap<>();
+        List<List<Integer>> rows = toAdjacencyList(graph);
+        for (int u = 0; u < rows.size(); u++) {
+            adj.put(u, rows.get(u));
+        }
+        return adj;
+    }
+}
@@ -0,0 +1,152 @@
+package method.graph;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Traversals of the same graph as a sorted {@link CsrGraph} and as a {@link CompressedGraph}.
+ * {@code LOCAL} graphs have neighbours within ±100 ids, as after a locality-preserving
+ * renumbering; {@code RANDOM} ones have uniform targets, the worst case for gap encoding.
+ * {@code CompressedGraphTest} checks the bytes per edge of both.
+ * <p>
+ * The plain scans bound the decoding cost from above: summing a CSR row is a vectorised loop,
+ * while decoding gaps is a serial prefix sum. The algorithms spend most of their time on random
+ * accesses to their own arrays, which both forms pay alike. The CSR matching is seeded by
+ * Karp–Sipser, which needs the reversed graph and often leaves nothing for the phases on these
+ * inputs; the compressed one gets a forward-only greedy seed and always runs phases.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class CompressedGraphBenchmark {
+
+    public enum Locality {
+        LOCAL,
+        RANDOM
+    }
+
+    @Param({"1000000"})
+    int nodes;
+
+    @Param({"16"})
+    int degree;
+
+    @Param({"LOCAL", "RANDOM"})
+    Locality locality;
+
+    private CsrGraph csr;
+    private CompressedGraph compressed;
+    private CsrGraph bipartiteCsr;
+    private CompressedGraph bipartite;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(BenchmarkGraphs.SEED);
+        CompressedGraph.Builder builder = CompressedGraph.builder(nodes);
+        CompressedGraph.Builder bipartiteBuilder = CompressedGraph.builder(nodes, nodes);
+        for (int u = 0; u < nodes; u++) {
+            for (int k = 0; k < degree; k++) {
+                builder.addEdge(u, target(random, u));
+            }
+            // sparser, so the matching needs several phases
+            for (int k = 0; k < 2; k++) {
+                bipartiteBuilder.addEdge(u, target(random, u));
+            }
+        }
+        compressed = builder.build();
+        bipartite = bipartiteBuilder.build();
+        csr = compressed.toCsr();
+        bipartiteCsr = bipartite.toCsr();
+    }
+
+    private int target(SplittableRandom random, int u) {
+        return locality == Locality.LOCAL ? Math.floorMod(u + random.nextInt(-100, 101), nodes) : random.nextInt(nodes);
+    }
+
+    @Benchmark
+    public long scanCsr() {
+        long sum = 0;
+        for (int u = 0; u < nodes; u++) {
+            for (int e = csr.firstEdge(u), end = csr.endEdge(u); e < end; e++) {
+                sum += csr.target(e);
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long scanCompressed() {
+        long sum = 0;
+        CompressedGraph.Cursor cursor = compressed.cursor();
+        for (int u = 0; u < nodes; u++) {
+            for (cursor.reset(u); cursor.hasNext(); ) {
+                sum += cursor.next();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int sccCsr() {
+        return StronglyConnectedComponents.of(csr).getComponentCount();
+    }
+
+    @Benchmark
+    public int sccCompressed() {
+        return StronglyConnectedComponents.of(compressed).getComponentCount();
+    }
+
+    @Benchmark
+    public int matchingCsr() {
+        return new HopcroftKarp(nodes, nodes, bipartiteCsr).maxMatching(HopcroftKarp.Algorithm.HOPCROFT_KARP);
+    }
+
+    @Benchmark
+    public int matchingCompressed() {
+        return new HopcroftKarp(nodes, nodes, bipartite).maxMatching();
+    }
+
+    @Benchmark
+    public int constrainedDfsCsr() {
+        int[] visits = new int[1];
+        PredecessorConstrainedDfs.traverse(csr, 0, counter(visits));
+        return visits[0];
+    }
+
+    @Benchmark
+    public int constrainedDfsCompressed() {
+        int[] visits = new int[1];
+        PredecessorConstrainedDfs.traverse(compressed, 0, counter(visits));
+        return visits[0];
+    }
+
+    private static PredecessorConstrainedDfs.IntVisitor counter(int[] visits) {
+        return new PredecessorConstrainedDfs.IntVisitor() {
+            @Override
+            public boolean visit(int node, int order) {
+                visits[0]++;
+                return true;
+            }
+
+            @Override
+            public boolean skip(int node) {
+                return true;
+            }
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package method.graph;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConstrainedShortestPathBenchmark {
+
+    @Param({"1000", "10000"})
+    int nodes;
+
+    @Param({"SPARSE", "DAG"})
+    BenchmarkGraphs.Shape shape;
+
+    @Param({"100", "1000"})
+    int maxResource;
+
+    private ConstrainedShortestPath.Graph graph;
+    private final List<ConstrainedShortestPathQueries.Query> batch = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        graph = BenchmarkGraphs.resourceGraph(shape, nodes, 10);
+        graph.toCsrGraph();
+        SplittableRandom random = new SplittableRandom(BenchmarkGraphs.SEED);
+        batch.clear();
+        for (int i = 0; i < 64; i++) {
+            batch.add(new ConstrainedShortestPathQueries.Query(random.nextInt(4), random.nextInt(nodes), maxResource));
+        }
+    }
+
+    @Benchmark
+    public int solve() {
+        return new ConstrainedShortestPath(graph, maxResource).solve(0, nodes - 1);
+    }
+
+    @Benchmark
+    public ConstrainedShortestPath.Path labelSetting() {
+        return new ConstrainedShortestPath(graph, maxResource).findPath(0, nodes - 1);
+    }
+
+    /** 64 queries from 4 sources through a cold query engine (one search per source). */
+    @Benchmark
+    public ConstrainedShortestPath.Path[] batchQueries() {
+        return new ConstrainedShortestPathQueries(graph, 0).queryAll(batch);
+    }
+}
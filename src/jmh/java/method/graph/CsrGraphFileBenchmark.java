@@ -0,0 +1,67 @@
+package method.graph;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Loading a graph from the binary file and running SCC on the mapping, against the same graph on
+ * the heap. {@link #map()} should not grow with {@code nodes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CsrGraphFileBenchmark {
+
+    @Param({"100000", "1000000"})
+    int nodes;
+
+    private Path file;
+    private CsrGraph heap;
+    private CsrGraph mapped;
+
+    @Setup
+    public void setUp() throws IOException {
+        heap = BenchmarkGraphs.directed(BenchmarkGraphs.Shape.SPARSE, nodes);
+        file = Files.createTempFile("benchmark", ".csr");
+        CsrGraphFile.write(heap, file);
+        mapped = CsrGraphFile.map(file);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        mapped = null;
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public CsrGraph map() throws IOException {
+        return CsrGraphFile.map(file);
+    }
+
+    @Benchmark
+    public int sccHeap() {
+        return StronglyConnectedComponents.of(heap).getComponentCount();
+    }
+
+    @Benchmark
+    public int sccMapped() {
+        return StronglyConnectedComponents.of(mapped).getComponentCount();
+    }
+}
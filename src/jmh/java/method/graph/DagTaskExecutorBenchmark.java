@@ -0,0 +1,48 @@
+package method.graph;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scheduling overhead of {@link DagTaskExecutor}: every node of a random DAG runs an empty task,
+ * so the time is spent on counters, dispatch and event reporting.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DagTaskExecutorBenchmark {
+
+    @Param({"10000", "100000"})
+    int nodes;
+
+    @Param({"1", "4"})
+    int parallelism;
+
+    private DagTaskExecutor<Integer> executor;
+
+    @Setup
+    public void setUp() {
+        CsrGraph graph = BenchmarkGraphs.directed(BenchmarkGraphs.Shape.DAG, nodes);
+        executor = new DagTaskExecutor<>(
+                PredecessorConstrainedDfs.compile(BenchmarkGraphs.toAdjacencyMap(graph)), parallelism, null);
+    }
+
+    @Benchmark
+    public DagTaskExecutor.Result<Integer> emptyTasks() throws InterruptedException {
+        return executor.execute(node -> {
+        });
+    }
+}
@@ -0,0 +1,77 @@
+package method.graph;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Bipartite matching on random graphs with {@code nodes} vertices per side. */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class HopcroftKarpBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    int nodes;
+
+    /** Average left degree: 2 is near the matching threshold, 16 saturates quickly. */
+    @Param({"2", "16"})
+    int degree;
+
+    private CsrGraph graph;
+    private List<List<Integer>> adjacencyList;
+    private DynamicBipartiteMatching dynamic;
+    private final SplittableRandom random = new SplittableRandom(BenchmarkGraphs.SEED);
+
+    @Setup
+    public void setUp() {
+        graph = BenchmarkGraphs.bipartite(nodes, degree);
+        adjacencyList = BenchmarkGraphs.toAdjacencyList(graph);
+        dynamic = new DynamicBipartiteMatching(nodes, nodes, graph);
+    }
+
+    @Benchmark
+    public int boxedAdjacency() {
+        return new HopcroftKarp(nodes, nodes, adjacencyList).maxMatching();
+    }
+
+    /** Backend chosen by density. */
+    @Benchmark
+    public int csr() {
+        return new HopcroftKarp(nodes, nodes, graph).maxMatching();
+    }
+
+    @Benchmark
+    public int hopcroftKarpPhases() {
+        return new HopcroftKarp(nodes, nodes, graph).maxMatching(HopcroftKarp.Algorithm.HOPCROFT_KARP);
+    }
+
+    @Benchmark
+    public int pushRelabel() {
+        return new HopcroftKarp(nodes, nodes, graph).maxMatching(HopcroftKarp.Algorithm.PUSH_RELABEL);
+    }
+
+    /** One worker leaves and comes back with the same edges; compare with rebuilding via {@link #csr()}. */
+    @Benchmark
+    public int dynamicChurn() {
+        int u = random.nextInt(nodes);
+        dynamic.removeLeft(u);
+        for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+            dynamic.addEdge(u, graph.target(e));
+        }
+        return dynamic.size();
+    }
+}
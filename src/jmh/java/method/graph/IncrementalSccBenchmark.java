@@ -0,0 +1,106 @@
+package method.graph;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Streams the edges of a benchmark graph, in random order, into {@link IncrementalScc} and asks
+ * for the component count after every edge, or after every {@code batch} edges. The baseline
+ * rebuilds a {@link CsrGraph} and re-runs {@link StronglyConnectedComponents} after every batch,
+ * which is what keeping the components current costs without incremental maintenance.
+ * {@link #oneByOne()} does not depend on {@code batch}: compare it with
+ * {@link #recomputePerBatch()} at a batch of {@code 100}, its answers stale for up to 99 edges,
+ * and recomputing after every edge costs about a hundred times that.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncrementalSccBenchmark {
+
+    @Param({"100000"})
+    int nodes;
+
+    @Param({"SPARSE", "DAG"})
+    BenchmarkGraphs.Shape shape;
+
+    @Param({"100", "1024"})
+    int batch;
+
+    private int[] from;
+    private int[] to;
+
+    @Setup
+    public void setUp() {
+        CsrGraph graph = BenchmarkGraphs.directed(shape, nodes);
+        int m = graph.getNumEdges();
+        from = new int[m];
+        to = new int[m];
+        for (int u = 0; u < nodes; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                from[e] = u;
+                to[e] = graph.target(e);
+            }
+        }
+        Random random = new Random(BenchmarkGraphs.SEED);
+        for (int i = m - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int f = from[i];
+            from[i] = from[j];
+            from[j] = f;
+            int t = to[i];
+            to[i] = to[j];
+            to[j] = t;
+        }
+    }
+
+    @Benchmark
+    public int oneByOne() {
+        IncrementalScc scc = new IncrementalScc(nodes);
+        int components = nodes;
+        for (int i = 0; i < from.length; i++) {
+            scc.addEdge(from[i], to[i]);
+            components = scc.componentCount();
+        }
+        return components;
+    }
+
+    @Benchmark
+    public int batched() {
+        IncrementalScc scc = new IncrementalScc(nodes);
+        int components = nodes;
+        for (int start = 0; start < from.length; start += batch) {
+            int end = Math.min(from.length, start + batch);
+            scc.addEdges(Arrays.copyOfRange(from, start, end), Arrays.copyOfRange(to, start, end));
+            components = scc.componentCount();
+        }
+        return components;
+    }
+
+    @Benchmark
+    public int recomputePerBatch() {
+        CsrGraph.Builder builder = CsrGraph.builder(nodes);
+        int components = nodes;
+        for (int i = 0; i < from.length; i++) {
+            builder.addEdge(from[i], to[i]);
+            if (i % batch == batch - 1 || i == from.length - 1) {
+                components = StronglyConnectedComponents.of(builder.build()).getComponentCount();
+            }
+        }
+        return components;
+    }
+}
@@ -0,0 +1,66 @@
+package method.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Minimum-cost assignment on random sparse instances with {@code nodes} vertices per side and
+ * 8 allowed pairs per left vertex. The Hungarian runs only on the dense matrix of the smallest size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class MinCostAssignmentBenchmark {
+
+    private static final int DEGREE = 8;
+
+    @Param({"2000", "100000", "1000000"})
+    int nodes;
+
+    private CsrGraph costs;
+    private int[][] matrix;
+
+    @Setup
+    public void setUp() {
+        costs = BenchmarkGraphs.assignmentCosts(nodes, DEGREE);
+        if (nodes <= 2000) {
+            matrix = new int[nodes][nodes];
+            for (int u = 0; u < nodes; u++) {
+                Arrays.fill(matrix[u], MinCostAssignment.FORBIDDEN);
+                for (int e = costs.firstEdge(u), end = costs.endEdge(u); e < end; e++) {
+                    int v = costs.target(e);
+                    matrix[u][v] = Math.min(matrix[u][v], costs.weight(e));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] hungarian() {
+        return matrix == null ? null : MinCostAssignment.hungarian(matrix);
+    }
+
+    @Benchmark
+    public int[] auction() {
+        return MinCostAssignment.auction(nodes, nodes, costs, 1);
+    }
+
+    @Benchmark
+    public int[] auctionParallel() {
+        return MinCostAssignment.auction(nodes, nodes, costs);
+    }
+}
@@ -0,0 +1,85 @@
+package method.graph;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Traversals start at node 0, which is the unique source in the DAG shape. Forks get a large
+ * thread stack because the reference traversal ({@link #genericMap()}) is recursive.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xss512m")
+public class PredecessorConstrainedDfsBenchmark {
+
+    @Param({"1000", "10000"})
+    int nodes;
+
+    @Param({"SPARSE", "DENSE", "DAG"})
+    BenchmarkGraphs.Shape shape;
+
+    private CsrGraph graph;
+    private Map<Integer, List<Integer>> successors;
+    private PredecessorConstrainedDfs.Compiled<Integer> compiled;
+
+    @Setup
+    public void setUp() {
+        graph = BenchmarkGraphs.directed(shape, nodes);
+        successors = BenchmarkGraphs.toAdjacencyMap(graph);
+        compiled = PredecessorConstrainedDfs.compile(successors);
+    }
+
+    @Benchmark
+    public List<PredecessorConstrainedDfs.TraversalEvent<Integer>> genericMap() {
+        return PredecessorConstrainedDfs.dfsRecursiveOrder(successors, 0);
+    }
+
+    @Benchmark
+    public List<PredecessorConstrainedDfs.TraversalEvent<Integer>> csr() {
+        return PredecessorConstrainedDfs.dfsRecursiveOrder(graph, 0);
+    }
+
+    /** Traversal on a graph compiled once in setup. */
+    @Benchmark
+    public List<PredecessorConstrainedDfs.TraversalEvent<Integer>> compiled() {
+        return compiled.dfsOrder(0);
+    }
+
+    /** Interning included: the cost of a one-off traversal through the compiled mode. */
+    @Benchmark
+    public List<PredecessorConstrainedDfs.TraversalEvent<Integer>> compileAndTraverse() {
+        return PredecessorConstrainedDfs.compile(successors).dfsOrder(0);
+    }
+
+    /** Counts the visits through the allocation-free visitor; compare with {@link #csr()}. */
+    @Benchmark
+    public int csrVisitor() {
+        int[] visits = {0};
+        PredecessorConstrainedDfs.traverse(graph, 0, (node, order) -> {
+            visits[0]++;
+            return true;
+        });
+        return visits[0];
+    }
+
+    /** Counts the visits from the lazy stream, which never builds a SKIP note. */
+    @Benchmark
+    public long compiledStream() {
+        return compiled.stream(0).filter(PredecessorConstrainedDfs.TraversalEvent::isVisit).count();
+    }
+}
@@ -0,0 +1,74 @@
+package method.graph;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StronglyConnectedComponentBenchmark {
+
+    @Param({"1000", "100000"})
+    int nodes;
+
+    @Param({"SPARSE", "DENSE", "DAG"})
+    BenchmarkGraphs.Shape shape;
+
+    /** Worker count for {@link #decomposeParallel()}; vary it to plot the speedup curve. */
+    @Param({"4"})
+    int parallelism;
+
+    private CsrGraph graph;
+    private HashMap<Integer, List<Integer>> adjacencyMap;
+    private final StronglyConnectedComponentOptimized scc = new StronglyConnectedComponentOptimized();
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        graph = BenchmarkGraphs.directed(shape, nodes);
+        adjacencyMap = BenchmarkGraphs.toAdjacencyMap(graph);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int boxedAdjacency() {
+        return scc.getOutput(adjacencyMap, nodes);
+    }
+
+    @Benchmark
+    public int csr() {
+        return scc.getOutput(graph);
+    }
+
+    @Benchmark
+    public CsrGraph decomposeWithCondensation() {
+        return StronglyConnectedComponents.of(graph).getCondensation();
+    }
+
+    @Benchmark
+    public int decomposeParallel() {
+        return StronglyConnectedComponents.ofParallel(graph, pool).getComponentCount();
+    }
+}
@@ -0,0 +1,80 @@
+package method.graph;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Exact TSP on random Euclidean instances. {@code bruteForce} takes its instances from
+ * {@link SmallInstance}, so it is only measured on its feasible range.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class TravelingSalesmanBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Instance {
+
+        @Param({"8", "10", "14", "18"})
+        int cities;
+
+        int[][] distanceMatrix;
+
+        @Setup
+        public void setUp() {
+            distanceMatrix = BenchmarkGraphs.euclideanMatrix(cities);
+        }
+    }
+
+    /** Sizes where the factorial enumeration still finishes. */
+    @State(Scope.Benchmark)
+    public static class SmallInstance {
+
+        @Param({"8", "10"})
+        int cities;
+
+        int[][] distanceMatrix;
+
+        @Setup
+        public void setUp() {
+            distanceMatrix = BenchmarkGraphs.euclideanMatrix(cities);
+        }
+    }
+
+    @Benchmark
+    public int bruteForce(SmallInstance instance) {
+        return TravelingSalesman.bruteForce(instance.distanceMatrix);
+    }
+
+    @Benchmark
+    public int dynamicProgramming(Instance instance) {
+        return TravelingSalesman.dynamicProgramming(instance.distanceMatrix);
+    }
+
+    @Benchmark
+    public TravelingSalesman.Tour heldKarpParallel(Instance instance) {
+        return TravelingSalesman.heldKarp(instance.distanceMatrix);
+    }
+
+    @Benchmark
+    public TravelingSalesman.Tour branchAndBound(Instance instance) {
+        return TravelingSalesman.branchAndBound(instance.distanceMatrix, 1);
+    }
+
+    @Benchmark
+    public TravelingSalesman.Tour branchAndBoundParallel(Instance instance) {
+        return TravelingSalesman.branchAndBound(instance.distanceMatrix);
+    }
+}
@@ -0,0 +1,126 @@
+package method.graph;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The algorithms on a graph whose ids were handed out at random, as by a database sequence, with
+ * and without a {@link VertexOrder} pass. The graph has locality to recover: every vertex links to
+ * vertices within ±{@code 50} positions of a hidden ring. {@code NONE} runs on the raw ids; the
+ * other orders run through {@link ReorderedGraph}, results mapped back included.
+ * {@link #reorder()} is the one-off cost of computing the order and the permuted graph ({@code NONE}
+ * times {@code BFS}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class VertexOrderBenchmark {
+
+    private static final int MAX_RESOURCE = 8;
+    private static final int QUERIES = 4;
+
+    @Param({"1000000"})
+    int nodes;
+
+    @Param({"NONE", "BFS", "REVERSE_CUTHILL_MCKEE", "DEGREE"})
+    String order;
+
+    private CsrGraph graph;
+    private CsrGraph bipartite;
+    private ReorderedGraph reordered;
+    private ReorderedGraph reorderedBipartite;
+    private int[] queryStarts;
+    private int[] queryTargets;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(BenchmarkGraphs.SEED);
+        int[] id = new int[nodes];
+        for (int i = 0; i < nodes; i++) {
+            id[i] = i;
+        }
+        for (int i = nodes - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = id[i];
+            id[i] = id[j];
+            id[j] = swap;
+        }
+        CsrGraph.Builder builder = CsrGraph.builder(nodes);
+        CsrGraph.Builder sides = CsrGraph.builder(nodes, nodes);
+        for (int i = 0; i < nodes; i++) {
+            for (int k = 0; k < 8; k++) {
+                int j = Math.floorMod(i + random.nextInt(-50, 51), nodes);
+                builder.addEdge(id[i], id[j], 1 + random.nextInt(100), 1 + random.nextInt(4));
+            }
+            for (int k = 0; k < 2; k++) {
+                sides.addEdge(id[i], id[Math.floorMod(i + random.nextInt(-50, 51), nodes)]);
+            }
+        }
+        graph = builder.build();
+        bipartite = sides.build();
+        if (!order.equals("NONE")) {
+            VertexOrder.Strategy strategy = VertexOrder.Strategy.valueOf(order);
+            reordered = ReorderedGraph.of(graph, strategy);
+            reorderedBipartite = ReorderedGraph.bipartite(bipartite, strategy);
+        }
+        // nearby pairs on the hidden ring, so every query has a path of a few hops
+        queryStarts = new int[QUERIES];
+        queryTargets = new int[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            int i = random.nextInt(nodes);
+            queryStarts[q] = id[i];
+            queryTargets[q] = id[Math.floorMod(i + random.nextInt(-200, 201), nodes)];
+        }
+    }
+
+    @Benchmark
+    public ReorderedGraph reorder() {
+        return ReorderedGraph.of(graph, VertexOrder.Strategy.valueOf(order.equals("NONE") ? "BFS" : order));
+    }
+
+    @Benchmark
+    public int[] stronglyConnectedComponents() {
+        return reordered == null ? StronglyConnectedComponents.of(graph).getComponentOf() : reordered.componentOf();
+    }
+
+    @Benchmark
+    public int[] maxMatching() {
+        if (reorderedBipartite == null) {
+            HopcroftKarp matching = new HopcroftKarp(nodes, nodes, bipartite);
+            matching.maxMatching();
+            return matching.getLeftMatches();
+        }
+        return reorderedBipartite.maxMatching();
+    }
+
+    /**
+     * Queries between vertices a few hops apart. Each one first bounds costs and resources by two
+     * reverse Dijkstra runs over the whole graph, which dominate its time.
+     */
+    @Benchmark
+    public long constrainedShortestPaths() {
+        long total = 0;
+        ConstrainedShortestPath solver = reordered == null ? new ConstrainedShortestPath(graph, MAX_RESOURCE) : null;
+        for (int q = 0; q < queryStarts.length; q++) {
+            ConstrainedShortestPath.Path path = solver != null
+                    ? solver.findPath(queryStarts[q], queryTargets[q])
+                    : reordered.shortestPath(queryStarts[q], queryTargets[q], MAX_RESOURCE);
+            total += path.cost();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,57 @@
+package method.graph;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generation throughput of {@link WorkloadGenerator} with {@code 2^25} edges, on one worker and
+ * on {@code parallelism} workers ({@code 0} meaning all cores). Time per edge stays flat with the
+ * size, so the billion-edge time is about 30 times the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class WorkloadGeneratorBenchmark {
+
+    private static final int EDGES = 1 << 25;
+
+    @Param({"1", "0"})
+    int parallelism;
+
+    private int workers() {
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+    }
+
+    @Benchmark
+    public CsrGraph rmat() {
+        return WorkloadGenerator.rmat(EDGES >> 4, EDGES, 16, 0.01, BenchmarkGraphs.SEED, workers());
+    }
+
+    @Benchmark
+    public CsrGraph bipartite() {
+        return WorkloadGenerator.bipartite(EDGES >> 3, EDGES >> 3, EDGES, 1, BenchmarkGraphs.SEED, workers());
+    }
+
+    @Benchmark
+    public CsrGraph layeredDag() {
+        return WorkloadGenerator.layeredDag(64, EDGES >> 9, 8, BenchmarkGraphs.SEED, workers());
+    }
+
+    /** {@code 2^25} distances, as many as the graphs have edges. */
+    @Benchmark
+    public int[][] clusteredMatrix() {
+        return WorkloadGenerator.clusteredCities(1 << 12, 64, 100_000, BenchmarkGraphs.SEED).toMatrix(workers());
+    }
+}
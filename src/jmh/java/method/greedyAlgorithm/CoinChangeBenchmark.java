@@ -0,0 +1,80 @@
+package method.greedyAlgorithm;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link algorithmDemo#coinChangeGreedy} prints every coin it picks; stdout is redirected to a
+ * discarding stream during the measurement so the terminal does not dominate the result.
+ * {@link CoinChange} answers the same amount by division, and {@code bulk*} answers
+ * {@value #BULK} random amounts per operation for a canonical and a non-canonical system.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoinChangeBenchmark {
+
+    @Param({"131", "100000"})
+    int amount;
+
+    static final int BULK = 1 << 16;
+
+    private final int[] coins = {1, 5, 10, 20, 50, 100};
+    private final algorithmDemo demo = new algorithmDemo();
+    private final CoinChange canonical = CoinChange.of(coins);
+    private final CoinChange nonCanonical = CoinChange.of(1, 7, 23, 61, 97);
+    private final int[] amounts = new Random(1).ints(BULK, 0, Integer.MAX_VALUE).toArray();
+    private final int[] counts = new int[BULK];
+    private PrintStream originalOut;
+
+    @Setup(Level.Trial)
+    public void silenceStdout() {
+        originalOut = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void restoreStdout() {
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public int coinChangeGreedy() {
+        return demo.coinChangeGreedy(coins, amount);
+    }
+
+    @Benchmark
+    public int coinChange() {
+        return canonical.minCoins(amount);
+    }
+
+    @Benchmark
+    public int[] bulkCanonical() {
+        canonical.minCoins(amounts, counts);
+        return counts;
+    }
+
+    @Benchmark
+    public int[] bulkNonCanonical() {
+        nonCanonical.minCoins(amounts, counts);
+        return counts;
+    }
+}
@@ -0,0 +1,175 @@
+package method.greedyAlgorithm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The primitive-array greedy algorithms against textbook versions built on objects, a
+ * {@code PriorityQueue<Object>} and boxed comparators, on {@code size} random items. Compare
+ * {@code gc.alloc.rate.norm} as well as the time: the boxed versions allocate per element.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class GreedyAlgorithmsBenchmark {
+
+    @Param({"10000", "1000000"})
+    int size;
+
+    private long[] start;
+    private long[] end;
+    private long[] frequencies;
+    private long[] values;
+    private long[] weights;
+    private long capacity;
+    private double[] fractions;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        start = new long[size];
+        end = new long[size];
+        for (int i = 0; i < size; i++) {
+            start[i] = random.nextInt(size * 10);
+            end[i] = start[i] + 1 + random.nextInt(200);
+        }
+        frequencies = random.longs(size, 1, 1_000_000).toArray();
+        values = random.longs(size, 0, 10_000).toArray();
+        weights = random.longs(size, 1, 1_000).toArray();
+        capacity = Arrays.stream(weights).sum() / 3;
+        fractions = new double[size];
+    }
+
+    @Benchmark
+    public int[] intervalRooms() {
+        return IntervalScheduling.assignRooms(start, end);
+    }
+
+    @Benchmark
+    public int[] intervalRoomsBoxed() {
+        record Booking(int index, long start, long end) {
+        }
+        record Room(int id, long freeAt) {
+        }
+        List<Booking> bookings = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            bookings.add(new Booking(i, start[i], end[i]));
+        }
+        bookings.sort(Comparator.comparingLong(Booking::start));
+        PriorityQueue<Object> rooms = new PriorityQueue<>(Comparator.comparingLong(room -> ((Room) room).freeAt()));
+        int[] assigned = new int[size];
+        int opened = 0;
+        for (Booking booking : bookings) {
+            Room room = (Room) rooms.peek();
+            int id;
+            if (room != null && room.freeAt() <= booking.start()) {
+                rooms.poll();
+                id = room.id();
+            } else {
+                id = opened++;
+            }
+            assigned[booking.index()] = id;
+            rooms.add(new Room(id, booking.end()));
+        }
+        return assigned;
+    }
+
+    @Benchmark
+    public int[] intervalSelection() {
+        return IntervalScheduling.maxNonOverlapping(start, end);
+    }
+
+    @Benchmark
+    public int[] huffman() {
+        return HuffmanCoding.codeLengths(frequencies);
+    }
+
+    @Benchmark
+    public int[] huffmanBoxed() {
+        final class Node {
+            final long weight;
+            final int symbol;
+            final Node left;
+            final Node right;
+
+            Node(long weight, int symbol, Node left, Node right) {
+                this.weight = weight;
+                this.symbol = symbol;
+                this.left = left;
+                this.right = right;
+            }
+        }
+        PriorityQueue<Object> queue = new PriorityQueue<>(Comparator.comparingLong(node -> ((Node) node).weight));
+        for (int s = 0; s < size; s++) {
+            queue.add(new Node(frequencies[s], s, null, null));
+        }
+        while (queue.size() > 1) {
+            Node a = (Node) queue.poll();
+            Node b = (Node) queue.poll();
+            queue.add(new Node(a.weight + b.weight, -1, a, b));
+        }
+        int[] lengths = new int[size];
+        List<Node> stack = new ArrayList<>();
+        List<Integer> depths = new ArrayList<>();
+        stack.add((Node) queue.poll());
+        depths.add(0);
+        while (!stack.isEmpty()) {
+            Node node = stack.remove(stack.size() - 1);
+            int depth = depths.remove(depths.size() - 1);
+            if (node.symbol >= 0) {
+                lengths[node.symbol] = depth;
+            } else {
+                stack.add(node.left);
+                depths.add(depth + 1);
+                stack.add(node.right);
+                depths.add(depth + 1);
+            }
+        }
+        return lengths;
+    }
+
+    @Benchmark
+    public double fractionalKnapsack() {
+        return FractionalKnapsack.solve(values, weights, capacity, fractions);
+    }
+
+    @Benchmark
+    public double fractionalKnapsackBoxed() {
+        Integer[] order = new Integer[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> (double) values[i] / weights[i]).reversed());
+        double total = 0;
+        long left = capacity;
+        for (Integer i : order) {
+            if (weights[i] <= left) {
+                total += values[i];
+                left -= weights[i];
+            } else {
+                total += values[i] * ((double) left / weights[i]);
+                break;
+            }
+        }
+        return total;
+    }
+}
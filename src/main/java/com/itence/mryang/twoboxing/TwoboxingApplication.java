@@ -0,0 +1,18 @@
+package com.itence.mryang.twoboxing;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+
+/**
+ * HTTP front end for the solvers in {@code method.graph}; see
+ * {@link com.itence.mryang.twoboxing.solver.SolverController}.
+ */
+@SpringBootApplication
+@ConfigurationPropertiesScan
+public class TwoboxingApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(TwoboxingApplication.class, args);
+    }
+}
@@ -0,0 +1,50 @@
+package com.itence.mryang.twoboxing.solver;
+
+/**
+ * Estimated cost of a request, in rough elementary operations, from its size alone. Only the
+ * growth rate matters: the estimates decide which jobs are rejected, queued or batched, so they
+ * must be cheap and monotone, not accurate. Results saturate at {@code Long.MAX_VALUE}.
+ */
+public final class CostModel {
+
+    /** Operations charged per millisecond of a time-bounded search. */
+    static final long OPERATIONS_PER_MILLI = 1_000_000;
+
+    private CostModel() {
+    }
+
+    /** Held-Karp: {@code 2^(n-1)} subsets containing the start city, {@code n²} work each. */
+    public static long heldKarp(int cities) {
+        if (cities <= 1) {
+            return 1;
+        }
+        return saturate(Math.pow(2, cities - 1) * cities * cities);
+    }
+
+    /**
+     * Branch and bound: exponential all the same, but the spanning-tree bound prunes most of the
+     * tree, so charge {@code n² · 2^(n/2)}.
+     */
+    public static long branchAndBound(int cities) {
+        return saturate(Math.pow(2, cities / 2.0) * cities * cities);
+    }
+
+    /** Local search: {@code n²} for the neighbour lists, then the time budget. */
+    public static long heuristic(int cities, long budgetMillis) {
+        return saturate((double) cities * cities + (double) budgetMillis * OPERATIONS_PER_MILLI);
+    }
+
+    /** Hopcroft-Karp: {@code (V + E) · √V}. */
+    public static long matching(int vertices, int edges) {
+        return saturate(((double) vertices + edges) * Math.sqrt(vertices) + 1);
+    }
+
+    /** Resource-constrained shortest path: at most {@code maxResource + 1} labels per node. */
+    public static long constrainedPath(int nodes, int edges, int maxResource) {
+        return saturate(((double) nodes + edges) * ((double) maxResource + 1));
+    }
+
+    private static long saturate(double cost) {
+        return cost >= Long.MAX_VALUE ? Long.MAX_VALUE : Math.max(1, (long) cost);
+    }
+}
@@ -0,0 +1,61 @@
+package com.itence.mryang.twoboxing.solver;
+
+/** Request and response bodies of {@link SolverController}. */
+public final class SolverApi {
+
+    private SolverApi() {
+    }
+
+    public enum TspAlgorithm {
+        /** Exact, up to 28 cities. */
+        HELD_KARP,
+        /** Exact, up to 64 cities; usually practical to about 40. */
+        BRANCH_AND_BOUND,
+        /** Local search within {@code timeLimitMillis}; no optimality guarantee. */
+        HEURISTIC
+    }
+
+    /**
+     * @param distances       square matrix, {@code distances[i][j]} from city i to city j; a
+     *                        negative entry marks a missing edge
+     * @param algorithm       defaults to {@link TspAlgorithm#HELD_KARP}
+     * @param timeLimitMillis budget of {@link TspAlgorithm#HEURISTIC}, 100 ms by default
+     */
+    public record TspRequest(int[][] distances, TspAlgorithm algorithm, Long timeLimitMillis) {
+    }
+
+    /**
+     * @param distance length of the round trip, or null if no tour exists
+     * @param order    cities in visiting order starting with city 0
+     */
+    public record TspResponse(Integer distance, int[] order) {
+    }
+
+    /**
+     * @param edges pairs {@code [left, right]}
+     */
+    public record MatchingRequest(int nLeft, int nRight, int[][] edges) {
+    }
+
+    /**
+     * @param size        number of matched pairs
+     * @param leftMatches for each left vertex its right partner, or -1
+     */
+    public record MatchingResponse(int size, int[] leftMatches) {
+    }
+
+    /**
+     * @param edges       quadruples {@code [from, to, cost, resource]} with non-negative cost and resource
+     * @param maxResource largest total resource the path may consume
+     */
+    public record PathRequest(int nodes, int[][] edges, int start, int target, int maxResource) {
+    }
+
+    /**
+     * @param cost     total cost, or null if no path fits the resource limit
+     * @param resource total resource, or null
+     * @param nodes    nodes from start to target
+     */
+    public record PathResponse(Integer cost, Integer resource, int[] nodes) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.itence.mryang.twoboxing.solver;
+
+import com.itence.mryang.twoboxing.solver.SolverApi.MatchingRequest;
+import com.itence.mryang.twoboxing.solver.SolverApi.MatchingResponse;
+import com.itence.mryang.twoboxing.solver.SolverApi.PathRequest;
+import com.itence.mryang.twoboxing.solver.SolverApi.PathResponse;
+import com.itence.mryang.twoboxing.solver.SolverApi.TspRequest;
+import com.itence.mryang.twoboxing.solver.SolverApi.TspResponse;
+import com.itence.mryang.twoboxing.solver.cache.ResultCache;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * JSON endpoints of the solvers. Handlers return futures, so the servlet thread is released while
+ * the job waits in the {@link SolverExecutor}; errors are mapped by {@link SolverExceptionHandler}.
+ */
+@RestController
+@RequestMapping("/api")
+public class SolverController {
+
+    private final SolverService service;
+    private final SolverMetricsCollector metrics;
+
+    public SolverController(SolverService service, SolverMetricsCollector metrics) {
+        this.service = service;
+        this.metrics = metrics;
+    }
+
+    @PostMapping("/tsp")
+    public CompletableFuture<TspResponse> tsp(@RequestBody TspRequest request) {
+        return service.tsp(request);
+    }
+
+    @PostMapping("/matching")
+    public CompletableFuture<MatchingResponse> matching(@RequestBody MatchingRequest request) {
+        return service.matching(request);
+    }
+
+    @PostMapping("/constrained-shortest-path")
+    public CompletableFuture<PathResponse> constrainedShortestPath(@RequestBody PathRequest request) {
+        return service.constrainedShortestPath(request);
+    }
+
+    @GetMapping("/stats")
+    public SolverExecutor.Stats stats() {
+        return service.stats();
+    }
+
+    @GetMapping("/cache")
+    public ResultCache.Stats cache() {
+        return service.cacheStats();
+    }
+
+    /** Per-solver instrumentation totals; empty unless instrumentation is enabled. */
+    @GetMapping("/metrics")
+    public Map<String, SolverMetricsCollector.Totals> metrics() {
+        return metrics.snapshot();
+    }
+}
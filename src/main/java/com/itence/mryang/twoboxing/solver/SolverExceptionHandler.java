@@ -0,0 +1,41 @@
+package com.itence.mryang.twoboxing.solver;
+
+import java.util.concurrent.CompletionException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+/**
+ * Maps solver failures to problem details: bad input to 400, jobs over the cost limit to 413 and
+ * an overloaded executor to 503.
+ */
+@RestControllerAdvice(assignableTypes = SolverController.class)
+public class SolverExceptionHandler {
+
+    @ExceptionHandler(SolverRejectedException.class)
+    public ProblemDetail rejected(SolverRejectedException e) {
+        HttpStatus status = e.getReason() == SolverRejectedException.Reason.TOO_EXPENSIVE
+                ? HttpStatus.PAYLOAD_TOO_LARGE
+                : HttpStatus.SERVICE_UNAVAILABLE;
+        return ProblemDetail.forStatusAndDetail(status, e.getMessage());
+    }
+
+    @ExceptionHandler({IllegalArgumentException.class, IndexOutOfBoundsException.class})
+    public ProblemDetail invalid(RuntimeException e) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, e.getMessage());
+    }
+
+    /** Futures completed by another future's copy wrap the original exception. */
+    @ExceptionHandler(CompletionException.class)
+    public ProblemDetail completion(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof SolverRejectedException rejected) {
+            return rejected(rejected);
+        }
+        if (cause instanceof IllegalArgumentException || cause instanceof IndexOutOfBoundsException) {
+            return invalid((RuntimeException) cause);
+        }
+        return ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, String.valueOf(cause));
+    }
+}
@@ -0,0 +1,258 @@
+package com.itence.mryang.twoboxing.solver;
+
+import jakarta.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs solver jobs on a fixed pool of worker threads, so a burst of requests never occupies more
+ * than {@link SolverProperties#threads()} cores; request threads only wait on the returned futures.
+ * <ul>
+ *     <li><b>Coalescing</b>: a job whose key equals that of a job still in flight is not run again;
+ *     its caller receives the result of the running one.</li>
+ *     <li><b>Admission</b>: each job carries a cost from {@link CostModel}. Jobs above
+ *     {@code maxCost} are rejected; the others start while the cost in flight stays within
+ *     {@code capacity} and otherwise wait in FIFO order, up to {@code maxQueued} of them.</li>
+ *     <li><b>Batching</b>: jobs costing at most {@code smallCost} skip admission. A batcher thread
+ *     hands them to the workers up to {@code batchSize} at a time, and keeps at most one batch per
+ *     worker outstanding, so batches grow with the load and tiny requests cost one dispatch per
+ *     batch instead of one each.</li>
+ * </ul>
+ * A refused job completes with a {@link SolverRejectedException}.
+ */
+@Component
+public class SolverExecutor implements AutoCloseable {
+
+    /** Counters since startup, plus the current load. */
+    public record Stats(long submitted,
+                        long coalesced,
+                        long rejected,
+                        long completed,
+                        long batches,
+                        long batchedJobs,
+                        long runningCost,
+                        int waiting) {
+    }
+
+    private final SolverProperties properties;
+    private final ThreadPoolExecutor workers;
+    private final Thread batcher;
+    private final BlockingQueue<Job<?>> small;
+    private final Semaphore batchSlots;
+    private final ConcurrentHashMap<Object, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    /** Large jobs waiting for capacity; guarded by {@code this}. */
+    private final ArrayDeque<Job<?>> waiting = new ArrayDeque<>();
+    /** Cost of the large jobs handed to the workers; guarded by {@code this}. */
+    private long runningCost;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedJobs = new LongAdder();
+
+    public SolverExecutor(SolverProperties properties) {
+        this.properties = properties;
+        AtomicInteger workerCount = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(properties.threads(), properties.threads(), 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> daemon(runnable, "solver-worker-" + workerCount.incrementAndGet()));
+        this.small = new ArrayBlockingQueue<>(Math.max(1, properties.maxQueued()));
+        this.batchSlots = new Semaphore(properties.threads());
+        this.batcher = daemon(this::batchLoop, "solver-batcher");
+        this.batcher.start();
+    }
+
+    /**
+     * Runs {@code work} unless an equal {@code key} is already in flight.
+     *
+     * @param key  identifies the instance; equal keys must describe jobs with equal results
+     * @param cost estimate from {@link CostModel}
+     * @return a future of the result, which the caller may cancel without affecting other callers
+     */
+    public <R> CompletableFuture<R> submit(Object key, long cost, Supplier<? extends R> work) {
+        Objects.requireNonNull(key);
+        Objects.requireNonNull(work);
+        submitted.increment();
+        if (cost > properties.maxCost()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new SolverRejectedException(SolverRejectedException.Reason.TOO_EXPENSIVE,
+                    "estimated cost " + cost + " exceeds the limit of " + properties.maxCost()));
+        }
+        CompletableFuture<R> result = new CompletableFuture<>();
+        CompletableFuture<?> running = inFlight.putIfAbsent(key, result);
+        if (running != null) {
+            coalesced.increment();
+            @SuppressWarnings("unchecked")
+            CompletableFuture<R> shared = (CompletableFuture<R>) running.copy();
+            return shared;
+        }
+        Job<R> job = new Job<>(key, work, result, cost);
+        if (!admit(job)) {
+            rejected.increment();
+            job.reject("solver queue is full");
+        }
+        return result.copy();
+    }
+
+    /** Current counters. */
+    public Stats stats() {
+        long cost;
+        int queued;
+        synchronized (this) {
+            cost = runningCost;
+            queued = waiting.size();
+        }
+        return new Stats(submitted.sum(), coalesced.sum(), rejected.sum(), completed.sum(),
+                batches.sum(), batchedJobs.sum(), cost, queued + small.size());
+    }
+
+    /** Stops the workers; jobs that have not started complete with a {@link SolverRejectedException}. */
+    @PreDestroy
+    @Override
+    public void close() {
+        workers.shutdown();
+        batcher.interrupt();
+        List<Job<?>> pending = new ArrayList<>();
+        synchronized (this) {
+            pending.addAll(waiting);
+            waiting.clear();
+        }
+        small.drainTo(pending);
+        pending.forEach(job -> job.reject("solver is shutting down"));
+    }
+
+    private boolean admit(Job<?> job) {
+        if (job.cost <= properties.smallCost()) {
+            return small.offer(job);
+        }
+        synchronized (this) {
+            if (waiting.isEmpty() && (runningCost == 0 || runningCost + job.cost <= properties.capacity())) {
+                runningCost += job.cost;
+            } else if (waiting.size() < properties.maxQueued()) {
+                waiting.add(job);
+                return true;
+            } else {
+                return false;
+            }
+        }
+        start(job);
+        return true;
+    }
+
+    private void start(Job<?> job) {
+        try {
+            workers.execute(() -> {
+                try {
+                    job.run();
+                } finally {
+                    finish(job.cost);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            job.reject("solver is shutting down");
+            finish(job.cost);
+        }
+    }
+
+    /** Releases the capacity held by a large job and starts the waiting jobs that now fit. */
+    private void finish(long cost) {
+        List<Job<?>> ready = new ArrayList<>();
+        synchronized (this) {
+            runningCost -= cost;
+            while (!waiting.isEmpty()
+                    && (runningCost == 0 || runningCost + waiting.peek().cost <= properties.capacity())) {
+                Job<?> next = waiting.poll();
+                runningCost += next.cost;
+                ready.add(next);
+            }
+        }
+        ready.forEach(this::start);
+    }
+
+    private void batchLoop() {
+        List<Job<?>> batch = new ArrayList<>(properties.batchSize());
+        try {
+            while (true) {
+                batchSlots.acquire();
+                batch.add(small.take());
+                small.drainTo(batch, properties.batchSize() - 1);
+                List<Job<?>> jobs = List.copyOf(batch);
+                batch.clear();
+                batches.increment();
+                batchedJobs.add(jobs.size());
+                try {
+                    workers.execute(() -> {
+                        try {
+                            jobs.forEach(Job::run);
+                        } finally {
+                            batchSlots.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    jobs.forEach(job -> job.reject("solver is shutting down"));
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            // close() drains the remaining small jobs
+        }
+    }
+
+    private final class Job<R> {
+
+        final Object key;
+        final Supplier<? extends R> work;
+        final CompletableFuture<R> result;
+        final long cost;
+
+        Job(Object key, Supplier<? extends R> work, CompletableFuture<R> result, long cost) {
+            this.key = key;
+            this.work = work;
+            this.result = result;
+            this.cost = cost;
+        }
+
+        void run() {
+            R value;
+            try {
+                value = work.get();
+            } catch (Throwable e) {
+                inFlight.remove(key, result);
+                result.completeExceptionally(e);
+                return;
+            } finally {
+                completed.increment();
+            }
+            // leave the in-flight map first, so a caller that has seen the result never joins this job
+            inFlight.remove(key, result);
+            result.complete(value);
+        }
+
+        void reject(String message) {
+            inFlight.remove(key, result);
+            result.completeExceptionally(new SolverRejectedException(SolverRejectedException.Reason.OVERLOADED, message));
+        }
+    }
+
+    private static Thread daemon(Runnable runnable, String name) {
+        Thread thread = new Thread(runnable, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+}
@@ -0,0 +1,76 @@
+package com.itence.mryang.twoboxing.solver;
+
+import jakarta.annotation.PreDestroy;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import method.graph.SolverCounter;
+import method.graph.SolverInstrumentation;
+import method.graph.SolverMeasurement;
+import method.graph.SolverMetrics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Running totals of the {@link SolverMeasurement}s reported by {@code method.graph}, per solver.
+ * Stays empty unless the JVM runs with {@code -Dmethod.graph.instrumentation=true}.
+ */
+@Component
+public class SolverMetricsCollector implements SolverMetrics {
+
+    /**
+     * Totals of one solver.
+     *
+     * @param counters sum of every non-zero counter over all runs
+     */
+    public record Totals(long runs, long wallNanos, long allocatedBytes, Map<SolverCounter, Long> counters) {
+    }
+
+    private static final SolverCounter[] COUNTERS = SolverCounter.values();
+
+    private final ConcurrentHashMap<String, LongAdder[]> totals = new ConcurrentHashMap<>();
+
+    public SolverMetricsCollector() {
+        SolverInstrumentation.addListener(this);
+    }
+
+    @Override
+    public void record(SolverMeasurement measurement) {
+        // runs, wall time, allocated bytes, then one adder per counter
+        LongAdder[] adders = totals.computeIfAbsent(measurement.solver(), solver -> {
+            LongAdder[] fresh = new LongAdder[3 + COUNTERS.length];
+            for (int i = 0; i < fresh.length; i++) {
+                fresh[i] = new LongAdder();
+            }
+            return fresh;
+        });
+        adders[0].increment();
+        adders[1].add(measurement.wallNanos());
+        adders[2].add(Math.max(0, measurement.allocatedBytes()));
+        for (SolverCounter counter : COUNTERS) {
+            adders[3 + counter.ordinal()].add(measurement.get(counter));
+        }
+    }
+
+    /** Totals so far, by solver name. */
+    public Map<String, Totals> snapshot() {
+        Map<String, Totals> snapshot = new TreeMap<>();
+        totals.forEach((solver, adders) -> {
+            Map<SolverCounter, Long> counters = new EnumMap<>(SolverCounter.class);
+            for (SolverCounter counter : COUNTERS) {
+                long value = adders[3 + counter.ordinal()].sum();
+                if (value != 0) {
+                    counters.put(counter, value);
+                }
+            }
+            snapshot.put(solver, new Totals(adders[0].sum(), adders[1].sum(), adders[2].sum(), counters));
+        });
+        return snapshot;
+    }
+
+    @PreDestroy
+    public void close() {
+        SolverInstrumentation.removeListener(this);
+    }
+}
@@ -0,0 +1,33 @@
+package com.itence.mryang.twoboxing.solver;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the {@link SolverExecutor}, bound from {@code solver.*}. Costs are in the units of
+ * {@link CostModel}, roughly elementary operations.
+ *
+ * @param threads   worker threads; 0 means one per core
+ * @param maxCost   jobs estimated above this are rejected outright
+ * @param capacity  total estimated cost allowed to run at once; later jobs wait
+ * @param maxQueued jobs allowed to wait for capacity, and small jobs allowed to wait for a batch
+ * @param batchSize most small jobs handed to a worker at once
+ * @param smallCost jobs estimated at or below this are batched instead of admitted one by one
+ */
+@ConfigurationProperties("solver")
+public record SolverProperties(@DefaultValue("0") int threads,
+                               @DefaultValue("10000000000") long maxCost,
+                               @DefaultValue("20000000000") long capacity,
+                               @DefaultValue("1000") int maxQueued,
+                               @DefaultValue("64") int batchSize,
+                               @DefaultValue("100000") long smallCost) {
+
+    public SolverProperties {
+        if (threads < 0 || maxCost < 1 || capacity < 1 || maxQueued < 0 || batchSize < 1 || smallCost < 0) {
+            throw new IllegalArgumentException("invalid solver properties");
+        }
+        if (threads == 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+    }
+}
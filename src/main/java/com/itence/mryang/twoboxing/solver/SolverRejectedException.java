@@ -0,0 +1,23 @@
+package com.itence.mryang.twoboxing.solver;
+
+/** Thrown, through the returned future, when the {@link SolverExecutor} refuses a job. */
+public class SolverRejectedException extends RuntimeException {
+
+    public enum Reason {
+        /** The estimated cost exceeds {@link SolverProperties#maxCost()}. */
+        TOO_EXPENSIVE,
+        /** The queues are full or the executor is shutting down; the job may be retried later. */
+        OVERLOADED
+    }
+
+    private final Reason reason;
+
+    public SolverRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
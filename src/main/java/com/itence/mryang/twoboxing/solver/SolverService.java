@@ -0,0 +1,147 @@
+package com.itence.mryang.twoboxing.solver;
+
+import com.itence.mryang.twoboxing.solver.SolverApi.MatchingRequest;
+import com.itence.mryang.twoboxing.solver.SolverApi.MatchingResponse;
+import com.itence.mryang.twoboxing.solver.SolverApi.PathRequest;
+import com.itence.mryang.twoboxing.solver.SolverApi.PathResponse;
+import com.itence.mryang.twoboxing.solver.SolverApi.TspAlgorithm;
+import com.itence.mryang.twoboxing.solver.SolverApi.TspRequest;
+import com.itence.mryang.twoboxing.solver.SolverApi.TspResponse;
+import com.itence.mryang.twoboxing.solver.cache.InstanceHash;
+import com.itence.mryang.twoboxing.solver.cache.ResultCache;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import method.graph.ConstrainedShortestPath;
+import method.graph.CsrGraph;
+import method.graph.HopcroftKarp;
+import method.graph.TravelingSalesman;
+import org.springframework.stereotype.Service;
+
+/**
+ * Validates requests, converts them to the solvers' input, and submits them to the
+ * {@link SolverExecutor} with a {@link CostModel} estimate, unless the {@link ResultCache} already
+ * knows the answer. Malformed input fails fast with an {@link IllegalArgumentException}, before
+ * anything is queued. Every solver runs single-threaded: the executor's workers already spread
+ * concurrent requests over the cores.
+ */
+@Service
+public class SolverService {
+
+    static final long DEFAULT_TIME_LIMIT_MILLIS = 100;
+
+    private final SolverExecutor executor;
+    private final ResultCache cache;
+
+    public SolverService(SolverExecutor executor, ResultCache cache) {
+        this.executor = executor;
+        this.cache = cache;
+    }
+
+    public CompletableFuture<TspResponse> tsp(TspRequest request) {
+        require(request != null && request.distances() != null, "distances are required");
+        int[][] distances = request.distances();
+        int n = distances.length;
+        int[][] matrix = new int[n][];
+        for (int i = 0; i < n; i++) {
+            require(distances[i] != null && distances[i].length == n, "distances must be a square matrix");
+            matrix[i] = distances[i].clone();
+            for (int j = 0; j < n; j++) {
+                if (matrix[i][j] < 0) {
+                    matrix[i][j] = Integer.MAX_VALUE;
+                }
+            }
+        }
+        TspAlgorithm algorithm = request.algorithm() == null ? TspAlgorithm.HELD_KARP : request.algorithm();
+        long timeLimit = request.timeLimitMillis() == null ? DEFAULT_TIME_LIMIT_MILLIS : request.timeLimitMillis();
+        require(timeLimit >= 0, "timeLimitMillis must be non-negative");
+        InstanceHash key = InstanceHash.tsp(algorithm.name(), matrix, algorithm == TspAlgorithm.HEURISTIC ? timeLimit : 0);
+        return cache.get(key, "tsp", TspResponse.class, () -> switch (algorithm) {
+            case HELD_KARP -> executor.submit(key, CostModel.heldKarp(n),
+                    () -> tour(TravelingSalesman.heldKarp(matrix, 1)));
+            case BRANCH_AND_BOUND -> executor.submit(key, CostModel.branchAndBound(n),
+                    () -> tour(TravelingSalesman.branchAndBound(matrix, 1)));
+            case HEURISTIC -> executor.submit(key, CostModel.heuristic(n, timeLimit),
+                    () -> tour(TravelingSalesman.heuristic(n, (from, to) -> matrix[from][to],
+                            TravelingSalesman.InitialTour.GREEDY_EDGE, Duration.ofMillis(timeLimit), 1)));
+        });
+    }
+
+    public CompletableFuture<MatchingResponse> matching(MatchingRequest request) {
+        require(request != null && request.edges() != null, "edges are required");
+        require(request.nLeft() >= 0 && request.nRight() >= 0, "vertex counts must be non-negative");
+        CsrGraph.Builder builder = CsrGraph.builder(request.nLeft(), request.nRight());
+        for (int[] edge : request.edges()) {
+            require(edge != null && edge.length == 2, "an edge is a pair [left, right]");
+            require(edge[0] >= 0 && edge[0] < request.nLeft() && edge[1] >= 0 && edge[1] < request.nRight(),
+                    "edge out of range");
+            builder.addEdge(edge[0], edge[1]);
+        }
+        CsrGraph graph = builder.build();
+        InstanceHash key = InstanceHash.matching(request.nLeft(), request.nRight(), request.edges());
+        long cost = CostModel.matching(request.nLeft() + request.nRight(), graph.getNumEdges());
+        return cache.get(key, "matching", MatchingResponse.class, () -> executor.submit(key, cost, () -> {
+            HopcroftKarp matching = new HopcroftKarp(request.nLeft(), request.nRight(), graph);
+            int size = matching.maxMatching();
+            return new MatchingResponse(size, matching.getLeftMatches());
+        }));
+    }
+
+    public CompletableFuture<PathResponse> constrainedShortestPath(PathRequest request) {
+        require(request != null && request.edges() != null, "edges are required");
+        int n = request.nodes();
+        require(n > 0, "nodes must be positive");
+        require(request.start() >= 0 && request.start() < n && request.target() >= 0 && request.target() < n,
+                "start and target must be nodes");
+        require(request.maxResource() >= 0, "maxResource must be non-negative");
+        int[] offsets = new int[n + 1];
+        for (int[] edge : request.edges()) {
+            require(edge != null && edge.length == 4, "an edge is [from, to, cost, resource]");
+            require(edge[0] >= 0 && edge[0] < n && edge[1] >= 0 && edge[1] < n, "edge out of range");
+            require(edge[2] >= 0 && edge[3] >= 0, "costs and resources must be non-negative");
+            offsets[edge[0] + 1]++;
+        }
+        for (int u = 0; u < n; u++) {
+            offsets[u + 1] += offsets[u];
+        }
+        int m = request.edges().length;
+        int[] cursor = offsets.clone();
+        int[] targets = new int[m];
+        int[] costs = new int[m];
+        int[] resources = new int[m];
+        for (int[] edge : request.edges()) {
+            int e = cursor[edge[0]]++;
+            targets[e] = edge[1];
+            costs[e] = edge[2];
+            resources[e] = edge[3];
+        }
+        CsrGraph graph = CsrGraph.wrap(offsets, targets, costs, resources);
+        InstanceHash key = InstanceHash.constrainedPath(n, request.edges(), request.start(), request.target(),
+                request.maxResource());
+        long cost = CostModel.constrainedPath(n, m, request.maxResource());
+        return cache.get(key, "constrained-path", PathResponse.class, () -> executor.submit(key, cost, () -> {
+            ConstrainedShortestPath.Path path = new ConstrainedShortestPath(graph, request.maxResource())
+                    .findPath(request.start(), request.target());
+            return path.exists()
+                    ? new PathResponse(path.cost(), path.resource(), path.nodes())
+                    : new PathResponse(null, null, new int[0]);
+        }));
+    }
+
+    public SolverExecutor.Stats stats() {
+        return executor.stats();
+    }
+
+    public ResultCache.Stats cacheStats() {
+        return cache.stats();
+    }
+
+    private static TspResponse tour(TravelingSalesman.Tour tour) {
+        return tour.exists() ? new TspResponse(tour.distance(), tour.order()) : new TspResponse(null, new int[0]);
+    }
+
+    private static void require(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+}
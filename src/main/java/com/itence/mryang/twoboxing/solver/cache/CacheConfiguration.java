@@ -0,0 +1,18 @@
+package com.itence.mryang.twoboxing.solver.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class CacheConfiguration {
+
+    /** Memory-only unless {@code solver.cache.jdbc-url} is set. */
+    @Bean
+    public ResultCache resultCache(CacheProperties properties, ObjectMapper mapper) {
+        JdbcResultStore store = properties.jdbcUrl().isBlank() ? null
+                : JdbcResultStore.forUrl(properties.jdbcUrl(), properties.username(), properties.password(),
+                        properties.table(), properties.connectTimeout());
+        return new ResultCache(properties.maxEntries(), store, mapper, properties.lookupTimeout());
+    }
+}
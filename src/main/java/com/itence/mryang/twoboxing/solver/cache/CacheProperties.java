@@ -0,0 +1,25 @@
+package com.itence.mryang.twoboxing.solver.cache;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Settings of the {@link ResultCache}, bound from {@code solver.cache.*}.
+ *
+ * @param maxEntries results kept in memory
+ * @param jdbcUrl    database of the persistent tier, e.g. {@code jdbc:mysql://localhost:3306/solver};
+ *                   empty for memory only
+ * @param table      table holding the results, created if missing
+ * @param lookupTimeout  longest wait for the database before a miss is computed
+ * @param connectTimeout bound on opening a connection and on every database round trip
+ */
+@ConfigurationProperties("solver.cache")
+public record CacheProperties(@DefaultValue("10000") int maxEntries,
+                              @DefaultValue("") String jdbcUrl,
+                              @DefaultValue("") String username,
+                              @DefaultValue("") String password,
+                              @DefaultValue("solver_result") String table,
+                              @DefaultValue("100ms") Duration lookupTimeout,
+                              @DefaultValue("2s") Duration connectTimeout) {
+}
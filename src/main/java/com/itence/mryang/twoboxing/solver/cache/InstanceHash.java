@@ -0,0 +1,137 @@
+package com.itence.mryang.twoboxing.solver.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 of the canonical content of a solver instance: the kind of problem, every input that
+ * influences the answer, and nothing that does not. Edge lists are sorted first, since their order
+ * cannot change which results are correct, so the same graph sent in a different order hits the
+ * same cache entry. Missing TSP edges are normalised to one representation.
+ */
+public final class InstanceHash {
+
+    private final byte[] digest;
+    private final int hash;
+
+    private InstanceHash(byte[] digest) {
+        this.digest = digest;
+        this.hash = Arrays.hashCode(digest);
+    }
+
+    /**
+     * @param distances square matrix, a negative entry or {@code Integer.MAX_VALUE} being a missing edge
+     * @param budget    time budget of a heuristic, 0 for exact algorithms
+     */
+    public static InstanceHash tsp(String algorithm, int[][] distances, long budget) {
+        Encoder encoder = new Encoder("tsp").string(algorithm).putLong(budget).putInt(distances.length);
+        for (int[] row : distances) {
+            for (int d : row) {
+                encoder.putInt(d < 0 ? Integer.MAX_VALUE : d);
+            }
+        }
+        return encoder.finish();
+    }
+
+    /** @param edges pairs {@code [left, right]}; duplicates are dropped */
+    public static InstanceHash matching(int nLeft, int nRight, int[][] edges) {
+        long[] sorted = new long[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            sorted[i] = (long) edges[i][0] << 32 | (edges[i][1] & 0xFFFF_FFFFL);
+        }
+        Arrays.sort(sorted);
+        Encoder encoder = new Encoder("matching").putInt(nLeft).putInt(nRight);
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || sorted[i] != sorted[i - 1]) {
+                encoder.putLong(sorted[i]);
+            }
+        }
+        return encoder.finish();
+    }
+
+    /** @param edges quadruples {@code [from, to, cost, resource]}; parallel edges are kept */
+    public static InstanceHash constrainedPath(int nodes, int[][] edges, int start, int target, int maxResource) {
+        int[][] sorted = edges.clone();
+        Arrays.sort(sorted, Arrays::compare);
+        Encoder encoder = new Encoder("constrained-path")
+                .putInt(nodes).putInt(start).putInt(target).putInt(maxResource).putInt(sorted.length);
+        for (int[] edge : sorted) {
+            encoder.putInt(edge[0]).putInt(edge[1]).putInt(edge[2]).putInt(edge[3]);
+        }
+        return encoder.finish();
+    }
+
+    /** 64 lowercase hex digits. */
+    public String hex() {
+        return HexFormat.of().formatHex(digest);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof InstanceHash other && hash == other.hash && Arrays.equals(digest, other.digest);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return hex();
+    }
+
+    /** Feeds primitives to the digest through a small buffer. */
+    private static final class Encoder {
+
+        private final MessageDigest digest;
+        private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+
+        Encoder(String kind) {
+            try {
+                digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException(e); // every JVM provides SHA-256
+            }
+            string(kind);
+        }
+
+        Encoder string(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            flush();
+            digest.update(bytes);
+            return this;
+        }
+
+        Encoder putInt(int value) {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+            return this;
+        }
+
+        Encoder putLong(long value) {
+            if (buffer.remaining() < Long.BYTES) {
+                flush();
+            }
+            buffer.putLong(value);
+            return this;
+        }
+
+        InstanceHash finish() {
+            flush();
+            return new InstanceHash(digest.digest());
+        }
+
+        private void flush() {
+            digest.update(buffer.array(), 0, buffer.position());
+            buffer.clear();
+        }
+    }
+}
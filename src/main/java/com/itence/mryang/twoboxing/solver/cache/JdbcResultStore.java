@@ -0,0 +1,176 @@
+package com.itence.mryang.twoboxing.solver.cache;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Properties;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Solved instances in a database table, keyed by {@link InstanceHash#hex()}, so results survive
+ * restarts and are shared by every instance of the service pointing at the same database. The
+ * statements are plain SQL that MySQL and most other databases accept.
+ * <p>
+ * Not thread-safe: {@link ResultCache} calls it from a single background thread. It keeps one
+ * connection open and reopens it after an error. After a failed operation the database is left
+ * alone for a backoff period, doubling with every further failure up to {@link #MAX_BACKOFF};
+ * operations in that period fail at once with a {@link SQLTransientConnectionException}, so an
+ * unreachable database costs one connection attempt per period rather than one per request.
+ * </p>
+ */
+public class JdbcResultStore implements AutoCloseable {
+
+    /** Opens a connection; {@link DriverManager} by default. */
+    @FunctionalInterface
+    public interface ConnectionSource {
+        Connection open() throws SQLException;
+    }
+
+    static final Duration DEFAULT_BACKOFF = Duration.ofSeconds(1);
+    static final Duration MAX_BACKOFF = Duration.ofSeconds(30);
+    static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(2);
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]{0,63}");
+
+    private final ConnectionSource source;
+    private final LongSupplier clock;
+    private final String createSql;
+    private final String selectSql;
+    private final String insertSql;
+    private final long initialBackoffNanos;
+    private Connection connection;
+    private long backoffNanos;
+    /** {@link #clock} time before which operations fail fast; only valid while {@code failing}. */
+    private long retryAt;
+    private boolean failing;
+
+    /**
+     * @param table name of the table, created by {@link #createTable()} if missing
+     */
+    public JdbcResultStore(ConnectionSource source, String table) {
+        this(source, table, DEFAULT_BACKOFF, System::nanoTime);
+    }
+
+    /**
+     * @param backoff wait after the first failure; doubled after each further one
+     * @param clock   nanosecond time source for the backoff, {@link System#nanoTime()} outside tests
+     */
+    JdbcResultStore(ConnectionSource source, String table, Duration backoff, LongSupplier clock) {
+        if (!IDENTIFIER.matcher(table).matches()) {
+            throw new IllegalArgumentException("invalid table name: " + table);
+        }
+        this.source = source;
+        this.clock = clock;
+        this.createSql = "CREATE TABLE IF NOT EXISTS " + table + " ("
+                + "hash CHAR(64) NOT NULL PRIMARY KEY, "
+                + "kind VARCHAR(32) NOT NULL, "
+                + "payload MEDIUMTEXT NOT NULL, "
+                + "created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)";
+        this.selectSql = "SELECT payload FROM " + table + " WHERE hash = ?";
+        this.insertSql = "INSERT INTO " + table + " (hash, kind, payload) VALUES (?, ?, ?)";
+        this.initialBackoffNanos = backoff.toNanos();
+        this.backoffNanos = initialBackoffNanos;
+    }
+
+    /** Store on {@code url}, e.g. {@code jdbc:mysql://localhost:3306/solver}, with the default timeout. */
+    public static JdbcResultStore forUrl(String url, String username, String password, String table) {
+        return forUrl(url, username, password, table, DEFAULT_CONNECT_TIMEOUT);
+    }
+
+    /**
+     * Store on {@code url}. {@code timeout} bounds opening a connection and every network read
+     * through the MySQL driver properties {@code connectTimeout} and {@code socketTimeout}, so a
+     * hung server cannot hold the background thread; other drivers ignore them.
+     */
+    public static JdbcResultStore forUrl(String url, String username, String password, String table, Duration timeout) {
+        Properties properties = new Properties();
+        properties.setProperty("user", username);
+        properties.setProperty("password", password);
+        properties.setProperty("connectTimeout", Long.toString(timeout.toMillis()));
+        properties.setProperty("socketTimeout", Long.toString(timeout.toMillis()));
+        return new JdbcResultStore(() -> DriverManager.getConnection(url, properties), table);
+    }
+
+    public void createTable() throws SQLException {
+        run(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate(createSql);
+            }
+            return null;
+        });
+    }
+
+    /** The stored payload of {@code key}, or null. */
+    public String load(InstanceHash key) throws SQLException {
+        return run(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(selectSql)) {
+                statement.setString(1, key.hex());
+                try (ResultSet rows = statement.executeQuery()) {
+                    return rows.next() ? rows.getString(1) : null;
+                }
+            }
+        });
+    }
+
+    /** Stores {@code payload} unless {@code key} is already present. */
+    public void save(InstanceHash key, String kind, String payload) throws SQLException {
+        run(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(insertSql)) {
+                statement.setString(1, key.hex());
+                statement.setString(2, kind);
+                statement.setString(3, payload);
+                statement.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // another request or service instance stored the same instance first
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void close() {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                // nothing left to release
+            }
+            connection = null;
+        }
+    }
+
+    private <T> T run(SqlFunction<T> action) throws SQLException {
+        long wait = failing ? retryAt - clock.getAsLong() : 0;
+        if (wait > 0) {
+            throw new SQLTransientConnectionException(
+                    "result store unavailable, next attempt in " + (wait + 999_999) / 1_000_000 + " ms");
+        }
+        try {
+            if (connection == null || connection.isClosed()) {
+                connection = source.open();
+            }
+            T result = action.apply(connection);
+            failing = false;
+            backoffNanos = initialBackoffNanos;
+            return result;
+        } catch (SQLException e) {
+            close();
+            failing = true;
+            retryAt = clock.getAsLong() + backoffNanos;
+            backoffNanos = Math.min(2 * backoffNanos, MAX_BACKOFF.toNanos());
+            throw e;
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlFunction<T> {
+        T apply(Connection connection) throws SQLException;
+    }
+}
@@ -0,0 +1,250 @@
+package com.itence.mryang.twoboxing.solver.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Memoises solver results in two tiers: a bounded in-memory LRU, answered on the calling thread,
+ * and an optional {@link JdbcResultStore} that survives restarts. A miss in both computes the
+ * result; it enters the LRU at once and is written to the store in the background, as JSON.
+ * <p>
+ * All database work runs on one background thread with a bounded queue, so a slow or unreachable
+ * database never blocks the caller's thread. A lookup that has not answered within the lookup
+ * timeout counts as a miss and the result is computed; if it is still queued by then, it is
+ * skipped. Failed lookups count as misses; writes that fail or do not fit in the queue are
+ * dropped.
+ * </p>
+ */
+public class ResultCache implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultCache.class);
+
+    /** Pending database operations before new ones are skipped. */
+    static final int MAX_PENDING = 10_000;
+
+    static final Duration DEFAULT_LOOKUP_TIMEOUT = Duration.ofMillis(100);
+
+    /** Counters since startup; {@code misses} include the {@code lookupTimeouts}. */
+    public record Stats(long memoryHits, long storeHits, long misses, long lookupTimeouts, long stored,
+                        long storeErrors, int entries) {
+    }
+
+    private final Map<InstanceHash, Object> lru;
+    private final JdbcResultStore store;
+    private final ObjectMapper mapper;
+    private final ThreadPoolExecutor io;
+    private final long lookupTimeoutMillis;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder storeHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder lookupTimeouts = new LongAdder();
+    private final LongAdder stored = new LongAdder();
+    private final LongAdder storeErrors = new LongAdder();
+
+    /**
+     * @param maxEntries results kept in memory
+     * @param store      persistent tier, or null for memory only
+     */
+    public ResultCache(int maxEntries, JdbcResultStore store, ObjectMapper mapper) {
+        this(maxEntries, store, mapper, DEFAULT_LOOKUP_TIMEOUT);
+    }
+
+    /**
+     * @param maxEntries    results kept in memory
+     * @param store         persistent tier, or null for memory only
+     * @param lookupTimeout longest wait for the store before a miss is computed
+     */
+    public ResultCache(int maxEntries, JdbcResultStore store, ObjectMapper mapper, Duration lookupTimeout) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be positive");
+        }
+        if (lookupTimeout.isNegative()) {
+            throw new IllegalArgumentException("lookupTimeout must not be negative");
+        }
+        this.lookupTimeoutMillis = lookupTimeout.toMillis();
+        this.lru = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<InstanceHash, Object> eldest) {
+                return size() > maxEntries;
+            }
+        };
+        this.store = store;
+        this.mapper = mapper;
+        this.io = store == null ? null : new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(MAX_PENDING), runnable -> {
+                    Thread thread = new Thread(runnable, "solver-result-store");
+                    thread.setDaemon(true);
+                    return thread;
+                }) {
+            @Override
+            protected void terminated() {
+                // the store is not thread-safe: close it only once no task can still be using it
+                store.close();
+            }
+        };
+        if (store != null) {
+            background(() -> {
+                try {
+                    store.createTable();
+                } catch (SQLException e) {
+                    storeErrors.increment();
+                    log.warn("Cannot create the solver result table", e);
+                }
+            });
+        }
+    }
+
+    /**
+     * The result of the instance {@code key}, from memory, from the store, or from {@code compute}.
+     *
+     * @param kind    stored next to the result for diagnostics, e.g. {@code "tsp"}
+     * @param type    class of the result, used to read it back from the store
+     * @param compute solves the instance; called only on a miss
+     */
+    public <R> CompletableFuture<R> get(InstanceHash key, String kind, Class<R> type,
+                                        Supplier<CompletableFuture<R>> compute) {
+        Object cached;
+        synchronized (lru) {
+            cached = lru.get(key);
+        }
+        if (cached != null) {
+            memoryHits.increment();
+            return CompletableFuture.completedFuture(type.cast(cached));
+        }
+        if (store == null) {
+            misses.increment();
+            return computeAndStore(key, kind, compute);
+        }
+        CompletableFuture<String> lookup = new CompletableFuture<>();
+        if (!background(() -> {
+            if (!lookup.isDone()) {
+                lookup.complete(load(key));
+            }
+        })) {
+            lookup.complete(null);
+        }
+        lookup.orTimeout(lookupTimeoutMillis, TimeUnit.MILLISECONDS);
+        return lookup.handle((payload, error) -> {
+            if (error instanceof TimeoutException) {
+                lookupTimeouts.increment();
+            }
+            return payload;
+        }).thenCompose(payload -> {
+            R result = payload == null ? null : decode(payload, type);
+            if (result == null) {
+                misses.increment();
+                return computeAndStore(key, kind, compute);
+            }
+            storeHits.increment();
+            remember(key, result);
+            return CompletableFuture.completedFuture(result);
+        });
+    }
+
+    public Stats stats() {
+        int entries;
+        synchronized (lru) {
+            entries = lru.size();
+        }
+        return new Stats(memoryHits.sum(), storeHits.sum(), misses.sum(), lookupTimeouts.sum(), stored.sum(),
+                storeErrors.sum(), entries);
+    }
+
+    /**
+     * Finishes the pending writes, waiting a few seconds at most, and closes the store. Writes
+     * still queued after that are dropped; if one is in progress, the store is closed as soon as
+     * it returns, on the background thread.
+     */
+    @Override
+    public void close() {
+        if (io == null) {
+            return;
+        }
+        io.shutdown();
+        try {
+            if (!io.awaitTermination(5, TimeUnit.SECONDS)) {
+                io.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            io.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private <R> CompletableFuture<R> computeAndStore(InstanceHash key, String kind, Supplier<CompletableFuture<R>> compute) {
+        return compute.get().thenApply(result -> {
+            remember(key, result);
+            if (store != null) {
+                background(() -> save(key, kind, result));
+            }
+            return result;
+        });
+    }
+
+    private void remember(InstanceHash key, Object result) {
+        synchronized (lru) {
+            lru.put(key, result);
+        }
+    }
+
+    private String load(InstanceHash key) {
+        try {
+            return store.load(key);
+        } catch (SQLTransientConnectionException e) {
+            // the store is backing off after a failure that was already logged
+            storeErrors.increment();
+            log.debug("Solver result lookup skipped: {}", e.getMessage());
+            return null;
+        } catch (SQLException | RuntimeException e) {
+            storeErrors.increment();
+            log.warn("Solver result lookup failed", e);
+            return null;
+        }
+    }
+
+    private void save(InstanceHash key, String kind, Object result) {
+        try {
+            store.save(key, kind, mapper.writeValueAsString(result));
+            stored.increment();
+        } catch (SQLException | JsonProcessingException | RuntimeException e) {
+            storeErrors.increment();
+            log.warn("Storing a solver result failed", e);
+        }
+    }
+
+    /** Null if the payload no longer fits {@code type}, e.g. after a format change. */
+    private <R> R decode(String payload, Class<R> type) {
+        try {
+            return mapper.readValue(payload, type);
+        } catch (JsonProcessingException e) {
+            storeErrors.increment();
+            return null;
+        }
+    }
+
+    private boolean background(Runnable task) {
+        try {
+            io.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            storeErrors.increment();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package method.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * ε-scaling forward auction for {@link MinCostAssignment#auction(int, int, CsrGraph, int)}.
+ * <p>
+ * Left vertices are bidders, right vertices are objects with prices; the benefit of an edge is its
+ * negated cost scaled by {@code nRight + 1}, so that ε = 1 in the last phase already guarantees an
+ * optimal assignment. Each phase starts from the prices of the previous one with every bidder
+ * unassigned. In a round all unassigned bidders bid at once (Jacobi style) for their best object,
+ * raising its price by the gap to their second-best one plus ε; this scan over the adjacency rows
+ * is the expensive part and runs in parallel. The highest bid per object then wins, sequentially
+ * and in bidder order, so the result does not depend on the number of threads.
+ * </p>
+ * <p>
+ * With more objects than bidders, {@code nRight - nLeft} implicit dummy bidders that value every
+ * object at zero take the surplus objects. A dummy always bids for the cheapest object, found in a
+ * lazy min-heap of prices, which keeps the prices of the objects left over as low as the optimality
+ * conditions of the asymmetric problem require.
+ * </p>
+ *
+ * @see <a href="https://web.mit.edu/dimitrib/www/Auction_Encycl.pdf">Bertsekas: Auction algorithms</a>
+ */
+final class AssignmentAuction {
+
+    /** ε is divided by this factor between phases. */
+    private static final int SCALING = 8;
+
+    /** Below this many unassigned bidders a round bids on the calling thread. */
+    private static final int PARALLEL_BIDDERS = 1 << 11;
+
+    private static final int DUMMY = -2;
+
+    private final CsrGraph costs;
+    private final int nLeft;
+    private final int nRight;
+    private final long scale;
+    /** Bid increment of a bidder with a single distinct object, no smaller than any useful bid. */
+    private final long soleBid;
+    private final ForkJoinPool pool;
+
+    private final long[] price;
+    private final int[] owner;
+    private final int[] assigned;
+    /** Lazy heap of (price, object), only with dummies; an entry is current iff its key is the price. */
+    private final IntMinHeap cheapest;
+
+    private int[] bidders;
+    private int[] losers;
+    private final int[] bidObject;
+    private final long[] bidPrice;
+    private final int[] winner;
+    private final int[] touched;
+    private long eps;
+    private long bids;
+    private long scanned;
+
+    private AssignmentAuction(int nLeft, int nRight, CsrGraph costs, ForkJoinPool pool, long range) {
+        this.costs = costs;
+        this.nLeft = nLeft;
+        this.nRight = nRight;
+        this.scale = nRight + 1L;
+        this.soleBid = range * scale;
+        this.pool = pool;
+        this.price = new long[nRight];
+        this.owner = new int[nRight];
+        this.assigned = new int[nLeft];
+        this.cheapest = nRight > nLeft ? new IntMinHeap(2 * nRight) : null;
+        this.bidders = new int[nLeft];
+        this.losers = new int[nLeft];
+        this.bidObject = new int[nLeft];
+        this.bidPrice = new long[nLeft];
+        this.winner = new int[nRight];
+        this.touched = new int[nLeft];
+        Arrays.fill(winner, -1);
+        if (cheapest != null) {
+            for (int v = 0; v < nRight; v++) {
+                cheapest.push(0, v);
+            }
+        }
+    }
+
+    /** Callers have checked that a matching covers the left side. */
+    static int[] solve(int nLeft, int nRight, CsrGraph costs, ForkJoinPool pool) {
+        if (nLeft == 0) {
+            return new int[0];
+        }
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int u = 0; u < nLeft; u++) {
+            for (int e = costs.firstEdge(u), end = costs.endEdge(u); e < end; e++) {
+                min = Math.min(min, costs.weight(e));
+                max = Math.max(max, costs.weight(e));
+            }
+        }
+        long range = max - min + 1;
+        // prices stay below roughly nRight times the scaled cost range
+        if ((double) range * (nRight + 1.0) * (nRight + 1.0) > 0x1p61) {
+            throw new IllegalArgumentException("cost range too large for the auction, use hungarian");
+        }
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("MinCostAssignment.auction");
+        AssignmentAuction auction = new AssignmentAuction(nLeft, nRight, costs, pool, range);
+        long eps = Math.max(1, range * auction.scale / SCALING);
+        while (true) {
+            auction.phase(eps);
+            if (eps == 1) {
+                break;
+            }
+            eps = Math.max(1, eps / SCALING);
+        }
+        if (probe != null) {
+            probe.add(SolverCounter.MOVES, auction.bids).add(SolverCounter.EDGES_RELAXED, auction.scanned).finish();
+        }
+        return auction.assigned;
+    }
+
+    /** Auction from the current prices until every bidder, dummies included, holds an object. */
+    private void phase(long eps) {
+        this.eps = eps;
+        Arrays.fill(owner, -1);
+        Arrays.fill(assigned, -1);
+        int size = nLeft;
+        for (int u = 0; u < nLeft; u++) {
+            bidders[u] = u;
+        }
+        int freeDummies = nRight - nLeft;
+        while (size > 0 || freeDummies > 0) {
+            int lost = 0;
+            if (size > 0) {
+                bidRound(size);
+                bids += size;
+                int objects = 0;
+                for (int k = 0; k < size; k++) {
+                    scanned += costs.degree(bidders[k]);
+                    int v = bidObject[k];
+                    int w = winner[v];
+                    if (w == -1) {
+                        winner[v] = k;
+                        touched[objects++] = v;
+                    } else if (bidPrice[k] > bidPrice[w]) {
+                        losers[lost++] = bidders[w];
+                        winner[v] = k;
+                    } else {
+                        losers[lost++] = bidders[k];
+                    }
+                }
+                for (int i = 0; i < objects; i++) {
+                    int v = touched[i];
+                    int k = winner[v];
+                    winner[v] = -1;
+                    int u = bidders[k];
+                    int previous = owner[v];
+                    if (previous >= 0) {
+                        assigned[previous] = -1;
+                        losers[lost++] = previous;
+                    } else if (previous == DUMMY) {
+                        freeDummies++;
+                    }
+                    owner[v] = u;
+                    assigned[u] = v;
+                    setPrice(v, bidPrice[k]);
+                }
+            }
+            while (freeDummies > 0) {
+                bids++;
+                int v = nextCheapest();
+                cheapest.pop();
+                // every other object has a current entry, so the heap is not empty here
+                long second = price[nextCheapest()];
+                int previous = owner[v];
+                owner[v] = DUMMY;
+                setPrice(v, second + eps);
+                if (previous != DUMMY) {
+                    freeDummies--;
+                    if (previous >= 0) {
+                        assigned[previous] = -1;
+                        losers[lost++] = previous;
+                    }
+                }
+            }
+            int[] swap = bidders;
+            bidders = losers;
+            losers = swap;
+            size = lost;
+        }
+    }
+
+    private void bidRound(int size) {
+        if (pool == null || size < PARALLEL_BIDDERS) {
+            for (int k = 0; k < size; k++) {
+                bid(k);
+            }
+        } else {
+            pool.submit(() -> IntStream.range(0, size).parallel().forEach(this::bid)).join();
+        }
+    }
+
+    /** Best object of {@code bidders[k]} and the price it offers; reads prices only. */
+    private void bid(int k) {
+        int u = bidders[k];
+        int best = -1;
+        long first = Long.MIN_VALUE;
+        long second = Long.MIN_VALUE;
+        for (int e = costs.firstEdge(u), end = costs.endEdge(u); e < end; e++) {
+            int v = costs.target(e);
+            long value = -(long) costs.weight(e) * scale - price[v];
+            if (value > first) {
+                if (v != best) {
+                    second = first;
+                }
+                first = value;
+                best = v;
+            } else if (value > second && v != best) {
+                second = value;
+            }
+        }
+        bidObject[k] = best;
+        bidPrice[k] = price[best] + (second == Long.MIN_VALUE ? soleBid : first - second) + eps;
+    }
+
+    private void setPrice(int v, long newPrice) {
+        price[v] = newPrice;
+        if (cheapest != null) {
+            cheapest.push(newPrice, v);
+        }
+    }
+
+    /** Cheapest object, dropping outdated heap entries on the way; the entry stays on the heap. */
+    private int nextCheapest() {
+        while (true) {
+            int v = cheapest.peekValue();
+            if (cheapest.peekKey() == price[v]) {
+                return v;
+            }
+            cheapest.pop();
+        }
+    }
+}
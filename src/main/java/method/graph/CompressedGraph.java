@@ -0,0 +1,370 @@
+package method.graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable directed graph whose neighbour lists are sorted and stored as gaps in variable-length
+ * integers, for graphs too large for an {@code int} per edge.
+ *
+ * <p>The list of node {@code u} holds its first target relative to {@code u}, then the
+ * differences between consecutive targets. The length varies per list rather than per number: a
+ * header byte gives the width, 1 to 4 bytes, that fits every number of the list, so decoding is
+ * one unaligned load and a mask per edge with no data-dependent branches, and the degree follows
+ * from the list's size. The first number is stored with a bias of half the width's range, so
+ * targets just below {@code u} stay small too. Graphs with locality, where neighbours have
+ * nearby ids (meshes, road and web graphs, or any graph after a bandwidth-reducing renumbering),
+ * land at 1–2 bytes per edge; uniformly random graphs need the bytes of their largest gap,
+ * about {@code log2(2n / degree) / 8} per edge. Duplicate edges are kept, as gaps of 0.</p>
+ *
+ * <p>The bytes live in pages of up to 1 GiB and a node's list never straddles a page, so the edge
+ * count is not limited to {@code int}; per node there is one {@code long} offset. Lists are read
+ * sequentially through a {@link Cursor}, whose position can be saved as a single {@code long} so
+ * that algorithms with explicit stacks keep one word per frame, as they keep one edge index on a
+ * {@link CsrGraph}. {@link StronglyConnectedComponents#of(CompressedGraph)},
+ * {@link HopcroftKarp#HopcroftKarp(int, int, CompressedGraph)} and
+ * {@link PredecessorConstrainedDfs#traverse(CompressedGraph, int, PredecessorConstrainedDfs.IntVisitor)}
+ * consume it directly. Since lists are sorted, traversals see neighbours in ascending order, as
+ * on a {@link CsrGraph} with sorted rows.</p>
+ *
+ * @see <a href="https://webgraph.di.unimi.it/">Boldi, Vigna: The WebGraph framework</a>
+ */
+public final class CompressedGraph {
+
+    static final int DEFAULT_PAGE_SHIFT = 30;
+    /** Bytes after the last list of a page, so a 4-byte load at any entry stays inside the array. */
+    private static final int PADDING = Integer.BYTES - 1;
+    private static final VarHandle INT_LE =
+            MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final int numNodes;
+    private final int numTargets;
+    private final long numEdges;
+    private final int pageShift;
+    private final byte[][] pages;
+    /** {@code page << pageShift | position} of the first byte of every node's list, plus an end marker. */
+    private final long[] offsets;
+
+    private CompressedGraph(int numNodes, int numTargets, long numEdges, int pageShift, byte[][] pages, long[] offsets) {
+        this.numNodes = numNodes;
+        this.numTargets = numTargets;
+        this.numEdges = numEdges;
+        this.pageShift = pageShift;
+        this.pages = pages;
+        this.offsets = offsets;
+    }
+
+    /** Compresses {@code graph}, heap or memory-mapped, sorting every neighbour list. */
+    public static CompressedGraph of(CsrGraph graph) {
+        return of(graph, DEFAULT_PAGE_SHIFT);
+    }
+
+    static CompressedGraph of(CsrGraph graph, int pageShift) {
+        int n = graph.getNumNodes();
+        Builder builder = new Builder(n, graph.getNumTargets(), pageShift);
+        int[] row = new int[16];
+        for (int u = 0; u < n; u++) {
+            int first = graph.firstEdge(u);
+            int degree = graph.endEdge(u) - first;
+            if (degree > row.length) {
+                row = new int[Math.max(degree, row.length * 2)];
+            }
+            for (int i = 0; i < degree; i++) {
+                row[i] = graph.target(first + i);
+            }
+            builder.appendRow(row, degree);
+        }
+        return builder.build();
+    }
+
+    /** Creates a builder for a graph with nodes {@code [0, numNodes)}. */
+    public static Builder builder(int numNodes) {
+        return new Builder(numNodes, numNodes, DEFAULT_PAGE_SHIFT);
+    }
+
+    /** Creates a builder for a bipartite graph: sources in {@code [0, numSources)}, targets in {@code [0, numTargets)}. */
+    public static Builder builder(int numSources, int numTargets) {
+        return new Builder(numSources, numTargets, DEFAULT_PAGE_SHIFT);
+    }
+
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    /** Size of the target index space; equals {@link #getNumNodes()} unless the graph is bipartite. */
+    public int getNumTargets() {
+        return numTargets;
+    }
+
+    public long getNumEdges() {
+        return numEdges;
+    }
+
+    public int degree(int u) {
+        long offset = offsets[u];
+        byte[] page = pages[(int) (offset >>> pageShift)];
+        int start = start(offset);
+        int bytes = end(u, offset, page) - start;
+        return bytes == 0 ? 0 : (bytes - 1) / page[start];
+    }
+
+    /** Bytes held by the encoded lists and the offset table. */
+    public long sizeInBytes() {
+        long bytes = 8L * offsets.length;
+        for (byte[] page : pages) {
+            bytes += page.length;
+        }
+        return bytes;
+    }
+
+    /** {@link #sizeInBytes()} per edge, offsets included. */
+    public double bytesPerEdge() {
+        return numEdges == 0 ? 0 : (double) sizeInBytes() / numEdges;
+    }
+
+    /** A new cursor over this graph; cursors are cheap, but not thread-safe. */
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Decodes the graph into a {@link CsrGraph} with sorted rows.
+     *
+     * @throws IllegalArgumentException if it has more edges than a {@link CsrGraph} can hold
+     */
+    public CsrGraph toCsr() {
+        if (numEdges > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("graph has " + numEdges + " edges, more than a CsrGraph can hold");
+        }
+        CsrGraph.Builder builder = CsrGraph.builder(numNodes, numTargets);
+        Cursor cursor = new Cursor();
+        for (int u = 0; u < numNodes; u++) {
+            cursor.reset(u);
+            while (cursor.hasNext()) {
+                builder.addEdge(u, cursor.next());
+            }
+        }
+        return builder.build();
+    }
+
+    private int start(long offset) {
+        return (int) (offset & ((1L << pageShift) - 1));
+    }
+
+    /** One past the last byte of {@code u}'s list: the next list's start, or the page end if that is on a later page. */
+    private int end(int u, long offset, byte[] page) {
+        long next = offsets[u + 1];
+        return next >>> pageShift == offset >>> pageShift ? start(next) : page.length - PADDING;
+    }
+
+    /**
+     * Sequential reader of one neighbour list at a time. {@link #state()} captures the position
+     * within the current list, and {@link #seek(int, long)} resumes from it, so a DFS frame needs a
+     * node and a {@code long} instead of a cursor object.
+     */
+    public final class Cursor {
+
+        /** State of a list that has not been read from yet, valid for every node. */
+        public static final long START = 0L;
+
+        private byte[] page;
+        private int node;
+        private int pos;
+        private int end;
+        private int width;
+        private int mask;
+        private int prev;
+
+        private Cursor() {
+        }
+
+        /** Positions the cursor before the first neighbour of {@code u}. */
+        public Cursor reset(int u) {
+            return seek(u, START);
+        }
+
+        /** Positions the cursor in the list of {@code u} where {@link #state()} was taken. */
+        public Cursor seek(int u, long state) {
+            long offset = offsets[u];
+            byte[] p = pages[(int) (offset >>> pageShift)];
+            int start = start(offset);
+            page = p;
+            node = u;
+            end = end(u, offset, p);
+            if (start == end) {
+                pos = end;
+                return this;
+            }
+            width = p[start];
+            mask = (int) (-1L >>> (64 - 8 * width));
+            int at = (int) (state >>> 32);
+            if (at == 0) {
+                pos = start + 1;
+                // the first number is biased by half the range: subtracting the bias up front lets next() just add
+                prev = u - (1 << (8 * width - 1));
+            } else {
+                pos = at;
+                prev = (int) state;
+            }
+            return this;
+        }
+
+        /** Position within the current list: pass it back to {@link #seek(int, long)} with the same node. */
+        public long state() {
+            return (long) pos << 32 | (prev & 0xFFFF_FFFFL);
+        }
+
+        public boolean hasNext() {
+            return pos < end;
+        }
+
+        /** The next neighbour; only valid while {@link #hasNext()}. */
+        public int next() {
+            int i = pos;
+            pos = i + width;
+            prev += (int) INT_LE.get(page, i) & mask;
+            return prev;
+        }
+
+        /** Node whose list the cursor is reading. */
+        public int node() {
+            return node;
+        }
+    }
+
+    /**
+     * Encodes a graph one node at a time, so the uncompressed edges never need to be in memory at
+     * once. Edges must arrive grouped by source in ascending order (a CSR scan, or a sorted edge
+     * file); within a node they may come in any order and are sorted when the node is complete.
+     */
+    public static final class Builder {
+
+        private final int numNodes;
+        private final int numTargets;
+        private final int pageShift;
+        private final long[] offsets;
+        private final List<byte[]> pages = new ArrayList<>();
+        private byte[] page = new byte[1 << 12];
+        private int used;
+        private long numEdges;
+        /** Next node whose list has not been written. */
+        private int next;
+        private int[] row = new int[16];
+        private int rowSize;
+        private byte[] encoded = new byte[65];
+
+        Builder(int numNodes, int numTargets, int pageShift) {
+            if (numNodes < 0 || numTargets < 0) {
+                throw new IllegalArgumentException("node counts must be non-negative");
+            }
+            this.numNodes = numNodes;
+            this.numTargets = numTargets;
+            this.pageShift = pageShift;
+            this.offsets = new long[numNodes + 1];
+        }
+
+        /**
+         * @throws IndexOutOfBoundsException if an endpoint is out of range
+         * @throws IllegalArgumentException  if {@code from} is smaller than the source of an earlier edge
+         */
+        public Builder addEdge(int from, int to) {
+            if (from < 0 || from >= numNodes || to < 0 || to >= numTargets) {
+                throw new IndexOutOfBoundsException("edge " + from + "->" + to + " out of range");
+            }
+            if (from < next) {
+                throw new IllegalArgumentException("edges must be added in ascending order of source, got " + from
+                        + " after " + next);
+            }
+            while (next < from) {
+                appendRow(row, rowSize);
+                rowSize = 0;
+            }
+            if (rowSize == row.length) {
+                row = Arrays.copyOf(row, rowSize * 2);
+            }
+            row[rowSize++] = to;
+            return this;
+        }
+
+        public CompressedGraph build() {
+            while (next < numNodes) {
+                appendRow(row, rowSize);
+                rowSize = 0;
+            }
+            offsets[numNodes] = position();
+            closePage();
+            page = null;
+            return new CompressedGraph(numNodes, numTargets, numEdges, pageShift,
+                    pages.toArray(new byte[0][]), offsets);
+        }
+
+        /** Sorts {@code targets[0, count)} in place and writes them as the list of the next node. */
+        void appendRow(int[] targets, int count) {
+            int u = next;
+            Arrays.sort(targets, 0, count);
+            int length = 0;
+            if (count > 0) {
+                int width = width(targets, count, u);
+                length = 1 + width * count;
+                if (encoded.length < length) {
+                    encoded = new byte[Math.max(length, 2 * encoded.length)];
+                }
+                encoded[0] = (byte) width;
+                int prev = u - (1 << (8 * width - 1));
+                for (int i = 0, at = 1; i < count; i++) {
+                    int value = targets[i] - prev;
+                    prev = targets[i];
+                    for (int b = 0; b < width; b++) {
+                        encoded[at++] = (byte) (value >>> (8 * b));
+                    }
+                }
+            }
+            int pageSize = 1 << pageShift;
+            if (length >= pageSize) {
+                throw new IllegalArgumentException("neighbour list of node " + u + " does not fit in a page");
+            }
+            // the next list must start inside the page, hence >= rather than >
+            if (used + length >= pageSize) {
+                closePage();
+                page = new byte[Math.min(pageSize, Math.max(1 << 12, length + 1))];
+                used = 0;
+            }
+            if (used + length > page.length) {
+                page = Arrays.copyOf(page, (int) Math.min(pageSize, Math.max(used + length, 2L * page.length)));
+            }
+            offsets[u] = position();
+            System.arraycopy(encoded, 0, page, used, length);
+            used += length;
+            numEdges += count;
+            next++;
+        }
+
+        /** Smallest width in bytes that holds the biased first target and every gap of the sorted row. */
+        private static int width(int[] targets, int count, int u) {
+            long delta = (long) targets[0] - u;
+            int maxGap = 0;
+            for (int i = 1; i < count; i++) {
+                maxGap = Math.max(maxGap, targets[i] - targets[i - 1]);
+            }
+            for (int width = 1; width < Integer.BYTES; width++) {
+                long half = 1L << (8 * width - 1);
+                if (-half <= delta && delta < half && maxGap < 2 * half) {
+                    return width;
+                }
+            }
+            return Integer.BYTES;
+        }
+
+        private void closePage() {
+            pages.add(Arrays.copyOf(page, used + PADDING));
+        }
+
+        private long position() {
+            return (long) pages.size() << pageShift | used;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package method.graph;
+
+/**
+ * Resumable counter-based traversal behind {@link PredecessorConstrainedDfs.Compiled} and the
+ * {@link CsrGraph} overloads of {@link PredecessorConstrainedDfs}: every {@link #advance()} produces
+ * the next VISIT or SKIP, so lists, visitors and lazy iterators share one engine and a caller can
+ * stop at any event.
+ * <p>
+ * Every node keeps the number of its parents that are still unvisited; visiting a node decrements
+ * the counters of its dependents (the nodes listing it as a parent), and a child may be entered
+ * once its counter is zero. The DFS runs on an explicit stack of (node, next edge) frames; on a
+ * {@link CompressedGraph} the next edge is a {@link CompressedGraph.Cursor} state instead.
+ * </p>
+ * <p>
+ * With {@link SolverInstrumentation} enabled, a traversal that runs to its end reports its events
+ * and deepest stack; one abandoned early reports nothing.
+ * </p>
+ */
+final class ConstrainedDfsCursor {
+
+    static final int END = 0;
+    static final int VISIT = 1;
+    static final int SKIP = 2;
+
+    private final CsrGraph successors;
+    private final CsrGraph dependents;
+    /** Set instead of the two above for a compressed graph, which serves as its own dependents. */
+    private final CompressedGraph packed;
+    private final CompressedGraph.Cursor reader;
+    private final int[] remaining;
+    private final boolean[] visited;
+    private final int[] stackNode;
+    private final int[] stackEdge;
+    private final long[] stackState;
+    private int top;
+    private int node;
+    private int order;
+    private long skips;
+    private int maxTop;
+    private SolverInstrumentation.Probe probe;
+
+    /**
+     * @param parentCount number of predecessor entries of every node; copied, not modified
+     */
+    ConstrainedDfsCursor(CsrGraph successors, CsrGraph dependents, int[] parentCount, int start) {
+        int n = successors.getNumNodes();
+        this.successors = successors;
+        this.dependents = dependents;
+        this.packed = null;
+        this.reader = null;
+        this.remaining = parentCount.clone();
+        this.visited = new boolean[n];
+        this.stackNode = new int[n];
+        this.stackEdge = new int[n];
+        this.stackState = null;
+        this.top = -1;
+        this.node = start;
+        this.order = -1;
+        this.probe = SolverInstrumentation.start("PredecessorConstrainedDfs");
+    }
+
+    /** Traverses a compressed graph whose successors are also the dependents. */
+    ConstrainedDfsCursor(CompressedGraph successors, int start) {
+        int n = successors.getNumNodes();
+        this.successors = null;
+        this.dependents = null;
+        this.packed = successors;
+        this.reader = successors.cursor();
+        this.remaining = inDegrees(successors);
+        this.visited = new boolean[n];
+        this.stackNode = new int[n];
+        this.stackEdge = null;
+        this.stackState = new long[n];
+        this.top = -1;
+        this.node = start;
+        this.order = -1;
+        this.probe = SolverInstrumentation.start("PredecessorConstrainedDfs");
+    }
+
+    /** Number of predecessor entries of every node when predecessors are derived from {@code successors}. */
+    static int[] inDegrees(CsrGraph successors) {
+        int[] parentCount = new int[successors.getNumNodes()];
+        for (int e = 0, m = successors.getNumEdges(); e < m; e++) {
+            parentCount[successors.target(e)]++;
+        }
+        return parentCount;
+    }
+
+    static int[] inDegrees(CompressedGraph successors) {
+        int n = successors.getNumNodes();
+        int[] parentCount = new int[n];
+        CompressedGraph.Cursor cursor = successors.cursor();
+        for (int u = 0; u < n; u++) {
+            for (cursor.reset(u); cursor.hasNext(); ) {
+                parentCount[cursor.next()]++;
+            }
+        }
+        return parentCount;
+    }
+
+    /** Moves to the next event; {@link #node()} and, for a VISIT, {@link #order()} describe it. */
+    int advance() {
+        if (order == -1) {
+            enter(node); // the start node, whatever its parents
+            return VISIT;
+        }
+        while (top >= 0) {
+            int current = stackNode[top];
+            int child;
+            if (packed != null) {
+                reader.seek(current, stackState[top]);
+                if (!reader.hasNext()) {
+                    top--;
+                    continue;
+                }
+                child = reader.next();
+                stackState[top] = reader.state();
+            } else {
+                int e = stackEdge[top];
+                if (e == successors.endEdge(current)) {
+                    top--;
+                    continue;
+                }
+                stackEdge[top] = e + 1;
+                child = successors.target(e);
+            }
+            if (visited[child]) {
+                continue;
+            }
+            node = child;
+            if (remaining[child] == 0) {
+                enter(child);
+                return VISIT;
+            }
+            skips++;
+            return SKIP;
+        }
+        if (probe != null) {
+            probe.add(SolverCounter.DFS_EVENTS, order + 1 + skips)
+                    .add(SolverCounter.RECURSION_DEPTH, maxTop + 1)
+                    .finish();
+            probe = null;
+        }
+        return END;
+    }
+
+    /** Node of the current event. */
+    int node() {
+        return node;
+    }
+
+    /** Order of the last VISIT: 0, 1, 2, ... */
+    int order() {
+        return order;
+    }
+
+    private void enter(int v) {
+        visited[v] = true;
+        order++;
+        top++;
+        maxTop = Math.max(maxTop, top);
+        stackNode[top] = v;
+        if (packed != null) {
+            for (reader.reset(v); reader.hasNext(); ) {
+                remaining[reader.next()]--;
+            }
+            stackState[top] = CompressedGraph.Cursor.START;
+            return;
+        }
+        for (int e = dependents.firstEdge(v), end = dependents.endEdge(v); e < end; e++) {
+            remaining[dependents.target(e)]--;
+        }
+        stackEdge[top] = successors.firstEdge(v);
+    }
+}
@@ -20,6 +20,8 @@ public class ConstrainedShortestPath {
     public static class Graph {
 
         private List<List<Edge>> adjacencyList;
+        private int numEdges;
+        private CsrGraph compiled;
 
         public Graph(int numNodes) {
             adjacencyList = new ArrayList<>();
@@ -37,6 +39,8 @@ public class ConstrainedShortestPath {
          */
         public void addEdge(int from, int to, int cost, int resource) {
             adjacencyList.get(from).add(new Edge(from, to, cost, resource));
+            numEdges++;
+            compiled = null;
         }
 
         /**
@@ -56,11 +60,58 @@ public class ConstrainedShortestPath {
             return adjacencyList.size();
         }
 
+        /**
+         * 返回这张图的 {@link CsrGraph} 快照（cost 作为 weight，resource 作为 resource）。
+         * 快照会被缓存，直到下一次 {@link #addEdge} 调用。
+         * @return the compressed, immutable form of this graph
+         */
+        public CsrGraph toCsrGraph() {
+            CsrGraph snapshot = compiled;
+            if (snapshot == null) {
+                int numNodes = adjacencyList.size();
+                int[] offsets = new int[numNodes + 1];
+                int[] targets = new int[numEdges];
+                int[] costs = new int[numEdges];
+                int[] resources = new int[numEdges];
+                int e = 0;
+                for (int u = 0; u < numNodes; u++) {
+                    for (Edge edge : adjacencyList.get(u)) {
+                        targets[e] = edge.to();
+                        costs[e] = edge.cost();
+                        resources[e] = edge.resource();
+                        e++;
+                    }
+                    offsets[u + 1] = e;
+                }
+                snapshot = CsrGraph.wrap(offsets, targets, costs, resources);
+                compiled = snapshot;
+            }
+            return snapshot;
+        }
+
         public record Edge(int from, int to, int cost, int resource) {
         }
     }
 
+    /**
+     * 一条满足资源约束的路径。
+     *
+     * @param cost     路径总代价，不存在时为 -1
+     * @param resource 路径消耗的总资源，不存在时为 -1
+     * @param nodes    从起点到终点依次经过的节点
+     */
+    public record Path(int cost, int resource, int[] nodes) {
+
+        /** 表示不存在有效路径。 */
+        public static final Path NONE = new Path(-1, -1, new int[0]);
+
+        public boolean exists() {
+            return cost >= 0;
+        }
+    }
+
     private Graph graph;
+    private CsrGraph csrGraph;
     private int maxResource;
 
     /**
@@ -74,6 +125,24 @@ public class ConstrainedShortestPath {
         this.maxResource = maxResource;
     }
 
+    /**
+     * 在 {@link CsrGraph} 上构造求解器。边的 weight 为代价，resource 为资源消耗。
+     *
+     * @param graph       带 weight 和 resource 的压缩图
+     * @param maxResource 允许的最大资源
+     */
+    public ConstrainedShortestPath(CsrGraph graph, int maxResource) {
+        if (!graph.hasWeights() || !graph.hasResources()) {
+            throw new IllegalArgumentException("graph must carry edge weights and resources");
+        }
+        this.csrGraph = graph;
+        this.maxResource = maxResource;
+    }
+
+    private CsrGraph csr() {
+        return graph != null ? graph.toCsrGraph() : csrGraph;
+    }
+
     /**
      * 求解CSP，找到从起始节点到目标节点的最短路径
      * 在不超出资源限制的情况下。
@@ -84,7 +153,9 @@ public class ConstrainedShortestPath {
      *         如果不存在有效路径，则为-1
      */
     public int solve(int start, int target) {
-        int numNodes = graph.getNumNodes();
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("ConstrainedShortestPath.solve");
+        CsrGraph g = csr();
+        int numNodes = g.getNumNodes();
         int[][] dp = new int[maxResource + 1][numNodes];
 
         // Initialize dp table with maximum values
@@ -93,19 +164,23 @@ public class ConstrainedShortestPath {
         }
         dp[0][start] = 0;
 
-        // 动态规划：迭代资源和节点
+        // 动态规划：迭代资源和节点；cells/relaxed 只在开启插桩时上报
+        long cells = 0;
+        long relaxed = 0;
         for (int r = 0; r <= maxResource; r++) {
             for (int u = 0; u < numNodes; u++) {
                 if (dp[r][u] == Integer.MAX_VALUE) {
                     continue;
                 }
-                for (Graph.Edge edge : graph.getEdges(u)) {
-                    int v = edge.to();
-                    int cost = edge.cost();
-                    int resource = edge.resource();
+                cells++;
+                for (int e = g.firstEdge(u), end = g.endEdge(u); e < end; e++) {
+                    int v = g.target(e);
+                    int cost = g.weight(e);
+                    int resource = g.resource(e);
 
                     if (r + resource <= maxResource) {
                         dp[r + resource][v] = Math.min(dp[r + resource][v], dp[r][u] + cost);
+                        relaxed++;
                     }
                 }
             }
@@ -117,6 +192,24 @@ public class ConstrainedShortestPath {
             minCost = Math.min(minCost, dp[r][target]);
         }
 
+        if (probe != null) {
+            probe.add(SolverCounter.DP_CELLS, cells).add(SolverCounter.EDGES_RELAXED, relaxed).finish();
+        }
         return minCost == Integer.MAX_VALUE ? -1 : minCost;
     }
+
+    /**
+     * 用标签设定（label-setting）算法求解，并返回具体路径。
+     * 每个节点只保留非支配的 (cost, resource) 标签，并用反向 Dijkstra 得到的代价/资源下界剪枝，
+     * 因此内存与实际生成的标签数成正比，而不是 maxResource × numNodes。
+     * 要求所有边的代价和资源都非负。
+     *
+     * @param start  起始节点
+     * @param target 目标节点
+     * @return 最优路径；如果不存在有效路径，则为 {@link Path#NONE}
+     * @see ParetoLabelSetting
+     */
+    public Path findPath(int start, int target) {
+        return new ParetoLabelSetting(csr()).shortestPath(start, target, maxResource);
+    }
 }
@@ -0,0 +1,201 @@
+package method.graph;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 约束最短路径的批量 / 一对多查询。
+ * <p>
+ * 对同一张图反复查询 (start, target, budget) 时，按起点分组：每个起点只做一次一对多的
+ * 标签设定搜索（见 {@link ParetoLabelSetting}），得到所有节点在预算内的 Pareto 前沿，
+ * 之后同一起点、预算不超过该值的任何查询都只需在目标节点的前沿上二分查找。
+ * </p>
+ * <p>
+ * 前沿按起点缓存，总大小受 {@code maxCacheBytes} 限制，超出时按 LRU 淘汰。
+ * 通过 {@link ConstrainedShortestPath.Graph#addEdge} 修改图后，旧的缓存在下一次查询时自动失效。
+ * 图本身不是线程安全的：不要在查询进行中修改它。
+ * </p>
+ */
+public final class ConstrainedShortestPathQueries {
+
+    /** 一次查询：起点、终点与资源预算。 */
+    public record Query(int start, int target, int maxResource) {
+    }
+
+    private record Frontier(CsrGraph snapshot, int maxResource, ParetoLabelSetting.Labels labels, long bytes) {
+    }
+
+    private final ConstrainedShortestPath.Graph mutableGraph;
+    private final long maxCacheBytes;
+    private final LinkedHashMap<Integer, Frontier> cache = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedBytes;
+
+    private CsrGraph snapshot;
+    private ParetoLabelSetting solver;
+
+    /**
+     * @param graph         可变图；每次查询前都会检查它是否被修改过
+     * @param maxCacheBytes 缓存的前沿总大小上限（字节），0 表示不缓存
+     */
+    public ConstrainedShortestPathQueries(ConstrainedShortestPath.Graph graph, long maxCacheBytes) {
+        this.mutableGraph = graph;
+        this.maxCacheBytes = maxCacheBytes;
+    }
+
+    /**
+     * @param graph         带 weight（代价）和 resource（资源）的不可变图
+     * @param maxCacheBytes 缓存的前沿总大小上限（字节），0 表示不缓存
+     */
+    public ConstrainedShortestPathQueries(CsrGraph graph, long maxCacheBytes) {
+        this.mutableGraph = null;
+        this.maxCacheBytes = maxCacheBytes;
+        this.snapshot = graph;
+        this.solver = new ParetoLabelSetting(graph);
+    }
+
+    /** 单次查询。 */
+    public ConstrainedShortestPath.Path query(int start, int target, int maxResource) {
+        return queryFrom(start, new int[] {target}, maxResource)[0];
+    }
+
+    /**
+     * 一对多查询：从同一起点出发、同一预算下到多个终点的最优路径，只做一次搜索。
+     *
+     * @return 与 {@code targets} 一一对应的路径，不存在时为 {@link ConstrainedShortestPath.Path#NONE}
+     */
+    public ConstrainedShortestPath.Path[] queryFrom(int start, int[] targets, int maxResource) {
+        ParetoLabelSetting current = currentSolver();
+        ConstrainedShortestPath.Path[] result = new ConstrainedShortestPath.Path[targets.length];
+        ParetoLabelSetting.Labels labels = frontier(current, start, maxResource);
+        for (int i = 0; i < targets.length; i++) {
+            result[i] = answer(labels, targets[i], maxResource);
+        }
+        return result;
+    }
+
+    /** 批量查询，按起点分组顺序执行。 */
+    public ConstrainedShortestPath.Path[] queryAll(List<Query> queries) {
+        return queryAll(queries, null);
+    }
+
+    /**
+     * 批量查询。起点相同的查询共享一次搜索；{@code pool} 不为 null 时，不同起点在该线程池上并行计算。
+     *
+     * @return 与 {@code queries} 顺序一致的结果
+     */
+    public ConstrainedShortestPath.Path[] queryAll(List<Query> queries, ForkJoinPool pool) {
+        ParetoLabelSetting current = currentSolver();
+        int q = queries.size();
+        // sort (start, index) pairs so that queries sharing a source are contiguous
+        long[] keys = new long[q];
+        for (int i = 0; i < q; i++) {
+            keys[i] = ((long) queries.get(i).start() << 32) | i;
+        }
+        Arrays.sort(keys);
+        int[] groupStart = new int[q + 1];
+        int groups = 0;
+        for (int i = 0; i < q; i++) {
+            if (i == 0 || (keys[i] >>> 32) != (keys[i - 1] >>> 32)) {
+                groupStart[groups++] = i;
+            }
+        }
+        groupStart[groups] = q;
+
+        ConstrainedShortestPath.Path[] result = new ConstrainedShortestPath.Path[q];
+        IntStream work = IntStream.range(0, groups);
+        if (pool == null) {
+            work.forEach(g -> answerGroup(current, queries, keys, groupStart[g], groupStart[g + 1], result));
+        } else {
+            pool.submit(() -> work.parallel()
+                    .forEach(g -> answerGroup(current, queries, keys, groupStart[g], groupStart[g + 1], result)))
+                    .join();
+        }
+        return result;
+    }
+
+    /** 清空缓存。 */
+    public synchronized void invalidate() {
+        cache.clear();
+        cachedBytes = 0;
+    }
+
+    /** 当前缓存的前沿数量。 */
+    public synchronized int getCachedSources() {
+        return cache.size();
+    }
+
+    /** 当前缓存占用的估算字节数。 */
+    public synchronized long getCachedBytes() {
+        return cachedBytes;
+    }
+
+    private void answerGroup(ParetoLabelSetting current, List<Query> queries, long[] keys, int from, int to,
+                             ConstrainedShortestPath.Path[] result) {
+        int start = (int) (keys[from] >>> 32);
+        int budget = -1;
+        for (int i = from; i < to; i++) {
+            budget = Math.max(budget, queries.get((int) keys[i]).maxResource());
+        }
+        ParetoLabelSetting.Labels labels = frontier(current, start, budget);
+        for (int i = from; i < to; i++) {
+            int index = (int) keys[i];
+            Query query = queries.get(index);
+            result[index] = answer(labels, query.target(), query.maxResource());
+        }
+    }
+
+    private static ConstrainedShortestPath.Path answer(ParetoLabelSetting.Labels labels, int target, int maxResource) {
+        int label = maxResource < 0 ? -1 : labels.best(target, maxResource);
+        return label < 0 ? ConstrainedShortestPath.Path.NONE : labels.path(label);
+    }
+
+    /** Returns the solver for the current graph state, dropping the cache if the graph changed. */
+    private synchronized ParetoLabelSetting currentSolver() {
+        if (mutableGraph != null) {
+            CsrGraph latest = mutableGraph.toCsrGraph();
+            if (latest != snapshot) {
+                snapshot = latest;
+                solver = new ParetoLabelSetting(latest);
+                cache.clear();
+                cachedBytes = 0;
+            }
+        }
+        return solver;
+    }
+
+    private ParetoLabelSetting.Labels frontier(ParetoLabelSetting current, int start, int maxResource) {
+        synchronized (this) {
+            Frontier cached = cache.get(start);
+            if (cached != null && cached.snapshot() == current.graph() && cached.maxResource() >= maxResource) {
+                return cached.labels();
+            }
+        }
+        ParetoLabelSetting.Labels labels = current.frontiers(start, maxResource);
+        if (maxCacheBytes > 0) {
+            store(start, new Frontier(current.graph(), maxResource, labels, labels.estimatedBytes()));
+        }
+        return labels;
+    }
+
+    private synchronized void store(int start, Frontier frontier) {
+        if (frontier.snapshot() != snapshot || frontier.bytes() > maxCacheBytes) {
+            return;
+        }
+        Frontier previous = cache.put(start, frontier);
+        if (previous != null) {
+            cachedBytes -= previous.bytes();
+        }
+        cachedBytes += frontier.bytes();
+        Iterator<Map.Entry<Integer, Frontier>> eldest = cache.entrySet().iterator();
+        while (cachedBytes > maxCacheBytes && eldest.hasNext()) {
+            Frontier evicted = eldest.next().getValue();
+            eldest.remove();
+            cachedBytes -= evicted.bytes();
+        }
+    }
+}
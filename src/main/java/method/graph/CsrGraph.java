@@ -0,0 +1,345 @@
+package method.graph;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable directed graph in compressed-sparse-row (CSR) form.
+ *
+ * <p>The out-edges of node {@code u} occupy the edge index range
+ * {@code [firstEdge(u), endEdge(u))}. For every edge index {@code e},
+ * {@code target(e)} is the head of the edge and, when present, {@code weight(e)} and
+ * {@code resource(e)} are its cost and resource consumption. All data lives in a handful of
+ * flat {@code int[]} arrays, so a graph with {@code E} edges costs roughly {@code 4·E} bytes
+ * (plus {@code 4·E} per optional attribute) instead of one boxed object per edge.</p>
+ *
+ * <p>Instances are created through {@link Builder}, which accepts edges in any order, or through
+ * the adapters {@link #fromAdjacencyList(List)} and {@link #fromAdjacencyMap(Map, int)} that
+ * convert the boxed representations used by the older APIs in this package.</p>
+ *
+ * <p>{@link CsrGraphFile#map(java.nio.file.Path)} returns graphs whose arrays stay in a
+ * memory-mapped file instead of the heap; every algorithm that reads a graph through the
+ * accessors below runs on them unchanged.</p>
+ *
+ * <p>Targets normally live in the same index space as the sources. Bipartite graphs (as used by
+ * {@link HopcroftKarp}) are stored rectangularly: one row per left vertex and targets in
+ * {@code [0, getNumTargets())}.</p>
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Sparse_matrix#Compressed_sparse_row_(CSR,_CRS_or_Yale_format)">
+ *      Wikipedia: Compressed sparse row</a>
+ */
+public final class CsrGraph {
+
+    private final int numNodes;
+    private final int numTargets;
+    private final int numEdges;
+    /** Heap arrays; all null when the graph is memory-mapped. */
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int[] resources;
+    /** File-backed arrays of a memory-mapped graph, used when {@code offsets} is null. */
+    private final MappedInts mappedOffsets;
+    private final MappedInts mappedTargets;
+    private final MappedInts mappedWeights;
+    private final MappedInts mappedResources;
+
+    private CsrGraph(int numNodes, int numTargets, int[] offsets, int[] targets, int[] weights, int[] resources) {
+        this.numNodes = numNodes;
+        this.numTargets = numTargets;
+        this.numEdges = targets.length;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.resources = resources;
+        this.mappedOffsets = null;
+        this.mappedTargets = null;
+        this.mappedWeights = null;
+        this.mappedResources = null;
+    }
+
+    /** A graph over memory-mapped sections; {@code weights} and {@code resources} may be null. */
+    CsrGraph(int numNodes, int numTargets, int numEdges,
+             MappedInts offsets, MappedInts targets, MappedInts weights, MappedInts resources) {
+        this.numNodes = numNodes;
+        this.numTargets = numTargets;
+        this.numEdges = numEdges;
+        this.offsets = null;
+        this.targets = null;
+        this.weights = null;
+        this.resources = null;
+        this.mappedOffsets = offsets;
+        this.mappedTargets = targets;
+        this.mappedWeights = weights;
+        this.mappedResources = resources;
+    }
+
+    /** Creates a builder for a graph with nodes {@code [0, numNodes)}. */
+    public static Builder builder(int numNodes) {
+        return new Builder(numNodes, numNodes);
+    }
+
+    /** Creates a builder for a bipartite graph: sources in {@code [0, numSources)}, targets in {@code [0, numTargets)}. */
+    public static Builder builder(int numSources, int numTargets) {
+        return new Builder(numSources, numTargets);
+    }
+
+    /**
+     * Converts a boxed adjacency list ({@code adj.get(u)} lists the successors of {@code u}).
+     * Edge order within each node is preserved.
+     */
+    public static CsrGraph fromAdjacencyList(List<? extends List<Integer>> adj) {
+        return fromAdjacencyList(adj, adj.size(), adj.size());
+    }
+
+    /**
+     * Same as {@link #fromAdjacencyList(List)} but with explicit source and target counts, for
+     * adjacency lists whose targets live in a different index space (e.g. the right side of a
+     * bipartite graph).
+     */
+    public static CsrGraph fromAdjacencyList(List<? extends List<Integer>> adj, int numNodes, int numTargets) {
+        if (adj.size() > numNodes) {
+            throw new IllegalArgumentException("adjacency list has more rows than numNodes");
+        }
+        int[] offsets = new int[numNodes + 1];
+        for (int u = 0; u < adj.size(); u++) {
+            List<Integer> row = adj.get(u);
+            offsets[u + 1] = offsets[u] + (row == null ? 0 : row.size());
+        }
+        for (int u = adj.size(); u < numNodes; u++) {
+            offsets[u + 1] = offsets[u];
+        }
+        int[] targets = new int[offsets[numNodes]];
+        for (int u = 0; u < adj.size(); u++) {
+            List<Integer> row = adj.get(u);
+            if (row != null) {
+                int e = offsets[u];
+                for (int v : row) {
+                    targets[e++] = v;
+                }
+            }
+        }
+        return new CsrGraph(numNodes, numTargets, offsets, targets, null, null);
+    }
+
+    /**
+     * Converts a boxed adjacency map keyed by node id in {@code [0, n)}. Missing keys and
+     * {@code null} values are treated as nodes without out-edges.
+     */
+    public static CsrGraph fromAdjacencyMap(Map<Integer, List<Integer>> adj, int n) {
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u < n; u++) {
+            List<Integer> row = adj.get(u);
+            offsets[u + 1] = offsets[u] + (row == null ? 0 : row.size());
+        }
+        int[] targets = new int[offsets[n]];
+        for (int u = 0; u < n; u++) {
+            List<Integer> row = adj.get(u);
+            if (row != null) {
+                int e = offsets[u];
+                for (int v : row) {
+                    targets[e++] = v;
+                }
+            }
+        }
+        return new CsrGraph(n, n, offsets, targets, null, null);
+    }
+
+    /**
+     * Wraps already-built CSR arrays without copying. {@code weights} and {@code resources} may be
+     * {@code null}; otherwise they must have the same length as {@code targets}.
+     *
+     * @throws IllegalArgumentException if the arrays are inconsistent
+     */
+    public static CsrGraph wrap(int[] offsets, int[] targets, int[] weights, int[] resources) {
+        if (offsets.length == 0 || offsets[0] != 0 || offsets[offsets.length - 1] != targets.length) {
+            throw new IllegalArgumentException("offsets must start at 0 and end at targets.length");
+        }
+        if ((weights != null && weights.length != targets.length)
+                || (resources != null && resources.length != targets.length)) {
+            throw new IllegalArgumentException("edge attribute arrays must match targets.length");
+        }
+        return new CsrGraph(offsets.length - 1, offsets.length - 1, offsets, targets, weights, resources);
+    }
+
+    /** Like {@link #wrap} but with targets in {@code [0, numTargets)}; the arrays are trusted. */
+    static CsrGraph wrap(int numTargets, int[] offsets, int[] targets, int[] weights, int[] resources) {
+        return new CsrGraph(offsets.length - 1, numTargets, offsets, targets, weights, resources);
+    }
+
+    public int getNumNodes() {
+        return numNodes;
+    }
+
+    /** Size of the target index space; equals {@link #getNumNodes()} unless the graph is bipartite. */
+    public int getNumTargets() {
+        return numTargets;
+    }
+
+    public int getNumEdges() {
+        return numEdges;
+    }
+
+    /** Index of the first out-edge of {@code u}. */
+    public int firstEdge(int u) {
+        return offsets != null ? offsets[u] : mappedOffsets.get(u);
+    }
+
+    /** One past the index of the last out-edge of {@code u}. */
+    public int endEdge(int u) {
+        return offsets != null ? offsets[u + 1] : mappedOffsets.get(u + 1);
+    }
+
+    public int degree(int u) {
+        return endEdge(u) - firstEdge(u);
+    }
+
+    public int target(int e) {
+        return targets != null ? targets[e] : mappedTargets.get(e);
+    }
+
+    /** Cost of edge {@code e}; only valid when {@link #hasWeights()}. */
+    public int weight(int e) {
+        return offsets != null ? weights[e] : mappedWeights.get(e);
+    }
+
+    /** Resource consumption of edge {@code e}; only valid when {@link #hasResources()}. */
+    public int resource(int e) {
+        return offsets != null ? resources[e] : mappedResources.get(e);
+    }
+
+    public boolean hasWeights() {
+        return weights != null || mappedWeights != null;
+    }
+
+    public boolean hasResources() {
+        return resources != null || mappedResources != null;
+    }
+
+    /** Whether the arrays live in a memory-mapped file, see {@link CsrGraphFile}. */
+    public boolean isMapped() {
+        return offsets == null;
+    }
+
+    /**
+     * Returns the graph with every edge reversed. Edge attributes travel with their edge, and
+     * the in-edges of every node keep the relative order of their sources.
+     */
+    public CsrGraph transpose() {
+        int m = numEdges;
+        int[] revOffsets = new int[numTargets + 1];
+        for (int e = 0; e < m; e++) {
+            revOffsets[target(e) + 1]++;
+        }
+        for (int v = 0; v < numTargets; v++) {
+            revOffsets[v + 1] += revOffsets[v];
+        }
+        int[] cursor = Arrays.copyOf(revOffsets, numTargets);
+        int[] revTargets = new int[m];
+        int[] revWeights = hasWeights() ? new int[m] : null;
+        int[] revResources = hasResources() ? new int[m] : null;
+        for (int u = 0; u < numNodes; u++) {
+            for (int e = firstEdge(u), end = endEdge(u); e < end; e++) {
+                int slot = cursor[target(e)]++;
+                revTargets[slot] = u;
+                if (revWeights != null) {
+                    revWeights[slot] = weight(e);
+                }
+                if (revResources != null) {
+                    revResources[slot] = resource(e);
+                }
+            }
+        }
+        return new CsrGraph(numTargets, numNodes, revOffsets, revTargets, revWeights, revResources);
+    }
+
+    /**
+     * Collects edges in any order and turns them into a {@link CsrGraph} with a single counting
+     * sort. Edges that share a source keep their insertion order.
+     */
+    public static final class Builder {
+
+        private final int numNodes;
+        private final int numTargets;
+        private int[] sources = new int[16];
+        private int[] targets = new int[16];
+        private int[] weights;
+        private int[] resources;
+        private int size;
+
+        private Builder(int numNodes, int numTargets) {
+            if (numNodes < 0 || numTargets < 0) {
+                throw new IllegalArgumentException("node counts must be non-negative");
+            }
+            this.numNodes = numNodes;
+            this.numTargets = numTargets;
+        }
+
+        /** Adds an unweighted edge. */
+        public Builder addEdge(int from, int to) {
+            if (weights != null) {
+                throw new IllegalStateException("builder already holds weighted edges");
+            }
+            append(from, to);
+            return this;
+        }
+
+        /** Adds an edge carrying a cost and a resource consumption. */
+        public Builder addEdge(int from, int to, int weight, int resource) {
+            if (weights == null) {
+                if (size > 0) {
+                    throw new IllegalStateException("builder already holds unweighted edges");
+                }
+                weights = new int[sources.length];
+                resources = new int[sources.length];
+            }
+            int e = size;
+            append(from, to);
+            weights[e] = weight;
+            resources[e] = resource;
+            return this;
+        }
+
+        private void append(int from, int to) {
+            if (from < 0 || from >= numNodes || to < 0 || to >= numTargets) {
+                throw new IndexOutOfBoundsException("edge " + from + "->" + to + " out of range");
+            }
+            if (size == sources.length) {
+                int capacity = Math.max(16, size + (size >> 1));
+                sources = Arrays.copyOf(sources, capacity);
+                targets = Arrays.copyOf(targets, capacity);
+                if (weights != null) {
+                    weights = Arrays.copyOf(weights, capacity);
+                    resources = Arrays.copyOf(resources, capacity);
+                }
+            }
+            sources[size] = from;
+            targets[size] = to;
+            size++;
+        }
+
+        public CsrGraph build() {
+            int[] offsets = new int[numNodes + 1];
+            for (int i = 0; i < size; i++) {
+                offsets[sources[i] + 1]++;
+            }
+            for (int u = 0; u < numNodes; u++) {
+                offsets[u + 1] += offsets[u];
+            }
+            int[] cursor = Arrays.copyOf(offsets, numNodes);
+            int[] outTargets = new int[size];
+            int[] outWeights = weights == null ? null : new int[size];
+            int[] outResources = resources == null ? null : new int[size];
+            for (int i = 0; i < size; i++) {
+                int slot = cursor[sources[i]]++;
+                outTargets[slot] = targets[i];
+                if (outWeights != null) {
+                    outWeights[slot] = weights[i];
+                    outResources[slot] = resources[i];
+                }
+            }
+            return new CsrGraph(numNodes, numTargets, offsets, outTargets, outWeights, outResources);
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package method.graph;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Compact binary file format for {@link CsrGraph} and a zero-copy loader.
+ * <p>
+ * Layout, all little-endian:
+ * </p>
+ * <pre>
+ *   0  int   magic "CSRG"
+ *   4  int   version (1)
+ *   8  int   flags: 1 = weights, 2 = resources
+ *  12  int   numNodes
+ *  16  int   numTargets
+ *  20  int   reserved (0)
+ *  24  long  numEdges
+ *  32  int[numNodes + 1]  offsets
+ *      int[numEdges]      targets
+ *      int[numEdges]      weights   (if flagged)
+ *      int[numEdges]      resources (if flagged)
+ * </pre>
+ * <p>
+ * {@link #map(Path)} reads the header and memory-maps the sections through
+ * {@link FileChannel#map}, so loading takes the same time for any graph size and the edges never
+ * enter the Java heap; pages are read by the OS as the algorithms touch them. The returned graph
+ * works with every algorithm in this package. {@link #convertEdgeList(Path, Path)} builds the file
+ * from a text edge list in two streaming passes, holding only per-node counters in memory.
+ * </p>
+ */
+public final class CsrGraphFile {
+
+    /** "CSRG" read as a little-endian int. */
+    static final int MAGIC = 'C' | 'S' << 8 | 'R' << 16 | 'G' << 24;
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    private static final int FLAG_WEIGHTS = 1;
+    private static final int FLAG_RESOURCES = 2;
+
+    private CsrGraphFile() {
+    }
+
+    /**
+     * Memory-maps a graph file written by {@link #write} or {@link #convertEdgeList}. The graph
+     * stays valid after the file is closed; the mapping is released when the graph is collected.
+     *
+     * @throws IOException              if the file cannot be read
+     * @throws IllegalArgumentException if it is not a graph file or is truncated
+     */
+    public static CsrGraph map(Path file) throws IOException {
+        return map(file, MappedInts.SEGMENT_SHIFT);
+    }
+
+    static CsrGraph map(Path file, int segmentShift) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // fill the header
+            }
+            header.flip();
+            if (header.remaining() < HEADER_BYTES || header.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException(file + " is not a CSR graph file");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IllegalArgumentException("unsupported CSR graph file version " + header.getInt(4));
+            }
+            int flags = header.getInt(8);
+            int numNodes = header.getInt(12);
+            int numTargets = header.getInt(16);
+            long numEdges = header.getLong(24);
+            if (numNodes < 0 || numTargets < 0 || numEdges < 0 || numEdges > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("corrupt CSR graph header in " + file);
+            }
+            int sections = 1 + Integer.bitCount(flags & (FLAG_WEIGHTS | FLAG_RESOURCES));
+            long offsetsAt = HEADER_BYTES;
+            long targetsAt = offsetsAt + 4L * (numNodes + 1);
+            if (channel.size() < targetsAt + 4L * numEdges * sections) {
+                throw new IllegalArgumentException(file + " is truncated");
+            }
+
+            FileChannel.MapMode mode = FileChannel.MapMode.READ_ONLY;
+            MappedInts offsets = MappedInts.map(channel, offsetsAt, numNodes + 1L, mode, segmentShift);
+            MappedInts targets = MappedInts.map(channel, targetsAt, numEdges, mode, segmentShift);
+            long next = targetsAt + 4L * numEdges;
+            MappedInts weights = null;
+            MappedInts resources = null;
+            if ((flags & FLAG_WEIGHTS) != 0) {
+                weights = MappedInts.map(channel, next, numEdges, mode, segmentShift);
+                next += 4L * numEdges;
+            }
+            if ((flags & FLAG_RESOURCES) != 0) {
+                resources = MappedInts.map(channel, next, numEdges, mode, segmentShift);
+            }
+            return new CsrGraph(numNodes, numTargets, (int) numEdges, offsets, targets, weights, resources);
+        }
+    }
+
+    /** Writes {@code graph}, heap-based or mapped, in the binary format. */
+    public static void write(CsrGraph graph, Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            IntWriter out = new IntWriter(channel);
+            int m = graph.getNumEdges();
+            out.header(graph.hasWeights(), graph.hasResources(), graph.getNumNodes(), graph.getNumTargets(), m);
+            for (int u = 0; u < graph.getNumNodes(); u++) {
+                out.put(graph.firstEdge(u));
+            }
+            out.put(m);
+            for (int e = 0; e < m; e++) {
+                out.put(graph.target(e));
+            }
+            if (graph.hasWeights()) {
+                for (int e = 0; e < m; e++) {
+                    out.put(graph.weight(e));
+                }
+            }
+            if (graph.hasResources()) {
+                for (int e = 0; e < m; e++) {
+                    out.put(graph.resource(e));
+                }
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Converts a text edge list into the binary format.
+     * <p>
+     * One edge per line: {@code from to}, optionally followed by a weight and a resource, separated
+     * by spaces, tabs or commas. Lines that are blank or start with {@code #} or {@code %} are
+     * ignored. Node ids are non-negative ints and the graph has {@code max id + 1} nodes; every
+     * edge line must have the same number of columns. Edges of a node keep their order in the
+     * file. The input is read twice, first to count out-degrees and then to place every edge at its
+     * final position in the mapped output, so the heap holds one counter per node whatever the
+     * number of edges.
+     * </p>
+     *
+     * @return the number of edges written
+     * @throws IllegalArgumentException if a line is malformed
+     */
+    public static long convertEdgeList(Path edgeList, Path file) throws IOException {
+        // pass 1: out-degrees and the column count
+        int[] degree = new int[1024];
+        int maxId = -1;
+        long numEdges = 0;
+        int columns = 0;
+        long[] values = new long[4];
+        try (EdgeListReader reader = new EdgeListReader(Files.newInputStream(edgeList))) {
+            int read;
+            while ((read = reader.next(values)) > 0) {
+                if (columns == 0) {
+                    if (read > 4) {
+                        throw new IllegalArgumentException("line " + reader.line() + ": expected 2 to 4 columns");
+                    }
+                    columns = read;
+                } else if (read != columns) {
+                    throw new IllegalArgumentException("line " + reader.line() + ": expected " + columns + " columns");
+                }
+                if (read < 2) {
+                    throw new IllegalArgumentException("line " + reader.line() + ": expected 2 to 4 columns");
+                }
+                int from = nodeId(values[0], reader);
+                int to = nodeId(values[1], reader);
+                for (int c = 2; c < read; c++) {
+                    if (values[c] != (int) values[c]) {
+                        throw new IllegalArgumentException("line " + reader.line() + ": value out of int range");
+                    }
+                }
+                maxId = Math.max(maxId, Math.max(from, to));
+                if (from >= degree.length) {
+                    degree = Arrays.copyOf(degree, Math.max(from + 1, (int) Math.min(Integer.MAX_VALUE - 8, 2L * degree.length)));
+                }
+                degree[from]++;
+                if (++numEdges > Integer.MAX_VALUE) {
+                    throw new IllegalArgumentException("more than " + Integer.MAX_VALUE + " edges");
+                }
+            }
+        }
+        int n = maxId + 1;
+        int m = (int) numEdges;
+        boolean weighted = columns >= 3;
+        boolean withResources = columns == 4;
+        int sections = 1 + (weighted ? 1 : 0) + (withResources ? 1 : 0);
+        long targetsAt = HEADER_BYTES + 4L * (n + 1);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            IntWriter out = new IntWriter(channel);
+            out.header(weighted, withResources, n, n, m);
+            // offsets, reusing the degree array as the placement cursor of pass 2
+            int[] cursor = degree.length > n ? degree : Arrays.copyOf(degree, n);
+            int offset = 0;
+            for (int u = 0; u < n; u++) {
+                out.put(offset);
+                int d = cursor[u];
+                cursor[u] = offset;
+                offset += d;
+            }
+            out.put(offset);
+            out.flush();
+            if (m > 0) {
+                // extend the file so the sections can be mapped for writing
+                channel.write(ByteBuffer.allocate(1), targetsAt + 4L * m * sections - 1);
+            }
+
+            // pass 2: place every edge
+            FileChannel.MapMode mode = FileChannel.MapMode.READ_WRITE;
+            MappedInts targets = MappedInts.map(channel, targetsAt, m, mode, MappedInts.SEGMENT_SHIFT);
+            MappedInts weights = weighted
+                    ? MappedInts.map(channel, targetsAt + 4L * m, m, mode, MappedInts.SEGMENT_SHIFT) : null;
+            MappedInts resources = withResources
+                    ? MappedInts.map(channel, targetsAt + 8L * m, m, mode, MappedInts.SEGMENT_SHIFT) : null;
+            try (EdgeListReader reader = new EdgeListReader(Files.newInputStream(edgeList))) {
+                while (reader.next(values) > 0) {
+                    int slot = cursor[(int) values[0]]++;
+                    targets.put(slot, (int) values[1]);
+                    if (weights != null) {
+                        weights.put(slot, (int) values[2]);
+                    }
+                    if (resources != null) {
+                        resources.put(slot, (int) values[3]);
+                    }
+                }
+            }
+            channel.force(false);
+        }
+        return numEdges;
+    }
+
+    private static int nodeId(long value, EdgeListReader reader) {
+        if (value < 0 || value >= Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("line " + reader.line() + ": node id out of range: " + value);
+        }
+        return (int) value;
+    }
+
+    /** Buffered little-endian int output to a channel. */
+    private static final class IntWriter {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+        IntWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void header(boolean weights, boolean resources, int numNodes, int numTargets, long numEdges)
+                throws IOException {
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt((weights ? FLAG_WEIGHTS : 0) | (resources ? FLAG_RESOURCES : 0))
+                    .putInt(numNodes)
+                    .putInt(numTargets)
+                    .putInt(0)
+                    .putLong(numEdges);
+        }
+
+        void put(int value) throws IOException {
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+
+    /** Streaming parser of edge-list lines into up to four longs, without a String per line. */
+    private static final class EdgeListReader implements Closeable {
+
+        private final InputStream in;
+        private final byte[] buffer = new byte[1 << 16];
+        private int position;
+        private int limit;
+        private long line;
+
+        EdgeListReader(InputStream in) {
+            this.in = in;
+        }
+
+        long line() {
+            return line;
+        }
+
+        /**
+         * Parses the next data line into {@code values}.
+         *
+         * @return the number of columns on it, or 0 at the end of the input
+         */
+        int next(long[] values) throws IOException {
+            while (true) {
+                int c = read();
+                if (c < 0) {
+                    return 0;
+                }
+                line++;
+                int columns = 0;
+                while (true) {
+                    while (c == ' ' || c == '\t' || c == ',' || c == '\r') {
+                        c = read();
+                    }
+                    if (c < 0 || c == '\n') {
+                        break;
+                    }
+                    if ((c == '#' || c == '%') && columns == 0) {
+                        while (c >= 0 && c != '\n') {
+                            c = read();
+                        }
+                        break;
+                    }
+                    boolean negative = c == '-';
+                    if (negative) {
+                        c = read();
+                    }
+                    if (c < '0' || c > '9') {
+                        throw new IllegalArgumentException("line " + line + ": unexpected character '" + (char) c + "'");
+                    }
+                    long value = 0;
+                    while (c >= '0' && c <= '9') {
+                        value = value * 10 + (c - '0');
+                        if (value > Integer.MAX_VALUE + 1L) {
+                            throw new IllegalArgumentException("line " + line + ": value out of int range");
+                        }
+                        c = read();
+                    }
+                    if (columns < values.length) {
+                        values[columns] = negative ? -value : value;
+                    }
+                    columns++;
+                }
+                if (columns > 0) {
+                    return columns;
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (position == limit) {
+                limit = in.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return -1;
+                }
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,277 @@
+package method.graph;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs a task per node of a graph under the readiness rule of {@link PredecessorConstrainedDfs}:
+ * a node runs only once all its predecessors have completed, but every ready node is dispatched
+ * at once, so the wall-clock time approaches the critical path instead of the sum of all tasks.
+ * <p>
+ * Each node keeps an atomic count of its predecessors that have not completed yet; the thread
+ * that completes a node decrements the counts of its dependents and submits those that reach
+ * zero to a bounded {@link ForkJoinPool}. Completions are reported as
+ * {@link PredecessorConstrainedDfs.TraversalEvent} VISITs whose order is the completion order.
+ * </p>
+ * <p>
+ * The first failing task cancels the run: nothing new is dispatched and running tasks are
+ * interrupted. With a per-node timeout, a task that runs longer is interrupted and counts as
+ * failed with a {@link TimeoutException}; a run ends only once its running tasks have returned,
+ * so tasks should respond to interruption. Nodes on a cycle, or waiting for a predecessor that is
+ * not in the successors map, never become ready and are reported as not completed.
+ * </p>
+ */
+public final class DagTaskExecutor<T> {
+
+    /** The work of one node. */
+    @FunctionalInterface
+    public interface Task<T> {
+        void run(T node) throws Exception;
+    }
+
+    /**
+     * Outcome of {@link #execute}.
+     *
+     * @param visits       a VISIT per completed node, in completion order
+     * @param failedNode   the node whose failure cancelled the run, or null
+     * @param failure      its exception ({@link TimeoutException} on timeout), or null
+     * @param notCompleted nodes that did not complete, the failed one excluded
+     */
+    public record Result<T>(List<PredecessorConstrainedDfs.TraversalEvent<T>> visits,
+                            T failedNode,
+                            Throwable failure,
+                            List<T> notCompleted) {
+
+        /** Whether every node completed. */
+        public boolean isComplete() {
+            return failure == null && notCompleted.isEmpty();
+        }
+    }
+
+    private static final int PENDING = 0;
+    private static final int RUNNING = 1;
+    private static final int COMPLETED = 2;
+    private static final int INTERRUPTED = 3;
+    private static final int FAILED = 4;
+    private static final int TIMED_OUT = 5;
+
+    private final PredecessorConstrainedDfs.Compiled<T> graph;
+    private final int parallelism;
+    private final Duration nodeTimeout;
+
+    /**
+     * @param graph       nodes and dependencies; predecessors are derived from the successors
+     *                    unless the graph was compiled with explicit ones
+     * @param parallelism number of worker threads
+     * @param nodeTimeout longest a single task may run, or null for no limit
+     */
+    public DagTaskExecutor(PredecessorConstrainedDfs.Compiled<T> graph, int parallelism, Duration nodeTimeout) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism must be positive");
+        }
+        if (nodeTimeout != null && (nodeTimeout.isNegative() || nodeTimeout.isZero())) {
+            throw new IllegalArgumentException("nodeTimeout must be positive");
+        }
+        this.graph = Objects.requireNonNull(graph);
+        this.parallelism = parallelism;
+        this.nodeTimeout = nodeTimeout;
+    }
+
+    /** Executor over {@code successors} with one worker per core and no timeout. */
+    public DagTaskExecutor(Map<T, List<T>> successors) {
+        this(PredecessorConstrainedDfs.compile(successors), Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /** Runs every node and waits for the run to finish. */
+    public Result<T> execute(Task<? super T> task) throws InterruptedException {
+        return execute(task, event -> {
+        });
+    }
+
+    /**
+     * Runs every node and waits for the run to finish.
+     *
+     * @param listener receives each VISIT as its node completes, one at a time and in order; an
+     *                 exception it throws fails that node
+     */
+    public Result<T> execute(Task<? super T> task, Consumer<? super PredecessorConstrainedDfs.TraversalEvent<T>> listener)
+            throws InterruptedException {
+        Run run = new Run(Objects.requireNonNull(task), Objects.requireNonNull(listener));
+        try {
+            return run.execute();
+        } finally {
+            run.pool.shutdownNow();
+            if (run.watchdog != null) {
+                run.watchdog.shutdownNow();
+            }
+        }
+    }
+
+    /** State of one {@link #execute} call. */
+    private final class Run {
+
+        private final Task<? super T> task;
+        private final Consumer<? super PredecessorConstrainedDfs.TraversalEvent<T>> listener;
+        private final ForkJoinPool pool =
+                new ForkJoinPool(parallelism, ForkJoinPool.defaultForkJoinWorkerThreadFactory, null, true);
+        private final ScheduledExecutorService watchdog =
+                nodeTimeout == null ? null : Executors.newSingleThreadScheduledExecutor(DagTaskExecutor::daemon);
+        private final CsrGraph dependents = graph.dependents();
+        private final AtomicIntegerArray remaining;
+        private final AtomicIntegerArray state;
+        private final Thread[] threads;
+        /** Submitted nodes that have not finished, plus one while the roots are submitted. */
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final List<PredecessorConstrainedDfs.TraversalEvent<T>> visits = new ArrayList<>();
+        private volatile boolean cancelled;
+        private int failedNode = -1;
+
+        Run(Task<? super T> task, Consumer<? super PredecessorConstrainedDfs.TraversalEvent<T>> listener) {
+            this.task = task;
+            this.listener = listener;
+            this.remaining = new AtomicIntegerArray(graph.parentCount());
+            this.state = new AtomicIntegerArray(graph.size());
+            this.threads = new Thread[graph.size()];
+        }
+
+        Result<T> execute() throws InterruptedException {
+            for (int v = 0, n = graph.graphNodes(); v < n; v++) {
+                if (remaining.get(v) == 0) {
+                    submit(v);
+                }
+            }
+            release();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                cancel();
+                throw e;
+            }
+            List<T> notCompleted = new ArrayList<>();
+            for (int v = 0, n = graph.graphNodes(); v < n; v++) {
+                if (state.get(v) != COMPLETED && v != failedNode) {
+                    notCompleted.add(graph.node(v));
+                }
+            }
+            synchronized (visits) {
+                return new Result<>(Collections.unmodifiableList(new ArrayList<>(visits)),
+                        failedNode == -1 ? null : graph.node(failedNode), failure.get(),
+                        Collections.unmodifiableList(notCompleted));
+            }
+        }
+
+        private void submit(int v) {
+            outstanding.incrementAndGet();
+            pool.execute(() -> {
+                try {
+                    if (!cancelled) {
+                        runNode(v);
+                    }
+                } finally {
+                    release();
+                }
+            });
+        }
+
+        private void release() {
+            if (outstanding.decrementAndGet() == 0) {
+                done.countDown();
+            }
+        }
+
+        private void runNode(int v) {
+            threads[v] = Thread.currentThread();
+            if (!state.compareAndSet(v, PENDING, RUNNING)) {
+                return;
+            }
+            ScheduledFuture<?> timer = watchdog == null ? null
+                    : watchdog.schedule(() -> interrupt(v, TIMED_OUT), nodeTimeout.toNanos(), TimeUnit.NANOSECONDS);
+            Throwable error = null;
+            try {
+                task.run(graph.node(v));
+            } catch (Throwable e) {
+                error = e;
+            }
+            if (timer != null) {
+                timer.cancel(false);
+            }
+            if (!state.compareAndSet(v, RUNNING, error == null ? COMPLETED : FAILED)) {
+                // interrupted by the watchdog or a cancellation: wait for the interrupt, then clear it
+                synchronized (this) {
+                    Thread.interrupted();
+                }
+                if (state.get(v) == TIMED_OUT) {
+                    fail(v, new TimeoutException("node " + graph.node(v) + " exceeded " + nodeTimeout));
+                }
+                return;
+            }
+            if (error != null) {
+                fail(v, error);
+                return;
+            }
+            synchronized (visits) {
+                PredecessorConstrainedDfs.TraversalEvent<T> event =
+                        PredecessorConstrainedDfs.TraversalEvent.visit(graph.node(v), visits.size());
+                visits.add(event);
+                try {
+                    listener.accept(event);
+                } catch (RuntimeException e) {
+                    fail(v, e); // the node ran, but the run cannot be reported faithfully any more
+                    return;
+                }
+            }
+            for (int e = dependents.firstEdge(v), end = dependents.endEdge(v); e < end; e++) {
+                int w = dependents.target(e);
+                if (remaining.decrementAndGet(w) == 0 && w < graph.graphNodes()) {
+                    submit(w);
+                }
+            }
+        }
+
+        private void fail(int v, Throwable error) {
+            if (failure.compareAndSet(null, error)) {
+                failedNode = v;
+            }
+            cancel();
+        }
+
+        private void cancel() {
+            cancelled = true;
+            for (int v = 0; v < threads.length; v++) {
+                if (state.get(v) == RUNNING) {
+                    interrupt(v, INTERRUPTED);
+                }
+            }
+        }
+
+        /** Moves a running node to {@code newState} and interrupts its thread. */
+        private synchronized void interrupt(int v, int newState) {
+            if (state.compareAndSet(v, RUNNING, newState)) {
+                threads[v].interrupt();
+            }
+        }
+    }
+
+    private static Thread daemon(Runnable runnable) {
+        Thread thread = new Thread(runnable, "dag-task-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    }
+}
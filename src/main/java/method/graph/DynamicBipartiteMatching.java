@@ -0,0 +1,406 @@
+package method.graph;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Maximum bipartite matching under edge and vertex insertions and deletions.
+ * <p>
+ * The initial matching comes from {@link HopcroftKarp}, optionally warm-started. After that
+ * every update changes the maximum matching size by at most one, and any augmenting path must
+ * run through the changed edge or the vertex it freed, so each update is repaired by at most two
+ * alternating BFS searches from those vertices instead of a full recomputation:
+ * </p>
+ * <ul>
+ *     <li>inserting {@code (u, v)}: search from {@code u} if it is free, from {@code v} if it is
+ *     free, otherwise from the partners of both towards free vertices on either side;</li>
+ *     <li>deleting a matched edge or a matched vertex: search from the vertices it left free.</li>
+ * </ul>
+ * <p>
+ * Deleting an unmatched edge never needs work. Vertex ids are stable: a removed vertex simply
+ * loses its edges and can receive new ones later. Not thread-safe.
+ * </p>
+ */
+public final class DynamicBipartiteMatching {
+
+    private int nLeft;
+    private int nRight;
+
+    private int[][] leftAdj;
+    private int[] leftDegree;
+    private int[][] rightAdj;
+    private int[] rightDegree;
+
+    private int[] pairU;
+    private int[] pairV;
+    private int size;
+
+    // search scratch: visit stamps and BFS parents per side, one shared queue
+    private int[] leftStamp;
+    private int[] leftParent;
+    private int[] rightStamp;
+    private int[] rightParent;
+    private int[] queue;
+    private int stamp;
+    private int foundFree;
+    /** Adjacency entries scanned by all searches so far. */
+    private long scanned;
+
+    /** Empty graph with the given number of vertices on each side. */
+    public DynamicBipartiteMatching(int nLeft, int nRight) {
+        this(nLeft, nRight, CsrGraph.builder(nLeft, nRight).build(), null);
+    }
+
+    public DynamicBipartiteMatching(int nLeft, int nRight, CsrGraph adj) {
+        this(nLeft, nRight, adj, null);
+    }
+
+    /**
+     * @param adj         initial graph, one row per left vertex
+     * @param leftMatches previous matching to warm-start from, as returned by
+     *                    {@link HopcroftKarp#getLeftMatches()}; {@code null} starts from empty
+     * @throws IllegalArgumentException if {@code leftMatches} is not a matching of {@code adj}
+     */
+    public DynamicBipartiteMatching(int nLeft, int nRight, CsrGraph adj, int[] leftMatches) {
+        HopcroftKarp initial = leftMatches == null
+                ? new HopcroftKarp(nLeft, nRight, adj)
+                : new HopcroftKarp(nLeft, nRight, adj, leftMatches);
+        this.size = initial.maxMatching();
+        this.pairU = initial.getLeftMatches();
+        this.pairV = initial.getRightMatches();
+        this.nLeft = nLeft;
+        this.nRight = nRight;
+
+        this.leftAdj = new int[nLeft][];
+        this.leftDegree = new int[nLeft];
+        this.rightAdj = new int[nRight][];
+        this.rightDegree = new int[nRight];
+        this.leftStamp = new int[nLeft];
+        this.leftParent = new int[nLeft];
+        this.rightStamp = new int[nRight];
+        this.rightParent = new int[nRight];
+        this.queue = new int[Math.max(nLeft, nRight)];
+        Arrays.fill(leftAdj, new int[0]);
+        Arrays.fill(rightAdj, new int[0]);
+        for (int u = 0; u < nLeft; u++) {
+            stamp++;
+            for (int e = adj.firstEdge(u), end = adj.endEdge(u); e < end; e++) {
+                int v = adj.target(e);
+                if (rightStamp[v] != stamp) {
+                    rightStamp[v] = stamp;
+                    link(u, v);
+                }
+            }
+        }
+    }
+
+    /** Size of the current maximum matching. */
+    public int size() {
+        return size;
+    }
+
+    public int getLeftCount() {
+        return nLeft;
+    }
+
+    public int getRightCount() {
+        return nRight;
+    }
+
+    /** Right partner of left vertex {@code u}, or -1. */
+    public int leftMatch(int u) {
+        return pairU[u];
+    }
+
+    /** Left partner of right vertex {@code v}, or -1. */
+    public int rightMatch(int v) {
+        return pairV[v];
+    }
+
+    /**
+     * Read-only view of the right partner of every left vertex, in the layout of
+     * {@link HopcroftKarp#getLeftMatches()}. Nothing is copied: the view follows later updates
+     * until the next {@link #addLeft()}, after which a new view must be requested.
+     */
+    public IntBuffer getLeftMatches() {
+        return IntBuffer.wrap(pairU, 0, nLeft).asReadOnlyBuffer();
+    }
+
+    /** Read-only view of the left partner of every right vertex; see {@link #getLeftMatches()}. */
+    public IntBuffer getRightMatches() {
+        return IntBuffer.wrap(pairV, 0, nRight).asReadOnlyBuffer();
+    }
+
+    public boolean hasEdge(int u, int v) {
+        return indexOf(leftAdj[u], leftDegree[u], v) >= 0;
+    }
+
+    /** Adds an isolated left vertex and returns its id. */
+    public int addLeft() {
+        if (nLeft == pairU.length) {
+            int capacity = Math.max(4, nLeft + (nLeft >> 1));
+            pairU = grow(pairU, capacity, -1);
+            leftDegree = Arrays.copyOf(leftDegree, capacity);
+            leftStamp = Arrays.copyOf(leftStamp, capacity);
+            leftParent = Arrays.copyOf(leftParent, capacity);
+            leftAdj = Arrays.copyOf(leftAdj, capacity);
+            Arrays.fill(leftAdj, nLeft, capacity, new int[0]);
+            queue = Arrays.copyOf(queue, Math.max(capacity, queue.length));
+        }
+        return nLeft++;
+    }
+
+    /** Adds an isolated right vertex and returns its id. */
+    public int addRight() {
+        if (nRight == pairV.length) {
+            int capacity = Math.max(4, nRight + (nRight >> 1));
+            pairV = grow(pairV, capacity, -1);
+            rightDegree = Arrays.copyOf(rightDegree, capacity);
+            rightStamp = Arrays.copyOf(rightStamp, capacity);
+            rightParent = Arrays.copyOf(rightParent, capacity);
+            rightAdj = Arrays.copyOf(rightAdj, capacity);
+            Arrays.fill(rightAdj, nRight, capacity, new int[0]);
+            queue = Arrays.copyOf(queue, Math.max(capacity, queue.length));
+        }
+        return nRight++;
+    }
+
+    /**
+     * Inserts edge {@code (u, v)} and augments through it if that enlarges the matching.
+     *
+     * @return {@code false} if the edge was already present
+     */
+    public boolean addEdge(int u, int v) {
+        checkLeft(u);
+        checkRight(v);
+        if (hasEdge(u, v)) {
+            return false;
+        }
+        link(u, v);
+
+        if (pairU[u] == -1 && pairV[v] == -1) {
+            pairU[u] = v;
+            pairV[v] = u;
+            size++;
+        } else if (pairU[u] == -1) {
+            augmentLeft(u);
+        } else if (pairV[v] == -1) {
+            augmentRight(v);
+        } else {
+            augmentThrough(u, v);
+        }
+        return true;
+    }
+
+    /**
+     * Deletes edge {@code (u, v)}; if it was matched, tries to re-augment from both freed vertices.
+     *
+     * @return {@code false} if there was no such edge
+     */
+    public boolean removeEdge(int u, int v) {
+        checkLeft(u);
+        checkRight(v);
+        if (!hasEdge(u, v)) {
+            return false;
+        }
+        unlink(u, v);
+        if (pairU[u] == v) {
+            pairU[u] = -1;
+            pairV[v] = -1;
+            size--;
+            if (!augmentLeft(u)) {
+                augmentRight(v);
+            }
+        }
+        return true;
+    }
+
+    /** Deletes every edge of left vertex {@code u}, e.g. when a worker leaves. */
+    public void removeLeft(int u) {
+        checkLeft(u);
+        int[] neighbours = leftAdj[u];
+        for (int i = leftDegree[u] - 1; i >= 0; i--) {
+            unlink(u, neighbours[i]);
+        }
+        int v = pairU[u];
+        if (v != -1) {
+            pairU[u] = -1;
+            pairV[v] = -1;
+            size--;
+            augmentRight(v);
+        }
+    }
+
+    /** Deletes every edge of right vertex {@code v}, e.g. when a task is withdrawn. */
+    public void removeRight(int v) {
+        checkRight(v);
+        int[] neighbours = rightAdj[v];
+        for (int i = rightDegree[v] - 1; i >= 0; i--) {
+            unlink(neighbours[i], v);
+        }
+        int u = pairV[v];
+        if (u != -1) {
+            pairU[u] = -1;
+            pairV[v] = -1;
+            size--;
+            augmentLeft(u);
+        }
+    }
+
+    // ---------------------------------------------------------------- augmenting paths
+
+    private boolean augmentLeft(int u) {
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("DynamicBipartiteMatching.augment");
+        long before = scanned;
+        int last = search(u, leftAdj, leftDegree, pairU, pairV, leftStamp, leftParent);
+        if (last >= 0) {
+            flip(last, foundFree, pairU, pairV, leftParent);
+            size++;
+        }
+        report(probe, 1, scanned - before, last >= 0);
+        return last >= 0;
+    }
+
+    private boolean augmentRight(int v) {
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("DynamicBipartiteMatching.augment");
+        long before = scanned;
+        int last = search(v, rightAdj, rightDegree, pairV, pairU, rightStamp, rightParent);
+        if (last >= 0) {
+            flip(last, foundFree, pairV, pairU, rightParent);
+            size++;
+        }
+        report(probe, 1, scanned - before, last >= 0);
+        return last >= 0;
+    }
+
+    /** New matched edge {@code (u, v)} between two matched vertices: free left ~> u - v ~> free right. */
+    private void augmentThrough(int u, int v) {
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("DynamicBipartiteMatching.augment");
+        long before = scanned;
+        // v's partner must move away, and so must u's
+        int lastLeft = search(pairV[v], leftAdj, leftDegree, pairU, pairV, leftStamp, leftParent);
+        int freeRight = foundFree;
+        int lastRight = lastLeft < 0
+                ? -1 : search(pairU[u], rightAdj, rightDegree, pairV, pairU, rightStamp, rightParent);
+        if (lastRight >= 0) {
+            flip(lastLeft, freeRight, pairU, pairV, leftParent);
+            flip(lastRight, foundFree, pairV, pairU, rightParent);
+            pairU[u] = v;
+            pairV[v] = u;
+            size++;
+        }
+        report(probe, lastLeft < 0 ? 1 : 2, scanned - before, lastRight >= 0);
+    }
+
+    private static void report(SolverInstrumentation.Probe probe, int searches, long edges, boolean augmented) {
+        if (probe != null) {
+            probe.add(SolverCounter.BFS_PHASES, searches)
+                    .add(SolverCounter.EDGES_RELAXED, edges)
+                    .add(SolverCounter.AUGMENTING_PATHS, augmented ? 1 : 0)
+                    .finish();
+        }
+    }
+
+    /**
+     * Alternating BFS from {@code start} on side A (left or right, depending on the arrays passed)
+     * to a free vertex on side B, ignoring {@code start}'s own partner. Returns the last A vertex
+     * of the path, with the free B vertex in {@link #foundFree}, or -1 if there is none.
+     */
+    private int search(int start, int[][] adj, int[] degree, int[] pairA, int[] pairB, int[] stampA,
+                       int[] parentA) {
+        stamp++;
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        stampA[start] = stamp;
+        parentA[start] = -1;
+        while (head < tail) {
+            int a = queue[head++];
+            int[] neighbours = adj[a];
+            for (int i = 0, d = degree[a]; i < d; i++) {
+                int b = neighbours[i];
+                if (b == pairA[a]) {
+                    continue;
+                }
+                int next = pairB[b];
+                if (next == -1) {
+                    foundFree = b;
+                    scanned += i + 1;
+                    return a;
+                }
+                if (stampA[next] != stamp) {
+                    stampA[next] = stamp;
+                    parentA[next] = a;
+                    queue[tail++] = next;
+                }
+            }
+            scanned += degree[a];
+        }
+        return -1;
+    }
+
+    /** Augments along the path found by {@link #search}; the start's old partner is left to the caller. */
+    private static void flip(int a, int b, int[] pairA, int[] pairB, int[] parentA) {
+        while (a != -1) {
+            int previous = pairA[a];
+            pairA[a] = b;
+            pairB[b] = a;
+            b = previous;
+            a = parentA[a];
+        }
+    }
+
+    // ---------------------------------------------------------------- adjacency
+
+    private void link(int u, int v) {
+        leftAdj[u] = append(leftAdj[u], leftDegree[u]++, v);
+        rightAdj[v] = append(rightAdj[v], rightDegree[v]++, u);
+    }
+
+    private void unlink(int u, int v) {
+        remove(leftAdj[u], leftDegree[u]--, v);
+        remove(rightAdj[v], rightDegree[v]--, u);
+    }
+
+    private static int[] append(int[] list, int size, int value) {
+        if (size == list.length) {
+            list = Arrays.copyOf(list, Math.max(4, size << 1));
+        }
+        list[size] = value;
+        return list;
+    }
+
+    /** Swap-removes {@code value} from {@code list[0, size)}. */
+    private static void remove(int[] list, int size, int value) {
+        int i = indexOf(list, size, value);
+        list[i] = list[size - 1];
+    }
+
+    private static int indexOf(int[] list, int size, int value) {
+        for (int i = 0; i < size; i++) {
+            if (list[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int[] grow(int[] array, int capacity, int fill) {
+        int length = array.length;
+        int[] grown = Arrays.copyOf(array, capacity);
+        Arrays.fill(grown, length, capacity, fill);
+        return grown;
+    }
+
+    private void checkLeft(int u) {
+        if (u < 0 || u >= nLeft) {
+            throw new IndexOutOfBoundsException("left vertex " + u);
+        }
+    }
+
+    private void checkRight(int v) {
+        if (v < 0 || v >= nRight) {
+            throw new IndexOutOfBoundsException("right vertex " + v);
+        }
+    }
+}
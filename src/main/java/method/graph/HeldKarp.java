@@ -0,0 +1,225 @@
+package method.graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Memory-compact, layer-parallel Held-Karp behind {@link TravelingSalesman#heldKarp}.
+ * <p>
+ * City 0 is the fixed start, so only subsets of cities {@code 1..n-1} are stored, and for each
+ * subset only the entries whose last city is in the subset: {@code (n-1)·2^(n-2)} cells instead
+ * of {@code n·2^n}. Cells of a subset are contiguous; {@code offset[mask]} locates them and the
+ * rank of the last city among the set bits selects the cell.
+ * </p>
+ * <p>
+ * Subsets are processed layer by layer by popcount. Every cell of a layer is computed by pulling
+ * from the previous layer, so a layer is split across workers without any synchronisation.
+ * When {@code n · maxDistance} fits, costs are stored as {@code short}, halving memory again.
+ * </p>
+ */
+final class HeldKarp {
+
+    /** Largest instance whose table still fits into one Java array. */
+    static final int MAX_CITIES = 28;
+
+    private static final int INF = Integer.MAX_VALUE;
+    private static final int CHUNK_BITS = 12;
+
+    private final int[][] dist;
+    private final int n;
+    private final int m;
+    private final int[] offset;
+    private final CostTable table;
+
+    private HeldKarp(int[][] dist) {
+        this.dist = dist;
+        this.n = dist.length;
+        this.m = n - 1;
+        int masks = 1 << m;
+        this.offset = new int[masks + 1];
+        for (int mask = 0; mask < masks; mask++) {
+            offset[mask + 1] = offset[mask] + Integer.bitCount(mask);
+        }
+        long maxDistance = 0;
+        for (int[] row : dist) {
+            for (int d : row) {
+                if (d != INF) {
+                    maxDistance = Math.max(maxDistance, Math.abs((long) d));
+                }
+            }
+        }
+        long bound = maxDistance * n;
+        if (bound < Short.MAX_VALUE) {
+            table = new ShortTable(offset[masks]);
+        } else if (bound < INF) {
+            table = new IntTable(offset[masks]);
+        } else {
+            throw new IllegalArgumentException("tour length may overflow int");
+        }
+    }
+
+    static TravelingSalesman.Tour solve(int[][] dist, ForkJoinPool pool) {
+        int n = dist.length;
+        for (int[] row : dist) {
+            if (row.length != n) {
+                throw new IllegalArgumentException("Matrix must be square");
+            }
+        }
+        if (n > MAX_CITIES) {
+            throw new IllegalArgumentException("Held-Karp supports at most " + MAX_CITIES + " cities");
+        }
+        if (n <= 1) {
+            return new TravelingSalesman.Tour(0, n == 0 ? new int[0] : new int[] {0});
+        }
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("TravelingSalesman.heldKarp");
+        HeldKarp solver = new HeldKarp(dist);
+        if (pool == null) {
+            solver.fill(false);
+        } else {
+            pool.submit(() -> solver.fill(true)).join();
+        }
+        TravelingSalesman.Tour tour = solver.tour();
+        if (probe != null) {
+            // every cell (mask, j) pulls from the |mask| - 1 cells of mask without j: m(m-1)2^(m-2) in total
+            long m = n - 1;
+            probe.add(SolverCounter.DP_CELLS, solver.offset[1 << m])
+                    .add(SolverCounter.EDGES_RELAXED, m < 2 ? 0 : m * (m - 1) << (m - 2))
+                    .finish();
+        }
+        return tour;
+    }
+
+    private void fill(boolean parallel) {
+        for (int j = 0; j < m; j++) {
+            int d = dist[0][j + 1];
+            table.set(offset[1 << j], d);
+        }
+        int chunks = Math.max(1, (1 << m) >>> CHUNK_BITS);
+        int chunkSize = (1 << m) / chunks;
+        for (int layer = 2; layer <= m; layer++) {
+            int k = layer;
+            IntStream work = IntStream.range(0, chunks);
+            if (parallel) {
+                work = work.parallel();
+            }
+            work.forEach(chunk -> {
+                for (int mask = chunk * chunkSize, end = mask + chunkSize; mask < end; mask++) {
+                    if (Integer.bitCount(mask) == k) {
+                        relax(mask);
+                    }
+                }
+            });
+        }
+    }
+
+    /** Computes every cell of {@code mask} from the cells of its one-smaller subsets. */
+    private void relax(int mask) {
+        int cell = offset[mask];
+        for (int rest = mask; rest != 0; rest &= rest - 1, cell++) {
+            int j = Integer.numberOfTrailingZeros(rest);
+            int prev = mask ^ (1 << j);
+            int best = INF;
+            int prevCell = offset[prev];
+            for (int others = prev; others != 0; others &= others - 1, prevCell++) {
+                int i = Integer.numberOfTrailingZeros(others);
+                int cost = table.get(prevCell);
+                int d = dist[i + 1][j + 1];
+                if (cost != INF && d != INF && cost + d < best) {
+                    best = cost + d;
+                }
+            }
+            table.set(cell, best);
+        }
+    }
+
+    /** Picks the best closing edge and walks the table backwards to recover the order. */
+    private TravelingSalesman.Tour tour() {
+        int full = (1 << m) - 1;
+        int best = INF;
+        int last = -1;
+        int cell = offset[full];
+        for (int j = 0; j < m; j++, cell++) {
+            int cost = table.get(cell);
+            int d = dist[j + 1][0];
+            if (cost != INF && d != INF && cost + d < best) {
+                best = cost + d;
+                last = j;
+            }
+        }
+        if (last < 0) {
+            return TravelingSalesman.Tour.NONE;
+        }
+
+        int[] order = new int[n];
+        int mask = full;
+        for (int position = n - 1; position >= 1; position--) {
+            order[position] = last + 1;
+            int cost = table.get(cellOf(mask, last));
+            int prev = mask ^ (1 << last);
+            if (prev == 0) {
+                break;
+            }
+            int next = -1;
+            for (int others = prev; others != 0; others &= others - 1) {
+                int i = Integer.numberOfTrailingZeros(others);
+                int c = table.get(cellOf(prev, i));
+                int d = dist[i + 1][last + 1];
+                if (c != INF && d != INF && c + d == cost) {
+                    next = i;
+                    break;
+                }
+            }
+            mask = prev;
+            last = next;
+        }
+        return new TravelingSalesman.Tour(best, order);
+    }
+
+    private int cellOf(int mask, int j) {
+        return offset[mask] + Integer.bitCount(mask & ((1 << j) - 1));
+    }
+
+    /** Cost storage; {@link #INF} marks unreachable cells regardless of the element width. */
+    private abstract static class CostTable {
+        abstract int get(int cell);
+
+        abstract void set(int cell, int cost);
+    }
+
+    private static final class IntTable extends CostTable {
+        private final int[] costs;
+
+        IntTable(int size) {
+            costs = new int[size];
+        }
+
+        @Override
+        int get(int cell) {
+            return costs[cell];
+        }
+
+        @Override
+        void set(int cell, int cost) {
+            costs[cell] = cost;
+        }
+    }
+
+    private static final class ShortTable extends CostTable {
+        private final short[] costs;
+
+        ShortTable(int size) {
+            costs = new short[size];
+        }
+
+        @Override
+        int get(int cell) {
+            short cost = costs[cell];
+            return cost == Short.MAX_VALUE ? INF : cost;
+        }
+
+        @Override
+        void set(int cell, int cost) {
+            costs[cell] = cost == INF ? Short.MAX_VALUE : (short) cost;
+        }
+    }
+}
@@ -1,9 +1,7 @@
 package method.graph;
 
-import java.util.ArrayDeque;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Queue;
 
 /**
  * Hopcroft–Karp algorithm for maximum bipartite matching.
@@ -13,86 +11,400 @@ import java.util.Queue;
  *
  * Time complexity: O(E * sqrt(V)).
  *
+ * The graph is held as a rectangular {@link CsrGraph} (one row per left vertex); the
+ * {@code List<List<Integer>>} constructor converts its argument once on construction.
+ * Phases allocate nothing: the BFS queue, the DFS stack and edge cursors are int arrays sized
+ * once, and the DFS is iterative, so long augmenting paths cannot overflow the call stack.
+ * A Karp–Sipser greedy pass seeds the matching; on sparse graphs a push-relabel backend
+ * ({@link BipartitePushRelabel}) finishes it instead of the phases, see {@link Algorithm}.
+ *
+ * A {@link CompressedGraph} is read in place through a cursor. Karp–Sipser and push-relabel
+ * need the reversed graph, so it gets a plain greedy seed followed by the phases, which only walk
+ * forward lists.
+ *
+ * @see MinCostAssignment for minimum-cost assignment with edge costs
  * @see <a href="https://en.wikipedia.org/wiki/Hopcroft%E2%80%93Karp_algorithm">
  *      Wikipedia: Hopcroft–Karp algorithm</a>
  * @author ptzecher
  */
 public class HopcroftKarp {
 
+    /** Exact backend used by {@link #maxMatching(Algorithm)}. */
+    public enum Algorithm {
+        /** Push-relabel below an average left degree of {@value HopcroftKarp#SPARSE_DEGREE}, Hopcroft–Karp from there. */
+        AUTO,
+        HOPCROFT_KARP,
+        PUSH_RELABEL
+    }
+
+    /**
+     * Average left degree below which push-relabel beats the phases after the greedy pass, measured
+     * on random bipartite graphs with 2·10^5 and 10^6 vertices per side.
+     */
+    static final int SPARSE_DEGREE = 6;
+
     private final int nLeft;
-    private final List<List<Integer>> adj;
+    /** The graph; exactly one of the two is set. */
+    private final CsrGraph adj;
+    private final CompressedGraph packed;
+    private CsrGraph reverse;
 
     private final int[] pairU;
     private final int[] pairV;
     private final int[] dist;
+    private final int[] queue;
+    private final int[] stack;
+    private final int[] cursor;
+    /** For a compressed graph: the cursor state of every left vertex and the right vertex it points to. */
+    private final long[] cursorState;
+    private final int[] current;
+    private final CompressedGraph.Cursor reader;
+    private int matched;
 
     public HopcroftKarp(int nLeft, int nRight, List<List<Integer>> adj) {
+        this(nLeft, nRight, CsrGraph.fromAdjacencyList(adj, nLeft, nRight));
+    }
+
+    /**
+     * @param adj bipartite graph with {@code nLeft} rows whose targets are right vertices,
+     *            e.g. built with {@link CsrGraph#builder(int, int)}
+     */
+    public HopcroftKarp(int nLeft, int nRight, CsrGraph adj) {
+        if (adj.getNumNodes() < nLeft) {
+            throw new IllegalArgumentException("graph has fewer rows than nLeft");
+        }
         this.nLeft = nLeft;
         this.adj = adj;
+        this.packed = null;
 
         this.pairU = new int[nLeft];
         this.pairV = new int[nRight];
         this.dist = new int[nLeft];
+        this.queue = new int[nLeft];
+        this.stack = new int[nLeft];
+        this.cursor = new int[nLeft];
+        this.cursorState = null;
+        this.current = null;
+        this.reader = null;
 
         Arrays.fill(pairU, -1);
         Arrays.fill(pairV, -1);
     }
 
-    /** Returns the size of the maximum matching. */
+    /**
+     * @param adj compressed bipartite graph with {@code nLeft} rows whose targets are right
+     *            vertices, e.g. built with {@link CompressedGraph#builder(int, int)}
+     */
+    public HopcroftKarp(int nLeft, int nRight, CompressedGraph adj) {
+        if (adj.getNumNodes() < nLeft) {
+            throw new IllegalArgumentException("graph has fewer rows than nLeft");
+        }
+        this.nLeft = nLeft;
+        this.adj = null;
+        this.packed = adj;
+
+        this.pairU = new int[nLeft];
+        this.pairV = new int[nRight];
+        this.dist = new int[nLeft];
+        this.queue = new int[nLeft];
+        this.stack = new int[nLeft];
+        this.cursor = null;
+        this.cursorState = new long[nLeft];
+        this.current = new int[nLeft];
+        this.reader = adj.cursor();
+
+        Arrays.fill(pairU, -1);
+        Arrays.fill(pairV, -1);
+    }
+
+    /**
+     * Warm start: {@link #maxMatching()} augments {@code leftMatches} instead of starting from an
+     * empty matching, so a previous result that is still mostly valid is repaired in a few phases.
+     *
+     * @param leftMatches for each left vertex its right partner or -1, as returned by {@link #getLeftMatches()}
+     * @throws IllegalArgumentException if {@code leftMatches} is not a matching of {@code adj}
+     */
+    public HopcroftKarp(int nLeft, int nRight, CsrGraph adj, int[] leftMatches) {
+        this(nLeft, nRight, adj);
+        if (leftMatches.length != nLeft) {
+            throw new IllegalArgumentException("leftMatches must have nLeft entries");
+        }
+        for (int u = 0; u < nLeft; u++) {
+            int v = leftMatches[u];
+            if (v == -1) {
+                continue;
+            }
+            if (v < 0 || v >= nRight || pairV[v] != -1 || !hasEdge(u, v)) {
+                throw new IllegalArgumentException("left vertex " + u + " cannot be matched to " + v);
+            }
+            pairU[u] = v;
+            pairV[v] = u;
+            matched++;
+        }
+    }
+
+    private boolean hasEdge(int u, int v) {
+        for (int e = adj.firstEdge(u), end = adj.endEdge(u); e < end; e++) {
+            if (adj.target(e) == v) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Returns the size of the maximum matching, choosing the backend by graph density. */
     public int maxMatching() {
-        int matching = 0;
+        return maxMatching(Algorithm.AUTO);
+    }
+
+    /**
+     * Extends the current matching (empty, warm-started, or from an earlier call) to a maximum one.
+     * A Karp–Sipser greedy pass runs first, then the selected exact backend.
+     * On a {@link CompressedGraph} a plain greedy pass and the phases run whatever {@code algorithm} is.
+     *
+     * @return the size of the maximum matching
+     */
+    public int maxMatching(Algorithm algorithm) {
+        if (packed != null) {
+            return maxMatchingCompressed();
+        }
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("HopcroftKarp.maxMatching");
+        if (reverse == null) {
+            reverse = adj.transpose();
+        }
+        matched += KarpSipser.extend(adj, reverse, pairU, pairV);
+        if (algorithm == Algorithm.AUTO) {
+            algorithm = (long) adj.getNumEdges() < (long) SPARSE_DEGREE * nLeft
+                    ? Algorithm.PUSH_RELABEL : Algorithm.HOPCROFT_KARP;
+        }
+        if (algorithm == Algorithm.PUSH_RELABEL) {
+            matched += BipartitePushRelabel.extend(adj, reverse, pairU, pairV);
+            if (probe != null) {
+                probe.finish();
+            }
+            return matched;
+        }
+
+        long phases = 0;
+        long paths = 0;
         while (bfs()) {
+            phases++;
+            for (int u = 0; u < nLeft; u++) {
+                cursor[u] = adj.firstEdge(u);
+            }
             for (int u = 0; u < nLeft; u++) {
                 if (pairU[u] == -1 && dfs(u)) {
-                    matching++;
+                    matched++;
+                    paths++;
+                }
+            }
+        }
+        if (probe != null) {
+            probe.add(SolverCounter.BFS_PHASES, phases).add(SolverCounter.AUGMENTING_PATHS, paths).finish();
+        }
+        return matched;
+    }
+
+    private int maxMatchingCompressed() {
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("HopcroftKarp.maxMatching");
+        matched += seedCompressed();
+        long phases = 0;
+        long paths = 0;
+        while (bfs()) {
+            phases++;
+            Arrays.fill(cursorState, CompressedGraph.Cursor.START);
+            for (int u = 0; u < nLeft; u++) {
+                if (pairU[u] == -1 && dfsCompressed(u)) {
+                    matched++;
+                    paths++;
                 }
             }
         }
-        return matching;
+        if (probe != null) {
+            probe.add(SolverCounter.BFS_PHASES, phases).add(SolverCounter.AUGMENTING_PATHS, paths).finish();
+        }
+        return matched;
     }
 
-    // BFS to build layers
+    /**
+     * Greedy seed from forward lists only, standing in for Karp–Sipser, which needs the reversed
+     * graph: left vertices are taken in ascending degree, and each takes the free neighbour with
+     * the fewest remaining unprocessed left neighbours. Returns the number of pairs added.
+     */
+    private int seedCompressed() {
+        int[] rightDegree = new int[pairV.length];
+        int maxDegree = 0;
+        for (int u = 0; u < nLeft; u++) {
+            for (reader.reset(u); reader.hasNext(); ) {
+                rightDegree[reader.next()]++;
+            }
+            maxDegree = Math.max(maxDegree, packed.degree(u));
+        }
+        // counting sort of the left vertices by degree, into queue
+        int[] bucket = new int[maxDegree + 2];
+        for (int u = 0; u < nLeft; u++) {
+            bucket[packed.degree(u) + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            bucket[d + 1] += bucket[d];
+        }
+        for (int u = 0; u < nLeft; u++) {
+            queue[bucket[packed.degree(u)]++] = u;
+        }
+
+        int added = 0;
+        for (int i = 0; i < nLeft; i++) {
+            int u = queue[i];
+            int best = -1;
+            for (reader.reset(u); reader.hasNext(); ) {
+                int v = reader.next();
+                rightDegree[v]--;
+                if (pairU[u] == -1 && pairV[v] == -1 && (best == -1 || rightDegree[v] < rightDegree[best])) {
+                    best = v;
+                }
+            }
+            if (best >= 0) {
+                pairU[u] = best;
+                pairV[best] = u;
+                added++;
+            }
+        }
+        return added;
+    }
+
+    // BFS to build layers, stopping after the layer where the first free right vertex shows up
     private boolean bfs() {
-        Queue<Integer> queue = new ArrayDeque<>();
         Arrays.fill(dist, -1);
-
+        int head = 0;
+        int tail = 0;
         for (int u = 0; u < nLeft; u++) {
             if (pairU[u] == -1) {
                 dist[u] = 0;
-                queue.add(u);
+                queue[tail++] = u;
             }
         }
 
-        boolean foundAugPath = false;
-        while (!queue.isEmpty()) {
-            int u = queue.poll();
-            for (int v : adj.get(u)) {
+        int shortest = Integer.MAX_VALUE;
+        while (head < tail) {
+            int u = queue[head++];
+            if (dist[u] >= shortest) {
+                break;
+            }
+            if (packed != null) {
+                for (reader.reset(u); reader.hasNext(); ) {
+                    int matchedLeft = pairV[reader.next()];
+                    if (matchedLeft == -1) {
+                        shortest = dist[u];
+                    } else if (dist[matchedLeft] == -1) {
+                        dist[matchedLeft] = dist[u] + 1;
+                        queue[tail++] = matchedLeft;
+                    }
+                }
+                continue;
+            }
+            for (int e = adj.firstEdge(u), end = adj.endEdge(u); e < end; e++) {
+                int v = adj.target(e);
                 int matchedLeft = pairV[v];
                 if (matchedLeft == -1) {
-                    foundAugPath = true;
+                    shortest = dist[u];
                 } else if (dist[matchedLeft] == -1) {
                     dist[matchedLeft] = dist[u] + 1;
-                    queue.add(matchedLeft);
+                    queue[tail++] = matchedLeft;
                 }
             }
         }
-        return foundAugPath;
+        return shortest != Integer.MAX_VALUE;
     }
 
-    // DFS to find augmenting paths within the BFS layering
-    private boolean dfs(int u) {
-        for (int v : adj.get(u)) {
-            int matchedLeft = pairV[v];
-            if (matchedLeft == -1 || (dist[matchedLeft] == dist[u] + 1 && dfs(matchedLeft))) {
-                pairU[u] = v;
-                pairV[v] = u;
-                return true;
+    /**
+     * DFS within the BFS layering with an explicit stack of left vertices; {@code cursor[u]} is
+     * the edge u is currently trying, so a path of any length needs no call stack.
+     */
+    private boolean dfs(int root) {
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int u = stack[top - 1];
+            int next = -1;
+            for (int end = adj.endEdge(u); cursor[u] < end; cursor[u]++) {
+                int matchedLeft = pairV[adj.target(cursor[u])];
+                if (matchedLeft == -1) {
+                    // augment along the stack: every vertex takes the right vertex its cursor points to
+                    for (int i = top - 1; i >= 0; i--) {
+                        int x = stack[i];
+                        int v = adj.target(cursor[x]);
+                        pairU[x] = v;
+                        pairV[v] = x;
+                    }
+                    return true;
+                }
+                if (dist[matchedLeft] == dist[u] + 1) {
+                    next = matchedLeft;
+                    break;
+                }
+            }
+            if (next >= 0) {
+                stack[top++] = next;
+            } else {
+                dist[u] = -1;
+                if (--top > 0) {
+                    cursor[stack[top - 1]]++;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * {@link #dfs(int)} on a compressed graph: {@code cursorState[u]} resumes u's neighbour list
+     * just after {@code current[u]}, the right vertex u is currently trying.
+     */
+    private boolean dfsCompressed(int root) {
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int u = stack[top - 1];
+            int next = -1;
+            reader.seek(u, cursorState[u]);
+            while (reader.hasNext()) {
+                int v = reader.next();
+                int matchedLeft = pairV[v];
+                if (matchedLeft == -1) {
+                    current[u] = v;
+                    for (int i = top - 1; i >= 0; i--) {
+                        int x = stack[i];
+                        pairU[x] = current[x];
+                        pairV[current[x]] = x;
+                    }
+                    return true;
+                }
+                if (dist[matchedLeft] == dist[u] + 1) {
+                    current[u] = v;
+                    next = matchedLeft;
+                    break;
+                }
+            }
+            cursorState[u] = reader.state();
+            if (next >= 0) {
+                stack[top++] = next;
+            } else {
+                dist[u] = -1;
+                top--;
             }
         }
-        dist[u] = -1;
         return false;
     }
 
+    /** Right partner of left vertex {@code u}, or -1; unlike {@link #getLeftMatches()} nothing is copied. */
+    public int leftMatch(int u) {
+        return pairU[u];
+    }
+
+    /** Left partner of right vertex {@code v}, or -1. */
+    public int rightMatch(int v) {
+        return pairV[v];
+    }
+
     public int[] getLeftMatches() {
         return pairU.clone();
     }
@@ -0,0 +1,100 @@
+package method.graph;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of {@code int} payloads ordered by {@code long} keys, stored in two parallel
+ * primitive arrays. Used by the Dijkstra-style searches in this package and the greedy
+ * algorithms in {@code method.greedyAlgorithm} instead of a {@code PriorityQueue} of boxed
+ * entries. There is no decrease-key: callers push a new entry and skip stale ones when they are
+ * popped, or use {@link #replaceTop} to pop and push in a single sift.
+ */
+public final class IntMinHeap {
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    public IntMinHeap(int initialCapacity) {
+        int capacity = Math.max(4, initialCapacity);
+        keys = new long[capacity];
+        values = new int[capacity];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void push(long key, int value) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size << 1);
+            values = Arrays.copyOf(values, size << 1);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) {
+                break;
+            }
+            keys[i] = keys[parent];
+            values[i] = values[parent];
+            i = parent;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+
+    /** Key of the minimum entry; the heap must not be empty. */
+    public long peekKey() {
+        return keys[0];
+    }
+
+    /** Payload of the minimum entry; the heap must not be empty. */
+    public int peekValue() {
+        return values[0];
+    }
+
+    /** Removes the minimum entry and returns its payload; the heap must not be empty. */
+    public int pop() {
+        int result = values[0];
+        int last = --size;
+        if (last > 0) {
+            siftDown(keys[last], values[last], last);
+        }
+        return result;
+    }
+
+    /** Replaces the minimum entry by {@code (key, value)}; the heap must not be empty. */
+    public void replaceTop(long key, int value) {
+        siftDown(key, value, size);
+    }
+
+    private void siftDown(long key, int value, int n) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                break;
+            }
+            if (child + 1 < n && keys[child + 1] < keys[child]) {
+                child++;
+            }
+            if (keys[child] >= key) {
+                break;
+            }
+            keys[i] = keys[child];
+            values[i] = values[child];
+            i = child;
+        }
+        keys[i] = key;
+        values[i] = value;
+    }
+}
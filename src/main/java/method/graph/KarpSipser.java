@@ -0,0 +1,121 @@
+package method.graph;
+
+/**
+ * Karp–Sipser greedy initial matching for {@link HopcroftKarp}.
+ * <p>
+ * A vertex with a single free neighbour can always be matched to it without losing optimality,
+ * so such vertices (on either side) are matched first; only when none is left is an arbitrary
+ * edge taken. On sparse random graphs this alone is often within a fraction of a percent of the
+ * maximum, leaving little for the exact phase. Runs in {@code O(V + E)} and extends whatever
+ * matching is already present.
+ * </p>
+ */
+final class KarpSipser {
+
+    private KarpSipser() {
+    }
+
+    /**
+     * @param adj     left-to-right adjacency
+     * @param reverse right-to-left adjacency ({@code adj.transpose()})
+     * @return the number of edges added to the matching
+     */
+    static int extend(CsrGraph adj, CsrGraph reverse, int[] pairU, int[] pairV) {
+        int nLeft = pairU.length;
+        int nRight = pairV.length;
+        // number of free neighbours of every free vertex (parallel edges counted each time)
+        int[] degreeU = new int[nLeft];
+        int[] degreeV = new int[nRight];
+        boolean empty = true;
+        for (int u = 0; u < nLeft && empty; u++) {
+            empty = pairU[u] == -1;
+        }
+        // degree-one vertices: left u as u, right v as ~v
+        int[] queue = new int[nLeft + nRight];
+        int tail = 0;
+        for (int u = 0; u < nLeft; u++) {
+            if (pairU[u] == -1) {
+                degreeU[u] = empty ? adj.degree(u) : freeDegree(adj, u, pairV);
+                if (degreeU[u] == 1) {
+                    queue[tail++] = u;
+                }
+            }
+        }
+        for (int v = 0; v < nRight; v++) {
+            if (pairV[v] == -1) {
+                degreeV[v] = empty ? reverse.degree(v) : freeDegree(reverse, v, pairU);
+                if (degreeV[v] == 1) {
+                    queue[tail++] = ~v;
+                }
+            }
+        }
+
+        int added = 0;
+        int head = 0;
+        int next = 0;
+        while (true) {
+            int u;
+            int v;
+            if (head < tail) {
+                int x = queue[head++];
+                if (x >= 0) {
+                    u = x;
+                    if (pairU[u] != -1 || degreeU[u] == 0) {
+                        continue;
+                    }
+                    v = firstFree(adj, u, pairV);
+                } else {
+                    v = ~x;
+                    if (pairV[v] != -1 || degreeV[v] == 0) {
+                        continue;
+                    }
+                    u = firstFree(reverse, v, pairU);
+                }
+            } else {
+                while (next < nLeft && (pairU[next] != -1 || degreeU[next] == 0)) {
+                    next++;
+                }
+                if (next == nLeft) {
+                    return added;
+                }
+                u = next;
+                v = firstFree(adj, u, pairV);
+            }
+            pairU[u] = v;
+            pairV[v] = u;
+            added++;
+            for (int e = adj.firstEdge(u), end = adj.endEdge(u); e < end; e++) {
+                int w = adj.target(e);
+                if (pairV[w] == -1 && --degreeV[w] == 1) {
+                    queue[tail++] = ~w;
+                }
+            }
+            for (int e = reverse.firstEdge(v), end = reverse.endEdge(v); e < end; e++) {
+                int w = reverse.target(e);
+                if (pairU[w] == -1 && --degreeU[w] == 1) {
+                    queue[tail++] = w;
+                }
+            }
+        }
+    }
+
+    private static int freeDegree(CsrGraph graph, int x, int[] pairOther) {
+        int degree = 0;
+        for (int e = graph.firstEdge(x), end = graph.endEdge(x); e < end; e++) {
+            if (pairOther[graph.target(e)] == -1) {
+                degree++;
+            }
+        }
+        return degree;
+    }
+
+    private static int firstFree(CsrGraph graph, int x, int[] pairOther) {
+        for (int e = graph.firstEdge(x), end = graph.endEdge(x); e < end; e++) {
+            int y = graph.target(e);
+            if (pairOther[y] == -1) {
+                return y;
+            }
+        }
+        throw new IllegalStateException("free degree out of sync at " + x);
+    }
+}
@@ -0,0 +1,55 @@
+package method.graph;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * A little-endian {@code int} array inside a file, memory-mapped in segments of
+ * {@code 2^segmentShift} ints because a single mapping cannot exceed 2 GiB. Backs the sections of
+ * a {@link CsrGraph} loaded through {@link CsrGraphFile#map(java.nio.file.Path)}.
+ */
+final class MappedInts {
+
+    /** Default segment: 2^28 ints, 1 GiB. */
+    static final int SEGMENT_SHIFT = 28;
+
+    private final IntBuffer[] segments;
+    private final int shift;
+    private final int mask;
+
+    private MappedInts(IntBuffer[] segments, int shift) {
+        this.segments = segments;
+        this.shift = shift;
+        this.mask = (1 << shift) - 1;
+    }
+
+    /**
+     * Maps {@code count} ints starting at byte {@code position} of {@code channel}.
+     *
+     * @param mode {@link FileChannel.MapMode#READ_ONLY} or {@link FileChannel.MapMode#READ_WRITE}
+     */
+    static MappedInts map(FileChannel channel, long position, long count, FileChannel.MapMode mode, int shift)
+            throws IOException {
+        long segmentInts = 1L << shift;
+        int n = (int) ((count + segmentInts - 1) >>> shift);
+        IntBuffer[] segments = new IntBuffer[n];
+        for (int i = 0; i < n; i++) {
+            long first = (long) i << shift;
+            long size = Math.min(segmentInts, count - first);
+            segments[i] = channel.map(mode, position + 4 * first, 4 * size)
+                    .order(ByteOrder.LITTLE_ENDIAN)
+                    .asIntBuffer();
+        }
+        return new MappedInts(segments, shift);
+    }
+
+    int get(int i) {
+        return segments[i >>> shift].get(i & mask);
+    }
+
+    void put(int i, int value) {
+        segments[i >>> shift].put(i & mask, value);
+    }
+}
@@ -0,0 +1,224 @@
+package method.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Minimum-cost bipartite assignment with integer costs, the weighted counterpart of
+ * {@link HopcroftKarp}.
+ *
+ * Left part: vertices [0,nLeft-1], Right part: [0,nRight-1], e.g. workers and jobs.
+ * Both solvers return the assignment as an {@code int[nLeft]} holding the right partner of every
+ * left vertex or {@code -1}, the same form as {@link HopcroftKarp#getLeftMatches()}.
+ * <ul>
+ *     <li>{@link #hungarian(int[][])}: dense cost matrix, {@code O(n²·m)}.</li>
+ *     <li>{@link #auction(int, int, CsrGraph, int)}: sparse costs on the edge weights of a
+ *     {@link CsrGraph}, ε-scaling auction with parallel bidding, see {@link AssignmentAuction}.</li>
+ * </ul>
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Hungarian_algorithm">Wikipedia: Hungarian algorithm</a>
+ * @see <a href="https://en.wikipedia.org/wiki/Auction_algorithm">Wikipedia: Auction algorithm</a>
+ */
+public final class MinCostAssignment {
+
+    /** Marks a forbidden pair in the matrix passed to {@link #hungarian(int[][])}. */
+    public static final int FORBIDDEN = Integer.MAX_VALUE;
+
+    private MinCostAssignment() {
+    }
+
+    /**
+     * Hungarian algorithm (shortest augmenting paths with potentials) on a dense cost matrix.
+     * Among the assignments of maximum cardinality, i.e. {@code min(nLeft, nRight)} pairs when no
+     * pair is forbidden, returns one of minimum total cost.
+     *
+     * @param cost {@code nLeft × nRight} matrix, {@code cost[u][v]} is the cost of assigning left
+     *             vertex u to right vertex v, or {@link #FORBIDDEN}
+     * @return the right partner of every left vertex, or -1 if it is left unassigned
+     * @throws IllegalArgumentException if the rows have different lengths
+     */
+    public static int[] hungarian(int[][] cost) {
+        int nLeft = cost.length;
+        int nRight = nLeft == 0 ? 0 : cost[0].length;
+        long maxAbs = 0;
+        for (int[] row : cost) {
+            if (row.length != nRight) {
+                throw new IllegalArgumentException("cost matrix is not rectangular");
+            }
+            for (int c : row) {
+                if (c != FORBIDDEN) {
+                    maxAbs = Math.max(maxAbs, Math.abs((long) c));
+                }
+            }
+        }
+        int[] leftMatches = new int[nLeft];
+        Arrays.fill(leftMatches, -1);
+        if (nLeft == 0 || nRight == 0) {
+            return leftMatches;
+        }
+
+        // rows of the solver must not outnumber its columns: transpose tall matrices
+        boolean transposed = nLeft > nRight;
+        int rows = transposed ? nRight : nLeft;
+        int cols = transposed ? nLeft : nRight;
+        // a forbidden pair costs more than any difference between two sets of allowed pairs, so
+        // the number of forbidden pairs in the result is minimal first and the cost second
+        long forbidden = 2 * maxAbs * rows + 1;
+        long[][] a = new long[rows][cols];
+        for (int u = 0; u < nLeft; u++) {
+            for (int v = 0; v < nRight; v++) {
+                int c = cost[u][v];
+                long value = c == FORBIDDEN ? forbidden : c;
+                if (transposed) {
+                    a[v][u] = value;
+                } else {
+                    a[u][v] = value;
+                }
+            }
+        }
+
+        int[] colMatch = solve(a, rows, cols);
+        for (int col = 0; col < cols; col++) {
+            int row = colMatch[col];
+            if (row == -1) {
+                continue;
+            }
+            int u = transposed ? col : row;
+            int v = transposed ? row : col;
+            if (cost[u][v] != FORBIDDEN) {
+                leftMatches[u] = v;
+            }
+        }
+        return leftMatches;
+    }
+
+    /** Sparse auction using all available cores. */
+    public static int[] auction(int nLeft, int nRight, CsrGraph costs) {
+        return auction(nLeft, nRight, costs, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * ε-scaling auction on a sparse instance: every edge {@code u → v} of {@code costs} is an
+     * allowed pair whose cost is {@code costs.weight(e)}. Every left vertex must be assignable at
+     * the same time (a matching covering the left side must exist), which is checked with
+     * {@link HopcroftKarp} first; the result is then a minimum-cost assignment of all of them.
+     * Parallel edges are allowed, the cheapest one counts.
+     *
+     * @param costs       weighted graph with {@code nLeft} rows whose targets are right vertices,
+     *                    e.g. built with {@link CsrGraph#builder(int, int)}
+     * @param parallelism number of bidding threads; 1 runs on the calling thread
+     * @return the right partner of every left vertex
+     * @throws IllegalArgumentException if the graph has no weights, no matching covers the left
+     *                                  side, or the cost range is too large for exact scaling
+     */
+    public static int[] auction(int nLeft, int nRight, CsrGraph costs, int parallelism) {
+        if (costs.getNumNodes() < nLeft) {
+            throw new IllegalArgumentException("graph has fewer rows than nLeft");
+        }
+        if (nLeft > 0 && !costs.hasWeights()) {
+            throw new IllegalArgumentException("auction needs edge weights as costs");
+        }
+        if (new HopcroftKarp(nLeft, nRight, costs).maxMatching() < nLeft) {
+            throw new IllegalArgumentException("no assignment covers every left vertex");
+        }
+        if (parallelism <= 1) {
+            return AssignmentAuction.solve(nLeft, nRight, costs, null);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return AssignmentAuction.solve(nLeft, nRight, costs, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Total cost of an assignment on a dense matrix.
+     *
+     * @return the sum of {@code cost[u][leftMatches[u]]} over the assigned left vertices
+     * @throws IllegalArgumentException if a forbidden pair is assigned
+     */
+    public static long totalCost(int[][] cost, int[] leftMatches) {
+        long total = 0;
+        for (int u = 0; u < leftMatches.length; u++) {
+            int v = leftMatches[u];
+            if (v != -1) {
+                if (cost[u][v] == FORBIDDEN) {
+                    throw new IllegalArgumentException("forbidden pair " + u + " -> " + v);
+                }
+                total += cost[u][v];
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Row-by-row shortest augmenting paths with row and column potentials ({@code rows <= cols}).
+     *
+     * @return the row assigned to every column, or -1
+     */
+    private static int[] solve(long[][] a, int rows, int cols) {
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("MinCostAssignment.hungarian");
+        long steps = 0;
+        // index 0 is a virtual column that holds the row being inserted
+        long[] rowPotential = new long[rows + 1];
+        long[] colPotential = new long[cols + 1];
+        int[] colRow = new int[cols + 1];
+        int[] way = new int[cols + 1];
+        long[] minSlack = new long[cols + 1];
+        boolean[] used = new boolean[cols + 1];
+
+        for (int row = 1; row <= rows; row++) {
+            colRow[0] = row;
+            int col0 = 0;
+            Arrays.fill(minSlack, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+            do {
+                steps++;
+                used[col0] = true;
+                int row0 = colRow[col0];
+                long[] costRow = a[row0 - 1];
+                long delta = Long.MAX_VALUE;
+                int col1 = 0;
+                for (int col = 1; col <= cols; col++) {
+                    if (!used[col]) {
+                        long slack = costRow[col - 1] - rowPotential[row0] - colPotential[col];
+                        if (slack < minSlack[col]) {
+                            minSlack[col] = slack;
+                            way[col] = col0;
+                        }
+                        if (minSlack[col] < delta) {
+                            delta = minSlack[col];
+                            col1 = col;
+                        }
+                    }
+                }
+                for (int col = 0; col <= cols; col++) {
+                    if (used[col]) {
+                        rowPotential[colRow[col]] += delta;
+                        colPotential[col] -= delta;
+                    } else {
+                        minSlack[col] -= delta;
+                    }
+                }
+                col0 = col1;
+            } while (colRow[col0] != 0);
+            // flip the augmenting path back to the virtual column
+            do {
+                int col1 = way[col0];
+                colRow[col0] = colRow[col1];
+                col0 = col1;
+            } while (col0 != 0);
+        }
+
+        int[] result = new int[cols];
+        for (int col = 1; col <= cols; col++) {
+            result[col - 1] = colRow[col] - 1;
+        }
+        if (probe != null) {
+            // one augmenting path per row, each Dijkstra step scans every column
+            probe.add(SolverCounter.AUGMENTING_PATHS, rows).add(SolverCounter.EDGES_RELAXED, steps * cols).finish();
+        }
+        return result;
+    }
+}
@@ -0,0 +1,465 @@
+package method.graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * Multi-core SCC decomposition behind {@link StronglyConnectedComponents#ofParallel}.
+ * <p>
+ * The algorithm is forward-backward (FW-BW) with trimming:
+ * <ol>
+ *   <li>Trim: peel vertices without in-edges, then vertices without out-edges, level by level.
+ *       Each peeled vertex is a singleton SCC. On sparse real-world graphs this removes most
+ *       vertices before any reachability search starts.</li>
+ *   <li>FW-BW: in a partition, pick a pivot and compute its forward set F and backward set B with
+ *       level-synchronous parallel BFS. {@code F ∩ B} is one SCC; {@code F \ B}, {@code B \ F} and
+ *       the untouched rest are independent partitions and are processed as separate tasks.</li>
+ *   <li>Partitions below {@link #SEQUENTIAL_THRESHOLD} vertices fall back to the sequential
+ *       path-based algorithm restricted to the partition.</li>
+ * </ol>
+ * Every partition split records the topological relation of its pieces
+ * ({@code B \ F}, SCC, rest, {@code F \ B}) in an {@link OrderNode} tree, so the final ids can be
+ * renumbered into the same topological order that {@link StronglyConnectedComponents#of} yields.
+ * </p>
+ *
+ * @see <a href="https://doi.org/10.1145/2485922.2485939">
+ *      Hong, Rodia, Olukotun: On fast parallel detection of strongly connected components</a>
+ */
+final class ParallelSccDecomposer {
+
+    /** Partitions smaller than this are solved sequentially by one worker. */
+    static final int SEQUENTIAL_THRESHOLD = 1 << 14;
+
+    /** Frontier and scan slices handed to one worker. */
+    private static final int CHUNK = 1 << 11;
+
+    private static final int ASSIGNED = -1;
+    private static final int NONE = Integer.MIN_VALUE;
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final CsrGraph graph;
+    private final CsrGraph reverse;
+    /** Partition label of every vertex, {@link #ASSIGNED} once its component id is final. */
+    private final int[] part;
+    private final int[] componentOf;
+    /** Scratch mapping from vertex to position inside a sequentially solved partition. */
+    private final int[] localIndex;
+    private final AtomicInteger nextLabel = new AtomicInteger(1);
+    private final AtomicInteger nextComponent = new AtomicInteger();
+
+    private ParallelSccDecomposer(CsrGraph graph, CsrGraph reverse) {
+        this.graph = graph;
+        this.reverse = reverse;
+        int n = graph.getNumNodes();
+        this.part = new int[n];
+        this.componentOf = new int[n];
+        this.localIndex = new int[n];
+    }
+
+    /** One node of the ordering tree: either ordered children or a leaf with a contiguous id range. */
+    private static final class OrderNode {
+        OrderNode[] children;
+        int leafStart;
+        int leafCount;
+
+        static OrderNode leaf(int start, int count) {
+            OrderNode node = new OrderNode();
+            node.leafStart = start;
+            node.leafCount = count;
+            return node;
+        }
+    }
+
+    static StronglyConnectedComponents decompose(CsrGraph graph, ForkJoinPool pool) {
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("StronglyConnectedComponents.ofParallel");
+        StronglyConnectedComponents components = pool.submit(() -> {
+            ParallelSccDecomposer decomposer = new ParallelSccDecomposer(graph, transpose(graph));
+            return decomposer.run();
+        }).join();
+        if (probe != null) {
+            probe.add(SolverCounter.COMPONENTS, components.getComponentCount()).finish();
+        }
+        return components;
+    }
+
+    private StronglyConnectedComponents run() {
+        int n = graph.getNumNodes();
+        OrderNode root = new OrderNode();
+        OrderNode sources = trimSources();
+        OrderNode sinks = trimSinks();
+        OrderNode middle = new OrderNode();
+        root.children = new OrderNode[] {sources, middle, sinks};
+
+        int[] remaining = filter(IntStream.range(0, n), v -> part[v] == 0, n);
+        if (remaining.length > 0) {
+            new PartitionTask(null, remaining, 0, middle).invoke();
+        }
+
+        int componentCount = nextComponent.get();
+        int[] remap = new int[componentCount];
+        int next = 0;
+        Deque<OrderNode> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            OrderNode node = stack.pop();
+            if (node.children != null) {
+                for (int i = node.children.length - 1; i >= 0; i--) {
+                    stack.push(node.children[i]);
+                }
+            } else {
+                for (int i = 0; i < node.leafCount; i++) {
+                    remap[node.leafStart + i] = next++;
+                }
+            }
+        }
+        parallelFor(n, v -> componentOf[v] = remap[componentOf[v]]);
+        return StronglyConnectedComponents.fromComponentIds(graph, componentCount, componentOf);
+    }
+
+    // ---------------------------------------------------------------- trimming
+
+    /** Peels vertices whose remaining in-degree is zero; ids ascend with the peeling level. */
+    private OrderNode trimSources() {
+        int n = graph.getNumNodes();
+        int[] inDegree = new int[n];
+        parallelFor(n, v -> inDegree[v] = reverse.degree(v));
+        int[] frontier = filter(IntStream.range(0, n), v -> inDegree[v] == 0, n);
+        int start = nextComponent.get();
+        while (frontier.length > 0) {
+            int base = nextComponent.getAndAdd(frontier.length);
+            int[] level = frontier;
+            parallelFor(level.length, i -> {
+                part[level[i]] = ASSIGNED;
+                componentOf[level[i]] = base + i;
+            });
+            frontier = expand(graph, level, w -> (int) INTS.getAndAdd(inDegree, w, -1) == 1);
+        }
+        return OrderNode.leaf(start, nextComponent.get() - start);
+    }
+
+    /**
+     * Peels vertices whose out-edges all lead to already peeled vertices. Sinks found in later
+     * levels point into earlier ones, so ids are handed out in reverse peeling order.
+     */
+    private OrderNode trimSinks() {
+        int n = graph.getNumNodes();
+        int[] outDegree = new int[n];
+        parallelFor(n, v -> {
+            if (part[v] != ASSIGNED) {
+                int live = 0;
+                for (int e = graph.firstEdge(v), end = graph.endEdge(v); e < end; e++) {
+                    if (part[graph.target(e)] != ASSIGNED) {
+                        live++;
+                    }
+                }
+                outDegree[v] = live;
+            }
+        });
+        int[] frontier = filter(IntStream.range(0, n), v -> part[v] != ASSIGNED && outDegree[v] == 0, n);
+        IntList peeled = new IntList(16);
+        while (frontier.length > 0) {
+            int[] level = frontier;
+            parallelFor(level.length, i -> part[level[i]] = ASSIGNED);
+            peeled.addAll(level);
+            frontier = expand(reverse, level,
+                    u -> part[u] != ASSIGNED && (int) INTS.getAndAdd(outDegree, u, -1) == 1);
+        }
+        int count = peeled.size();
+        int start = nextComponent.getAndAdd(count);
+        int[] order = peeled.elements();
+        parallelFor(count, i -> componentOf[order[i]] = start + count - 1 - i);
+        return OrderNode.leaf(start, count);
+    }
+
+    // ---------------------------------------------------------------- FW-BW
+
+    private final class PartitionTask extends CountedCompleter<Void> {
+
+        private final int[] vertices;
+        private final int label;
+        private final OrderNode node;
+
+        PartitionTask(CountedCompleter<?> parent, int[] vertices, int label, OrderNode node) {
+            super(parent);
+            this.vertices = vertices;
+            this.label = label;
+            this.node = node;
+        }
+
+        @Override
+        public void compute() {
+            if (vertices.length <= SEQUENTIAL_THRESHOLD) {
+                solveSequentially(vertices, label, node);
+                tryComplete();
+                return;
+            }
+            int pivot = vertices[0];
+            int forward = nextLabel.getAndIncrement();
+            int backward = nextLabel.getAndIncrement();
+            int both = nextLabel.getAndIncrement();
+
+            part[pivot] = forward;
+            reach(graph, pivot, label, forward, NONE, NONE);
+            part[pivot] = both;
+            reach(reverse, pivot, forward, both, label, backward);
+
+            int component = nextComponent.getAndIncrement();
+            int[] backwardOnly = filter(Arrays.stream(vertices), v -> part[v] == backward, vertices.length);
+            int[] rest = filter(Arrays.stream(vertices), v -> part[v] == label, vertices.length);
+            int[] forwardOnly = filter(Arrays.stream(vertices), v -> part[v] == forward, vertices.length);
+            parallelFor(vertices.length, i -> {
+                int v = vertices[i];
+                if (part[v] == both) {
+                    part[v] = ASSIGNED;
+                    componentOf[v] = component;
+                }
+            });
+
+            OrderNode[] children = {new OrderNode(), OrderNode.leaf(component, 1), new OrderNode(), new OrderNode()};
+            node.children = children;
+            List<PartitionTask> subtasks = new ArrayList<>(3);
+            if (backwardOnly.length > 0) {
+                subtasks.add(new PartitionTask(this, backwardOnly, backward, children[0]));
+            }
+            if (rest.length > 0) {
+                subtasks.add(new PartitionTask(this, rest, label, children[2]));
+            }
+            if (forwardOnly.length > 0) {
+                subtasks.add(new PartitionTask(this, forwardOnly, forward, children[3]));
+            }
+            setPendingCount(subtasks.size());
+            for (PartitionTask subtask : subtasks) {
+                subtask.fork();
+            }
+            tryComplete();
+        }
+    }
+
+    /**
+     * BFS from {@code pivot} (already relabelled) over {@code g}. A vertex is entered when its label
+     * can be switched from {@code fromA} to {@code toA}, or from {@code fromB} to {@code toB}.
+     */
+    private void reach(CsrGraph g, int pivot, int fromA, int toA, int fromB, int toB) {
+        int[] frontier = {pivot};
+        while (frontier.length > 0) {
+            frontier = expand(g, frontier, w -> INTS.compareAndSet(part, w, fromA, toA)
+                    || (fromB != NONE && INTS.compareAndSet(part, w, fromB, toB)));
+        }
+    }
+
+    /**
+     * Path-based SCC (as in {@link StronglyConnectedComponents#of}) restricted to the vertices of one
+     * partition; edges leaving the partition are ignored.
+     */
+    private void solveSequentially(int[] vertices, int label, OrderNode node) {
+        int k = vertices.length;
+        for (int i = 0; i < k; i++) {
+            localIndex[vertices[i]] = i;
+        }
+        int[] rindex = new int[k];
+        boolean[] root = new boolean[k];
+        int[] pending = new int[k];
+        int pendingTop = 0;
+        int[] callNode = new int[k];
+        int[] callEdge = new int[k];
+        int index = 1;
+        int c = k - 1;
+
+        for (int s = 0; s < k; s++) {
+            if (rindex[s] != 0) {
+                continue;
+            }
+            int depth = 0;
+            callNode[0] = s;
+            callEdge[0] = graph.firstEdge(vertices[s]);
+            rindex[s] = index++;
+            root[s] = true;
+
+            while (depth >= 0) {
+                int v = callNode[depth];
+                int e = callEdge[depth];
+                if (e < graph.endEdge(vertices[v])) {
+                    callEdge[depth] = e + 1;
+                    int target = graph.target(e);
+                    if (part[target] != label) {
+                        continue;
+                    }
+                    int w = localIndex[target];
+                    if (rindex[w] == 0) {
+                        depth++;
+                        callNode[depth] = w;
+                        callEdge[depth] = graph.firstEdge(target);
+                        rindex[w] = index++;
+                        root[w] = true;
+                    } else if (rindex[w] < rindex[v]) {
+                        rindex[v] = rindex[w];
+                        root[v] = false;
+                    }
+                    continue;
+                }
+
+                if (root[v]) {
+                    index--;
+                    while (pendingTop > 0 && rindex[v] <= rindex[pending[pendingTop - 1]]) {
+                        rindex[pending[--pendingTop]] = c;
+                        index--;
+                    }
+                    rindex[v] = c;
+                    c--;
+                } else {
+                    pending[pendingTop++] = v;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    if (rindex[v] < rindex[parent]) {
+                        rindex[parent] = rindex[v];
+                        root[parent] = false;
+                    }
+                }
+            }
+        }
+
+        int count = k - 1 - c;
+        int start = nextComponent.getAndAdd(count);
+        for (int i = 0; i < k; i++) {
+            componentOf[vertices[i]] = start + rindex[i] - (c + 1);
+        }
+        for (int v : vertices) {
+            part[v] = ASSIGNED;
+        }
+        node.leafStart = start;
+        node.leafCount = count;
+    }
+
+    // ---------------------------------------------------------------- parallel helpers
+
+    @FunctionalInterface
+    private interface IntClaim {
+        boolean claim(int w);
+    }
+
+    /** Returns every neighbour of {@code frontier} (in {@code g}) for which {@code claim} succeeds. */
+    private static int[] expand(CsrGraph g, int[] frontier, IntClaim claim) {
+        if (frontier.length <= CHUNK) {
+            return expandRange(g, frontier, 0, frontier.length, claim);
+        }
+        List<RecursiveTask<int[]>> chunks = new ArrayList<>();
+        for (int from = 0; from < frontier.length; from += CHUNK) {
+            int lo = from;
+            int hi = Math.min(frontier.length, from + CHUNK);
+            chunks.add(new RecursiveTask<>() {
+                @Override
+                protected int[] compute() {
+                    return expandRange(g, frontier, lo, hi, claim);
+                }
+            });
+        }
+        ForkJoinTask.invokeAll(chunks);
+        IntList next = new IntList(frontier.length);
+        for (RecursiveTask<int[]> chunk : chunks) {
+            next.addAll(chunk.join());
+        }
+        return next.toArray();
+    }
+
+    private static int[] expandRange(CsrGraph g, int[] frontier, int from, int to, IntClaim claim) {
+        IntList next = new IntList(to - from);
+        for (int i = from; i < to; i++) {
+            int v = frontier[i];
+            for (int e = g.firstEdge(v), end = g.endEdge(v); e < end; e++) {
+                int w = g.target(e);
+                if (claim.claim(w)) {
+                    next.add(w);
+                }
+            }
+        }
+        return next.toArray();
+    }
+
+    private static int[] filter(IntStream values, IntPredicate predicate, int size) {
+        return size <= CHUNK ? values.filter(predicate).toArray() : values.parallel().filter(predicate).toArray();
+    }
+
+    private static void parallelFor(int size, IntConsumer body) {
+        if (size <= CHUNK) {
+            for (int i = 0; i < size; i++) {
+                body.accept(i);
+            }
+        } else {
+            IntStream.range(0, size).parallel().forEach(body);
+        }
+    }
+
+    /** Parallel {@link CsrGraph#transpose()}; in-edge order is unspecified, which SCC does not care about. */
+    private static CsrGraph transpose(CsrGraph graph) {
+        int n = graph.getNumNodes();
+        int[] offsets = new int[n + 1];
+        parallelFor(n, u -> {
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                INTS.getAndAdd(offsets, graph.target(e) + 1, 1);
+            }
+        });
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] cursor = Arrays.copyOf(offsets, n);
+        int[] targets = new int[graph.getNumEdges()];
+        parallelFor(n, u -> {
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                targets[(int) INTS.getAndAdd(cursor, graph.target(e), 1)] = u;
+            }
+        });
+        return CsrGraph.wrap(offsets, targets, null, null);
+    }
+
+    /** Minimal growable int array. */
+    private static final class IntList {
+        private int[] elements;
+        private int size;
+
+        IntList(int capacity) {
+            elements = new int[Math.max(4, capacity)];
+        }
+
+        void add(int value) {
+            if (size == elements.length) {
+                elements = Arrays.copyOf(elements, size << 1);
+            }
+            elements[size++] = value;
+        }
+
+        void addAll(int[] values) {
+            if (size + values.length > elements.length) {
+                elements = Arrays.copyOf(elements, Math.max(size << 1, size + values.length));
+            }
+            System.arraycopy(values, 0, elements, size, values.length);
+            size += values.length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] elements() {
+            return elements;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(elements, size);
+        }
+    }
+}
@@ -0,0 +1,328 @@
+package method.graph;
+
+import java.util.Arrays;
+
+/**
+ * Label-setting solver for the resource constrained shortest path problem.
+ * <p>
+ * Instead of a {@code (maxResource + 1) x numNodes} table, every node keeps only its Pareto front
+ * of non-dominated {@code (cost, resource)} labels. Labels are expanded best-first by
+ * {@code cost + lowerBoundCost(node)}, where both lower bounds come from reverse Dijkstra runs
+ * towards the target: one on cost (admissible A* heuristic) and one on resource (labels that
+ * cannot reach the target within the budget are never created). The first target label popped
+ * is optimal, and its predecessor chain is the path.
+ * </p>
+ * <p>
+ * Requires non-negative costs and resources. Memory is proportional to the number of labels
+ * actually created, which on typical instances is a small multiple of the nodes touched.
+ * </p>
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Constrained_Shortest_Path_First">Constrained shortest path</a>
+ */
+public final class ParetoLabelSetting {
+
+    static final long UNREACHABLE = Long.MAX_VALUE / 4;
+
+    private final CsrGraph graph;
+    private CsrGraph reverse;
+
+    /**
+     * @param graph graph whose weights are edge costs and whose resources are edge resource use
+     * @throws IllegalArgumentException if an attribute is missing or negative
+     */
+    public ParetoLabelSetting(CsrGraph graph) {
+        if (!graph.hasWeights() || !graph.hasResources()) {
+            throw new IllegalArgumentException("graph must carry edge weights and resources");
+        }
+        for (int e = 0; e < graph.getNumEdges(); e++) {
+            if (graph.weight(e) < 0 || graph.resource(e) < 0) {
+                throw new IllegalArgumentException("label setting requires non-negative costs and resources");
+            }
+        }
+        this.graph = graph;
+    }
+
+    /**
+     * Finds a minimum-cost path from {@code start} to {@code target} whose total resource does not
+     * exceed {@code maxResource}.
+     *
+     * @return the optimal path, or {@link ConstrainedShortestPath.Path#NONE} if none exists
+     */
+    public ConstrainedShortestPath.Path shortestPath(int start, int target, int maxResource) {
+        if (maxResource < 0) {
+            return ConstrainedShortestPath.Path.NONE;
+        }
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("ParetoLabelSetting.shortestPath");
+        CsrGraph reversed = reverse();
+        long[] lowerCost = dijkstra(reversed, target, false);
+        long[] lowerResource = dijkstra(reversed, target, true);
+        if (lowerResource[start] > maxResource) {
+            if (probe != null) {
+                probe.finish();
+            }
+            return ConstrainedShortestPath.Path.NONE;
+        }
+
+        Labels labels = new Labels(graph.getNumNodes());
+        IntMinHeap heap = new IntMinHeap(64);
+        heap.push(lowerCost[start], labels.offer(start, 0, 0, -1));
+        ConstrainedShortestPath.Path result = ConstrainedShortestPath.Path.NONE;
+        long relaxed = 0;
+
+        while (!heap.isEmpty()) {
+            int label = heap.pop();
+            if (labels.dead[label]) {
+                continue;
+            }
+            int u = labels.node[label];
+            if (u == target) {
+                result = labels.path(label);
+                break;
+            }
+            long cost = labels.cost[label];
+            int resource = labels.resource[label];
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                int v = graph.target(e);
+                // in long, so that a sum beyond int range is dropped rather than wrapped below the limit
+                long newResource = (long) resource + graph.resource(e);
+                if (newResource + lowerResource[v] > maxResource) {
+                    continue;
+                }
+                relaxed++;
+                long newCost = cost + graph.weight(e);
+                int created = labels.offer(v, newCost, (int) newResource, label);
+                if (created >= 0) {
+                    heap.push(newCost + lowerCost[v], created);
+                }
+            }
+        }
+        if (probe != null) {
+            probe.add(SolverCounter.DP_CELLS, labels.size).add(SolverCounter.EDGES_RELAXED, relaxed).finish();
+        }
+        return result;
+    }
+
+    /**
+     * One-to-all variant: the Pareto fronts of every node reachable from {@code source} within
+     * {@code maxResource}. Labels are settled in cost order, so each front is exact once the
+     * search ends, and any (target, budget <= maxResource) query can be answered from it.
+     */
+    Labels frontiers(int source, int maxResource) {
+        Labels labels = new Labels(graph.getNumNodes());
+        if (maxResource < 0) {
+            return labels;
+        }
+        IntMinHeap heap = new IntMinHeap(64);
+        heap.push(0, labels.offer(source, 0, 0, -1));
+        while (!heap.isEmpty()) {
+            int label = heap.pop();
+            if (labels.dead[label]) {
+                continue;
+            }
+            int u = labels.node[label];
+            long cost = labels.cost[label];
+            int resource = labels.resource[label];
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                long newResource = (long) resource + graph.resource(e);
+                if (newResource > maxResource) {
+                    continue;
+                }
+                long newCost = cost + graph.weight(e);
+                int created = labels.offer(graph.target(e), newCost, (int) newResource, label);
+                if (created >= 0) {
+                    heap.push(newCost, created);
+                }
+            }
+        }
+        labels.trimToSize();
+        return labels;
+    }
+
+    CsrGraph graph() {
+        return graph;
+    }
+
+    CsrGraph reverse() {
+        if (reverse == null) {
+            reverse = graph.transpose();
+        }
+        return reverse;
+    }
+
+    /**
+     * Single-criterion Dijkstra from {@code source} on either edge weights or edge resources.
+     * Unreachable nodes get {@link #UNREACHABLE}.
+     */
+    static long[] dijkstra(CsrGraph g, int source, boolean byResource) {
+        long[] dist = new long[g.getNumNodes()];
+        Arrays.fill(dist, UNREACHABLE);
+        dist[source] = 0;
+        IntMinHeap heap = new IntMinHeap(64);
+        heap.push(0, source);
+        while (!heap.isEmpty()) {
+            long d = heap.peekKey();
+            int u = heap.pop();
+            if (d > dist[u]) {
+                continue;
+            }
+            for (int e = g.firstEdge(u), end = g.endEdge(u); e < end; e++) {
+                int v = g.target(e);
+                long nd = d + (byResource ? g.resource(e) : g.weight(e));
+                if (nd < dist[v]) {
+                    dist[v] = nd;
+                    heap.push(nd, v);
+                }
+            }
+        }
+        return dist;
+    }
+
+    /**
+     * Label pool in parallel primitive arrays plus one Pareto front per node. A front is kept
+     * sorted by ascending resource, which makes cost strictly descending along it.
+     */
+    static final class Labels {
+
+        int[] node;
+        long[] cost;
+        int[] resource;
+        int[] predecessor;
+        boolean[] dead;
+        int size;
+
+        private final int[][] front;
+        private final int[] frontSize;
+
+        Labels(int numNodes) {
+            int capacity = 64;
+            node = new int[capacity];
+            cost = new long[capacity];
+            resource = new int[capacity];
+            predecessor = new int[capacity];
+            dead = new boolean[capacity];
+            front = new int[numNodes][];
+            frontSize = new int[numNodes];
+        }
+
+        /**
+         * Adds the label {@code (c, r)} at node {@code v} unless an existing label dominates it,
+         * discarding the labels it dominates.
+         *
+         * @return the new label id, or {@code -1} if it was dominated
+         */
+        int offer(int v, long c, int r, int pred) {
+            int[] f = front[v];
+            int n = frontSize[v];
+            // last label with resource <= r has the lowest cost among those
+            int lo = 0;
+            int hi = n - 1;
+            int i = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (resource[f[mid]] <= r) {
+                    i = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            if (i >= 0 && cost[f[i]] <= c) {
+                return -1;
+            }
+            int from = (i >= 0 && resource[f[i]] == r) ? i : i + 1;
+            int to = from;
+            while (to < n && cost[f[to]] >= c) {
+                dead[f[to]] = true;
+                to++;
+            }
+
+            int id = append(v, c, r, pred);
+            front[v] = f == null ? new int[] {id} : insert(f, n, from, to, id);
+            frontSize[v] = n - (to - from) + 1;
+            return id;
+        }
+
+        private int append(int v, long c, int r, int pred) {
+            if (size == node.length) {
+                int capacity = size + (size >> 1);
+                node = Arrays.copyOf(node, capacity);
+                cost = Arrays.copyOf(cost, capacity);
+                resource = Arrays.copyOf(resource, capacity);
+                predecessor = Arrays.copyOf(predecessor, capacity);
+                dead = Arrays.copyOf(dead, capacity);
+            }
+            node[size] = v;
+            cost[size] = c;
+            resource[size] = r;
+            predecessor[size] = pred;
+            return size++;
+        }
+
+        /** Replaces {@code f[from, to)} with {@code id}, growing the array when needed. */
+        private static int[] insert(int[] f, int n, int from, int to, int id) {
+            int newSize = n - (to - from) + 1;
+            int[] target = newSize > f.length ? Arrays.copyOf(f, Math.max(newSize, f.length << 1)) : f;
+            System.arraycopy(f, to, target, from + 1, n - to);
+            target[from] = id;
+            return target;
+        }
+
+        /**
+         * Cheapest label at {@code v} whose resource is at most {@code budget}: the front entry with
+         * the largest resource not above the budget. Returns {@code -1} if there is none.
+         */
+        int best(int v, int budget) {
+            int[] f = front[v];
+            int lo = 0;
+            int hi = frontSize[v] - 1;
+            int found = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (resource[f[mid]] <= budget) {
+                    found = f[mid];
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            return found;
+        }
+
+        /** Drops spare capacity; used before a label pool is kept in a cache. */
+        void trimToSize() {
+            node = Arrays.copyOf(node, size);
+            cost = Arrays.copyOf(cost, size);
+            resource = Arrays.copyOf(resource, size);
+            predecessor = Arrays.copyOf(predecessor, size);
+            dead = Arrays.copyOf(dead, size);
+            for (int v = 0; v < front.length; v++) {
+                if (front[v] != null && front[v].length != frontSize[v]) {
+                    front[v] = Arrays.copyOf(front[v], frontSize[v]);
+                }
+            }
+        }
+
+        /** Rough retained size in bytes, used for cache accounting. */
+        long estimatedBytes() {
+            long bytes = (long) node.length * (4 + 8 + 4 + 4 + 1) + (long) front.length * (8 + 4);
+            for (int[] f : front) {
+                if (f != null) {
+                    bytes += 16 + 4L * f.length;
+                }
+            }
+            return bytes;
+        }
+
+        ConstrainedShortestPath.Path path(int label) {
+            int length = 0;
+            for (int l = label; l >= 0; l = predecessor[l]) {
+                length++;
+            }
+            int[] nodes = new int[length];
+            for (int l = label; l >= 0; l = predecessor[l]) {
+                nodes[--length] = node[l];
+            }
+            return new ConstrainedShortestPath.Path((int) cost[label], resource[label], nodes);
+        }
+    }
+}
@@ -4,10 +4,17 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.IntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * DFS that visits a successor only when all its predecessors are already visited,
@@ -16,6 +23,11 @@ import java.util.Set;
  *     This class includes a DFS variant that visits a successor only when all of its
  *     predecessors have already been visited
  * </p>
+ * <p>
+ *     {@link #dfsRecursiveOrder(Map, Object)} is the recursive reference. For large or repeatedly
+ *     traversed graphs, {@link #compile(Map)} interns the nodes once and yields the same events in
+ *     linear time, see {@link Compiled}.
+ * </p>
  * <p>Related reading:
  * <ul>
  *   <li><a href="https://en.wikipedia.org/wiki/Topological_sorting">Topological sorting</a></li>
@@ -30,40 +42,138 @@ public final class PredecessorConstrainedDfs {
         // utility class
     }
 
-    /** An event emitted by the traversal: either a VISIT with an order, or a SKIP with a note. */
-    public record TraversalEvent<T>(T node,
-                                    Integer order, // non-null for visit, null for skip
-                                    String note // non-null for skip, null for visit
-    ) {
-        public TraversalEvent {
-            Objects.requireNonNull(node);
-            // order and note can be null based on event type
+    /**
+     * An event emitted by the traversal: either a VISIT with an order, or a SKIP with a note.
+     * <p>
+     * The order is held as a primitive ({@link #orderAsInt()}) and boxed only when {@link #order()}
+     * is called. Events produced by the traversals in this class build the note of a SKIP on the
+     * first call to {@link #note()}; events created through {@link #skip(Object, String)} keep the
+     * note they were given.
+     * </p>
+     */
+    public static final class TraversalEvent<T> {
+
+        /** Placeholder for a note that is built from the node on demand. */
+        private static final String LAZY_NOTE = new String("");
+
+        private final T node;
+        private final int order; // >= 0 for visit, -1 for skip
+        private String note; // non-null for skip, null for visit
+
+        /**
+         * @param order non-null for visit, null for skip
+         * @param note  non-null for skip, null for visit
+         */
+        public TraversalEvent(T node, Integer order, String note) {
+            this(Objects.requireNonNull(node), order == null ? -1 : order, note);
+        }
+
+        private TraversalEvent(T node, int order, String note) {
+            this.node = node;
+            this.order = order;
+            this.note = note;
         }
 
         /** A visit event with an increasing order (0,1,2,...) */
         public static <T> TraversalEvent<T> visit(T node, int order) {
-            return new TraversalEvent<>(node, order, null);
+            return new TraversalEvent<>(Objects.requireNonNull(node), order, null);
         }
 
         /** A skip event with an explanatory note (e.g., not all parents visited yet). */
         public static <T> TraversalEvent<T> skip(T node, String note) {
-            return new TraversalEvent<>(node, null, Objects.requireNonNull(note));
+            return new TraversalEvent<>(Objects.requireNonNull(node), -1, Objects.requireNonNull(note));
+        }
+
+        /** A skip event whose note is {@link #skipNote(Object)}, built when first asked for. */
+        static <T> TraversalEvent<T> skip(T node) {
+            return new TraversalEvent<>(node, -1, LAZY_NOTE);
+        }
+
+        public T node() {
+            return node;
+        }
+
+        /** The visit order, or null for a skip. */
+        public Integer order() {
+            return order < 0 ? null : order;
+        }
+
+        /** The visit order, or -1 for a skip. */
+        public int orderAsInt() {
+            return order;
+        }
+
+        public String note() {
+            String result = note;
+            if (result == LAZY_NOTE) {
+                result = skipNote(node);
+                note = result; // racing threads compute the same string
+            }
+            return result;
         }
 
         public boolean isVisit() {
-            return order != null;
+            return order >= 0;
         }
 
         public boolean isSkip() {
-            return order == null;
+            return order < 0;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TraversalEvent<?> other)) {
+                return false;
+            }
+            return order == other.order && node.equals(other.node) && Objects.equals(note(), other.note());
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(node, order, note());
         }
 
         @Override
         public String toString() {
-            return isVisit() ? "VISIT(" + node + ", order=" + order + ")" : "SKIP(" + node + ", " + note + ")";
+            return isVisit() ? "VISIT(" + node + ", order=" + order + ")" : "SKIP(" + node + ", " + note() + ")";
         }
     }
 
+    /**
+     * Receives the events of a traversal as they happen, without materialising
+     * {@link TraversalEvent}s. Returning {@code false} from either method stops the traversal.
+     */
+    public interface Visitor<T> {
+
+        /** A VISIT with order 0, 1, 2, ... */
+        boolean visit(T node, int order);
+
+        /** A SKIP; its note is {@link #skipNote(Object)} should it be needed. */
+        default boolean skip(T node) {
+            return true;
+        }
+    }
+
+    /** {@link Visitor} over the int nodes of a {@link CsrGraph}, free of boxing. */
+    public interface IntVisitor {
+
+        /** A VISIT with order 0, 1, 2, ... */
+        boolean visit(int node, int order);
+
+        /** A SKIP; its note is {@link #skipNote(Object)} should it be needed. */
+        default boolean skip(int node) {
+            return true;
+        }
+    }
+
+    /** The note of a SKIP event for {@code node}. */
+    public static String skipNote(Object node) {
+        return "⛔ Skipping " + node + ": not all parents are visited yet.";
+    }
+
     /**
      * DFS (recursive) that records the order of first visit starting at {@code start},
      * but only recurses to a child when <b>all</b> its predecessors have been visited.
@@ -108,6 +218,355 @@ public final class PredecessorConstrainedDfs {
         return Collections.unmodifiableList(events);
     }
 
+    /**
+     * Same traversal as {@link #dfsRecursiveOrder(Map, Object)} but on a {@link CsrGraph}: nodes are
+     * the ints {@code [0, getNumNodes())}. Runs on the counter-based engine of {@link Compiled}, so
+     * it takes linear time and no call stack.
+     *
+     * @param successors graph whose out-edges are the successor lists
+     * @param start start node
+     * @return immutable list of traversal events, empty if {@code start} is outside the graph
+     */
+    public static List<TraversalEvent<Integer>> dfsRecursiveOrder(CsrGraph successors, int start) {
+        if (!contains(successors, start)) {
+            return List.of();
+        }
+        return collect(cursor(successors, start), Integer::valueOf);
+    }
+
+    /**
+     * Pushes the events of {@link #dfsRecursiveOrder(CsrGraph, int)} to {@code visitor} as they
+     * happen, without allocating per event.
+     *
+     * @return {@code false} if the visitor stopped the traversal, {@code true} if it ran to the end
+     *         (or {@code start} is outside the graph)
+     */
+    public static boolean traverse(CsrGraph successors, int start, IntVisitor visitor) {
+        if (!contains(successors, start)) {
+            return true;
+        }
+        return traverse(cursor(successors, start), visitor);
+    }
+
+    /**
+     * {@link #traverse(CsrGraph, int, IntVisitor)} on a compressed graph, read in place. Its
+     * neighbour lists are sorted, so the events are those of the {@link CsrGraph} overloads on
+     * {@link CompressedGraph#toCsr()}.
+     */
+    public static boolean traverse(CompressedGraph successors, int start, IntVisitor visitor) {
+        if (!contains(successors, start)) {
+            return true;
+        }
+        return traverse(new ConstrainedDfsCursor(successors, start), visitor);
+    }
+
+    /** {@link #dfsRecursiveOrder(CsrGraph, int)} on a compressed graph, with neighbours in ascending order. */
+    public static List<TraversalEvent<Integer>> dfsRecursiveOrder(CompressedGraph successors, int start) {
+        if (!contains(successors, start)) {
+            return List.of();
+        }
+        return collect(new ConstrainedDfsCursor(successors, start), Integer::valueOf);
+    }
+
+    private static boolean traverse(ConstrainedDfsCursor cursor, IntVisitor visitor) {
+        while (true) {
+            switch (cursor.advance()) {
+                case ConstrainedDfsCursor.VISIT:
+                    if (!visitor.visit(cursor.node(), cursor.order())) {
+                        return false;
+                    }
+                    break;
+                case ConstrainedDfsCursor.SKIP:
+                    if (!visitor.skip(cursor.node())) {
+                        return false;
+                    }
+                    break;
+                default:
+                    return true;
+            }
+        }
+    }
+
+    /**
+     * The events of {@link #dfsRecursiveOrder(CsrGraph, int)}, computed one at a time as the
+     * iterator is advanced; abandoning the iterator stops the traversal.
+     */
+    public static Iterator<TraversalEvent<Integer>> iterator(CsrGraph successors, int start) {
+        if (!contains(successors, start)) {
+            return Collections.emptyIterator();
+        }
+        return new EventIterator<>(cursor(successors, start), Integer::valueOf);
+    }
+
+    /** Lazy sequential stream over {@link #iterator(CsrGraph, int)}; short-circuiting operations stop the traversal. */
+    public static Stream<TraversalEvent<Integer>> stream(CsrGraph successors, int start) {
+        return stream(iterator(successors, start));
+    }
+
+    /**
+     * Compiles {@code successors} for repeated traversals, deriving predecessors from it.
+     *
+     * @see Compiled
+     * @throws IllegalArgumentException if {@code successors} is null
+     */
+    public static <T> Compiled<T> compile(Map<T, List<T>> successors) {
+        if (successors == null) {
+            throw new IllegalArgumentException("successors must not be null");
+        }
+        return new Compiled<>(successors, null);
+    }
+
+    /**
+     * Compiles {@code successors} with an explicit predecessors map, the counterpart of
+     * {@link #dfsRecursiveOrder(Map, Map, Object)}.
+     *
+     * @throws IllegalArgumentException if {@code successors} or {@code predecessors} is null
+     */
+    public static <T> Compiled<T> compile(Map<T, List<T>> successors, Map<T, List<T>> predecessors) {
+        if (successors == null || predecessors == null) {
+            throw new IllegalArgumentException("successors and predecessors must not be null");
+        }
+        return new Compiled<>(successors, predecessors);
+    }
+
+    /**
+     * A graph with its nodes interned to the ints {@code [0, size())} once, for traversals that emit
+     * exactly the events of {@link #dfsRecursiveOrder(Map, Map, Object)} in {@code O(V + E)}.
+     * <p>
+     * Instead of rescanning the predecessor list of a child every time a parent reaches it, every
+     * node keeps the number of its parents that are still unvisited; visiting a node decrements the
+     * counters of the nodes that list it as a parent, and a child may be entered once its counter
+     * is zero. The DFS itself runs on an explicit stack of (node, next edge) frames, so deep graphs
+     * cannot overflow the call stack. Instances are immutable and may be traversed concurrently.
+     * </p>
+     * <p>
+     * Besides the full list of {@link #dfsOrder(Object)}, events can be pushed to a {@link Visitor}
+     * with no per-event allocation, or pulled lazily through {@link #iterator(Object)} and
+     * {@link #stream(Object)}; in every form the caller may stop after any event.
+     * </p>
+     */
+    public static final class Compiled<T> {
+
+        private final Map<T, Integer> ids;
+        private final T[] nodes;
+        /** Nodes {@code [0, graphNodes)} occur in the successors map, the rest only as predecessors. */
+        private final int graphNodes;
+        private final CsrGraph successors;
+        /** Edge {@code p -> c} for every occurrence of {@code p} among the predecessors of {@code c}. */
+        private final CsrGraph dependents;
+        private final int[] parentCount;
+
+        @SuppressWarnings("unchecked")
+        private Compiled(Map<T, List<T>> successors, Map<T, List<T>> predecessors) {
+            Map<T, Integer> ids = new HashMap<>();
+            List<T> nodes = new ArrayList<>();
+            for (Map.Entry<T, List<T>> entry : successors.entrySet()) {
+                intern(entry.getKey(), ids, nodes);
+                for (T child : listOrEmpty(entry.getValue())) {
+                    intern(child, ids, nodes);
+                }
+            }
+            this.graphNodes = nodes.size();
+            if (predecessors != null) {
+                for (Map.Entry<T, List<T>> entry : predecessors.entrySet()) {
+                    intern(entry.getKey(), ids, nodes);
+                    for (T parent : listOrEmpty(entry.getValue())) {
+                        intern(parent, ids, nodes);
+                    }
+                }
+            }
+            int n = nodes.size();
+            this.ids = ids;
+            this.nodes = nodes.toArray((T[]) new Object[n]);
+
+            CsrGraph.Builder builder = CsrGraph.builder(n);
+            for (Map.Entry<T, List<T>> entry : successors.entrySet()) {
+                int u = ids.get(entry.getKey());
+                for (T child : listOrEmpty(entry.getValue())) {
+                    builder.addEdge(u, ids.get(child));
+                }
+            }
+            this.successors = builder.build();
+            if (predecessors == null) {
+                // the derived predecessors of c are exactly the sources of the edges into c
+                this.dependents = this.successors;
+                this.parentCount = ConstrainedDfsCursor.inDegrees(this.successors);
+            } else {
+                this.parentCount = new int[n];
+                CsrGraph.Builder reverse = CsrGraph.builder(n);
+                for (Map.Entry<T, List<T>> entry : predecessors.entrySet()) {
+                    int c = ids.get(entry.getKey());
+                    for (T parent : listOrEmpty(entry.getValue())) {
+                        reverse.addEdge(ids.get(parent), c);
+                        parentCount[c]++;
+                    }
+                }
+                this.dependents = reverse.build();
+            }
+        }
+
+        /** Number of distinct nodes in the successors and predecessors maps. */
+        public int size() {
+            return nodes.length;
+        }
+
+        /**
+         * The traversal of {@link #dfsRecursiveOrder(Map, Map, Object)} from {@code start}.
+         *
+         * @return immutable list of traversal events, empty if {@code start} is null or does not
+         *         occur in the successors map
+         */
+        public List<TraversalEvent<T>> dfsOrder(T start) {
+            ConstrainedDfsCursor cursor = cursor(start);
+            return cursor == null ? List.of() : collect(cursor, this::node);
+        }
+
+        /**
+         * Pushes the events of {@link #dfsOrder(Object)} to {@code visitor} as they happen, without
+         * allocating per event.
+         *
+         * @return {@code false} if the visitor stopped the traversal, {@code true} if it ran to the
+         *         end (or {@code start} does not occur in the successors map)
+         */
+        public boolean traverse(T start, Visitor<? super T> visitor) {
+            ConstrainedDfsCursor cursor = cursor(start);
+            if (cursor == null) {
+                return true;
+            }
+            while (true) {
+                switch (cursor.advance()) {
+                    case ConstrainedDfsCursor.VISIT:
+                        if (!visitor.visit(nodes[cursor.node()], cursor.order())) {
+                            return false;
+                        }
+                        break;
+                    case ConstrainedDfsCursor.SKIP:
+                        if (!visitor.skip(nodes[cursor.node()])) {
+                            return false;
+                        }
+                        break;
+                    default:
+                        return true;
+                }
+            }
+        }
+
+        /**
+         * The events of {@link #dfsOrder(Object)}, computed one at a time as the iterator is
+         * advanced; abandoning the iterator stops the traversal.
+         */
+        public Iterator<TraversalEvent<T>> iterator(T start) {
+            ConstrainedDfsCursor cursor = cursor(start);
+            return cursor == null ? Collections.emptyIterator() : new EventIterator<>(cursor, this::node);
+        }
+
+        /** Lazy sequential stream over {@link #iterator(Object)}; short-circuiting operations stop the traversal. */
+        public Stream<TraversalEvent<T>> stream(T start) {
+            return PredecessorConstrainedDfs.stream(iterator(start));
+        }
+
+        private ConstrainedDfsCursor cursor(T start) {
+            Integer id = start == null ? null : ids.get(start);
+            if (id == null || id >= graphNodes) {
+                return null;
+            }
+            return new ConstrainedDfsCursor(successors, dependents, parentCount, id);
+        }
+
+        T node(int id) {
+            return nodes[id];
+        }
+
+        /** Nodes {@code [0, graphNodes())} occur in the successors map, the rest only as predecessors. */
+        int graphNodes() {
+            return graphNodes;
+        }
+
+        CsrGraph dependents() {
+            return dependents;
+        }
+
+        /** Number of predecessor entries of every node; shared, callers must not modify it. */
+        int[] parentCount() {
+            return parentCount;
+        }
+
+        private static <T> void intern(T node, Map<T, Integer> ids, List<T> nodes) {
+            if (ids.putIfAbsent(node, nodes.size()) == null) {
+                nodes.add(node);
+            }
+        }
+
+        private static <T> List<T> listOrEmpty(List<T> list) {
+            return list == null ? List.of() : list;
+        }
+    }
+
+    private static boolean contains(CsrGraph successors, int start) {
+        if (successors == null) {
+            throw new IllegalArgumentException("successors must not be null");
+        }
+        return start >= 0 && start < successors.getNumNodes();
+    }
+
+    private static boolean contains(CompressedGraph successors, int start) {
+        if (successors == null) {
+            throw new IllegalArgumentException("successors must not be null");
+        }
+        return start >= 0 && start < successors.getNumNodes();
+    }
+
+    private static ConstrainedDfsCursor cursor(CsrGraph successors, int start) {
+        return new ConstrainedDfsCursor(successors, successors, ConstrainedDfsCursor.inDegrees(successors), start);
+    }
+
+    private static <T> List<TraversalEvent<T>> collect(ConstrainedDfsCursor cursor, IntFunction<T> node) {
+        List<TraversalEvent<T>> events = new ArrayList<>();
+        EventIterator<T> iterator = new EventIterator<>(cursor, node);
+        while (iterator.hasNext()) {
+            events.add(iterator.next());
+        }
+        return Collections.unmodifiableList(events);
+    }
+
+    private static <T> Stream<TraversalEvent<T>> stream(Iterator<TraversalEvent<T>> iterator) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /** Turns the events of a {@link ConstrainedDfsCursor} into {@link TraversalEvent}s with lazy notes. */
+    private static final class EventIterator<T> implements Iterator<TraversalEvent<T>> {
+
+        private final ConstrainedDfsCursor cursor;
+        private final IntFunction<T> node;
+        private int pending = -1;
+
+        EventIterator(ConstrainedDfsCursor cursor, IntFunction<T> node) {
+            this.cursor = cursor;
+            this.node = node;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (pending == -1) {
+                pending = cursor.advance();
+            }
+            return pending != ConstrainedDfsCursor.END;
+        }
+
+        @Override
+        public TraversalEvent<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            int kind = pending;
+            pending = -1;
+            T current = node.apply(cursor.node());
+            return kind == ConstrainedDfsCursor.VISIT ? TraversalEvent.visit(current, cursor.order())
+                    : TraversalEvent.skip(current);
+        }
+    }
+
     private static <T> void dfs(T currentNode, Map<T, List<T>> successors, Map<T, List<T>> predecessors, Set<T> visited, int[] order, List<TraversalEvent<T>> result) {
 
         if (!visited.add(currentNode)) {
@@ -122,7 +581,7 @@ public final class PredecessorConstrainedDfs {
             if (allParentsVisited(childNode, visited, predecessors)) {
                 dfs(childNode, successors, predecessors, visited, order, result);
             } else {
-                result.add(TraversalEvent.skip(childNode, "⛔ Skipping " + childNode + ": not all parents are visited yet."));
+                result.add(TraversalEvent.skip(childNode, skipNote(childNode)));
                 // do not mark visited; it may be visited later from another parent
             }
         }
@@ -0,0 +1,93 @@
+package method.graph;
+
+/**
+ * A graph renumbered by a {@link VertexOrder}, running the algorithms of this package on the
+ * permuted copy and answering in the original ids.
+ * <p>
+ * Build one per graph and reuse it for every query: the order and the permuted graph are computed
+ * once, and nothing in this class is mutable, so queries may run concurrently. To keep an order
+ * across restarts, store it with {@link VertexOrder#write} and pass it back to
+ * {@link #of(CsrGraph, VertexOrder)}.
+ * </p>
+ * <p>
+ * Results describe the same solution as on the original graph, but where an algorithm breaks ties
+ * by vertex id they may be broken differently: component ids are still topologically ordered, yet
+ * need not equal those of {@link StronglyConnectedComponents#of(CsrGraph)}, and a maximum
+ * matching or a cheapest path may be another one of the same size or cost.
+ * </p>
+ */
+public final class ReorderedGraph {
+
+    private final CsrGraph graph;
+    private final VertexOrder sources;
+    private final VertexOrder targets;
+
+    private ReorderedGraph(CsrGraph graph, VertexOrder sources, VertexOrder targets) {
+        this.graph = graph;
+        this.sources = sources;
+        this.targets = targets;
+    }
+
+    /** Reorders {@code graph} by {@code strategy}. */
+    public static ReorderedGraph of(CsrGraph graph, VertexOrder.Strategy strategy) {
+        return of(graph, VertexOrder.compute(graph, strategy));
+    }
+
+    /** Reorders {@code graph} by a precomputed or stored order. */
+    public static ReorderedGraph of(CsrGraph graph, VertexOrder order) {
+        return new ReorderedGraph(order.apply(graph), order, order);
+    }
+
+    /** Reorders both sides of a bipartite graph, as used by {@link HopcroftKarp}, by {@code strategy}. */
+    public static ReorderedGraph bipartite(CsrGraph graph, VertexOrder.Strategy strategy) {
+        VertexOrder[] orders = VertexOrder.computeBipartite(graph, strategy);
+        return bipartite(graph, orders[0], orders[1]);
+    }
+
+    public static ReorderedGraph bipartite(CsrGraph graph, VertexOrder left, VertexOrder right) {
+        return new ReorderedGraph(left.apply(graph, right), left, right);
+    }
+
+    /** The permuted graph, for algorithms without a wrapper here; see {@link VertexOrder#toOriginal(int[])}. */
+    public CsrGraph getGraph() {
+        return graph;
+    }
+
+    public VertexOrder getSourceOrder() {
+        return sources;
+    }
+
+    /** Order of the targets; the same as {@link #getSourceOrder()} unless the graph is bipartite. */
+    public VertexOrder getTargetOrder() {
+        return targets;
+    }
+
+    /** Component id of every original vertex, topologically ordered as in {@link StronglyConnectedComponents}. */
+    public int[] componentOf() {
+        return sources.toOriginal(StronglyConnectedComponents.of(graph).getComponentOf());
+    }
+
+    /**
+     * A maximum matching of a bipartite graph.
+     *
+     * @return the right partner of every original left vertex, or -1
+     */
+    public int[] maxMatching() {
+        HopcroftKarp matching = new HopcroftKarp(graph.getNumNodes(), graph.getNumTargets(), graph);
+        matching.maxMatching();
+        return targets.toOriginalIds(sources.toOriginal(matching.getLeftMatches()));
+    }
+
+    /**
+     * {@link ConstrainedShortestPath#findPath} between original vertices, on a graph that carries
+     * edge weights and resources.
+     */
+    public ConstrainedShortestPath.Path shortestPath(int start, int target, int maxResource) {
+        ConstrainedShortestPath.Path path = new ConstrainedShortestPath(graph, maxResource)
+                .findPath(sources.newId(start), sources.newId(target));
+        if (!path.exists()) {
+            return path;
+        }
+        return new ConstrainedShortestPath.Path(path.cost(), path.resource(), sources.toOriginalIds(path.nodes()));
+    }
+}
@@ -0,0 +1,23 @@
+package method.graph;
+
+/** Work counters reported in a {@link SolverMeasurement}; a solver leaves the ones it has no use for at zero. */
+public enum SolverCounter {
+    /** Dynamic-programming cells computed, or labels created by a label-setting search. */
+    DP_CELLS,
+    /** Edges relaxed or scanned. */
+    EDGES_RELAXED,
+    /** BFS layering phases of a matching algorithm. */
+    BFS_PHASES,
+    /** Augmenting paths found. */
+    AUGMENTING_PATHS,
+    /** Strongly connected components found. */
+    COMPONENTS,
+    /** Deepest (explicit) recursion reached. */
+    RECURSION_DEPTH,
+    /** VISIT and SKIP events emitted by a traversal. */
+    DFS_EVENTS,
+    /** Search-tree nodes expanded: partial tours of branch and bound or of an enumeration. */
+    SEARCH_NODES,
+    /** Moves applied by an iterative method: improving exchanges and kicks of a local search, or auction bids. */
+    MOVES
+}
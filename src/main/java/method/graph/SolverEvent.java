@@ -0,0 +1,52 @@
+package method.graph;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR view of a {@link SolverMeasurement}; its duration is the wall time of the run. */
+@Name("method.graph.Solver")
+@Label("Solver Run")
+@Category({"Algorithms", "method.graph"})
+@Description("One instrumented solver run with its work counters")
+@StackTrace(false)
+final class SolverEvent extends Event {
+
+    @Label("Solver")
+    String solver;
+
+    @Label("Allocated")
+    @DataAmount
+    long allocatedBytes;
+
+    @Label("DP Cells")
+    long dpCells;
+
+    @Label("Edges Relaxed")
+    long edgesRelaxed;
+
+    @Label("BFS Phases")
+    long bfsPhases;
+
+    @Label("Augmenting Paths")
+    long augmentingPaths;
+
+    @Label("Components")
+    long components;
+
+    @Label("Recursion Depth")
+    long recursionDepth;
+
+    @Label("DFS Events")
+    long dfsEvents;
+
+    @Label("Search Nodes")
+    long searchNodes;
+
+    @Label("Moves")
+    long moves;
+}
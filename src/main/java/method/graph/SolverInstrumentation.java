@@ -0,0 +1,117 @@
+package method.graph;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Optional instrumentation of the solvers' hot paths. Enabled for the whole JVM with
+ * {@code -Dmethod.graph.instrumentation=true}; every instrumented run then reports its wall time,
+ * the bytes allocated by the calling thread and its {@link SolverCounter}s both as a JFR event
+ * ({@code method.graph.Solver}) and to the registered {@link SolverMetrics}.
+ * <p>
+ * Solvers count in local variables and hand the totals to a {@link Probe} once at the end.
+ * {@link #ENABLED} is a constant, so when it is off {@link #start} folds to {@code null}, the JIT
+ * drops the reporting branch and the counters with it, and the hot loops are left as they were.
+ * </p>
+ * <p>
+ * Every solver of this package reports. The textbook routines of {@code method.greedyAlgorithm},
+ * such as {@code CoinChange}, do not.
+ * </p>
+ */
+public final class SolverInstrumentation {
+
+    /** System property that switches the instrumentation on. */
+    public static final String PROPERTY = "method.graph.instrumentation";
+
+    /** Read once at class initialisation. */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    private static final CopyOnWriteArrayList<SolverMetrics> LISTENERS = new CopyOnWriteArrayList<>();
+
+    private SolverInstrumentation() {
+    }
+
+    /** Has {@code listener} receive every measurement from now on; no effect unless {@link #ENABLED}. */
+    public static void addListener(SolverMetrics listener) {
+        LISTENERS.add(Objects.requireNonNull(listener));
+    }
+
+    public static void removeListener(SolverMetrics listener) {
+        LISTENERS.remove(listener);
+    }
+
+    /** Starts measuring a run of {@code solver}, or returns {@code null} when disabled. */
+    static Probe start(String solver) {
+        return ENABLED ? new Probe(solver) : null;
+    }
+
+    /** One run being measured; collects the counters and reports them on {@link #finish()}. */
+    static final class Probe {
+
+        private final String solver;
+        private final long startNanos;
+        private final long startBytes;
+        private final long[] counters = new long[SolverCounter.values().length];
+        private final SolverEvent event = new SolverEvent();
+
+        private Probe(String solver) {
+            this.solver = solver;
+            this.event.begin();
+            this.startBytes = Allocation.currentThread();
+            this.startNanos = System.nanoTime();
+        }
+
+        Probe add(SolverCounter counter, long value) {
+            counters[counter.ordinal()] += value;
+            return this;
+        }
+
+        void finish() {
+            long wallNanos = System.nanoTime() - startNanos;
+            long endBytes = Allocation.currentThread();
+            long allocated = startBytes < 0 || endBytes < 0 ? -1 : endBytes - startBytes;
+            event.end();
+            if (event.shouldCommit()) {
+                event.solver = solver;
+                event.allocatedBytes = allocated;
+                event.dpCells = counters[SolverCounter.DP_CELLS.ordinal()];
+                event.edgesRelaxed = counters[SolverCounter.EDGES_RELAXED.ordinal()];
+                event.bfsPhases = counters[SolverCounter.BFS_PHASES.ordinal()];
+                event.augmentingPaths = counters[SolverCounter.AUGMENTING_PATHS.ordinal()];
+                event.components = counters[SolverCounter.COMPONENTS.ordinal()];
+                event.recursionDepth = counters[SolverCounter.RECURSION_DEPTH.ordinal()];
+                event.dfsEvents = counters[SolverCounter.DFS_EVENTS.ordinal()];
+                event.searchNodes = counters[SolverCounter.SEARCH_NODES.ordinal()];
+                event.moves = counters[SolverCounter.MOVES.ordinal()];
+                event.commit();
+            }
+            if (!LISTENERS.isEmpty()) {
+                SolverMeasurement measurement = new SolverMeasurement(solver, wallNanos, allocated, counters.clone());
+                for (SolverMetrics listener : LISTENERS) {
+                    listener.record(measurement);
+                }
+            }
+        }
+    }
+
+    /** Per-thread allocation counter of HotSpot's {@code com.sun.management.ThreadMXBean}, if present. */
+    private static final class Allocation {
+
+        private static final com.sun.management.ThreadMXBean THREADS = threads();
+
+        static long currentThread() {
+            return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+        }
+
+        private static com.sun.management.ThreadMXBean threads() {
+            ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+            if (bean instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemorySupported()) {
+                hotspot.setThreadAllocatedMemoryEnabled(true);
+                return hotspot;
+            }
+            return null;
+        }
+    }
+}
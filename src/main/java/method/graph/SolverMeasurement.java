@@ -0,0 +1,54 @@
+package method.graph;
+
+/** One instrumented solver run, as passed to a {@link SolverMetrics}. */
+public final class SolverMeasurement {
+
+    private static final SolverCounter[] COUNTERS = SolverCounter.values();
+
+    private final String solver;
+    private final long wallNanos;
+    private final long allocatedBytes;
+    private final long[] counters;
+
+    SolverMeasurement(String solver, long wallNanos, long allocatedBytes, long[] counters) {
+        this.solver = solver;
+        this.wallNanos = wallNanos;
+        this.allocatedBytes = allocatedBytes;
+        this.counters = counters;
+    }
+
+    /** Entry point that ran, e.g. {@code "HopcroftKarp.maxMatching"}. */
+    public String solver() {
+        return solver;
+    }
+
+    public long wallNanos() {
+        return wallNanos;
+    }
+
+    /**
+     * Bytes allocated by the calling thread during the run, or -1 if the JVM cannot tell. Work
+     * done on other threads, e.g. by a parallel solver's pool, is not included.
+     */
+    public long allocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long get(SolverCounter counter) {
+        return counters[counter.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(solver).append(": ").append(wallNanos / 1000).append(" µs");
+        if (allocatedBytes >= 0) {
+            sb.append(", ").append(allocatedBytes).append(" B allocated");
+        }
+        for (SolverCounter counter : COUNTERS) {
+            if (counters[counter.ordinal()] != 0) {
+                sb.append(", ").append(counter).append('=').append(counters[counter.ordinal()]);
+            }
+        }
+        return sb.toString();
+    }
+}
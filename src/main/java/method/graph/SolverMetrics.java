@@ -0,0 +1,17 @@
+package method.graph;
+
+/**
+ * Receives a {@link SolverMeasurement} after every instrumented solver run; register one with
+ * {@link SolverInstrumentation#addListener}. A Micrometer or Actuator bridge maps
+ * {@link SolverMeasurement#solver()} to a tag, the wall time to a timer and each
+ * {@link SolverCounter} to a counter.
+ * <p>
+ * Called on the solver's thread, possibly from several threads at once; it should return quickly,
+ * and an exception it throws reaches the solver's caller.
+ * </p>
+ */
+@FunctionalInterface
+public interface SolverMetrics {
+
+    void record(SolverMeasurement measurement);
+}
@@ -1,7 +1,5 @@
 package method.graph;
 
-import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Stack;
@@ -44,43 +42,22 @@ public class StronglyConnectedComponentOptimized {
     }
 
     public int getOutput(HashMap<Integer, List<Integer>> adjList, int n) {
-        int[] visited = new int[n];
-        Arrays.fill(visited, -1);
-        Stack<Integer> dfsCallsNodes = new Stack<>();
-
-        for (int i = 0; i < n; i++) {
-            if (visited[i] == -1) {
-                btrack(adjList, visited, dfsCallsNodes, i);
-            }
-        }
-
-        HashMap<Integer, List<Integer>> adjRevList = new HashMap<>();
-        for (int i = 0; i < n; i++) {
-            adjRevList.put(i, new ArrayList<>());
-        }
-
-        for (int i = 0; i < n; i++) {
-            List<Integer> neighbors = adjList.get(i);
-            // Check for null before iterating
-            if (neighbors != null) {
-                for (int neighbor : neighbors) {
-                    adjRevList.get(neighbor).add(i);
-                }
-            }
-        }
-
-        Arrays.fill(visited, -1);
-        int stronglyConnectedComponents = 0;
+        return getOutput(CsrGraph.fromAdjacencyMap(adjList, n));
+    }
 
-        while (!dfsCallsNodes.isEmpty()) {
-            int node = dfsCallsNodes.pop();
-            if (visited[node] == -1) {
-                List<Integer> newScc = new ArrayList<>();
-                btrack2(adjRevList, visited, node, newScc);
-                stronglyConnectedComponents++;
-            }
-        }
+    /**
+     * Same as {@link #getOutput(HashMap, int)} but runs directly on a {@link CsrGraph}
+     * through the iterative {@link StronglyConnectedComponents} engine.
+     */
+    public int getOutput(CsrGraph graph) {
+        return StronglyConnectedComponents.of(graph).getComponentCount();
+    }
 
-        return stronglyConnectedComponents;
+    /**
+     * Full decomposition of the graph: component id of every node, component sizes and the
+     * condensation DAG, instead of only the number of components.
+     */
+    public StronglyConnectedComponents getComponents(HashMap<Integer, List<Integer>> adjList, int n) {
+        return StronglyConnectedComponents.of(CsrGraph.fromAdjacencyMap(adjList, n));
     }
 }
@@ -0,0 +1,349 @@
+package method.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Strongly connected component decomposition of a {@link CsrGraph}.
+ * <p>
+ * Uses Pearce's space-efficient variant of Tarjan's algorithm with an explicit call stack, so
+ * it runs in one pass over the out-edges, never builds the transposed graph and never recurses.
+ * Working memory is four {@code int} arrays and one {@code boolean} array of length {@code n};
+ * one of the int arrays becomes {@link #getComponentOf()} in place.
+ * </p>
+ * <p>
+ * Components are numbered in topological order of the condensation: every edge {@code u -> v}
+ * between different components satisfies {@code componentOf(u) < componentOf(v)}.
+ * </p>
+ * <p>
+ * {@link #ofParallel(CsrGraph, int)} computes the same partition (and the same topological
+ * numbering guarantee) on several cores; see {@link ParallelSccDecomposer}.
+ * {@link #of(CompressedGraph)} runs the same sequential algorithm on a varint-encoded graph,
+ * with one {@link CompressedGraph.Cursor} state per stack frame in place of an edge index.
+ * </p>
+ *
+ * @see <a href="https://www.sciencedirect.com/science/article/pii/S0020019015001532">
+ *      Pearce: A space-efficient algorithm for finding strongly connected components</a>
+ */
+public final class StronglyConnectedComponents {
+
+    /** The decomposed graph; exactly one of the two is set. */
+    private final CsrGraph graph;
+    private final CompressedGraph compressed;
+    private final int componentCount;
+    private final int[] componentOf;
+    private final int[] componentSizes;
+    private CsrGraph condensation;
+
+    private StronglyConnectedComponents(CsrGraph graph, int componentCount, int[] componentOf, int[] componentSizes) {
+        this(graph, null, componentCount, componentOf, componentSizes);
+    }
+
+    private StronglyConnectedComponents(CsrGraph graph, CompressedGraph compressed, int componentCount,
+                                        int[] componentOf, int[] componentSizes) {
+        this.graph = graph;
+        this.compressed = compressed;
+        this.componentCount = componentCount;
+        this.componentOf = componentOf;
+        this.componentSizes = componentSizes;
+    }
+
+    /** Decomposes {@code graph} into its strongly connected components. */
+    public static StronglyConnectedComponents of(CsrGraph graph) {
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("StronglyConnectedComponents.of");
+        int n = graph.getNumNodes();
+        // rindex[v] == 0: unvisited; < c: DFS index / low-link; > c: finished, holds its component slot
+        int[] rindex = new int[n];
+        boolean[] root = new boolean[n];
+        int[] pending = new int[n];
+        int pendingTop = 0;
+        int[] callNode = new int[n];
+        int[] callEdge = new int[n];
+        int index = 1;
+        int c = n - 1;
+        int maxDepth = 0;
+
+        for (int s = 0; s < n; s++) {
+            if (rindex[s] != 0) {
+                continue;
+            }
+            int depth = 0;
+            callNode[0] = s;
+            callEdge[0] = graph.firstEdge(s);
+            rindex[s] = index++;
+            root[s] = true;
+
+            while (depth >= 0) {
+                int v = callNode[depth];
+                int e = callEdge[depth];
+                if (e < graph.endEdge(v)) {
+                    int w = graph.target(e);
+                    callEdge[depth] = e + 1;
+                    if (rindex[w] == 0) {
+                        depth++;
+                        maxDepth = Math.max(maxDepth, depth);
+                        callNode[depth] = w;
+                        callEdge[depth] = graph.firstEdge(w);
+                        rindex[w] = index++;
+                        root[w] = true;
+                    } else if (rindex[w] < rindex[v]) {
+                        rindex[v] = rindex[w];
+                        root[v] = false;
+                    }
+                    continue;
+                }
+
+                // v is finished
+                if (root[v]) {
+                    index--;
+                    while (pendingTop > 0 && rindex[v] <= rindex[pending[pendingTop - 1]]) {
+                        rindex[pending[--pendingTop]] = c;
+                        index--;
+                    }
+                    rindex[v] = c;
+                    c--;
+                } else {
+                    pending[pendingTop++] = v;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    if (rindex[v] < rindex[parent]) {
+                        rindex[parent] = rindex[v];
+                        root[parent] = false;
+                    }
+                }
+            }
+        }
+
+        return finish(graph, null, rindex, c, maxDepth, probe);
+    }
+
+    /**
+     * Decomposes a compressed graph with the same algorithm as {@link #of(CsrGraph)}; the result
+     * equals that of {@code of(graph.toCsr())}.
+     */
+    public static StronglyConnectedComponents of(CompressedGraph graph) {
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("StronglyConnectedComponents.of");
+        int n = graph.getNumNodes();
+        int[] rindex = new int[n];
+        boolean[] root = new boolean[n];
+        int[] pending = new int[n];
+        int pendingTop = 0;
+        int[] callNode = new int[n];
+        long[] callState = new long[n];
+        CompressedGraph.Cursor cursor = graph.cursor();
+        int index = 1;
+        int c = n - 1;
+        int maxDepth = 0;
+
+        for (int s = 0; s < n; s++) {
+            if (rindex[s] != 0) {
+                continue;
+            }
+            int depth = 0;
+            callNode[0] = s;
+            callState[0] = CompressedGraph.Cursor.START;
+            rindex[s] = index++;
+            root[s] = true;
+
+            while (depth >= 0) {
+                int v = callNode[depth];
+                cursor.seek(v, callState[depth]);
+                // stay on v while its neighbours are already visited, saving the state only on descent
+                int w = -1;
+                while (cursor.hasNext()) {
+                    int t = cursor.next();
+                    if (rindex[t] == 0) {
+                        w = t;
+                        break;
+                    }
+                    if (rindex[t] < rindex[v]) {
+                        rindex[v] = rindex[t];
+                        root[v] = false;
+                    }
+                }
+                if (w >= 0) {
+                    callState[depth] = cursor.state();
+                    depth++;
+                    maxDepth = Math.max(maxDepth, depth);
+                    callNode[depth] = w;
+                    callState[depth] = CompressedGraph.Cursor.START;
+                    rindex[w] = index++;
+                    root[w] = true;
+                    continue;
+                }
+
+                if (root[v]) {
+                    index--;
+                    while (pendingTop > 0 && rindex[v] <= rindex[pending[pendingTop - 1]]) {
+                        rindex[pending[--pendingTop]] = c;
+                        index--;
+                    }
+                    rindex[v] = c;
+                    c--;
+                } else {
+                    pending[pendingTop++] = v;
+                }
+                depth--;
+                if (depth >= 0) {
+                    int parent = callNode[depth];
+                    if (rindex[v] < rindex[parent]) {
+                        rindex[parent] = rindex[v];
+                        root[parent] = false;
+                    }
+                }
+            }
+        }
+        return finish(null, graph, rindex, c, maxDepth, probe);
+    }
+
+    private static StronglyConnectedComponents finish(CsrGraph graph, CompressedGraph compressed, int[] rindex,
+                                                      int c, int maxDepth, SolverInstrumentation.Probe probe) {
+        int n = rindex.length;
+        // slots were handed out from n-1 downwards in reverse topological order; shift them to [0, count)
+        int componentCount = n - 1 - c;
+        int shift = c + 1;
+        int[] componentSizes = new int[componentCount];
+        for (int v = 0; v < n; v++) {
+            rindex[v] -= shift;
+            componentSizes[rindex[v]]++;
+        }
+        if (probe != null) {
+            probe.add(SolverCounter.COMPONENTS, componentCount)
+                    .add(SolverCounter.RECURSION_DEPTH, n == 0 ? 0 : maxDepth + 1)
+                    .finish();
+        }
+        return new StronglyConnectedComponents(graph, compressed, componentCount, rindex, componentSizes);
+    }
+
+    /**
+     * Parallel decomposition on a dedicated pool of {@code parallelism} workers. Yields the same
+     * partition as {@link #of(CsrGraph)}; ids are topologically ordered as well, but ties between
+     * unrelated components may be broken differently.
+     */
+    public static StronglyConnectedComponents ofParallel(CsrGraph graph, int parallelism) {
+        if (parallelism <= 1) {
+            return of(graph);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return ParallelSccDecomposer.decompose(graph, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Parallel decomposition on a caller-supplied pool. */
+    public static StronglyConnectedComponents ofParallel(CsrGraph graph, ForkJoinPool pool) {
+        return ParallelSccDecomposer.decompose(graph, pool);
+    }
+
+    /** Wraps component ids that are already in {@code [0, componentCount)} and topologically ordered. */
+    static StronglyConnectedComponents fromComponentIds(CsrGraph graph, int componentCount, int[] componentOf) {
+        int[] componentSizes = new int[componentCount];
+        for (int component : componentOf) {
+            componentSizes[component]++;
+        }
+        return new StronglyConnectedComponents(graph, componentCount, componentOf, componentSizes);
+    }
+
+    public int getComponentCount() {
+        return componentCount;
+    }
+
+    /** Component id of node {@code v}, in {@code [0, getComponentCount())}. */
+    public int componentOf(int v) {
+        return componentOf[v];
+    }
+
+    public int componentSize(int component) {
+        return componentSizes[component];
+    }
+
+    public int[] getComponentOf() {
+        return componentOf.clone();
+    }
+
+    public int[] getComponentSizes() {
+        return componentSizes.clone();
+    }
+
+    /**
+     * Returns the condensation DAG: one node per component and one edge per distinct pair of
+     * connected components. Built on first use and cached.
+     */
+    public CsrGraph getCondensation() {
+        if (condensation == null) {
+            condensation = buildCondensation();
+        }
+        return condensation;
+    }
+
+    private CsrGraph buildCondensation() {
+        int n = componentOf.length;
+        // group nodes by component (counting sort)
+        int[] memberStart = new int[componentCount + 1];
+        for (int comp = 0; comp < componentCount; comp++) {
+            memberStart[comp + 1] = memberStart[comp] + componentSizes[comp];
+        }
+        int[] cursor = Arrays.copyOf(memberStart, componentCount);
+        int[] members = new int[n];
+        for (int v = 0; v < n; v++) {
+            members[cursor[componentOf[v]]++] = v;
+        }
+
+        // first pass counts distinct successor components, second pass fills them in
+        CompressedGraph.Cursor reader = compressed == null ? null : compressed.cursor();
+        int[] lastSeen = new int[componentCount];
+        int[] offsets = new int[componentCount + 1];
+        Arrays.fill(lastSeen, -1);
+        for (int comp = 0; comp < componentCount; comp++) {
+            int count = 0;
+            for (int i = memberStart[comp]; i < memberStart[comp + 1]; i++) {
+                count = successorComponents(members[i], comp, lastSeen, null, count, reader);
+            }
+            offsets[comp + 1] = offsets[comp] + count;
+        }
+
+        int[] targets = new int[offsets[componentCount]];
+        Arrays.fill(lastSeen, -1);
+        for (int comp = 0; comp < componentCount; comp++) {
+            int slot = offsets[comp];
+            for (int i = memberStart[comp]; i < memberStart[comp + 1]; i++) {
+                slot = successorComponents(members[i], comp, lastSeen, targets, slot, reader);
+            }
+        }
+        return CsrGraph.wrap(offsets, targets, null, null);
+    }
+
+    /**
+     * Records the components other than {@code comp} that {@code u} has edges into and that
+     * {@code lastSeen} has not yet marked for {@code comp}: they are stored from {@code slot} on,
+     * or only counted when {@code targets} is null. Returns the slot after the last one.
+     */
+    private int successorComponents(int u, int comp, int[] lastSeen, int[] targets, int slot,
+                                    CompressedGraph.Cursor cursor) {
+        if (graph != null) {
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                slot = recordComponent(componentOf[graph.target(e)], comp, lastSeen, targets, slot);
+            }
+        } else {
+            for (cursor.reset(u); cursor.hasNext(); ) {
+                slot = recordComponent(componentOf[cursor.next()], comp, lastSeen, targets, slot);
+            }
+        }
+        return slot;
+    }
+
+    private static int recordComponent(int other, int comp, int[] lastSeen, int[] targets, int slot) {
+        if (other != comp && lastSeen[other] != comp) {
+            lastSeen[other] = comp;
+            if (targets != null) {
+                targets[slot] = other;
+            }
+            slot++;
+        }
+        return slot;
+    }
+}
@@ -1,9 +1,10 @@
 package method.graph;
 
-import java.util.ArrayList;
+import java.time.Duration;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntBinaryOperator;
 
 /**
  * This class provides solutions to the Traveling Salesman Problem (TSP) using both brute-force and dynamic programming approaches.
@@ -17,37 +18,59 @@ public final class TravelingSalesman {
     private TravelingSalesman() {
     }
 
+    /**
+     * An optimal round trip.
+     *
+     * @param distance total length including the edge back to the first city,
+     *                 or Integer.MAX_VALUE if no tour exists
+     * @param order    the cities in visiting order, starting with city 0
+     */
+    public record Tour(int distance, int[] order) {
+
+        /** Returned when the missing edges (Integer.MAX_VALUE entries) leave no Hamiltonian cycle. */
+        public static final Tour NONE = new Tour(Integer.MAX_VALUE, new int[0]);
+
+        public boolean exists() {
+            return distance != Integer.MAX_VALUE;
+        }
+    }
+
+    /** How {@link #heuristic} builds the tour it starts improving from. */
+    public enum InitialTour {
+        /** Always move on to the closest unvisited city. */
+        NEAREST_NEIGHBOUR,
+        /** Add the shortest edges that keep every city at degree two or less without closing a cycle. */
+        GREEDY_EDGE
+    }
+
     /**
      * Solves the Traveling Salesman Problem (TSP) using brute-force approach.
-     * This method generates all possible permutations of cities, calculates the total distance for each route, and returns the shortest distance found.
+     * This method enumerates all possible orders of cities in place, accumulating the distance of each route
+     * as it is built, and returns the shortest distance found. No route is ever materialised, so memory stays
+     * O(n); only time grows as (n-1)!.
      *
      * @param distanceMatrix A square matrix where element [i][j] represents the distance from city i to city j.
-     * @return The shortest possible route distance visiting all cities exactly once and returning to the starting city.
+     * @return The shortest possible route distance visiting all cities exactly once and returning to the starting city,
+     *         or Integer.MAX_VALUE if no such route exists.
      */
     public static int bruteForce(int[][] distanceMatrix) {
         if (distanceMatrix.length <= 1) {
             return 0;
         }
 
-        List<Integer> cities = new ArrayList<>();
-        for (int i = 1; i < distanceMatrix.length; i++) {
-            cities.add(i);
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("TravelingSalesman.bruteForce");
+        int[] route = new int[distanceMatrix.length];
+        for (int i = 0; i < route.length; i++) {
+            route[i] = i;
         }
-
-        List<List<Integer>> permutations = generatePermutations(cities);
-        int minDistance = Integer.MAX_VALUE;
-
-        for (List<Integer> permutation : permutations) {
-            List<Integer> route = new ArrayList<>();
-            route.add(0);
-            route.addAll(permutation);
-            int currentDistance = calculateDistance(distanceMatrix, route);
-            if (currentDistance < minDistance) {
-                minDistance = currentDistance;
-            }
+        long[] nodes = new long[1];
+        int best = permute(distanceMatrix, route, 1, 0, nodes);
+        if (probe != null) {
+            probe.add(SolverCounter.SEARCH_NODES, nodes[0])
+                    .add(SolverCounter.RECURSION_DEPTH, route.length - 1)
+                    .finish();
         }
-
-        return minDistance;
+        return best;
     }
 
     /**
@@ -72,84 +95,238 @@ public final class TravelingSalesman {
     }
 
     /**
-     * Generates all permutations of a given list of cities.
+     * Recursively enumerates the orders of {@code route[k..]} by swapping in place.
      *
-     * @param cities A list of cities to permute.
-     * @return A list of all possible permutations.
+     * @param distanceMatrix The distance matrix.
+     * @param route          The current route; {@code route[0..k-1]} is fixed.
+     * @param k              The current index in the permutation process.
+     * @param distance       The distance along {@code route[0..k-1]}.
+     * @return The shortest complete route distance below this prefix, or Integer.MAX_VALUE if none.
      */
-    private static List<List<Integer>> generatePermutations(List<Integer> cities) {
-        List<List<Integer>> permutations = new ArrayList<>();
-        permute(cities, 0, permutations);
-        return permutations;
+    /** {@code nodes[0]} counts the partial routes visited. */
+    private static int permute(int[][] distanceMatrix, int[] route, int k, int distance, long[] nodes) {
+        nodes[0]++;
+        int last = route[k - 1];
+        if (k == route.length) {
+            int returnDist = distanceMatrix[last][route[0]];
+            return returnDist == Integer.MAX_VALUE ? Integer.MAX_VALUE : distance + returnDist;
+        }
+        int best = Integer.MAX_VALUE;
+        for (int i = k; i < route.length; i++) {
+            int d = distanceMatrix[last][route[i]];
+            if (d == Integer.MAX_VALUE) {
+                continue; // every route through this edge is invalid
+            }
+            swap(route, i, k);
+            best = Math.min(best, permute(distanceMatrix, route, k + 1, distance + d, nodes));
+            swap(route, i, k);
+        }
+        return best;
+    }
+
+    private static void swap(int[] route, int i, int j) {
+        int tmp = route[i];
+        route[i] = route[j];
+        route[j] = tmp;
     }
 
     /**
-     * Recursively generates permutations using backtracking.
+     * Solves the Traveling Salesman Problem (TSP) using dynamic programming with the Held-Karp algorithm.
      *
-     * @param arr     The list of cities.
-     * @param k       The current index in the permutation process.
-     * @param output  The list to store generated permutations.
+     * @param distanceMatrix A square matrix where element [i][j] represents the distance from city i to city j.
+     * @return The shortest possible route distance visiting all cities exactly once and returning to the starting city,
+     *         or Integer.MAX_VALUE if no such route exists.
+     * @throws IllegalArgumentException if the input matrix is not square.
+     */
+    public static int dynamicProgramming(int[][] distanceMatrix) {
+        return HeldKarp.solve(distanceMatrix, null).distance();
+    }
+
+    /**
+     * Held-Karp that also returns the optimal tour, using all available cores.
+     *
+     * @param distanceMatrix A square matrix where element [i][j] represents the distance from city i to city j.
+     * @return the optimal tour, or {@link Tour#NONE} if no tour exists
+     * @throws IllegalArgumentException if the matrix is not square or has more than 28 cities.
+     * @see #heldKarp(int[][], int)
+     */
+    public static Tour heldKarp(int[][] distanceMatrix) {
+        return heldKarp(distanceMatrix, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Held-Karp that also returns the optimal tour.
+     * Only subsets containing the start city are stored, subsets are processed layer by layer
+     * (by number of cities) on {@code parallelism} workers, and costs are kept in a {@code short}
+     * table whenever {@code n * maxDistance} allows it.
+     *
+     * @param distanceMatrix A square matrix where element [i][j] represents the distance from city i to city j.
+     * @param parallelism    number of worker threads; 1 runs on the calling thread
+     * @return the optimal tour, or {@link Tour#NONE} if no tour exists
+     * @throws IllegalArgumentException if the matrix is not square or has more than 28 cities.
      */
-    private static void permute(List<Integer> arr, int k, List<List<Integer>> output) {
-        if (k == arr.size()) {
-            output.add(new ArrayList<>(arr));
-            return;
+    public static Tour heldKarp(int[][] distanceMatrix, int parallelism) {
+        if (parallelism <= 1) {
+            return HeldKarp.solve(distanceMatrix, null);
         }
-        for (int i = k; i < arr.size(); i++) {
-            Collections.swap(arr, i, k);
-            permute(arr, k + 1, output);
-            Collections.swap(arr, i, k);
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return HeldKarp.solve(distanceMatrix, pool);
+        } finally {
+            pool.shutdown();
         }
     }
 
     /**
-     * Solves the Traveling Salesman Problem (TSP) using dynamic programming with the Held-Karp algorithm.
+     * Exact TSP by branch and bound, using all available cores.
+     *
+     * @param distanceMatrix A square matrix of non-negative distances; Integer.MAX_VALUE marks a missing edge.
+     * @return the optimal tour, or {@link Tour#NONE} if no tour exists
+     * @throws IllegalArgumentException if the matrix is not square, has negative entries or more than 64 cities.
+     * @see #branchAndBound(int[][], int)
+     */
+    public static Tour branchAndBound(int[][] distanceMatrix) {
+        return branchAndBound(distanceMatrix, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Exact TSP by branch and bound. Tours are enumerated lazily, nearest city first, and a partial
+     * tour is discarded as soon as its cost plus a Lagrangian minimum-spanning-tree bound on the rest
+     * cannot beat the best tour found so far. Subtrees are shared among {@code parallelism} workers
+     * through a common best-so-far bound. On one core, random 30-city instances take well under a
+     * second and 40-city ones a few seconds if asymmetric, far less if symmetric; Held-Karp runs
+     * out of memory there and {@link #bruteForce} out of time. The time grows exponentially, and
+     * more so on instances with many near-optimal tours, so treat 40 cities as the practical limit.
+     *
+     * @param distanceMatrix A square matrix of non-negative distances; Integer.MAX_VALUE marks a missing edge.
+     * @param parallelism    number of worker threads; 1 runs on the calling thread
+     * @return the optimal tour, or {@link Tour#NONE} if no tour exists
+     * @throws IllegalArgumentException if the matrix is not square, has negative entries or more than 64 cities.
+     */
+    public static Tour branchAndBound(int[][] distanceMatrix, int parallelism) {
+        if (parallelism <= 1) {
+            return TspBranchAndBound.solve(distanceMatrix, null);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return TspBranchAndBound.solve(distanceMatrix, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Heuristic TSP for instances far beyond the exact methods.
      *
      * @param distanceMatrix A square matrix where element [i][j] represents the distance from city i to city j.
-     * @return The shortest possible route distance visiting all cities exactly once and returning to the starting city.
+     * @param budget         wall-clock time to spend improving the tour
+     * @return the best tour found; its distance follows {@link #calculateDistance}
      * @throws IllegalArgumentException if the input matrix is not square.
+     * @see #heuristic(int, IntBinaryOperator, InitialTour, Duration)
      */
-    public static int dynamicProgramming(int[][] distanceMatrix) {
-        if (distanceMatrix.length == 0) {
-            return 0;
-        }
+    public static Tour heuristic(int[][] distanceMatrix, Duration budget) {
         int n = distanceMatrix.length;
-
         for (int[] row : distanceMatrix) {
             if (row.length != n) {
                 throw new IllegalArgumentException("Matrix must be square");
             }
         }
+        return heuristic(n, (from, to) -> distanceMatrix[from][to], InitialTour.GREEDY_EDGE, budget);
+    }
 
-        int[][] dp = new int[n][1 << n];
-        for (int[] row : dp) {
-            Arrays.fill(row, Integer.MAX_VALUE);
-        }
-        dp[0][1] = 0;
+    /**
+     * Heuristic TSP over a distance callback, starting from a greedy-edge tour.
+     *
+     * @see #heuristic(int, IntBinaryOperator, InitialTour, Duration)
+     */
+    public static Tour heuristic(int cities, IntBinaryOperator distance, Duration budget) {
+        return heuristic(cities, distance, InitialTour.GREEDY_EDGE, budget);
+    }
 
-        for (int mask = 1; mask < (1 << n); mask++) {
-            for (int u = 0; u < n; u++) {
-                if ((mask & (1 << u)) == 0 || dp[u][mask] == Integer.MAX_VALUE) {
-                    continue;
-                }
-                for (int v = 0; v < n; v++) {
-                    if ((mask & (1 << v)) != 0 || distanceMatrix[u][v] == Integer.MAX_VALUE) {
-                        continue;
-                    }
-                    int newMask = mask | (1 << v);
-                    dp[v][newMask] = Math.min(dp[v][newMask], dp[u][mask] + distanceMatrix[u][v]);
-                }
-            }
+    /**
+     * Heuristic TSP: builds an initial tour, then improves it with 2-opt and Or-opt moves restricted
+     * to each city's nearest neighbours, perturbing the tour whenever a local optimum is reached,
+     * until {@code budget} has elapsed. The tour is never optimal by guarantee. Given at least twice
+     * the time of {@code n²} distance calls it is usually within a few percent of it on
+     * 1,000-50,000 cities; shorter budgets return sooner with a longer tour.
+     * <p>
+     * The distances are read through {@code distance}, so no {@code n²} matrix is needed. It is
+     * called from several threads of the common pool and must be side-effect free; moves assume it
+     * is symmetric. {@code Integer.MAX_VALUE} marks a missing edge, which the search avoids. The
+     * neighbour lists take at most half the budget: they are exact when all {@code n²} distances
+     * can be read in that time, and approximated otherwise, starting from about {@code 25} calls
+     * per city and refined for as long as that half lasts. Only those first calls (all of them up
+     * to 256 cities) and the initial tour are finished past the budget, so a budget too short for
+     * them returns the initial tour late.
+     * </p>
+     *
+     * @param cities      number of cities
+     * @param distance    distance from the first city to the second
+     * @param initialTour construction heuristic
+     * @param budget      wall-clock time to spend, neighbour lists included
+     * @return the best tour found, starting at city 0; its distance is Integer.MAX_VALUE if it
+     *         still uses a missing edge, as in {@link #calculateDistance}, or if it does not fit
+     *         in an {@code int}
+     */
+    public static Tour heuristic(int cities, IntBinaryOperator distance, InitialTour initialTour, Duration budget) {
+        long deadline = System.nanoTime() + Math.max(0, budget.toNanos());
+        return TspLocalSearch.solve(cities, distance, initialTour, deadline, true);
+    }
+
+    /**
+     * Heuristic TSP whose neighbour lists are built on {@code parallelism} workers rather than the
+     * common pool; the improvement phase is sequential either way.
+     *
+     * @param parallelism number of worker threads; 1 runs on the calling thread
+     * @see #heuristic(int, IntBinaryOperator, InitialTour, Duration)
+     */
+    public static Tour heuristic(int cities, IntBinaryOperator distance, InitialTour initialTour, Duration budget,
+                                 int parallelism) {
+        long deadline = System.nanoTime() + Math.max(0, budget.toNanos());
+        if (parallelism <= 1) {
+            return TspLocalSearch.solve(cities, distance, initialTour, deadline, false);
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            return pool.submit(() -> TspLocalSearch.solve(cities, distance, initialTour, deadline, true)).join();
+        } finally {
+            pool.shutdown();
         }
+    }
 
-        int minDistance = Integer.MAX_VALUE;
-        int fullMask = (1 << n) - 1;
-        for (int i = 1; i < n; i++) {
-            if (dp[i][fullMask] != Integer.MAX_VALUE && distanceMatrix[i][0] != Integer.MAX_VALUE) {
-                minDistance = Math.min(minDistance, dp[i][fullMask] + distanceMatrix[i][0]);
+    /**
+     * Held-Karp on a weighted {@link CsrGraph}, using all available cores. The graph is turned
+     * into a distance matrix: missing edges become {@code Integer.MAX_VALUE} entries and parallel
+     * edges resolve to the cheapest one; self-loops are ignored.
+     *
+     * @param graph a graph with edge weights; nodes are cities
+     * @return The shortest possible route distance visiting all cities exactly once and returning to the starting city,
+     *         or Integer.MAX_VALUE if no such route exists.
+     * @throws IllegalArgumentException if the graph carries no weights or has more than 28 cities.
+     * @see #heldKarp(int[][])
+     */
+    public static int dynamicProgramming(CsrGraph graph) {
+        int n = graph.getNumNodes();
+        if (n <= 1) {
+            return 0;
+        }
+        if (!graph.hasWeights()) {
+            throw new IllegalArgumentException("graph must carry edge weights");
+        }
+        if (n > HeldKarp.MAX_CITIES) {
+            throw new IllegalArgumentException("Held-Karp supports at most " + HeldKarp.MAX_CITIES + " cities");
+        }
+        int[][] matrix = new int[n][n];
+        for (int u = 0; u < n; u++) {
+            Arrays.fill(matrix[u], Integer.MAX_VALUE);
+            matrix[u][u] = 0;
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                int v = graph.target(e);
+                if (v != u) {
+                    matrix[u][v] = Math.min(matrix[u][v], graph.weight(e));
+                }
             }
         }
-
-        return minDistance == Integer.MAX_VALUE ? 0 : minDistance;
+        return heldKarp(matrix).distance();
     }
 }
@@ -0,0 +1,622 @@
+package method.graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Exact branch-and-bound TSP behind {@link TravelingSalesman#branchAndBound}.
+ * <p>
+ * Tours are grown depth-first from city 0, trying the nearest unvisited city first, with one
+ * {@code int[]} path per worker and no allocation per tour. A partial tour
+ * {@code 0 -> ... -> last} with unvisited set {@code R} is pruned when its cost plus a lower bound
+ * on the remaining Hamiltonian path {@code last -> R -> 0} cannot beat the incumbent.
+ * </p>
+ * <p>
+ * The first bound is the minimum spanning tree of {@code R} plus the cheapest edges joining it to
+ * {@code last} and to {@code 0}, under Lagrangian edge costs {@code s(i,j) + pi[i] + pi[j]}, where
+ * {@code s(i,j) = min(d[i][j], d[j][i])} and the node penalties {@code pi} come from a Held-Karp
+ * 1-tree subgradient ascent at the root. The remaining path is such a tree, so the bound is admissible
+ * for asymmetric matrices too, but it only sees the cheaper direction of each edge. Asymmetric
+ * matrices therefore also get an assignment bound: the root's Hungarian potentials plus a row and
+ * column reduction of the remaining costs.
+ * </p>
+ * <p>
+ * Both bounds prune only as well as the incumbent allows, so the search starts from the best of
+ * {@code n} nearest-neighbour tours improved by 2-opt and Or-opt.
+ * </p>
+ * <p>
+ * The search tree is split at depth two into independent subtrees, processed by ForkJoin workers
+ * that share the incumbent through an {@link AtomicInteger}.
+ * </p>
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Branch_and_bound">Branch and bound</a>
+ */
+final class TspBranchAndBound {
+
+    /** Visited sets are {@code long} bit masks. */
+    static final int MAX_CITIES = 64;
+
+    private static final int MISSING = Integer.MAX_VALUE;
+    private static final double INF = Double.POSITIVE_INFINITY;
+    private static final double EPS = 1e-6;
+
+    private final int n;
+    private final int[][] dist;
+    /** Cities sorted by ascending distance from each city. */
+    private final int[][] nearest;
+    /** Lagrangian symmetric costs {@code s(i,j) + pi[i] + pi[j]}. */
+    private final double[][] weight;
+    private final double[] pi;
+    /** Whether {@code dist[i][j] == dist[j][i]} throughout, where the 1-tree bound suffices. */
+    private final boolean symmetric;
+    /** Assignment-problem potentials; {@code dist[i][j] - rowPotential[i] - columnPotential[j] >= 0}. */
+    private final long[] rowPotential;
+    private final long[] columnPotential;
+
+    private final AtomicInteger best = new AtomicInteger(MISSING);
+    private int[] bestOrder;
+    /** Search nodes expanded, added once per subtree. */
+    private final LongAdder expanded = new LongAdder();
+
+    private TspBranchAndBound(int[][] dist) {
+        this.n = dist.length;
+        this.dist = dist;
+        this.nearest = new int[n][];
+        for (int i = 0; i < n; i++) {
+            int from = i;
+            nearest[i] = IntStream.range(0, n).boxed()
+                    .sorted((a, b) -> Integer.compare(dist[from][a], dist[from][b]))
+                    .mapToInt(Integer::intValue).toArray();
+        }
+        boolean same = true;
+        for (int i = 0; i < n && same; i++) {
+            for (int j = 0; j < i && same; j++) {
+                same = dist[i][j] == dist[j][i];
+            }
+        }
+        this.symmetric = same;
+        this.rowPotential = new long[n];
+        this.columnPotential = new long[n];
+        this.pi = new double[n];
+        this.weight = new double[n][n];
+    }
+
+    static TravelingSalesman.Tour solve(int[][] dist, ForkJoinPool pool) {
+        int n = dist.length;
+        long maxDistance = 0;
+        for (int[] row : dist) {
+            if (row.length != n) {
+                throw new IllegalArgumentException("Matrix must be square");
+            }
+            for (int d : row) {
+                if (d < 0) {
+                    throw new IllegalArgumentException("branch and bound requires non-negative distances");
+                }
+                if (d != MISSING) {
+                    maxDistance = Math.max(maxDistance, d);
+                }
+            }
+        }
+        if (maxDistance * n >= MISSING) {
+            throw new IllegalArgumentException("tour length may overflow int");
+        }
+        if (n > MAX_CITIES) {
+            throw new IllegalArgumentException("branch and bound supports at most " + MAX_CITIES + " cities");
+        }
+        if (n <= 1) {
+            return new TravelingSalesman.Tour(0, n == 0 ? new int[0] : new int[] {0});
+        }
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("TravelingSalesman.branchAndBound");
+        TspBranchAndBound solver = new TspBranchAndBound(dist);
+        solver.localSearchIncumbent();
+        solver.optimisePenalties();
+        if (!solver.symmetric) {
+            solver.assignmentPotentials();
+        }
+        if (pool == null) {
+            solver.search(false);
+        } else {
+            pool.submit(() -> solver.search(true)).join();
+        }
+        if (probe != null) {
+            probe.add(SolverCounter.SEARCH_NODES, solver.expanded.sum())
+                    .add(SolverCounter.RECURSION_DEPTH, n - 1)
+                    .finish();
+        }
+        int distance = solver.best.get();
+        return distance == MISSING ? TravelingSalesman.Tour.NONE : new TravelingSalesman.Tour(distance, solver.bestOrder);
+    }
+
+    // ---------------------------------------------------------------- search
+
+    /** Scratch space of one worker; reused for every node it explores. */
+    private final class Worker {
+        final int[] path = new int[n];
+        final int[] members = new int[n];
+        final double[] key = new double[n];
+        final boolean[] inTree = new boolean[n];
+        final long[] rowMin = new long[n + 1];
+        long nodes;
+    }
+
+    private void search(boolean parallel) {
+        if (n <= 3) {
+            Worker worker = new Worker();
+            dfs(worker, 0, 1L, 1, 0);
+            expanded.add(worker.nodes);
+            return;
+        }
+        // independent subtrees for every feasible prefix 0 -> a -> b
+        int[] prefixes = new int[(n - 1) * (n - 2)];
+        int count = 0;
+        for (int a = 1; a < n; a++) {
+            for (int b = 1; b < n; b++) {
+                if (a != b && dist[0][a] != MISSING && dist[a][b] != MISSING) {
+                    prefixes[count++] = a * n + b;
+                }
+            }
+        }
+        // cheapest prefixes first so that good incumbents are found early
+        int[] tasks = IntStream.of(Arrays.copyOf(prefixes, count)).boxed()
+                .sorted((x, y) -> Integer.compare(prefixCost(x), prefixCost(y)))
+                .mapToInt(Integer::intValue).toArray();
+        IntStream work = IntStream.range(0, tasks.length);
+        if (parallel) {
+            work = work.parallel();
+        }
+        ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+        work.forEach(t -> {
+            int a = tasks[t] / n;
+            int b = tasks[t] % n;
+            Worker worker = workers.get();
+            int cost = dist[0][a] + dist[a][b];
+            long visited = 1L | (1L << a) | (1L << b);
+            if (cost < best.get() && !prune(worker, b, visited, cost)) {
+                worker.path[1] = a;
+                worker.path[2] = b;
+                dfs(worker, b, visited, 3, cost);
+                expanded.add(worker.nodes);
+                worker.nodes = 0;
+            }
+        });
+    }
+
+    private int prefixCost(int prefix) {
+        int a = prefix / n;
+        return dist[0][a] + dist[a][prefix % n];
+    }
+
+    private void dfs(Worker worker, int last, long visited, int depth, int cost) {
+        worker.nodes++;
+        if (depth == n) {
+            int back = dist[last][0];
+            if (back != MISSING) {
+                offer(cost + back, worker.path);
+            }
+            return;
+        }
+        for (int v : nearest[last]) {
+            int d = dist[last][v];
+            if (d == MISSING) {
+                break; // sorted: everything after is missing too
+            }
+            if ((visited & (1L << v)) != 0) {
+                continue;
+            }
+            int newCost = cost + d;
+            if (newCost >= best.get()) {
+                break; // sorted: later cities are no cheaper
+            }
+            long newVisited = visited | (1L << v);
+            if (depth + 1 < n && prune(worker, v, newVisited, newCost)) {
+                continue;
+            }
+            worker.path[depth] = v;
+            dfs(worker, v, newVisited, depth + 1, newCost);
+        }
+    }
+
+    private void offer(int distance, int[] path) {
+        if (distance < best.get()) {
+            synchronized (this) {
+                if (distance < best.get()) {
+                    bestOrder = path.clone();
+                    best.set(distance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lower bound for completing {@code 0 -> ... -> last} through all unvisited cities and back to
+     * 0: Lagrangian MST over the unvisited cities plus {@code last} and {@code 0}.
+     */
+    private boolean prune(Worker worker, int last, long visited, int cost) {
+        int incumbent = best.get();
+        if (incumbent == MISSING) {
+            return false;
+        }
+        int[] members = worker.members;
+        int k = 0;
+        double penalty = pi[last] + pi[0];
+        double toLast = INF;
+        double toStart = INF;
+        for (int v = 1; v < n; v++) {
+            if ((visited & (1L << v)) == 0) {
+                members[k++] = v;
+                penalty += 2 * pi[v];
+                toLast = Math.min(toLast, weight[last][v]);
+                toStart = Math.min(toStart, weight[0][v]);
+            }
+        }
+        double bound = toLast + toStart + minimumSpanningTree(worker, members, k);
+        if (cost + bound - penalty > incumbent - 1 + EPS) {
+            return true;
+        }
+        if (symmetric) {
+            return false;
+        }
+        long reduced = reducedCost(worker, last, members, k);
+        return reduced == Long.MAX_VALUE || cost + reduced > incumbent - 1L;
+    }
+
+    /**
+     * Assignment bound on the same completion: each of {@code last} and {@code members[0..k)}
+     * leaves along one edge, and each of {@code members[0..k)} and 0 is entered along one. The
+     * root's assignment potentials account for most of that cost; reducing the rows and then the
+     * columns of what is left over these cities adds the rest.
+     *
+     * @return the bound, or {@code Long.MAX_VALUE} if some city has no edge left to use
+     */
+    private long reducedCost(Worker worker, int last, int[] members, int k) {
+        long[] rowMin = worker.rowMin;
+        long total = 0;
+        for (int r = 0; r <= k; r++) {
+            int u = r == k ? last : members[r];
+            long min = Long.MAX_VALUE;
+            for (int c = 0; c <= k; c++) {
+                int v = c == k ? 0 : members[c];
+                if (v != u && !(u == last && v == 0) && dist[u][v] != MISSING) {
+                    min = Math.min(min, dist[u][v] - rowPotential[u] - columnPotential[v]);
+                }
+            }
+            if (min == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            rowMin[r] = min;
+            total += min + rowPotential[u];
+        }
+        for (int c = 0; c <= k; c++) {
+            int v = c == k ? 0 : members[c];
+            long min = Long.MAX_VALUE;
+            for (int r = 0; r <= k; r++) {
+                int u = r == k ? last : members[r];
+                if (v != u && !(u == last && v == 0) && dist[u][v] != MISSING) {
+                    min = Math.min(min, dist[u][v] - rowPotential[u] - columnPotential[v] - rowMin[r]);
+                }
+            }
+            if (min == Long.MAX_VALUE) {
+                return Long.MAX_VALUE;
+            }
+            total += min + columnPotential[v];
+        }
+        return total;
+    }
+
+    /** Prim's algorithm on the dense Lagrangian costs, restricted to {@code members[0..k)}. */
+    private double minimumSpanningTree(Worker worker, int[] members, int k) {
+        double[] key = worker.key;
+        boolean[] inTree = worker.inTree;
+        for (int i = 0; i < k; i++) {
+            key[i] = INF;
+            inTree[i] = false;
+        }
+        key[0] = 0;
+        double total = 0;
+        for (int step = 0; step < k; step++) {
+            int pick = -1;
+            for (int i = 0; i < k; i++) {
+                if (!inTree[i] && (pick < 0 || key[i] < key[pick])) {
+                    pick = i;
+                }
+            }
+            if (key[pick] == INF) {
+                return INF;
+            }
+            inTree[pick] = true;
+            total += key[pick];
+            double[] row = weight[members[pick]];
+            for (int i = 0; i < k; i++) {
+                if (!inTree[i] && row[members[i]] < key[i]) {
+                    key[i] = row[members[i]];
+                }
+            }
+        }
+        return total;
+    }
+
+    // ---------------------------------------------------------------- root bounds
+
+    /**
+     * Incumbent from a nearest-neighbour tour out of every city, each improved by 2-opt and Or-opt
+     * moves under the directed distances until none helps. A tight incumbent from the start both
+     * prunes the search and steers the subgradient steps.
+     */
+    private void localSearchIncumbent() {
+        int[] tour = new int[n];
+        int[] scratch = new int[n];
+        long[] forward = new long[n + 1];
+        long[] backward = new long[n + 1];
+        for (int start = 0; start < n; start++) {
+            long visited = 1L << start;
+            tour[0] = start;
+            for (int depth = 1; depth < n; depth++) {
+                int last = tour[depth - 1];
+                for (int v : nearest[last]) {
+                    if ((visited & (1L << v)) == 0) {
+                        tour[depth] = v;
+                        visited |= 1L << v;
+                        break;
+                    }
+                }
+            }
+            while (twoOpt(tour, forward, backward) | orOpt(tour, scratch)) {
+                // repeat until neither move improves the tour
+            }
+            long length = 0;
+            for (int i = 0; i < n; i++) {
+                length += cost(tour[i], tour[(i + 1) % n]);
+            }
+            if (length < best.get()) {
+                int zero = 0;
+                while (tour[zero] != 0) {
+                    zero++;
+                }
+                for (int i = 0; i < n; i++) {
+                    scratch[i] = tour[(zero + i) % n];
+                }
+                offer((int) length, scratch);
+            }
+        }
+    }
+
+    /** Reverses every stretch of the tour whose reversal shortens it. */
+    private boolean twoOpt(int[] tour, long[] forward, long[] backward) {
+        boolean improved = false;
+        for (int i = 0; i + 2 < n; i++) {
+            for (int x = 0; x < n; x++) {
+                int y = (x + 1) % n;
+                forward[x + 1] = forward[x] + cost(tour[x], tour[y]);
+                backward[x + 1] = backward[x] + cost(tour[y], tour[x]);
+            }
+            for (int j = i + 2; j < n; j++) {
+                int a = tour[i];
+                int b = tour[i + 1];
+                int c = tour[j];
+                int d = tour[(j + 1) % n];
+                long before = cost(a, b) + forward[j] - forward[i + 1] + cost(c, d);
+                long after = cost(a, c) + backward[j] - backward[i + 1] + cost(b, d);
+                if (after < before) {
+                    for (int lo = i + 1, hi = j; lo < hi; lo++, hi--) {
+                        int swap = tour[lo];
+                        tour[lo] = tour[hi];
+                        tour[hi] = swap;
+                    }
+                    improved = true;
+                    break;
+                }
+            }
+        }
+        return improved;
+    }
+
+    /** Moves every run of up to three cities to wherever in the tour it is cheapest. */
+    private boolean orOpt(int[] tour, int[] scratch) {
+        boolean improved = false;
+        for (int length = 1; length <= 3 && length + 3 <= n; length++) {
+            for (int i = 0; i < n; i++) {
+                int p = tour[(i + n - 1) % n];
+                int a = tour[i];
+                int b = tour[(i + length - 1) % n];
+                int q = tour[(i + length) % n];
+                long gain = cost(p, a) + cost(b, q) - cost(p, q);
+                for (int offset = length; offset <= n - 2; offset++) {
+                    int x = tour[(i + offset) % n];
+                    int y = tour[(i + offset + 1) % n];
+                    if (cost(x, a) + cost(b, y) - cost(x, y) < gain) {
+                        // q .. x, then the run, then y .. p
+                        int k = 0;
+                        for (int s = length; s <= offset; s++) {
+                            scratch[k++] = tour[(i + s) % n];
+                        }
+                        for (int s = 0; s < length; s++) {
+                            scratch[k++] = tour[(i + s) % n];
+                        }
+                        for (int s = offset + 1; s < n; s++) {
+                            scratch[k++] = tour[(i + s) % n];
+                        }
+                        System.arraycopy(scratch, 0, tour, 0, n);
+                        improved = true;
+                        break;
+                    }
+                }
+            }
+        }
+        return improved;
+    }
+
+    /** Directed distance, a missing edge costing more than any tour without one. */
+    private long cost(int from, int to) {
+        int d = dist[from][to];
+        return d == MISSING ? (long) MISSING * n : d;
+    }
+
+    /**
+     * Hungarian algorithm for the assignment relaxation (every city left and entered once, never
+     * from itself), kept only for its optimal dual potentials.
+     */
+    private void assignmentPotentials() {
+        long big = (long) MISSING * n;
+        long[] u = new long[n + 1];
+        long[] v = new long[n + 1];
+        int[] match = new int[n + 1];
+        int[] way = new int[n + 1];
+        long[] slack = new long[n + 1];
+        boolean[] used = new boolean[n + 1];
+        for (int i = 1; i <= n; i++) {
+            match[0] = i;
+            int column = 0;
+            Arrays.fill(slack, Long.MAX_VALUE);
+            Arrays.fill(used, false);
+            do {
+                used[column] = true;
+                int row = match[column];
+                long delta = Long.MAX_VALUE;
+                int next = 0;
+                for (int j = 1; j <= n; j++) {
+                    if (!used[j]) {
+                        int d = dist[row - 1][j - 1];
+                        long reduced = (row == j || d == MISSING ? big : d) - u[row] - v[j];
+                        if (reduced < slack[j]) {
+                            slack[j] = reduced;
+                            way[j] = column;
+                        }
+                        if (slack[j] < delta) {
+                            delta = slack[j];
+                            next = j;
+                        }
+                    }
+                }
+                for (int j = 0; j <= n; j++) {
+                    if (used[j]) {
+                        u[match[j]] += delta;
+                        v[j] -= delta;
+                    } else {
+                        slack[j] -= delta;
+                    }
+                }
+                column = next;
+            } while (match[column] != 0);
+            do {
+                int previous = way[column];
+                match[column] = match[previous];
+                column = previous;
+            } while (column != 0);
+        }
+        System.arraycopy(u, 1, rowPotential, 0, n);
+        System.arraycopy(v, 1, columnPotential, 0, n);
+    }
+
+    /**
+     * Held-Karp subgradient ascent on 1-trees (MST over cities 1..n-1 plus the two cheapest edges
+     * at city 0). Keeps the penalties of the best bound seen; any penalties give a valid bound.
+     */
+    private void optimisePenalties() {
+        double[] current = new double[n];
+        int[] degree = new int[n];
+        int[] parent = new int[n];
+        double[] key = new double[n];
+        boolean[] inTree = new boolean[n];
+        double bestBound = Double.NEGATIVE_INFINITY;
+        int incumbent = best.get();
+        double lambda = 2.0;
+        int sinceImprovement = 0;
+        int iterations = incumbent == MISSING ? 0 : 50 * n;
+
+        applyPenalties(current);
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            double bound = oneTree(degree, parent, key, inTree);
+            for (int v = 0; v < n; v++) {
+                bound -= 2 * current[v];
+            }
+            if (bound == INF) {
+                break; // symmetrised graph is disconnected; the search will find nothing either
+            }
+            if (bound > bestBound + EPS) {
+                bestBound = bound;
+                System.arraycopy(current, 0, pi, 0, n);
+                sinceImprovement = 0;
+            } else if (++sinceImprovement >= n) {
+                lambda /= 2;
+                sinceImprovement = 0;
+            }
+            double norm = 0;
+            for (int v = 0; v < n; v++) {
+                norm += (degree[v] - 2) * (degree[v] - 2);
+            }
+            if (norm == 0 || lambda < 1e-6) {
+                break; // the 1-tree is a tour, or steps have vanished
+            }
+            double step = lambda * (incumbent - bound) / norm;
+            for (int v = 0; v < n; v++) {
+                current[v] += step * (degree[v] - 2);
+            }
+            applyPenalties(current);
+        }
+        applyPenalties(pi);
+    }
+
+    private void applyPenalties(double[] penalties) {
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                int s = Math.min(dist[i][j], dist[j][i]);
+                weight[i][j] = i == j || s == MISSING ? INF : s + penalties[i] + penalties[j];
+            }
+        }
+    }
+
+    /** Weight of the minimum 1-tree under {@link #weight}; fills the degree of every city. */
+    private double oneTree(int[] degree, int[] parent, double[] key, boolean[] inTree) {
+        Arrays.fill(degree, 0);
+        Arrays.fill(key, INF);
+        Arrays.fill(inTree, false);
+        Arrays.fill(parent, -1);
+        key[1] = 0;
+        double total = 0;
+        for (int step = 1; step < n; step++) {
+            int pick = -1;
+            for (int v = 1; v < n; v++) {
+                if (!inTree[v] && (pick < 0 || key[v] < key[pick])) {
+                    pick = v;
+                }
+            }
+            if (key[pick] == INF) {
+                return INF;
+            }
+            inTree[pick] = true;
+            total += key[pick];
+            if (parent[pick] >= 0) {
+                degree[pick]++;
+                degree[parent[pick]]++;
+            }
+            for (int v = 1; v < n; v++) {
+                if (!inTree[v] && weight[pick][v] < key[v]) {
+                    key[v] = weight[pick][v];
+                    parent[v] = pick;
+                }
+            }
+        }
+        // two cheapest edges at city 0
+        int first = -1;
+        int second = -1;
+        for (int v = 1; v < n; v++) {
+            if (first < 0 || weight[0][v] < weight[0][first]) {
+                second = first;
+                first = v;
+            } else if (second < 0 || weight[0][v] < weight[0][second]) {
+                second = v;
+            }
+        }
+        if (second < 0 || weight[0][second] == INF) {
+            return INF;
+        }
+        total += weight[0][first] + weight[0][second];
+        degree[0] = 2;
+        degree[first]++;
+        degree[second]++;
+        return total;
+    }
+}
@@ -0,0 +1,671 @@
+package method.graph;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * Anytime local-search TSP behind {@link TravelingSalesman#heuristic}.
+ * <p>
+ * Every city keeps its {@value #CANDIDATES} nearest neighbours, built in at most half the budget:
+ * exact when all {@code n²} distances can be read in that time, approximate otherwise. An
+ * initial tour is built by nearest neighbour or greedy edge over those lists, then improved with
+ * 2-opt and Or-opt (segments of up to {@value #MAX_SEGMENT} cities, either orientation) moves
+ * that only look at candidate neighbours. Cities whose surroundings have not changed are skipped (don't-look bits,
+ * kept as a FIFO of active cities). At a local optimum a small random segment swap kicks the
+ * tour and the search continues from the kicked cities; the best tour is kept until the deadline.
+ * </p>
+ * <p>
+ * The tour is an array plus the position of every city. All moves, Or-opt included, are
+ * performed as 2-opt reversals of the shorter side of the cycle. Moves assume symmetric
+ * distances; the reported length is always recomputed in visiting order.
+ * Missing edges ({@code Integer.MAX_VALUE}) are never candidates and cost
+ * {@code Integer.MAX_VALUE} inside the search, so any tour avoiding them is preferred.
+ * </p>
+ */
+final class TspLocalSearch {
+
+    private static final int MISSING = Integer.MAX_VALUE;
+    private static final int CANDIDATES = 10;
+    /** Up to this many cities the lists are always exact; {@code n²} calls are cheap anyway. */
+    private static final int ALWAYS_EXACT = 256;
+    /** Cities on either side in pivot order that every list starts from. */
+    private static final int WINDOW = CANDIDATES;
+    /** Bits per pivot distance in the pivot order. */
+    private static final int LEVEL_BITS = 10;
+    private static final int MAX_SEGMENT = 3;
+    private static final int KICK_SPAN = 50;
+    private static final int TIME_CHECK_MASK = 255;
+
+    private final int n;
+    private final IntBinaryOperator distance;
+    /** Whether construction is split across the current pool; the search itself is sequential. */
+    private final boolean parallel;
+    private final int k;
+    /** {@code k} slots per city, sorted by ascending distance; {@link #candidateCount} are used. */
+    private final int[] candidates;
+    private final int[] candidateDistance;
+    private final int[] candidateCount;
+
+    private final int[] tour;
+    private final int[] pos;
+    private long length;
+    /** Improving exchanges and kicks applied. */
+    private long moves;
+
+    private final int[] queue;
+    private final boolean[] queued;
+    private final int[] kickBuffer = new int[2 * KICK_SPAN];
+    private int head;
+    private int queueSize;
+
+    private TspLocalSearch(int n, IntBinaryOperator distance, boolean parallel) {
+        this.n = n;
+        this.distance = distance;
+        this.parallel = parallel;
+        this.k = Math.min(CANDIDATES, n - 1);
+        this.candidates = new int[n * k];
+        this.candidateDistance = new int[n * k];
+        this.candidateCount = new int[n];
+        this.tour = new int[n];
+        this.pos = new int[n];
+        this.queue = new int[n];
+        this.queued = new boolean[n];
+    }
+
+    static TravelingSalesman.Tour solve(int n, IntBinaryOperator distance, TravelingSalesman.InitialTour initialTour,
+                                        long deadline, boolean parallel) {
+        if (n <= 1) {
+            return new TravelingSalesman.Tour(0, n == 0 ? new int[0] : new int[] {0});
+        }
+        SolverInstrumentation.Probe probe = SolverInstrumentation.start("TravelingSalesman.heuristic");
+        int[] order;
+        long moves = 0;
+        if (n <= 3) {
+            order = IntStream.range(0, n).toArray();
+        } else {
+            TspLocalSearch search = new TspLocalSearch(n, distance, parallel);
+            long now = System.nanoTime();
+            long construction = now + (deadline - now) / 2;
+            search.buildCandidates(construction);
+            search.load(initialTour == TravelingSalesman.InitialTour.NEAREST_NEIGHBOUR
+                    ? search.nearestNeighbour(construction) : search.greedyEdge(construction));
+            order = search.improve(deadline);
+            moves = search.moves;
+        }
+        int zero = 0;
+        while (order[zero] != 0) {
+            zero++;
+        }
+        int[] rotated = new int[n];
+        for (int i = 0; i < n; i++) {
+            rotated[i] = order[(zero + i) % n];
+        }
+        TravelingSalesman.Tour tour = new TravelingSalesman.Tour(length(distance, rotated), rotated);
+        if (probe != null) {
+            probe.add(SolverCounter.MOVES, moves).finish();
+        }
+        return tour;
+    }
+
+    /**
+     * Same semantics as {@link TravelingSalesman#calculateDistance}, except that a length beyond
+     * {@code int} range saturates to {@code Integer.MAX_VALUE} instead of wrapping.
+     */
+    private static int length(IntBinaryOperator distance, int[] order) {
+        long total = 0;
+        for (int i = 0; i < order.length; i++) {
+            int d = distance.applyAsInt(order[i], order[i + 1 == order.length ? 0 : i + 1]);
+            if (d == MISSING) {
+                return MISSING;
+            }
+            total += d;
+        }
+        return (int) Math.min(total, MISSING);
+    }
+
+    // ---------------------------------------------------------------- construction
+
+    /**
+     * Fills the candidate lists, split across the current pool if {@link #parallel}. Up to
+     * {@value #ALWAYS_EXACT} cities they are exact. Beyond that, every city first ranks the
+     * {@value #WINDOW} cities on either side of it in {@link #pivotOrder}. If the pivot passes show that all {@code n²} distances can
+     * be read before {@code deadline}, the lists are then made exact; otherwise the window doubles
+     * until the deadline, each pass ranking only the cities it adds. Only the first window runs
+     * past the deadline.
+     */
+    private void buildCandidates(long deadline) {
+        if (n <= ALWAYS_EXACT) {
+            cities().forEach(this::scan);
+            return;
+        }
+        long start = System.nanoTime();
+        int[] order = pivotOrder();
+        long row = (System.nanoTime() - start) / 4;
+        cities().forEach(r -> offerWindow(order, r, 0, WINDOW));
+        if (System.nanoTime() + row * n - deadline < 0) {
+            cities().filter(i -> System.nanoTime() - deadline < 0).forEach(this::scan);
+            return;
+        }
+        for (int window = WINDOW; window < n - 1 && System.nanoTime() - deadline < 0; window *= 2) {
+            int done = window;
+            cities().filter(r -> System.nanoTime() - deadline < 0)
+                    .forEach(r -> offerWindow(order, r, done, 2 * done));
+        }
+    }
+
+    /**
+     * The cities in Morton order of their distances to three far-apart pivot cities. Those
+     * distances stand in for coordinates: cities close to each other are about as far from every
+     * pivot, so they mostly end up close in the order. Takes {@code 4n} distance calls.
+     */
+    private int[] pivotOrder() {
+        int[] spread = distancesFrom(0);
+        int[][] pivot = new int[3][];
+        int[] scale = new int[pivot.length];
+        for (int p = 0; p < pivot.length; p++) {
+            pivot[p] = distancesFrom(farthest(spread));
+            scale[p] = Math.max(1, pivot[p][farthest(pivot[p])]);
+            for (int i = 0; i < n; i++) {
+                spread[i] = p == 0 ? pivot[p][i] : Math.min(spread[i], pivot[p][i]);
+            }
+        }
+        long[] keys = new long[n];
+        cities().forEach(i -> {
+            long key = 0;
+            for (int bit = LEVEL_BITS - 1; bit >= 0; bit--) {
+                for (int p = 0; p < pivot.length; p++) {
+                    long level = (long) Math.min(pivot[p][i], scale[p]) * ((1 << LEVEL_BITS) - 1) / scale[p];
+                    key = key << 1 | (level >> bit & 1);
+                }
+            }
+            keys[i] = key << 31 | i;
+        });
+        if (parallel) {
+            Arrays.parallelSort(keys);
+        } else {
+            Arrays.sort(keys);
+        }
+        int[] order = new int[n];
+        for (int r = 0; r < n; r++) {
+            order[r] = (int) (keys[r] & Integer.MAX_VALUE);
+        }
+        return order;
+    }
+
+    private IntStream cities() {
+        IntStream cities = IntStream.range(0, n);
+        return parallel ? cities.parallel() : cities;
+    }
+
+    private int[] distancesFrom(int city) {
+        return cities().map(j -> distance.applyAsInt(city, j)).toArray();
+    }
+
+    /** The index of the largest entry other than a missing edge, or 0 if there is none. */
+    private static int farthest(int[] distances) {
+        int best = 0;
+        for (int i = 1; i < distances.length; i++) {
+            if (distances[i] != MISSING && (distances[best] == MISSING || distances[i] > distances[best])) {
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    /** Offers {@code order[r]} the cities more than {@code from} and at most {@code to} places away. */
+    private void offerWindow(int[] order, int r, int from, int to) {
+        int city = order[r];
+        for (int s = Math.max(0, r - to); s < r - from; s++) {
+            offer(city, order[s]);
+        }
+        for (int s = r + from + 1, end = Math.min(n - 1, r + to); s <= end; s++) {
+            offer(city, order[s]);
+        }
+    }
+
+    /** Replaces the list of {@code i} by its exact {@code k} nearest cities. */
+    private void scan(int i) {
+        int[] city = new int[k];
+        int[] dist = new int[k];
+        int count = 0;
+        for (int j = 0; j < n; j++) {
+            if (j != i) {
+                count = insert(city, dist, 0, count, j, distance.applyAsInt(i, j));
+            }
+        }
+        System.arraycopy(city, 0, candidates, i * k, count);
+        System.arraycopy(dist, 0, candidateDistance, i * k, count);
+        candidateCount[i] = count;
+    }
+
+    /** Adds {@code j} to the list of {@code i} if it is new and among the {@code k} closest seen. */
+    private boolean offer(int i, int j) {
+        if (j == i) {
+            return false;
+        }
+        int base = i * k;
+        int count = candidateCount[i];
+        for (int e = base; e < base + count; e++) {
+            if (candidates[e] == j) {
+                return false;
+            }
+        }
+        int d = distance.applyAsInt(i, j);
+        if (d == MISSING || (count == k && d >= candidateDistance[base + k - 1])) {
+            return false;
+        }
+        candidateCount[i] = insert(candidates, candidateDistance, base, count, j, d);
+        return true;
+    }
+
+    /**
+     * Inserts {@code city} into the list of {@code count} entries at {@code base}, sorted by
+     * ascending distance and capped at {@code k}; missing edges are dropped.
+     *
+     * @return the new number of entries
+     */
+    private int insert(int[] cities, int[] distances, int base, int count, int city, int d) {
+        if (d == MISSING || (count == k && d >= distances[base + k - 1])) {
+            return count;
+        }
+        int slot = count < k ? count++ : k - 1;
+        while (slot > 0 && distances[base + slot - 1] > d) {
+            cities[base + slot] = cities[base + slot - 1];
+            distances[base + slot] = distances[base + slot - 1];
+            slot--;
+        }
+        cities[base + slot] = city;
+        distances[base + slot] = d;
+        return count;
+    }
+
+    private int[] nearestNeighbour(long deadline) {
+        int[] order = new int[n];
+        int[] unvisited = IntStream.range(0, n).toArray();
+        int[] slot = IntStream.range(0, n).toArray();
+        int remaining = n;
+        int current = 0;
+        for (int step = 0; step < n; step++) {
+            if (step > 0) {
+                int next = -1;
+                for (int i = current * k, end = i + candidateCount[current]; i < end; i++) {
+                    if (slot[candidates[i]] >= 0) {
+                        next = candidates[i];
+                        break;
+                    }
+                }
+                if (next < 0) {
+                    next = closest(current, unvisited, remaining, deadline);
+                }
+                current = next;
+            }
+            order[step] = current;
+            // swap-remove from the unvisited list
+            int last = unvisited[--remaining];
+            unvisited[slot[current]] = last;
+            slot[last] = slot[current];
+            slot[current] = -1;
+        }
+        return order;
+    }
+
+    /**
+     * Greedy edge matching over the candidate edges (shortest first, no city of degree three, no
+     * early cycle), then the fragments are chained nearest endpoint first.
+     */
+    private int[] greedyEdge(long deadline) {
+        long[] keys = new long[n * k];
+        int m = 0;
+        for (int i = 0; i < n; i++) {
+            for (int e = i * k, end = e + candidateCount[i]; e < end; e++) {
+                keys[m++] = ((long) candidateDistance[e] << 31) | e;
+            }
+        }
+        Arrays.sort(keys, 0, m);
+
+        int[] link = new int[2 * n];
+        Arrays.fill(link, -1);
+        int[] parent = IntStream.range(0, n).toArray();
+        int edges = 0;
+        for (int i = 0; i < m && edges < n - 1; i++) {
+            int e = (int) (keys[i] & Integer.MAX_VALUE);
+            int u = e / k;
+            int v = candidates[e];
+            if (link[2 * u + 1] >= 0 || link[2 * v + 1] >= 0) {
+                continue;
+            }
+            int ru = find(parent, u);
+            int rv = find(parent, v);
+            if (ru == rv) {
+                continue;
+            }
+            parent[ru] = rv;
+            link[link[2 * u] < 0 ? 2 * u : 2 * u + 1] = v;
+            link[link[2 * v] < 0 ? 2 * v : 2 * v + 1] = u;
+            edges++;
+        }
+
+        int[] ends = new int[n];
+        int endCount = 0;
+        for (int v = 0; v < n; v++) {
+            if (link[2 * v + 1] < 0) {
+                ends[endCount++] = v;
+            }
+        }
+        boolean[] placed = new boolean[n];
+        int[] order = new int[n];
+        int size = 0;
+        int from = ends[0];
+        while (true) {
+            for (int previous = -1, current = from; current >= 0; ) {
+                order[size++] = current;
+                placed[current] = true;
+                int next = link[2 * current] != previous ? link[2 * current] : link[2 * current + 1];
+                previous = current;
+                current = next;
+            }
+            if (size == n) {
+                return order;
+            }
+            int last = order[size - 1];
+            from = -1;
+            for (int i = last * k, end = i + candidateCount[last]; i < end; i++) {
+                int c = candidates[i];
+                if (!placed[c] && link[2 * c + 1] < 0) {
+                    from = c;
+                    break;
+                }
+            }
+            if (from < 0) {
+                // drop placed endpoints, then take the closest remaining one
+                int kept = 0;
+                for (int i = 0; i < endCount; i++) {
+                    if (!placed[ends[i]]) {
+                        ends[kept++] = ends[i];
+                    }
+                }
+                endCount = kept;
+                from = closest(last, ends, endCount, deadline);
+            }
+        }
+    }
+
+    private static int find(int[] parent, int v) {
+        while (parent[v] != v) {
+            parent[v] = parent[parent[v]];
+            v = parent[v];
+        }
+        return v;
+    }
+
+    /** The closest of {@code cities[0..count)}, or of only the first {@value #WINDOW} once time is up. */
+    private int closest(int from, int[] cities, int count, long deadline) {
+        int best = cities[0];
+        long bestDistance = Long.MAX_VALUE;
+        int scanned = System.nanoTime() - deadline > 0 ? Math.min(count, WINDOW) : count;
+        for (int i = 0; i < scanned; i++) {
+            long d = d(from, cities[i]);
+            if (d < bestDistance) {
+                bestDistance = d;
+                best = cities[i];
+            }
+        }
+        return best;
+    }
+
+    private void load(int[] order) {
+        System.arraycopy(order, 0, tour, 0, n);
+        length = 0;
+        for (int i = 0; i < n; i++) {
+            pos[tour[i]] = i;
+            length += d(tour[i], tour[i + 1 == n ? 0 : i + 1]);
+        }
+    }
+
+    // ---------------------------------------------------------------- improvement
+
+    private int[] improve(long deadline) {
+        for (int v : tour) {
+            activate(v);
+        }
+        boolean localOptimum = optimise(deadline);
+        int[] best = tour.clone();
+        long bestLength = length;
+        if (n < 8) {
+            return best;
+        }
+        SplittableRandom random = new SplittableRandom(n);
+        while (localOptimum && System.nanoTime() - deadline < 0) {
+            kick(random);
+            localOptimum = optimise(deadline);
+            if (length < bestLength) {
+                System.arraycopy(tour, 0, best, 0, n);
+                bestLength = length;
+            } else if (length > bestLength && localOptimum) {
+                load(best);
+            }
+        }
+        return best;
+    }
+
+    /** Runs until no active city is left ({@code true}) or the deadline passes ({@code false}). */
+    private boolean optimise(long deadline) {
+        int steps = 0;
+        while (queueSize > 0) {
+            if ((++steps & TIME_CHECK_MASK) == 0 && System.nanoTime() - deadline > 0) {
+                return false;
+            }
+            int a = queue[head];
+            head = head + 1 == n ? 0 : head + 1;
+            queueSize--;
+            queued[a] = false;
+            if (twoOpt(a) || orOpt(a)) {
+                moves++;
+                activate(a);
+            }
+        }
+        return true;
+    }
+
+    private boolean twoOpt(int a) {
+        for (int direction = 0; direction < 2; direction++) {
+            boolean forward = direction == 0;
+            int a2 = forward ? next(a) : prev(a);
+            long removed = d(a, a2);
+            for (int i = a * k, end = i + candidateCount[a]; i < end; i++) {
+                long added = candidateDistance[i];
+                if (added >= removed) {
+                    break;
+                }
+                int c = candidates[i];
+                int c2 = forward ? next(c) : prev(c);
+                if (c == a2 || c2 == a) {
+                    continue;
+                }
+                long gain = removed + d(c, c2) - added - d(a2, c2);
+                if (gain > 0) {
+                    if (forward) {
+                        exchange(a, a2, c, c2);
+                    } else {
+                        exchange(a2, a, c2, c);
+                    }
+                    length -= gain;
+                    activate(a2);
+                    activate(c);
+                    activate(c2);
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Moves the segment starting at {@code s1} between two adjacent cities near either of its ends. */
+    private boolean orOpt(int s1) {
+        int s2 = s1;
+        for (int segment = 1; segment <= MAX_SEGMENT && segment + 3 <= n; segment++) {
+            if (segment > 1) {
+                s2 = next(s2);
+            }
+            int p = prev(s1);
+            int n2 = next(s2);
+            long removeGain = d(p, s1) + d(s2, n2) - d(p, n2);
+            if (removeGain <= 0) {
+                continue;
+            }
+            for (int end = 0; end < 2; end++) {
+                int e = end == 0 ? s1 : s2;
+                for (int i = e * k, last = i + candidateCount[e]; i < last; i++) {
+                    if (candidateDistance[i] >= removeGain) {
+                        break;
+                    }
+                    int c = candidates[i];
+                    if (inSegment(c, s1, segment)) {
+                        continue;
+                    }
+                    for (int side = 0; side < 2; side++) {
+                        int x = side == 0 ? c : prev(c);
+                        int y = side == 0 ? next(c) : c;
+                        if (y == p || inSegment(x, s1, segment) || inSegment(y, s1, segment)) {
+                            continue;
+                        }
+                        long base = d(x, y);
+                        long same = d(x, s1) + d(s2, y) - base;
+                        long reversed = d(x, s2) + d(s1, y) - base;
+                        boolean reverse = segment == 1 || reversed < same;
+                        long gain = removeGain - (reverse ? reversed : same);
+                        if (gain > 0) {
+                            // p s1..s2 n2 .. x y  ->  p n2 .. x s2..s1 y  (-> p n2 .. x s1..s2 y)
+                            exchange(p, s1, x, y);
+                            if (x != n2) {
+                                exchange(p, x, n2, s2);
+                            }
+                            if (!reverse) {
+                                exchange(x, s2, s1, y);
+                            }
+                            length -= gain;
+                            activate(p);
+                            activate(s2);
+                            activate(n2);
+                            activate(x);
+                            activate(y);
+                            return true;
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Swaps two random adjacent segments of at most {@value #KICK_SPAN} cities. */
+    private void kick(SplittableRandom random) {
+        int span = Math.min(KICK_SPAN, (n - 2) / 3);
+        int l1 = 1 + random.nextInt(span);
+        int l2 = 1 + random.nextInt(span);
+        int start = random.nextInt(n);
+        int p = at(start);
+        int a1 = at(start + 1);
+        int a2 = at(start + l1);
+        int b1 = at(start + l1 + 1);
+        int b2 = at(start + l1 + l2);
+        int q = at(start + l1 + l2 + 1);
+        length += d(p, b1) + d(b2, a1) + d(a2, q) - d(p, a1) - d(a2, b1) - d(b2, q);
+        moves++;
+
+        int[] swapped = kickBuffer;
+        for (int i = 0; i < l2; i++) {
+            swapped[i] = at(start + l1 + 1 + i);
+        }
+        for (int i = 0; i < l1; i++) {
+            swapped[l2 + i] = at(start + 1 + i);
+        }
+        for (int i = 0; i < l1 + l2; i++) {
+            int position = (start + 1 + i) % n;
+            tour[position] = swapped[i];
+            pos[swapped[i]] = position;
+        }
+        activate(p);
+        activate(a1);
+        activate(a2);
+        activate(b1);
+        activate(b2);
+        activate(q);
+    }
+
+    // ---------------------------------------------------------------- tour representation
+
+    /**
+     * Replaces edges {@code (x1,x2)} and {@code (y1,y2)}, where {@code x2} follows {@code x1} and
+     * {@code y2} follows {@code y1} in the same direction, with {@code (x1,y1)} and {@code (x2,y2)}.
+     */
+    private void exchange(int x1, int x2, int y1, int y2) {
+        if (next(x1) == x2) {
+            reverse(pos[x2], pos[y1]);
+        } else {
+            reverse(pos[y1], pos[x2]);
+        }
+    }
+
+    /** Reverses the cyclic path {@code from..to}, or equivalently its complement if that is shorter. */
+    private void reverse(int from, int to) {
+        int inner = to - from;
+        if (inner < 0) {
+            inner += n;
+        }
+        inner++;
+        if (2 * inner > n) {
+            int newFrom = to + 1 == n ? 0 : to + 1;
+            to = from == 0 ? n - 1 : from - 1;
+            from = newFrom;
+            inner = n - inner;
+        }
+        for (int s = 0; s < inner / 2; s++) {
+            int u = tour[from];
+            int v = tour[to];
+            tour[from] = v;
+            pos[v] = from;
+            tour[to] = u;
+            pos[u] = to;
+            from = from + 1 == n ? 0 : from + 1;
+            to = to == 0 ? n - 1 : to - 1;
+        }
+    }
+
+    private boolean inSegment(int v, int s1, int segment) {
+        int offset = pos[v] - pos[s1];
+        if (offset < 0) {
+            offset += n;
+        }
+        return offset < segment;
+    }
+
+    private int at(int position) {
+        return tour[position % n];
+    }
+
+    private int next(int v) {
+        int i = pos[v] + 1;
+        return tour[i == n ? 0 : i];
+    }
+
+    private int prev(int v) {
+        int i = pos[v];
+        return tour[i == 0 ? n - 1 : i - 1];
+    }
+
+    private long d(int a, int b) {
+        return distance.applyAsInt(a, b);
+    }
+
+    private void activate(int v) {
+        if (!queued[v]) {
+            queued[v] = true;
+            int tail = head + queueSize;
+            queue[tail >= n ? tail - n : tail] = v;
+            queueSize++;
+        }
+    }
+}
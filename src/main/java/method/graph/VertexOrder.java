@@ -0,0 +1,375 @@
+package method.graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * A renumbering of the vertices of a graph that puts neighbours at nearby ids, so the per-vertex
+ * arrays of an algorithm ({@code visited}, {@code dist}, {@code pairU}, {@code dp}, ...) are read
+ * from the same cache lines instead of at random.
+ * <p>
+ * {@link #compute(CsrGraph, Strategy)} derives an order from the graph, {@link #apply(CsrGraph)}
+ * builds the permuted graph, and {@link #toOriginal(int[])} and {@link #toOriginalIds(int[])}
+ * translate per-vertex results back. {@link ReorderedGraph} does all three around the algorithms
+ * of this package. Orders are immutable and can be shared between threads; {@link #write} and
+ * {@link #read} keep one next to a graph file, since computing it costs about as much as one
+ * traversal of the graph.
+ * </p>
+ */
+public final class VertexOrder {
+
+    /** How {@link #compute} orders the vertices; all of them ignore edge directions. */
+    public enum Strategy {
+        /** Breadth-first order, each component started from its lowest original id. */
+        BFS,
+        /**
+         * Reverse Cuthill–McKee: breadth-first from a vertex of least degree, neighbours taken in
+         * ascending degree, the whole sequence reversed. Keeps every edge's endpoints close, i.e.
+         * minimises the bandwidth of the adjacency matrix.
+         */
+        REVERSE_CUTHILL_MCKEE,
+        /** Descending degree, so the hubs most edges lead to share a few cache lines. */
+        DEGREE
+    }
+
+    /** "VORD" read as a little-endian int. */
+    static final int MAGIC = 'V' | 'O' << 8 | 'R' << 16 | 'D' << 24;
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+
+    private final int[] newIds;
+    private final int[] originalIds;
+
+    private VertexOrder(int[] newIds, int[] originalIds) {
+        this.newIds = newIds;
+        this.originalIds = originalIds;
+    }
+
+    /**
+     * Orders the vertices of {@code graph} by {@code strategy}.
+     *
+     * @throws IllegalArgumentException if the graph is bipartite; see
+     *                                  {@link ReorderedGraph#bipartite(CsrGraph, Strategy)}
+     */
+    public static VertexOrder compute(CsrGraph graph, Strategy strategy) {
+        if (graph.getNumTargets() != graph.getNumNodes()) {
+            throw new IllegalArgumentException("graph is bipartite; order both sides with ReorderedGraph.bipartite");
+        }
+        return fromSequence(sequence(graph, false, strategy));
+    }
+
+    /** Orders the two sides of a bipartite graph by {@code strategy} together: {@code {left, right}}. */
+    static VertexOrder[] computeBipartite(CsrGraph graph, Strategy strategy) {
+        int nLeft = graph.getNumNodes();
+        int nRight = graph.getNumTargets();
+        int[] sequence = sequence(graph, true, strategy);
+        int[] left = new int[nLeft];
+        int[] right = new int[nRight];
+        int l = 0;
+        int r = 0;
+        for (int x : sequence) {
+            if (x < nLeft) {
+                left[l++] = x;
+            } else {
+                right[r++] = x - nLeft;
+            }
+        }
+        return new VertexOrder[]{fromSequence(left), fromSequence(right)};
+    }
+
+    public static VertexOrder identity(int n) {
+        return fromSequence(identitySequence(n));
+    }
+
+    /**
+     * Wraps a renumbering given as {@code newIds[original] = new id}; the array is copied.
+     *
+     * @throws IllegalArgumentException if it is not a permutation of {@code [0, newIds.length)}
+     */
+    public static VertexOrder of(int[] newIds) {
+        int n = newIds.length;
+        int[] originalIds = new int[n];
+        Arrays.fill(originalIds, -1);
+        for (int v = 0; v < n; v++) {
+            int id = newIds[v];
+            if (id < 0 || id >= n || originalIds[id] != -1) {
+                throw new IllegalArgumentException("newIds is not a permutation: " + id + " at " + v);
+            }
+            originalIds[id] = v;
+        }
+        return new VertexOrder(newIds.clone(), originalIds);
+    }
+
+    public int size() {
+        return newIds.length;
+    }
+
+    public int newId(int original) {
+        return newIds[original];
+    }
+
+    public int originalId(int newId) {
+        return originalIds[newId];
+    }
+
+    /** {@code newIds[original]}, the form {@link #of(int[])} accepts. */
+    public int[] getNewIds() {
+        return newIds.clone();
+    }
+
+    /**
+     * The graph with every vertex renumbered. Edge attributes travel with their edge, and the
+     * edges of a vertex keep their relative order.
+     *
+     * @throws IllegalArgumentException if the graph is bipartite or of a different size
+     */
+    public CsrGraph apply(CsrGraph graph) {
+        if (graph.getNumTargets() != graph.getNumNodes()) {
+            throw new IllegalArgumentException("graph is bipartite; use apply(graph, targetOrder)");
+        }
+        return apply(graph, this);
+    }
+
+    /**
+     * Renumbers the sources of {@code graph} by this order and its targets by {@code targetOrder},
+     * for bipartite graphs whose sides are numbered separately.
+     *
+     * @throws IllegalArgumentException if the orders do not match the graph's sizes
+     */
+    public CsrGraph apply(CsrGraph graph, VertexOrder targetOrder) {
+        int n = graph.getNumNodes();
+        if (n != size() || graph.getNumTargets() != targetOrder.size()) {
+            throw new IllegalArgumentException("order sizes do not match the graph");
+        }
+        int m = graph.getNumEdges();
+        int[] offsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] = offsets[v] + graph.degree(originalIds[v]);
+        }
+        int[] targets = new int[m];
+        int[] weights = graph.hasWeights() ? new int[m] : null;
+        int[] resources = graph.hasResources() ? new int[m] : null;
+        for (int v = 0; v < n; v++) {
+            int u = originalIds[v];
+            int slot = offsets[v];
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++, slot++) {
+                targets[slot] = targetOrder.newIds[graph.target(e)];
+                if (weights != null) {
+                    weights[slot] = graph.weight(e);
+                }
+                if (resources != null) {
+                    resources[slot] = graph.resource(e);
+                }
+            }
+        }
+        return CsrGraph.wrap(targetOrder.size(), offsets, targets, weights, resources);
+    }
+
+    /** Moves per-vertex values computed on the reordered graph to the original ids: {@code result[v] = values[newId(v)]}. */
+    public int[] toOriginal(int[] valuesByNewId) {
+        if (valuesByNewId.length != size()) {
+            throw new IllegalArgumentException("expected " + size() + " values");
+        }
+        int[] result = new int[valuesByNewId.length];
+        for (int v = 0; v < result.length; v++) {
+            result[v] = valuesByNewId[newIds[v]];
+        }
+        return result;
+    }
+
+    /** Translates each vertex id of the reordered graph to its original id; negative ids (-1 for none) stay. */
+    public int[] toOriginalIds(int[] ids) {
+        int[] result = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            result[i] = ids[i] < 0 ? ids[i] : originalIds[ids[i]];
+        }
+        return result;
+    }
+
+    /** Writes the order as a small little-endian file: magic "VORD", version, size, then {@code newIds}. */
+    public void write(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 4 * newIds.length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(newIds.length);
+        buffer.asIntBuffer().put(newIds);
+        buffer.clear();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Reads an order written by {@link #write}.
+     *
+     * @throws IllegalArgumentException if the file is not an order file or is corrupt
+     */
+    public static VertexOrder read(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_BYTES || size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException(file + " is not a vertex order file");
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // read the whole file
+            }
+            buffer.flip();
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException(file + " is not a vertex order file");
+            }
+            if (buffer.getInt(4) != VERSION) {
+                throw new IllegalArgumentException("unsupported vertex order file version " + buffer.getInt(4));
+            }
+            int n = buffer.getInt(8);
+            if (n < 0 || size != HEADER_BYTES + 4L * n) {
+                throw new IllegalArgumentException(file + " is truncated");
+            }
+            int[] newIds = new int[n];
+            buffer.position(HEADER_BYTES);
+            buffer.asIntBuffer().get(newIds);
+            return of(newIds);
+        }
+    }
+
+    private static VertexOrder fromSequence(int[] sequence) {
+        int[] newIds = new int[sequence.length];
+        for (int i = 0; i < sequence.length; i++) {
+            newIds[sequence[i]] = i;
+        }
+        return new VertexOrder(newIds, sequence);
+    }
+
+    /**
+     * The vertices of the undirected view of {@code graph} in the new order. In a bipartite graph
+     * target {@code t} is vertex {@code getNumNodes() + t}; otherwise sources and targets share ids.
+     */
+    private static int[] sequence(CsrGraph graph, boolean bipartite, Strategy strategy) {
+        int n = graph.getNumNodes();
+        int targetBase = bipartite ? n : 0;
+        int total = n + (bipartite ? graph.getNumTargets() : 0);
+        int m = graph.getNumEdges();
+        // undirected view: every edge in both directions
+        int[] offsets = new int[total + 1];
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                offsets[u + 1]++;
+                offsets[targetBase + graph.target(e) + 1]++;
+            }
+        }
+        for (int v = 0; v < total; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] cursor = Arrays.copyOf(offsets, total);
+        int[] neighbours = new int[2 * m];
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.firstEdge(u), end = graph.endEdge(u); e < end; e++) {
+                int t = targetBase + graph.target(e);
+                neighbours[cursor[u]++] = t;
+                neighbours[cursor[t]++] = u;
+            }
+        }
+
+        switch (strategy) {
+            case BFS:
+                return breadthFirst(offsets, neighbours, identitySequence(total), null);
+            case REVERSE_CUTHILL_MCKEE:
+                int[] byDegree = byDegree(offsets, false);
+                int[] sequence = breadthFirst(offsets, neighbours, byDegree, offsets);
+                for (int i = 0, j = total - 1; i < j; i++, j--) {
+                    int swap = sequence[i];
+                    sequence[i] = sequence[j];
+                    sequence[j] = swap;
+                }
+                return sequence;
+            case DEGREE:
+                return byDegree(offsets, true);
+            default:
+                throw new IllegalArgumentException("unknown strategy " + strategy);
+        }
+    }
+
+    /**
+     * Breadth-first sequence over all components, each started from the first unvisited vertex of
+     * {@code starts}. With {@code degreeOf} set, the newly discovered neighbours of every vertex are
+     * appended in ascending degree (Cuthill–McKee) instead of in list order.
+     */
+    private static int[] breadthFirst(int[] offsets, int[] neighbours, int[] starts, int[] degreeOf) {
+        int total = offsets.length - 1;
+        boolean[] visited = new boolean[total];
+        int[] queue = new int[total];
+        long[] keys = degreeOf == null ? null : new long[16];
+        int tail = 0;
+        for (int s : starts) {
+            if (visited[s]) {
+                continue;
+            }
+            visited[s] = true;
+            int head = tail;
+            queue[tail++] = s;
+            while (head < tail) {
+                int x = queue[head++];
+                int from = tail;
+                for (int i = offsets[x]; i < offsets[x + 1]; i++) {
+                    int y = neighbours[i];
+                    if (!visited[y]) {
+                        visited[y] = true;
+                        queue[tail++] = y;
+                    }
+                }
+                if (degreeOf != null && tail - from > 1) {
+                    int count = tail - from;
+                    if (keys.length < count) {
+                        keys = new long[Math.max(count, 2 * keys.length)];
+                    }
+                    for (int k = 0; k < count; k++) {
+                        int y = queue[from + k];
+                        keys[k] = (long) (degreeOf[y + 1] - degreeOf[y]) << 32 | y;
+                    }
+                    Arrays.sort(keys, 0, count);
+                    for (int k = 0; k < count; k++) {
+                        queue[from + k] = (int) keys[k];
+                    }
+                }
+            }
+        }
+        return queue;
+    }
+
+    /** Vertices by degree in the undirected view (a stable counting sort), ascending or descending. */
+    private static int[] byDegree(int[] offsets, boolean descending) {
+        int total = offsets.length - 1;
+        int maxDegree = 0;
+        for (int v = 0; v < total; v++) {
+            maxDegree = Math.max(maxDegree, offsets[v + 1] - offsets[v]);
+        }
+        int[] start = new int[maxDegree + 2];
+        for (int v = 0; v < total; v++) {
+            int d = offsets[v + 1] - offsets[v];
+            start[(descending ? maxDegree - d : d) + 1]++;
+        }
+        for (int d = 0; d <= maxDegree; d++) {
+            start[d + 1] += start[d];
+        }
+        int[] sequence = new int[total];
+        for (int v = 0; v < total; v++) {
+            int d = offsets[v + 1] - offsets[v];
+            sequence[start[descending ? maxDegree - d : d]++] = v;
+        }
+        return sequence;
+    }
+
+    private static int[] identitySequence(int n) {
+        int[] sequence = new int[n];
+        for (int v = 0; v < n; v++) {
+            sequence[v] = v;
+        }
+        return sequence;
+    }
+}
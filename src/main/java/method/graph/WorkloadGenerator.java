@@ -0,0 +1,458 @@
+package method.graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+/**
+ * Seeded synthetic inputs for the algorithms of this package, written straight into their input
+ * structures: {@link CsrGraph} arrays and {@code int[][]} distance matrices, with no edge list or
+ * boxed collection in between.
+ * <p>
+ * Every generator is reproducible: the same arguments and seed give the same instance for any
+ * {@code parallelism}. Work is cut into fixed slices of edges or vertices, each drawing from its
+ * own random stream derived from the seed and the slice index, and rows are sorted by target, so
+ * neither the thread count nor the scheduling shows in the result. Graphs whose edges are not
+ * drawn row by row (R-MAT, bipartite) are generated twice, once to count the out-degrees and once
+ * to scatter the targets; the extra random numbers are cheaper than holding the edge list.
+ * Instances are limited by the {@link CsrGraph} layout to {@code 2^31 - 9} edges; at a billion
+ * edges the result needs about 4 GB of heap plus 8 bytes per vertex.
+ * </p>
+ * <p>
+ * Multi-edges and self-loops are kept, as real inputs have them. Vertex ids of the skewed
+ * generators are scrambled by a seeded bijection, so hubs are spread over the id space as they
+ * would be after a database import; {@link VertexOrder} recovers locality where there is any.
+ * </p>
+ *
+ * @see <a href="https://doi.org/10.1137/1.9781611972740.43">
+ *      Chakrabarti, Zhan, Faloutsos: R-MAT: A Recursive Model for Graph Mining</a>
+ */
+public final class WorkloadGenerator {
+
+    /** Largest edge count a {@link CsrGraph} can hold: the longest Java array. */
+    static final int MAX_EDGES = Integer.MAX_VALUE - 8;
+
+    /** Edges drawn from one random stream. */
+    private static final int EDGE_SLICE = 1 << 16;
+    /**
+     * Edges drawn before their counters are touched. Sampling an edge takes far longer than a
+     * cache miss; drawn one at a time, only a miss or two would be in flight at once.
+     */
+    private static final int BATCH = 1 << 10;
+    /** Vertices handled by one task when filling or sorting rows. */
+    private static final int VERTEX_SLICE = 1 << 12;
+
+    /** Graph500 R-MAT quadrant probabilities 0.57 / 0.19 / 0.19 / 0.05, in units of {@code 2^-16}. */
+    private static final int RMAT_A = 37_356;
+    private static final int RMAT_AB = RMAT_A + 12_452;
+    private static final int RMAT_ABC = RMAT_AB + 12_452;
+
+    private static final long GOLDEN = 0x9E37_79B9_7F4A_7C15L;
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private WorkloadGenerator() {
+    }
+
+    /** Draws one edge from a slice's random stream, packed as {@code source << 32 | target}. */
+    @FunctionalInterface
+    private interface EdgeSampler {
+        long next(SplittableRandom random);
+    }
+
+    /**
+     * City coordinates of a TSP instance. Distances are Euclidean, rounded to the nearest integer
+     * and therefore symmetric; {@link #distance} can be passed to
+     * {@link TravelingSalesman#heuristic(int, java.util.function.IntBinaryOperator, java.time.Duration)}
+     * directly, so large instances never need the {@code n²} matrix.
+     */
+    public record Cities(int[] x, int[] y) {
+
+        public int size() {
+            return x.length;
+        }
+
+        public int distance(int from, int to) {
+            long dx = x[from] - x[to];
+            long dy = y[from] - y[to];
+            return (int) Math.round(Math.sqrt((double) (dx * dx + dy * dy)));
+        }
+
+        /** The full distance matrix, rows filled on {@code parallelism} workers. */
+        public int[][] toMatrix(int parallelism) {
+            int n = size();
+            int[][] matrix = new int[n][];
+            inPool(parallelism, pool -> forEach(pool, n, from -> {
+                int[] row = new int[n];
+                for (int to = 0; to < n; to++) {
+                    row[to] = distance(from, to);
+                }
+                matrix[from] = row;
+            }));
+            return matrix;
+        }
+    }
+
+    /**
+     * R-MAT power-law digraph with the Graph500 parameters, split into {@code components} blocks
+     * of consecutive ids. Every block is an R-MAT graph of its own, which on its own has one giant
+     * strongly connected component and a tail of small ones; a {@code crossFraction} of the edges
+     * instead points from a block to a uniformly chosen vertex of a later block. Those edges only
+     * go forward, so components never span blocks and the condensation stays a DAG: the giant
+     * components of the blocks form a chain or a wider DAG, depending on {@code crossFraction}.
+     * Ids are scrambled inside each block.
+     *
+     * @param nodes         number of vertices
+     * @param edges         number of edges
+     * @param components    number of blocks, between 1 and {@code nodes}
+     * @param crossFraction share of the edges between blocks, in {@code [0, 1]}
+     * @param parallelism   number of worker threads; 1 runs on the calling thread
+     * @throws IllegalArgumentException if an argument is out of range
+     */
+    public static CsrGraph rmat(int nodes, int edges, int components, double crossFraction, long seed, int parallelism) {
+        if (nodes < 1 || edges < 0 || edges > MAX_EDGES) {
+            throw new IllegalArgumentException("need nodes >= 1 and 0 <= edges <= " + MAX_EDGES);
+        }
+        if (components < 1 || components > nodes || !(crossFraction >= 0 && crossFraction <= 1)) {
+            throw new IllegalArgumentException("need 1 <= components <= nodes and crossFraction in [0, 1]");
+        }
+        int blockSize = nodes / components;
+        int larger = nodes % components;
+        long key = mix(seed);
+        EdgeSampler sampler = random -> {
+            int block = random.nextInt(components);
+            int size = blockSize + (block < larger ? 1 : 0);
+            int start = block * blockSize + Math.min(block, larger);
+            long edge = rmatEdge(random, size);
+            int from = start + scramble((int) (edge >>> 32), size, key);
+            if (block + 1 < components && random.nextDouble() < crossFraction) {
+                int next = random.nextInt(block + 1, components);
+                int nextStart = next * blockSize + Math.min(next, larger);
+                return (long) from << 32 | nextStart + random.nextInt(blockSize + (next < larger ? 1 : 0));
+            }
+            return (long) from << 32 | start + scramble((int) edge, size, key);
+        };
+        return fromEdges(nodes, nodes, edges, sampler, seed, parallelism);
+    }
+
+    /**
+     * Random bipartite graph in the rectangular layout of {@link HopcroftKarp}. With
+     * {@code skew = 0} both endpoints are uniform; larger values concentrate the edges on fewer
+     * vertices of both sides, id {@code i} (before scrambling) being drawn with a density
+     * proportional to {@code i^(-skew / (1 + skew))}.
+     *
+     * @param left        number of left vertices (rows)
+     * @param right       number of right vertices (targets)
+     * @param edges       number of edges
+     * @param skew        non-negative skew of the degree distributions
+     * @param parallelism number of worker threads; 1 runs on the calling thread
+     * @throws IllegalArgumentException if an argument is out of range
+     */
+    public static CsrGraph bipartite(int left, int right, int edges, double skew, long seed, int parallelism) {
+        if (left < 1 || right < 1 || edges < 0 || edges > MAX_EDGES || !(skew >= 0)) {
+            throw new IllegalArgumentException("need left, right >= 1, 0 <= edges <= " + MAX_EDGES + " and skew >= 0");
+        }
+        long leftKey = mix(seed);
+        long rightKey = mix(leftKey);
+        double exponent = 1 + skew;
+        EdgeSampler sampler = random -> {
+            int from = scramble(skewed(random, left, exponent), left, leftKey);
+            int to = scramble(skewed(random, right, exponent), right, rightKey);
+            return (long) from << 32 | to;
+        };
+        return fromEdges(left, right, edges, sampler, seed, parallelism);
+    }
+
+    /**
+     * Layered DAG: {@code layers} layers of {@code width} consecutive ids, every vertex outside
+     * the last layer with {@code degree} edges to uniform vertices of the next one. The shape of
+     * task graphs and of the inputs of {@link PredecessorConstrainedDfs}: every vertex of layer
+     * {@code l > 0} has on average {@code degree} predecessors, all in layer {@code l - 1}.
+     *
+     * @param parallelism number of worker threads; 1 runs on the calling thread
+     * @throws IllegalArgumentException if an argument is out of range or the graph is too large
+     */
+    public static CsrGraph layeredDag(int layers, int width, int degree, long seed, int parallelism) {
+        if (layers < 1 || width < 1 || degree < 0) {
+            throw new IllegalArgumentException("need layers, width >= 1 and degree >= 0");
+        }
+        long nodes = (long) layers * width;
+        long edges = (nodes - width) * degree;
+        if (nodes > Integer.MAX_VALUE - 1 || edges > MAX_EDGES) {
+            throw new IllegalArgumentException("graph with " + nodes + " nodes and " + edges + " edges is too large");
+        }
+        int n = (int) nodes;
+        int inner = n - width;
+        int[] offsets = new int[n + 1];
+        for (int u = 0; u <= n; u++) {
+            offsets[u] = Math.min(u, inner) * degree;
+        }
+        int[] targets = new int[(int) edges];
+        inPool(parallelism, pool -> forEach(pool, slices(inner, VERTEX_SLICE), slice -> {
+            SplittableRandom random = stream(seed, slice);
+            int end = Math.min(inner, (slice + 1) * VERTEX_SLICE);
+            for (int u = slice * VERTEX_SLICE; u < end; u++) {
+                int next = (u / width + 1) * width;
+                for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                    targets[e] = next + random.nextInt(width);
+                }
+                Arrays.sort(targets, offsets[u], offsets[u + 1]);
+            }
+        }));
+        return CsrGraph.wrap(offsets, targets, null, null);
+    }
+
+    /**
+     * A copy of {@code topology} with edge costs in {@code [1, maxWeight]} and resources in
+     * {@code [1, maxResource]} for {@link ConstrainedShortestPath}. Costs are anti-correlated with
+     * resources, half of each cost falling as the resource grows: cheap paths are expensive in
+     * resources, so the resource limit actually binds and the Pareto fronts do not collapse to
+     * one label. Attributes depend only on the seed and the edge index.
+     *
+     * @param parallelism number of worker threads; 1 runs on the calling thread
+     * @throws IllegalArgumentException if {@code maxWeight} or {@code maxResource} is below 1
+     */
+    public static CsrGraph withResources(CsrGraph topology, int maxWeight, int maxResource, long seed, int parallelism) {
+        if (maxWeight < 1 || maxResource < 1) {
+            throw new IllegalArgumentException("maxWeight and maxResource must be at least 1");
+        }
+        int n = topology.getNumNodes();
+        int m = topology.getNumEdges();
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        int[] resources = new int[m];
+        long key = mix(seed);
+        inPool(parallelism, pool -> forEach(pool, slices(n, VERTEX_SLICE), slice -> {
+            int end = Math.min(n, (slice + 1) * VERTEX_SLICE);
+            for (int u = slice * VERTEX_SLICE; u < end; u++) {
+                offsets[u + 1] = topology.endEdge(u);
+                for (int e = topology.firstEdge(u); e < topology.endEdge(u); e++) {
+                    targets[e] = topology.target(e);
+                    long bits = mix(key + e * GOLDEN);
+                    int resource = 1 + (int) Long.remainderUnsigned(bits, maxResource);
+                    long jitter = Long.remainderUnsigned(bits >>> 32, maxResource);
+                    // (maxResource - resource) + jitter lies in [0, 2 * maxResource - 2]
+                    long span = Math.max(1, 2L * maxResource - 2);
+                    weights[e] = 1 + (int) ((maxWeight - 1) * (maxResource - resource + jitter) / span);
+                    resources[e] = resource;
+                }
+            }
+        }));
+        return CsrGraph.wrap(topology.getNumTargets(), offsets, targets, weights, resources);
+    }
+
+    /** {@code cities} cities uniform on a {@code side × side} square. */
+    public static Cities euclideanCities(int cities, int side, long seed) {
+        checkCities(cities, side);
+        SplittableRandom random = new SplittableRandom(mix(seed));
+        int[] x = new int[cities];
+        int[] y = new int[cities];
+        for (int i = 0; i < cities; i++) {
+            x[i] = random.nextInt(side);
+            y[i] = random.nextInt(side);
+        }
+        return new Cities(x, y);
+    }
+
+    /**
+     * {@code cities} cities in {@code clusters} Gaussian clusters around uniform centres of a
+     * {@code side × side} square, as customers around depots. Tours within a cluster are short and
+     * the few links between clusters decide the tour, which defeats nearest-neighbour starts.
+     */
+    public static Cities clusteredCities(int cities, int clusters, int side, long seed) {
+        checkCities(cities, side);
+        if (clusters < 1) {
+            throw new IllegalArgumentException("clusters must be at least 1");
+        }
+        SplittableRandom random = new SplittableRandom(mix(seed));
+        int[] centreX = new int[clusters];
+        int[] centreY = new int[clusters];
+        for (int c = 0; c < clusters; c++) {
+            centreX[c] = random.nextInt(side);
+            centreY[c] = random.nextInt(side);
+        }
+        double spread = side / (8 * Math.sqrt(clusters));
+        int[] x = new int[cities];
+        int[] y = new int[cities];
+        for (int i = 0; i < cities; i++) {
+            int c = random.nextInt(clusters);
+            x[i] = clamp(centreX[c] + spread * random.nextGaussian(), side);
+            y[i] = clamp(centreY[c] + spread * random.nextGaussian(), side);
+        }
+        return new Cities(x, y);
+    }
+
+    private static void checkCities(int cities, int side) {
+        if (cities < 0 || side < 1 || side > 1 << 30) {
+            throw new IllegalArgumentException("need cities >= 0 and 1 <= side <= 2^30");
+        }
+    }
+
+    private static int clamp(double coordinate, int side) {
+        return (int) Math.max(0, Math.min(side - 1, Math.round(coordinate)));
+    }
+
+    /**
+     * Counts the out-degrees of all sampled edges, then samples them again from the same streams
+     * and scatters the targets into their rows, which are finally sorted. Edges are drawn in
+     * batches, so the random accesses of a batch overlap.
+     */
+    private static CsrGraph fromEdges(int numSources, int numTargets, int edges, EdgeSampler sampler,
+                                      long seed, int parallelism) {
+        int[] offsets = new int[numSources + 1];
+        int[] targets = new int[edges];
+        int slices = slices(edges, EDGE_SLICE);
+        inPool(parallelism, pool -> {
+            forEach(pool, slices, slice -> {
+                SplittableRandom random = stream(seed, slice);
+                long[] batch = new long[BATCH];
+                for (int done = 0, length = sliceLength(edges, slice); done < length; done += BATCH) {
+                    int size = draw(sampler, random, batch, length - done);
+                    for (int i = 0; i < size; i++) {
+                        increment(pool, offsets, (int) (batch[i] >>> 32) + 1);
+                    }
+                }
+            });
+            Arrays.parallelPrefix(offsets, Integer::sum);
+            int[] cursor = Arrays.copyOf(offsets, numSources);
+            forEach(pool, slices, slice -> {
+                SplittableRandom random = stream(seed, slice);
+                long[] batch = new long[BATCH];
+                for (int done = 0, length = sliceLength(edges, slice); done < length; done += BATCH) {
+                    int size = draw(sampler, random, batch, length - done);
+                    for (int i = 0; i < size; i++) {
+                        targets[increment(pool, cursor, (int) (batch[i] >>> 32))] = (int) batch[i];
+                    }
+                }
+            });
+            forEach(pool, slices(numSources, VERTEX_SLICE), slice -> {
+                int end = Math.min(numSources, (slice + 1) * VERTEX_SLICE);
+                for (int u = slice * VERTEX_SLICE; u < end; u++) {
+                    Arrays.sort(targets, offsets[u], offsets[u + 1]);
+                }
+            });
+        });
+        return CsrGraph.wrap(numTargets, offsets, targets, null, null);
+    }
+
+    /** Fills up to {@code remaining} entries of {@code batch}, returning how many. */
+    private static int draw(EdgeSampler sampler, SplittableRandom random, long[] batch, int remaining) {
+        int size = Math.min(batch.length, remaining);
+        for (int i = 0; i < size; i++) {
+            batch[i] = sampler.next(random);
+        }
+        return size;
+    }
+
+    /**
+     * Post-increments {@code counters[i]}. Atomic only when several workers share the array: a
+     * locked add cannot overlap its cache miss with the next one, which makes it several times
+     * slower than a plain one on arrays beyond the cache.
+     */
+    private static int increment(ForkJoinPool pool, int[] counters, int i) {
+        return pool == null ? counters[i]++ : (int) INTS.getAndAdd(counters, i, 1);
+    }
+
+    /**
+     * One R-MAT edge in {@code [0, size)²}: the adjacency matrix of the next power of two is
+     * split into quadrants recursively, one 16-bit draw per level; edges falling outside
+     * {@code size} are redrawn.
+     */
+    private static long rmatEdge(SplittableRandom random, int size) {
+        int bits = 32 - Integer.numberOfLeadingZeros(size - 1);
+        while (true) {
+            int row = 0;
+            int col = 0;
+            long draws = 0;
+            for (int level = 0; level < bits; level++) {
+                if ((level & 3) == 0) {
+                    draws = random.nextLong();
+                }
+                int p = (int) (draws & 0xFFFF);
+                draws >>>= 16;
+                // branch-free: the quadrant is random, so branches would mispredict on every level
+                int atLeastAB = (RMAT_AB - 1 - p) >>> 31;
+                row = row << 1 | atLeastAB;
+                col = col << 1 | ((RMAT_A - 1 - p) >>> 31 ^ atLeastAB ^ (RMAT_ABC - 1 - p) >>> 31);
+            }
+            if (row < size && col < size) {
+                return (long) row << 32 | col;
+            }
+        }
+    }
+
+    private static int skewed(SplittableRandom random, int n, double exponent) {
+        return exponent == 1 ? random.nextInt(n) : (int) (n * Math.pow(random.nextDouble(), exponent));
+    }
+
+    /**
+     * A seeded bijection of {@code [0, n)}: a permutation of the enclosing power of two made of
+     * odd multiplications and xor-shifts, applied again while the value falls outside {@code n}
+     * (cycle walking).
+     */
+    static int scramble(int x, int n, long key) {
+        int bits = 32 - Integer.numberOfLeadingZeros(n - 1);
+        if (bits == 0) {
+            return x;
+        }
+        long mask = (1L << bits) - 1;
+        int shift = Math.max(1, bits >>> 1);
+        long first = key | 1;
+        long second = (key >>> 32) | 1;
+        long value = x;
+        do {
+            value = (value * first) & mask;
+            value ^= value >>> shift;
+            value = (value * second) & mask;
+            value ^= value >>> shift;
+        } while (value >= n);
+        return (int) value;
+    }
+
+    private static SplittableRandom stream(long seed, int slice) {
+        return new SplittableRandom(mix(seed + slice * GOLDEN));
+    }
+
+    /** Stafford's variant 13 of the MurmurHash3 finaliser. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58_476D_1CE4_E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D0_49BB_1331_11EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static int slices(int items, int slice) {
+        return (int) (((long) items + slice - 1) / slice);
+    }
+
+    private static int sliceLength(int edges, int slice) {
+        return Math.min(EDGE_SLICE, edges - slice * EDGE_SLICE);
+    }
+
+    private static void inPool(int parallelism, Consumer<ForkJoinPool> work) {
+        if (parallelism <= 1) {
+            work.accept(null);
+            return;
+        }
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            work.accept(pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** Runs {@code task} for {@code [0, tasks)}, on {@code pool} if it is not null. */
+    private static void forEach(ForkJoinPool pool, int tasks, IntConsumer task) {
+        IntStream work = IntStream.range(0, tasks);
+        if (pool == null) {
+            work.forEach(task);
+        } else {
+            pool.submit(() -> work.parallel().forEach(task)).join();
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package method.greedyAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Minimum number of coins for an amount, for one fixed set of denominations.
+ * <p>
+ * Whether greedy is optimal is decided once, when the engine is built, with Pearson's
+ * {@code O(n³)} test ("A polynomial-time algorithm for the change-making problem", 2005): the
+ * smallest amount greedy gets wrong, if any, is one of {@code O(n²)} candidates derived from the
+ * greedy representations of {@code c_i - 1}. For a canonical system, such as {@code 1, 5, 10, 20,
+ * 50, 100}, an amount is answered with one division per denomination.
+ * </p>
+ * <p>
+ * Otherwise answers come from a table of optimal counts for the amounts below
+ * {@code L = c_max · c_second}. Any {@code c_max} coins contain a non-empty subset whose sum is a
+ * multiple of {@code c_max}, which the largest coin replaces without adding coins, so an optimal
+ * solution uses fewer than {@code c_max} smaller coins, worth less than {@code L}. Amounts from
+ * {@code L} up are therefore reduced into the table by whole largest coins, in {@code O(1)}.
+ * </p>
+ * <p>
+ * Instances are immutable and thread-safe; no query allocates or prints.
+ * </p>
+ */
+public final class CoinChange {
+
+    /** Largest DP table, in amounts, built for a non-canonical system. */
+    static final int MAX_TABLE = 1 << 24;
+
+    private static final int UNREACHABLE = -1;
+
+    /** Distinct denominations, descending. */
+    private final int[] coins;
+    private final int counterexample;
+    /** Optimal counts below {@code coins[0] · coins[1]}, or null when greedy is optimal. */
+    private final int[] table;
+
+    private CoinChange(int[] coins) {
+        this.coins = coins;
+        if (coins[coins.length - 1] == 1) {
+            this.counterexample = smallestCounterexample(coins);
+            this.table = counterexample == UNREACHABLE ? null : buildTable(coins);
+        } else {
+            // without a unit coin greedy may also miss payable amounts; Pearson's test assumes
+            // one, so compare greedy against the table instead, which L bounds just as well
+            int[] table = buildTable(coins);
+            int smallest = UNREACHABLE;
+            for (int amount = 1; amount < table.length && smallest == UNREACHABLE; amount++) {
+                if (greedy(coins, amount) != table[amount]) {
+                    smallest = amount;
+                }
+            }
+            this.counterexample = smallest;
+            this.table = smallest == UNREACHABLE ? null : table;
+        }
+    }
+
+    /**
+     * Engine for the given denominations, in any order; duplicates are ignored.
+     *
+     * @throws IllegalArgumentException if there is no coin, a coin is not positive, or the system
+     *                                  needs a table larger than {@link #MAX_TABLE}: it is
+     *                                  non-canonical, or has no unit coin
+     */
+    public static CoinChange of(int... denominations) {
+        if (denominations.length == 0) {
+            throw new IllegalArgumentException("at least one denomination is required");
+        }
+        int[] sorted = denominations.clone();
+        Arrays.sort(sorted);
+        if (sorted[0] <= 0) {
+            throw new IllegalArgumentException("denominations must be positive");
+        }
+        int distinct = 0;
+        for (int c : sorted) {
+            if (distinct == 0 || sorted[distinct - 1] != c) {
+                sorted[distinct++] = c;
+            }
+        }
+        int[] descending = new int[distinct];
+        for (int i = 0; i < distinct; i++) {
+            descending[i] = sorted[distinct - 1 - i];
+        }
+        return new CoinChange(descending);
+    }
+
+    /** Whether greedy gives the fewest coins for every amount. */
+    public boolean isCanonical() {
+        return table == null;
+    }
+
+    /**
+     * Smallest amount greedy gets wrong, either by using too many coins or by finding no change
+     * where there is some, or -1 if the system is canonical.
+     */
+    public int smallestCounterexample() {
+        return counterexample;
+    }
+
+    /** The distinct denominations, ascending. */
+    public int[] denominations() {
+        int[] ascending = new int[coins.length];
+        for (int i = 0; i < coins.length; i++) {
+            ascending[i] = coins[coins.length - 1 - i];
+        }
+        return ascending;
+    }
+
+    /** Fewest coins summing to {@code amount}, or -1 if no combination does. */
+    public int minCoins(int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("amount must be non-negative");
+        }
+        return table == null ? greedy(coins, amount) : lookup(amount);
+    }
+
+    /**
+     * {@link #minCoins(int)} of every amount: {@code counts[i]} receives the answer for
+     * {@code amounts[i]}. The arrays may be the same.
+     */
+    public void minCoins(int[] amounts, int[] counts) {
+        if (counts.length < amounts.length) {
+            throw new IllegalArgumentException("counts is shorter than amounts");
+        }
+        for (int amount : amounts) {
+            if (amount < 0) {
+                throw new IllegalArgumentException("amount must be non-negative");
+            }
+        }
+        if (table == null) {
+            for (int i = 0; i < amounts.length; i++) {
+                counts[i] = greedy(coins, amounts[i]);
+            }
+        } else {
+            for (int i = 0; i < amounts.length; i++) {
+                counts[i] = lookup(amounts[i]);
+            }
+        }
+    }
+
+    /**
+     * An optimal way to pay {@code amount}: the number of coins of each denomination, in the order
+     * of {@link #denominations()}, or null if the amount cannot be paid.
+     */
+    public int[] change(int amount) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("amount must be non-negative");
+        }
+        int n = coins.length;
+        int[] counts = new int[n];
+        if (table == null) {
+            int rest = amount;
+            for (int i = 0; i < n; i++) {
+                counts[n - 1 - i] = rest / coins[i];
+                rest %= coins[i];
+            }
+            return rest == 0 ? counts : null;
+        }
+        if (lookup(amount) == UNREACHABLE) {
+            return null;
+        }
+        int rest = amount;
+        if (rest >= table.length) {
+            int largest = (rest - table.length) / coins[0] + 1;
+            counts[n - 1] = largest;
+            rest -= largest * coins[0];
+        }
+        // walk down the table: some coin always leads to a count one smaller
+        while (rest > 0) {
+            for (int i = 0; i < n; i++) {
+                int c = coins[i];
+                if (c <= rest && table[rest - c] == table[rest] - 1) {
+                    counts[n - 1 - i]++;
+                    rest -= c;
+                    break;
+                }
+            }
+        }
+        return counts;
+    }
+
+    private int lookup(int amount) {
+        int[] table = this.table;
+        if (amount < table.length) {
+            return table[amount];
+        }
+        int largest = (amount - table.length) / coins[0] + 1;
+        int rest = table[amount - largest * coins[0]];
+        return rest == UNREACHABLE ? UNREACHABLE : largest + rest;
+    }
+
+    private static int greedy(int[] coins, int amount) {
+        int count = 0;
+        for (int c : coins) {
+            count += amount / c;
+            amount %= c;
+        }
+        return amount == 0 ? count : UNREACHABLE;
+    }
+
+    /**
+     * Pearson's test. With coins {@code c_1 > ... > c_n = 1}, the smallest counterexample, if there
+     * is one, agrees with the greedy representation of {@code c_{i-1} - 1} on the coins larger than
+     * {@code c_j}, takes one more {@code c_j}, and nothing smaller, for some {@code i <= j}.
+     */
+    private static int smallestCounterexample(int[] coins) {
+        int n = coins.length;
+        long best = Long.MAX_VALUE;
+        int[] representation = new int[n];
+        for (int i = 1; i < n; i++) {
+            int rest = coins[i - 1] - 1;
+            for (int k = 0; k < n; k++) {
+                representation[k] = rest / coins[k];
+                rest %= coins[k];
+            }
+            long prefixValue = 0;
+            int prefixCount = 0;
+            for (int j = 0; j < i; j++) {
+                prefixValue += (long) representation[j] * coins[j];
+                prefixCount += representation[j];
+            }
+            for (int j = i; j < n; j++) {
+                prefixValue += (long) representation[j] * coins[j];
+                prefixCount += representation[j];
+                long w = prefixValue + coins[j];
+                if (w < best && w <= Integer.MAX_VALUE && greedy(coins, (int) w) > prefixCount + 1) {
+                    best = w;
+                }
+            }
+        }
+        return best == Long.MAX_VALUE ? UNREACHABLE : (int) best;
+    }
+
+    private static int[] buildTable(int[] coins) {
+        long size = coins.length == 1 ? coins[0] : (long) coins[0] * coins[1];
+        if (size > MAX_TABLE) {
+            throw new IllegalArgumentException("non-canonical system needs a table of " + size
+                    + " amounts, more than " + MAX_TABLE);
+        }
+        int[] table = new int[(int) size];
+        Arrays.fill(table, UNREACHABLE);
+        table[0] = 0;
+        for (int amount = 1; amount < table.length; amount++) {
+            int best = Integer.MAX_VALUE;
+            for (int c : coins) {
+                if (c <= amount) {
+                    int rest = table[amount - c];
+                    if (rest != UNREACHABLE && rest < best) {
+                        best = rest;
+                    }
+                }
+            }
+            if (best != Integer.MAX_VALUE) {
+                table[amount] = best + 1;
+            }
+        }
+        return table;
+    }
+}
@@ -0,0 +1,67 @@
+package method.greedyAlgorithm;
+
+/**
+ * Fractional knapsack over parallel {@code value}/{@code weight} arrays: items are taken in
+ * decreasing value per unit of weight until the capacity is used up, the last one possibly in part,
+ * which is optimal when items are divisible.
+ * <p>
+ * Ratios are turned into {@code long} keys with {@link PrimitiveSort#sortableBits} and sorted with
+ * their item indices, so no item objects or boxed comparators are involved.
+ * </p>
+ */
+public final class FractionalKnapsack {
+
+    private FractionalKnapsack() {
+    }
+
+    /**
+     * Fills {@code fractions[i]} with the share of item {@code i} taken, between 0 and 1, and
+     * returns the total value. Items of weight 0 are always taken whole.
+     *
+     * @throws IllegalArgumentException if the arrays differ in length, or a value, weight or the
+     *                                  capacity is negative
+     */
+    public static double solve(long[] values, long[] weights, long capacity, double[] fractions) {
+        int n = values.length;
+        if (weights.length != n || fractions.length < n) {
+            throw new IllegalArgumentException("values, weights and fractions differ in length");
+        }
+        if (capacity < 0) {
+            throw new IllegalArgumentException("capacity must be non-negative");
+        }
+        long[] keys = new long[n];
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            if (values[i] < 0 || weights[i] < 0) {
+                throw new IllegalArgumentException("values and weights must be non-negative");
+            }
+            // negated, so the ascending sort yields the best ratio first; 0/0 counts as ratio 0
+            double ratio = weights[i] == 0 ? (values[i] == 0 ? 0 : Double.POSITIVE_INFINITY)
+                    : (double) values[i] / weights[i];
+            keys[i] = PrimitiveSort.sortableBits(-ratio);
+            order[i] = i;
+            fractions[i] = 0;
+        }
+        PrimitiveSort.sort(keys, order);
+        double total = 0;
+        long left = capacity;
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            if (weights[i] <= left) {
+                fractions[i] = 1;
+                total += values[i];
+                left -= weights[i];
+            } else if (left > 0) {
+                fractions[i] = (double) left / weights[i];
+                total += values[i] * fractions[i];
+                left = 0;
+            }
+        }
+        return total;
+    }
+
+    /** Best total value for {@code capacity}, without reporting the fractions. */
+    public static double maxValue(long[] values, long[] weights, long capacity) {
+        return solve(values, weights, capacity, new double[values.length]);
+    }
+}
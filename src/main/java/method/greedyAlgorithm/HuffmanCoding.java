@@ -0,0 +1,136 @@
+package method.greedyAlgorithm;
+
+import java.util.Arrays;
+
+/**
+ * Optimal prefix codes for large alphabets, with the tree kept in primitive arrays.
+ * <p>
+ * Symbols are sorted by frequency once with {@link PrimitiveSort}; after that the two smallest
+ * weights are always at the head of either the sorted leaves or the internal nodes, which are
+ * created in non-decreasing weight order. The classic priority queue of tree nodes thus becomes
+ * two array cursors, and the merge phase runs in {@code O(n)}. The tree itself is a parent array,
+ * from which code lengths follow in one backwards pass.
+ * </p>
+ */
+public final class HuffmanCoding {
+
+    /** Longest code {@link #canonicalCodes} can return in a {@code long}. */
+    public static final int MAX_CODE_LENGTH = 63;
+
+    private HuffmanCoding() {
+    }
+
+    /**
+     * Code length of every symbol in an optimal prefix code for {@code frequencies}. Symbols of
+     * frequency 0 get no code (length 0); a lone symbol gets a 1-bit code.
+     *
+     * @throws IllegalArgumentException if a frequency is negative or their sum overflows
+     */
+    public static int[] codeLengths(long[] frequencies) {
+        int symbols = frequencies.length;
+        int m = 0;
+        long total = 0;
+        for (long f : frequencies) {
+            if (f < 0) {
+                throw new IllegalArgumentException("frequencies must be non-negative");
+            }
+            if (f > 0) {
+                m++;
+                total = Math.addExact(total, f);
+            }
+        }
+        int[] lengths = new int[symbols];
+        if (m <= 1) {
+            for (int s = 0; s < symbols; s++) {
+                lengths[s] = frequencies[s] > 0 ? 1 : 0;
+            }
+            return lengths;
+        }
+
+        // leaves 0..m-1 in ascending weight order, internal nodes m..2m-2 in creation order
+        long[] weight = new long[2 * m - 1];
+        int[] symbol = new int[m];
+        for (int s = 0, k = 0; s < symbols; s++) {
+            if (frequencies[s] > 0) {
+                weight[k] = frequencies[s];
+                symbol[k++] = s;
+            }
+        }
+        PrimitiveSort.sort(weight, symbol, 0, m);
+        int[] parent = new int[2 * m - 1];
+        int leaf = 0;
+        int internal = m;
+        for (int node = m; node < 2 * m - 1; node++) {
+            int a = leaf < m && (internal == node || weight[leaf] <= weight[internal]) ? leaf++ : internal++;
+            int b = leaf < m && (internal == node || weight[leaf] <= weight[internal]) ? leaf++ : internal++;
+            weight[node] = weight[a] + weight[b];
+            parent[a] = node;
+            parent[b] = node;
+        }
+
+        // parents are created after their children, so one backwards pass yields every depth
+        int[] depth = parent; // reused: depth[v] is written only after parent[v] is read
+        int root = 2 * m - 2;
+        depth[root] = 0;
+        for (int v = root - 1; v >= 0; v--) {
+            depth[v] = depth[parent[v]] + 1;
+        }
+        for (int k = 0; k < m; k++) {
+            lengths[symbol[k]] = depth[k];
+        }
+        return lengths;
+    }
+
+    /**
+     * The canonical code for the given lengths: codes of equal length are consecutive integers in
+     * symbol order, and shorter codes precede longer ones. Code {@code i} occupies the low
+     * {@code lengths[i]} bits, most significant bit first; symbols of length 0 get code 0.
+     *
+     * @throws IllegalArgumentException if a length exceeds {@link #MAX_CODE_LENGTH} or the
+     *                                  lengths violate Kraft's inequality
+     */
+    public static long[] canonicalCodes(int[] lengths) {
+        int coded = 0;
+        for (int length : lengths) {
+            if (length < 0 || length > MAX_CODE_LENGTH) {
+                throw new IllegalArgumentException("code length out of range: " + length);
+            }
+            if (length > 0) {
+                coded++;
+            }
+        }
+        long[] order = new long[coded];
+        for (int s = 0, k = 0; s < lengths.length; s++) {
+            if (lengths[s] > 0) {
+                order[k++] = (long) lengths[s] << 32 | s;
+            }
+        }
+        Arrays.sort(order);
+        long[] codes = new long[lengths.length];
+        long code = 0;
+        int previous = 0;
+        for (long entry : order) {
+            int length = (int) (entry >>> 32);
+            int s = (int) entry;
+            code <<= length - previous;
+            previous = length;
+            if (code >>> length != 0) {
+                throw new IllegalArgumentException("lengths do not form a prefix code");
+            }
+            codes[s] = code++;
+        }
+        return codes;
+    }
+
+    /** Total bits of a message with the given symbol frequencies under the given code lengths. */
+    public static long encodedBits(long[] frequencies, int[] lengths) {
+        if (frequencies.length != lengths.length) {
+            throw new IllegalArgumentException("frequencies and lengths differ in length");
+        }
+        long bits = 0;
+        for (int s = 0; s < frequencies.length; s++) {
+            bits = Math.addExact(bits, Math.multiplyExact(frequencies[s], lengths[s]));
+        }
+        return bits;
+    }
+}
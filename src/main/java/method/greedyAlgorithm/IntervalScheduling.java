@@ -0,0 +1,112 @@
+package method.greedyAlgorithm;
+
+import java.util.Arrays;
+import method.graph.IntMinHeap;
+
+/**
+ * Greedy interval scheduling over half-open intervals {@code [start[i], end[i])} given as
+ * parallel arrays, e.g. bookings as epoch milliseconds. Intervals that merely touch do not
+ * overlap, and empty intervals ({@code start[i] == end[i]}) overlap nothing.
+ * <p>
+ * Both problems sort once with {@link PrimitiveSort} and then make a single pass; apart from a
+ * few arrays of length {@code n} nothing is allocated, whatever the input size.
+ * </p>
+ */
+public final class IntervalScheduling {
+
+    private IntervalScheduling() {
+    }
+
+    /**
+     * A largest set of pairwise non-overlapping intervals (activity selection): repeatedly take the
+     * interval that ends first among those starting after the last one taken. Empty intervals are
+     * always taken.
+     *
+     * @return indices of the chosen intervals, in order of end time
+     */
+    public static int[] maxNonOverlapping(long[] start, long[] end) {
+        int n = validate(start, end);
+        long[] keys = end.clone();
+        int[] order = identity(n);
+        PrimitiveSort.sort(keys, order);
+        int[] chosen = new int[n];
+        int count = 0;
+        long free = Long.MIN_VALUE;
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            if (start[i] == keys[k]) {
+                chosen[count++] = i;
+            } else if (start[i] >= free) {
+                chosen[count++] = i;
+                free = keys[k];
+            }
+        }
+        return Arrays.copyOf(chosen, count);
+    }
+
+    /**
+     * Assigns every interval to a room so that intervals sharing a room do not overlap, using as
+     * few rooms as possible (interval partitioning): intervals are taken by start time, and each
+     * reuses the room that frees up first if it is free by then. The number of rooms equals the
+     * largest number of intervals overlapping at one instant. Empty intervals overlap nothing and
+     * all go to room 0, which is opened for them if no other interval uses it.
+     *
+     * @return the room of each interval, numbered from 0 in order of first use
+     */
+    public static int[] assignRooms(long[] start, long[] end) {
+        int n = validate(start, end);
+        long[] keys = start.clone();
+        int[] order = identity(n);
+        PrimitiveSort.sort(keys, order);
+        int[] room = new int[n];
+        int rooms = 0;
+        IntMinHeap busyUntil = new IntMinHeap(16);
+        for (int k = 0; k < n; k++) {
+            int i = order[k];
+            if (end[i] == start[i]) {
+                // room[i] stays 0; keeping it out of the heap lets it sit inside a busy period
+                continue;
+            }
+            if (!busyUntil.isEmpty() && busyUntil.peekKey() <= start[i]) {
+                room[i] = busyUntil.peekValue();
+                busyUntil.replaceTop(end[i], room[i]);
+            } else {
+                room[i] = rooms++;
+                busyUntil.push(end[i], room[i]);
+            }
+        }
+        return room;
+    }
+
+    /**
+     * Number of rooms {@link #assignRooms} uses: the largest number of overlapping intervals, or 1
+     * if all intervals are empty.
+     */
+    public static int roomsNeeded(long[] start, long[] end) {
+        int max = -1;
+        for (int room : assignRooms(start, end)) {
+            max = Math.max(max, room);
+        }
+        return max + 1;
+    }
+
+    private static int validate(long[] start, long[] end) {
+        if (start.length != end.length) {
+            throw new IllegalArgumentException("start and end differ in length");
+        }
+        for (int i = 0; i < start.length; i++) {
+            if (end[i] < start[i]) {
+                throw new IllegalArgumentException("interval " + i + " ends before it starts");
+            }
+        }
+        return start.length;
+    }
+
+    private static int[] identity(int n) {
+        int[] indices = new int[n];
+        for (int i = 0; i < n; i++) {
+            indices[i] = i;
+        }
+        return indices;
+    }
+}
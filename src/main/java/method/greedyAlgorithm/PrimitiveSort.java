@@ -0,0 +1,155 @@
+package method.greedyAlgorithm;
+
+/**
+ * In-place sorts of parallel primitive arrays: {@code long} keys carrying {@code int} payloads,
+ * usually item indices. They replace sorting an {@code Integer[]} of indices with a comparator,
+ * which boxes every element and dereferences the key array on each comparison.
+ * <p>
+ * Introsort: median-of-three quicksort, insertion sort for short ranges and heapsort once the
+ * recursion gets too deep, so the worst case stays {@code O(n log n)}. Not stable.
+ * </p>
+ */
+public final class PrimitiveSort {
+
+    private static final int INSERTION_THRESHOLD = 24;
+
+    private PrimitiveSort() {
+    }
+
+    /** Sorts {@code keys} ascending, moving {@code values[i]} along with {@code keys[i]}. */
+    public static void sort(long[] keys, int[] values) {
+        if (values.length != keys.length) {
+            throw new IllegalArgumentException("keys and values differ in length");
+        }
+        sort(keys, values, 0, keys.length);
+    }
+
+    /** Sorts the range {@code [from, to)} of both arrays by {@code keys}. */
+    public static void sort(long[] keys, int[] values, int from, int to) {
+        if (from < 0 || to > keys.length || to > values.length || from > to) {
+            throw new IllegalArgumentException("invalid range [" + from + ", " + to + ")");
+        }
+        introsort(keys, values, from, to, 2 * (32 - Integer.numberOfLeadingZeros(to - from)));
+    }
+
+    /**
+     * Indices {@code 0..keys.length-1} ordered by {@code keys}, ascending; {@code keys} is not
+     * modified.
+     */
+    public static int[] order(long[] keys) {
+        long[] copy = keys.clone();
+        int[] indices = new int[keys.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        sort(copy, indices, 0, copy.length);
+        return indices;
+    }
+
+    /**
+     * A {@code long} that sorts like {@code value}: order-preserving for every non-NaN double,
+     * with {@code -0.0} before {@code 0.0}. Lets ratios be sorted with {@link #sort}.
+     */
+    public static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    private static void introsort(long[] keys, int[] values, int from, int to, int depth) {
+        while (to - from > INSERTION_THRESHOLD) {
+            if (depth-- == 0) {
+                heapsort(keys, values, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            medianToMiddle(keys, values, from, mid, to - 1);
+            long pivot = keys[mid];
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (keys[i] < pivot) {
+                    i++;
+                }
+                while (keys[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            // recurse into the smaller side, loop on the larger one
+            if (j + 1 - from < to - i) {
+                introsort(keys, values, from, j + 1, depth);
+                from = i;
+            } else {
+                introsort(keys, values, i, to, depth);
+                to = j + 1;
+            }
+        }
+        insertionSort(keys, values, from, to);
+    }
+
+    private static void medianToMiddle(long[] keys, int[] values, int a, int b, int c) {
+        if (keys[b] < keys[a]) {
+            swap(keys, values, a, b);
+        }
+        if (keys[c] < keys[b]) {
+            swap(keys, values, b, c);
+            if (keys[b] < keys[a]) {
+                swap(keys, values, a, b);
+            }
+        }
+    }
+
+    private static void insertionSort(long[] keys, int[] values, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long key = keys[i];
+            int value = values[i];
+            int j = i - 1;
+            while (j >= from && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                values[j + 1] = values[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            values[j + 1] = value;
+        }
+    }
+
+    private static void heapsort(long[] keys, int[] values, int from, int to) {
+        int n = to - from;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(keys, values, from, i, n);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(keys, values, from, from + end);
+            siftDown(keys, values, from, 0, end);
+        }
+    }
+
+    private static void siftDown(long[] keys, int[] values, int base, int i, int n) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= n) {
+                return;
+            }
+            if (child + 1 < n && keys[base + child + 1] > keys[base + child]) {
+                child++;
+            }
+            if (keys[base + child] <= keys[base + i]) {
+                return;
+            }
+            swap(keys, values, base + i, base + child);
+            i = child;
+        }
+    }
+
+    private static void swap(long[] keys, int[] values, int i, int j) {
+        long key = keys[i];
+        keys[i] = keys[j];
+        keys[j] = key;
+        int value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+    }
+}
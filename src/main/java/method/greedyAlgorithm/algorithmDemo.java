@@ -11,6 +11,8 @@ package method.greedyAlgorithm;
  * 贪心算法不会考虑过去的决策，而是一路向前地进行贪心选择，不断缩小问题范围，直至问题被解决。
  * 我们先通过例题“零钱兑换”了解贪心算法的工作原理。这道题已经在“完全背包问题”章节中介绍过，相信你对它并不陌生。
  *
+ * 注意：贪心只对“规范”的硬币系统（如 1, 5, 10, 20, 50, 100）给出最优解，例如 {1, 3, 4} 凑 6 时贪心得 3 枚，最优为 2 枚。
+ * 需要正确且高吞吐的实现时请使用 {@link CoinChange}。
  * */
 public class algorithmDemo {
     /* 零钱兑换：贪心 */
@@ -0,0 +1,117 @@
+package com.itence.mryang.twoboxing.solver;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.itence.mryang.twoboxing.solver.cache.InstanceHash;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class SolverExecutorTest {
+
+    @Test
+    void coalescesIdenticalJobsInFlight() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+        try (SolverExecutor executor = new SolverExecutor(new SolverProperties(2, 1000, 1000, 10, 8, 0))) {
+            int[][] matrix = {{0, 1}, {1, 0}};
+            CompletableFuture<Integer> first = executor.submit(InstanceHash.tsp("a", matrix, 0), 10, () -> {
+                await(release);
+                return runs.incrementAndGet();
+            });
+            CompletableFuture<Integer> second = executor.submit(InstanceHash.tsp("a", new int[][] {{0, 1}, {1, 0}}, 0), 10,
+                    runs::incrementAndGet);
+            release.countDown();
+            assertEquals(1, first.get(5, TimeUnit.SECONDS));
+            assertEquals(1, second.get(5, TimeUnit.SECONDS));
+            assertEquals(1, executor.stats().coalesced());
+
+            // once the first run is done, the same key runs again
+            assertEquals(2, executor.submit(InstanceHash.tsp("a", matrix, 0), 10, runs::incrementAndGet).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void admitsQueuesAndRejectsByCost() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<Integer> order = new ArrayList<>();
+        try (SolverExecutor executor = new SolverExecutor(new SolverProperties(4, 100, 100, 2, 8, 0))) {
+            Exception tooExpensive = assertThrows(ExecutionException.class,
+                    () -> executor.submit("huge", 101, () -> 0).get(5, TimeUnit.SECONDS));
+            assertEquals(SolverRejectedException.Reason.TOO_EXPENSIVE,
+                    ((SolverRejectedException) tooExpensive.getCause()).getReason());
+
+            CompletableFuture<Integer> running = executor.submit("running", 80, () -> {
+                await(release);
+                return 0;
+            });
+            // capacity is 100: these wait although workers are idle
+            CompletableFuture<Integer> queued1 = executor.submit("queued1", 30, () -> record(order, 1));
+            CompletableFuture<Integer> queued2 = executor.submit("queued2", 10, () -> record(order, 2));
+            Exception overloaded = assertThrows(ExecutionException.class,
+                    () -> executor.submit("overflow", 10, () -> 0).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(SolverRejectedException.class, overloaded.getCause());
+            assertEquals(SolverRejectedException.Reason.OVERLOADED,
+                    ((SolverRejectedException) overloaded.getCause()).getReason());
+            assertFalse(queued1.isDone());
+            assertFalse(queued2.isDone());
+            assertEquals(2, executor.stats().waiting());
+
+            release.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            queued1.get(5, TimeUnit.SECONDS);
+            queued2.get(5, TimeUnit.SECONDS);
+            assertEquals(2, order.size());
+            assertEquals(2, executor.stats().rejected());
+        }
+    }
+
+    @Test
+    void batchesSmallJobs() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (SolverExecutor executor = new SolverExecutor(new SolverProperties(1, 1000, 1000, 1000, 50, 5))) {
+            // occupy the only batch slot so the small jobs pile up
+            CompletableFuture<Integer> blocker = executor.submit("blocker", 1, () -> {
+                await(release);
+                return 0;
+            });
+            List<CompletableFuture<Integer>> jobs = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                int value = i;
+                jobs.add(executor.submit(i, 1, () -> value * 2));
+            }
+            release.countDown();
+            blocker.get(5, TimeUnit.SECONDS);
+            for (int i = 0; i < jobs.size(); i++) {
+                assertEquals(2 * i, jobs.get(i).get(5, TimeUnit.SECONDS));
+            }
+            SolverExecutor.Stats stats = executor.stats();
+            assertEquals(201, stats.batchedJobs());
+            assertTrue(stats.batches() <= 6, "batches: " + stats.batches());
+        }
+    }
+
+    private static int record(List<Integer> order, int value) {
+        synchronized (order) {
+            order.add(value);
+        }
+        return value;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
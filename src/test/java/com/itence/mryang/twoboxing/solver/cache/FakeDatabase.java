@@ -0,0 +1,116 @@
+package com.itence.mryang.twoboxing.solver.cache;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process database stand-in for {@link JdbcResultStore}: JDBC proxies over a map that
+ * understand exactly the statements the store issues, so its SQL round trips, reconnects and
+ * duplicate-key handling are exercised without a MySQL server.
+ */
+final class FakeDatabase {
+
+    final Map<String, String> rows = new ConcurrentHashMap<>();
+    final AtomicInteger connections = new AtomicInteger();
+    final AtomicInteger connectAttempts = new AtomicInteger();
+    final AtomicInteger tablesCreated = new AtomicInteger();
+    volatile boolean down;
+    /** Queries wait until this is released, as on a slow server; null answers at once. */
+    volatile CountDownLatch queryGate;
+
+    Connection connect() throws SQLException {
+        connectAttempts.incrementAndGet();
+        checkUp();
+        connections.incrementAndGet();
+        boolean[] closed = {false};
+        return proxy(Connection.class, (proxy, method, args) -> switch (method.getName()) {
+            case "createStatement" -> statement(null);
+            case "prepareStatement" -> statement((String) args[0]);
+            case "isClosed" -> closed[0];
+            case "close" -> {
+                closed[0] = true;
+                yield null;
+            }
+            default -> unsupported(method.getName());
+        });
+    }
+
+    private PreparedStatement statement(String preparedSql) {
+        String[] parameters = new String[4];
+        return proxy(PreparedStatement.class, (proxy, method, args) -> switch (method.getName()) {
+            case "setString" -> {
+                parameters[(Integer) args[0]] = (String) args[1];
+                yield null;
+            }
+            case "executeUpdate" -> update(args == null ? preparedSql : (String) args[0], parameters);
+            case "executeQuery" -> query(preparedSql, parameters[1]);
+            case "close" -> null;
+            default -> unsupported(method.getName());
+        });
+    }
+
+    private int update(String sql, String[] parameters) throws SQLException {
+        checkUp();
+        if (sql.startsWith("CREATE TABLE IF NOT EXISTS ")) {
+            tablesCreated.incrementAndGet();
+            return 0;
+        }
+        if (sql.startsWith("INSERT INTO ")) {
+            if (rows.putIfAbsent(parameters[1], parameters[3]) != null) {
+                throw new SQLIntegrityConstraintViolationException("duplicate key " + parameters[1]);
+            }
+            return 1;
+        }
+        return unsupported(sql);
+    }
+
+    private ResultSet query(String sql, String hash) throws SQLException {
+        checkUp();
+        CountDownLatch gate = queryGate;
+        if (gate != null) {
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (!sql.startsWith("SELECT payload FROM ")) {
+            return unsupported(sql);
+        }
+        String payload = rows.get(hash);
+        boolean[] consumed = {false};
+        return proxy(ResultSet.class, (proxy, method, args) -> switch (method.getName()) {
+            case "next" -> {
+                boolean hasRow = payload != null && !consumed[0];
+                consumed[0] = true;
+                yield hasRow;
+            }
+            case "getString" -> payload;
+            case "close" -> null;
+            default -> unsupported(method.getName());
+        });
+    }
+
+    private void checkUp() throws SQLException {
+        if (down) {
+            throw new SQLException("database is down");
+        }
+    }
+
+    private static <T> T unsupported(String what) {
+        throw new UnsupportedOperationException(what);
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(FakeDatabase.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+}
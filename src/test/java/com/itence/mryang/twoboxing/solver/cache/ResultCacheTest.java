@@ -0,0 +1,175 @@
+package com.itence.mryang.twoboxing.solver.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.itence.mryang.twoboxing.solver.SolverApi.TspResponse;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import method.graph.TravelingSalesman;
+import org.junit.jupiter.api.Test;
+
+class ResultCacheTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicInteger computed = new AtomicInteger();
+
+    @Test
+    void hashIsCanonical() {
+        int[][] edges = {{0, 1}, {2, 0}, {1, 1}};
+        int[][] shuffled = {{1, 1}, {0, 1}, {2, 0}, {0, 1}};
+        assertEquals(InstanceHash.matching(3, 2, edges), InstanceHash.matching(3, 2, shuffled));
+        assertNotEquals(InstanceHash.matching(3, 2, edges), InstanceHash.matching(3, 3, edges));
+
+        int[][] paths = {{0, 1, 5, 1}, {1, 2, 3, 2}};
+        int[][] reversed = {{1, 2, 3, 2}, {0, 1, 5, 1}};
+        assertEquals(InstanceHash.constrainedPath(3, paths, 0, 2, 4), InstanceHash.constrainedPath(3, reversed, 0, 2, 4));
+        assertNotEquals(InstanceHash.constrainedPath(3, paths, 0, 2, 4), InstanceHash.constrainedPath(3, paths, 0, 2, 5));
+
+        int[][] missing = {{0, -1}, {3, 0}};
+        int[][] max = {{0, Integer.MAX_VALUE}, {3, 0}};
+        assertEquals(InstanceHash.tsp("HELD_KARP", missing, 0), InstanceHash.tsp("HELD_KARP", max, 0));
+        assertNotEquals(InstanceHash.tsp("HEURISTIC", missing, 100), InstanceHash.tsp("HEURISTIC", missing, 200));
+        assertEquals(64, InstanceHash.tsp("HELD_KARP", missing, 0).hex().length());
+    }
+
+    @Test
+    void memoryTierEvictsLeastRecentlyUsed() throws Exception {
+        ResultCache cache = new ResultCache(2, null, mapper);
+        InstanceHash a = key(1);
+        InstanceHash b = key(2);
+        InstanceHash c = key(3);
+        assertEquals(1, get(cache, a).distance());
+        assertEquals(2, get(cache, b).distance());
+        CompletableFuture<TspResponse> repeat = cache.get(a, "tsp", TspResponse.class, () -> compute(a));
+        assertTrue(repeat.isDone(), "a memory hit completes on the calling thread");
+        get(cache, c); // evicts b, the least recently used
+        assertEquals(3, computed.get());
+        get(cache, a);
+        get(cache, b);
+        assertEquals(4, computed.get());
+        assertEquals(2, cache.stats().memoryHits());
+    }
+
+    @Test
+    void storeSurvivesRestart() throws Exception {
+        FakeDatabase database = new FakeDatabase();
+        InstanceHash key = key(7);
+        try (ResultCache cache = new ResultCache(10, new JdbcResultStore(database::connect, "solver_result"), mapper)) {
+            assertEquals(7, get(cache, key).distance());
+        } // close() flushes the background write
+        assertEquals(1, database.rows.size());
+        assertEquals(1, database.tablesCreated.get());
+
+        try (ResultCache restarted = new ResultCache(10, new JdbcResultStore(database::connect, "solver_result"), mapper)) {
+            TspResponse response = get(restarted, key);
+            assertEquals(7, response.distance());
+            assertArrayEquals(new int[] {0, 7}, response.order());
+            assertEquals(1, computed.get());
+            assertEquals(1, restarted.stats().storeHits());
+            get(restarted, key(8));
+        }
+        assertEquals(2, database.rows.size());
+        assertEquals(2, database.connections.get());
+    }
+
+    @Test
+    void unreachableStoreDegradesToComputing() throws Exception {
+        FakeDatabase database = new FakeDatabase();
+        database.down = true;
+        AtomicLong clock = new AtomicLong();
+        Duration backoff = Duration.ofSeconds(1);
+        JdbcResultStore store = new JdbcResultStore(database::connect, "solver_result", backoff, clock::get);
+        // a lookup timeout no scheduling delay reaches, so every lookup gets its answer from the store
+        try (ResultCache cache = new ResultCache(10, store, mapper, Duration.ofMinutes(1))) {
+            assertEquals(5, get(cache, key(5)).distance());
+            assertEquals(5, get(cache, key(5)).distance());
+            assertEquals(1, computed.get());
+            assertEquals(1, cache.stats().memoryHits());
+            // creating the table failed, then the lookup was refused during the backoff
+            assertTrue(cache.stats().storeErrors() >= 2);
+            assertEquals(0, cache.stats().lookupTimeouts());
+            assertEquals(1, database.connectAttempts.get());
+
+            database.down = false;
+            clock.addAndGet(backoff.toNanos()); // the store reconnects on the first operation after the backoff
+            get(cache, key(6));
+            assertEquals(2, database.connectAttempts.get());
+        }
+        assertTrue(database.rows.containsKey(key(6).hex()));
+    }
+
+    @Test
+    void slowStoreFallsThroughToComputing() throws Exception {
+        FakeDatabase database = new FakeDatabase();
+        database.queryGate = new CountDownLatch(1);
+        JdbcResultStore store = new JdbcResultStore(database::connect, "solver_result");
+        try (ResultCache cache = new ResultCache(10, store, mapper, Duration.ofMillis(20))) {
+            // the lookup cannot answer until the gate opens, so only the timeout gets the result computed
+            assertEquals(3, get(cache, key(3)).distance());
+            assertEquals(1, computed.get());
+            assertEquals(1, cache.stats().lookupTimeouts());
+            assertEquals(1, cache.stats().misses());
+            assertEquals(0, cache.stats().storeHits());
+            database.queryGate.countDown();
+        }
+        assertTrue(database.rows.containsKey(key(3).hex()));
+    }
+
+    @Test
+    void repeatedHeldKarpReturnsFromMemory() throws Exception {
+        int n = 18;
+        Random random = new Random(11);
+        int[][] distances = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                distances[i][j] = distances[j][i] = 1 + random.nextInt(1000);
+            }
+        }
+        ResultCache cache = new ResultCache(100, null, mapper);
+        InstanceHash key = InstanceHash.tsp("HELD_KARP", distances, 0);
+
+        TspResponse solved = cache.get(key, "tsp", TspResponse.class, () -> CompletableFuture.supplyAsync(() -> {
+            TravelingSalesman.Tour tour = TravelingSalesman.heldKarp(distances, 1);
+            return new TspResponse(tour.distance(), tour.order());
+        })).get(60, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 1000; i++) {
+            // the repeat hashes the matrix again, as a new request would
+            CompletableFuture<TspResponse> cached = cache.get(InstanceHash.tsp("HELD_KARP", distances, 0), "tsp",
+                    TspResponse.class, () -> compute(key));
+            assertTrue(cached.isDone(), "a memory hit completes on the calling thread");
+            assertEquals(solved, cached.get());
+        }
+        assertEquals(0, computed.get());
+        assertEquals(1000, cache.stats().memoryHits());
+        assertEquals(1, cache.stats().misses());
+    }
+
+    private TspResponse get(ResultCache cache, InstanceHash key) throws Exception {
+        return cache.get(key, "tsp", TspResponse.class, () -> compute(key)).get(5, TimeUnit.SECONDS);
+    }
+
+    /** Answers key(k) with a tour of length k. */
+    private CompletableFuture<TspResponse> compute(InstanceHash key) {
+        computed.incrementAndGet();
+        for (int k = 0; k < 100; k++) {
+            if (key(k).equals(key)) {
+                return CompletableFuture.completedFuture(new TspResponse(k, new int[] {0, k}));
+            }
+        }
+        throw new AssertionError("unknown key");
+    }
+
+    private static InstanceHash key(int k) {
+        return InstanceHash.tsp("HELD_KARP", new int[][] {{0, k}, {k, 0}}, 0);
+    }
+}
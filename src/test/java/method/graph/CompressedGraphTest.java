@@ -0,0 +1,163 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CompressedGraphTest {
+
+    @Test
+    void roundTripsSortedRowsAcrossPages() {
+        Random random = new Random(3);
+        for (int round = 0; round < 100; round++) {
+            int n = 1 + random.nextInt(60);
+            int targets = round % 3 == 0 ? 1 + random.nextInt(200) : n;
+            CsrGraph graph = randomGraph(random, n, targets, random.nextInt(6 * n));
+            // 64-byte pages, so many lists start on a fresh page and some pages end early
+            CompressedGraph compressed = CompressedGraph.of(graph, 6);
+            assertEquals(graph.getNumEdges(), compressed.getNumEdges());
+            assertEquals(targets, compressed.getNumTargets());
+
+            CsrGraph decoded = compressed.toCsr();
+            CompressedGraph.Cursor cursor = compressed.cursor();
+            for (int u = 0; u < n; u++) {
+                int[] expected = row(graph, u);
+                Arrays.sort(expected);
+                assertArrayEquals(expected, row(decoded, u));
+                assertEquals(expected.length, compressed.degree(u));
+
+                // stop halfway, read another list, then resume from the saved state
+                cursor.reset(u);
+                int half = expected.length / 2;
+                for (int i = 0; i < half; i++) {
+                    assertEquals(expected[i], cursor.next());
+                }
+                long state = cursor.state();
+                cursor.reset(random.nextInt(n));
+                cursor.seek(u, state);
+                for (int i = half; i < expected.length; i++) {
+                    assertTrue(cursor.hasNext());
+                    assertEquals(expected[i], cursor.next());
+                }
+                assertTrue(!cursor.hasNext());
+            }
+        }
+    }
+
+    @Test
+    void builderStreamsRowsInSourceOrder() {
+        CompressedGraph graph = CompressedGraph.builder(5)
+                .addEdge(1, 4).addEdge(1, 0).addEdge(1, 4)
+                .addEdge(3, 2)
+                .build();
+        CsrGraph decoded = graph.toCsr();
+        assertArrayEquals(new int[]{}, row(decoded, 0));
+        assertArrayEquals(new int[]{0, 4, 4}, row(decoded, 1));
+        assertArrayEquals(new int[]{2}, row(decoded, 3));
+        assertArrayEquals(new int[]{}, row(decoded, 4));
+
+        CompressedGraph.Builder builder = CompressedGraph.builder(5).addEdge(2, 1);
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> builder.addEdge(2, 5));
+    }
+
+    @Test
+    void localGraphsNeedAboutOneByteAndAHalfPerEdge() {
+        int n = 100_000;
+        Random random = new Random(5);
+        CompressedGraph.Builder builder = CompressedGraph.builder(n);
+        for (int u = 0; u < n; u++) {
+            for (int k = 0; k < 16; k++) {
+                builder.addEdge(u, Math.floorMod(u + random.nextInt(201) - 100, n));
+            }
+        }
+        CompressedGraph graph = builder.build();
+        // 8 bytes of offset per node are half a byte per edge; the gaps themselves take one byte
+        assertTrue(graph.bytesPerEdge() < 2, "bytes per edge: " + graph.bytesPerEdge());
+    }
+
+    @Test
+    void uniformGraphsStillTakeLessThanCsr() {
+        int n = 100_000;
+        Random random = new Random(6);
+        CompressedGraph.Builder builder = CompressedGraph.builder(n);
+        for (int u = 0; u < n; u++) {
+            for (int k = 0; k < 16; k++) {
+                builder.addEdge(u, random.nextInt(n));
+            }
+        }
+        CompressedGraph graph = builder.build();
+        CsrGraph csr = graph.toCsr();
+        // uniform targets are the worst case for gap encoding: gaps of about n / 16 take two bytes
+        double csrBytesPerEdge = 4.0 * (csr.getNumEdges() + n + 1) / csr.getNumEdges();
+        assertTrue(graph.bytesPerEdge() < 0.75 * csrBytesPerEdge,
+                graph.bytesPerEdge() + " bytes per edge vs " + csrBytesPerEdge + " as CSR");
+    }
+
+    @Test
+    void algorithmsMatchTheirCsrResults() {
+        Random random = new Random(9);
+        for (int round = 0; round < 60; round++) {
+            int n = 1 + random.nextInt(50);
+            CompressedGraph compressed = CompressedGraph.of(randomGraph(random, n, n, random.nextInt(3 * n)), 7);
+            CsrGraph sorted = compressed.toCsr();
+
+            StronglyConnectedComponents expected = StronglyConnectedComponents.of(sorted);
+            StronglyConnectedComponents actual = StronglyConnectedComponents.of(compressed);
+            assertArrayEquals(expected.getComponentOf(), actual.getComponentOf());
+            CsrGraph expectedDag = expected.getCondensation();
+            CsrGraph actualDag = actual.getCondensation();
+            for (int c = 0; c < expected.getComponentCount(); c++) {
+                assertArrayEquals(row(expectedDag, c), row(actualDag, c));
+            }
+
+            for (int start = 0; start < n; start++) {
+                assertEquals(PredecessorConstrainedDfs.dfsRecursiveOrder(sorted, start),
+                        PredecessorConstrainedDfs.dfsRecursiveOrder(compressed, start));
+            }
+
+            int right = 1 + random.nextInt(50);
+            CompressedGraph bipartite = CompressedGraph.of(randomGraph(random, n, right, random.nextInt(3 * n)), 7);
+            HopcroftKarp packed = new HopcroftKarp(n, right, bipartite);
+            int size = packed.maxMatching();
+            assertEquals(new HopcroftKarp(n, right, bipartite.toCsr()).maxMatching(), size);
+            int pairs = 0;
+            for (int u = 0; u < n; u++) {
+                int v = packed.leftMatch(u);
+                if (v >= 0) {
+                    pairs++;
+                    assertEquals(u, packed.rightMatch(v));
+                    assertTrue(Arrays.stream(row(bipartite.toCsr(), u)).anyMatch(t -> t == v));
+                }
+            }
+            assertEquals(size, pairs);
+        }
+    }
+
+    private static CsrGraph randomGraph(Random random, int n, int targets, int edges) {
+        CsrGraph.Builder builder = CsrGraph.builder(n, targets);
+        for (int i = 0; i < edges; i++) {
+            int u = random.nextInt(n);
+            // mostly near u, sometimes far away, to exercise one- and multi-byte gaps
+            int v = random.nextInt(4) == 0 ? random.nextInt(targets)
+                    : Math.min(targets - 1, Math.max(0, u + random.nextInt(9) - 4));
+            builder.addEdge(u, v);
+        }
+        return builder.build();
+    }
+
+    private static int[] row(CsrGraph graph, int u) {
+        List<Integer> row = new ArrayList<>();
+        for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+            row.add(graph.target(e));
+        }
+        return row.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
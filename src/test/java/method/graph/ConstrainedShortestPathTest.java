@@ -0,0 +1,115 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Test;
+
+class ConstrainedShortestPathTest {
+
+    @Test
+    void labelSettingAgreesWithDynamicProgramming() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            int n = 2 + random.nextInt(12);
+            ConstrainedShortestPath.Graph graph = new ConstrainedShortestPath.Graph(n);
+            int edges = random.nextInt(4 * n);
+            for (int i = 0; i < edges; i++) {
+                graph.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(20), 1 + random.nextInt(6));
+            }
+            int maxResource = random.nextInt(25);
+            int start = random.nextInt(n);
+            int target = random.nextInt(n);
+            ConstrainedShortestPath solver = new ConstrainedShortestPath(graph, maxResource);
+
+            int expected = solver.solve(start, target);
+            ConstrainedShortestPath.Path path = solver.findPath(start, target);
+
+            assertEquals(expected, path.cost());
+            if (path.exists()) {
+                assertPathIsConsistent(graph, path, start, target, maxResource);
+            }
+        }
+    }
+
+    @Test
+    void reportsMissingPath() {
+        ConstrainedShortestPath.Graph graph = new ConstrainedShortestPath.Graph(3);
+        graph.addEdge(0, 1, 1, 5);
+        graph.addEdge(1, 2, 1, 5);
+
+        assertFalse(new ConstrainedShortestPath(graph, 9).findPath(0, 2).exists());
+        assertArrayEquals(new int[] {0, 1, 2}, new ConstrainedShortestPath(graph, 10).findPath(0, 2).nodes());
+    }
+
+    @Test
+    void resourceSumsBeyondIntRangeDoNotWrapUnderTheLimit() {
+        CsrGraph graph = CsrGraph.builder(4)
+                .addEdge(0, 1, 0, Integer.MAX_VALUE - 5)
+                .addEdge(1, 3, 0, 10)
+                .addEdge(1, 3, 100, 1)
+                .build();
+
+        ConstrainedShortestPath.Path path = new ParetoLabelSetting(graph).shortestPath(0, 3, Integer.MAX_VALUE);
+
+        assertEquals(100, path.cost());
+        assertEquals(Integer.MAX_VALUE - 4, path.resource());
+        assertArrayEquals(new int[] {0, 1, 3}, path.nodes());
+    }
+
+    @Test
+    void batchQueriesShareFrontiersAndSeeGraphChanges() {
+        Random random = new Random(5);
+        int n = 30;
+        ConstrainedShortestPath.Graph graph = new ConstrainedShortestPath.Graph(n);
+        for (int i = 0; i < 120; i++) {
+            graph.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(20), 1 + random.nextInt(5));
+        }
+        ConstrainedShortestPathQueries queries = new ConstrainedShortestPathQueries(graph, 1 << 20);
+        List<ConstrainedShortestPathQueries.Query> batch = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            batch.add(new ConstrainedShortestPathQueries.Query(random.nextInt(4), random.nextInt(n), random.nextInt(20)));
+        }
+
+        ConstrainedShortestPath.Path[] sequential = queries.queryAll(batch);
+        ConstrainedShortestPath.Path[] parallel = queries.queryAll(batch, ForkJoinPool.commonPool());
+        for (int i = 0; i < batch.size(); i++) {
+            ConstrainedShortestPathQueries.Query query = batch.get(i);
+            int expected = new ConstrainedShortestPath(graph, query.maxResource()).solve(query.start(), query.target());
+            assertEquals(expected, sequential[i].cost());
+            assertEquals(expected, parallel[i].cost());
+        }
+        assertTrue(queries.getCachedSources() <= 4);
+
+        graph.addEdge(0, n - 1, 0, 0);
+        assertEquals(0, queries.query(0, n - 1, 0).cost());
+    }
+
+    private static void assertPathIsConsistent(ConstrainedShortestPath.Graph graph, ConstrainedShortestPath.Path path,
+                                               int start, int target, int maxResource) {
+        int[] nodes = path.nodes();
+        assertEquals(start, nodes[0]);
+        assertEquals(target, nodes[nodes.length - 1]);
+        int cost = 0;
+        int resource = 0;
+        for (int i = 0; i + 1 < nodes.length; i++) {
+            ConstrainedShortestPath.Graph.Edge best = null;
+            for (ConstrainedShortestPath.Graph.Edge edge : graph.getEdges(nodes[i])) {
+                if (edge.to() == nodes[i + 1] && (best == null || edge.cost() < best.cost())) {
+                    best = edge;
+                }
+            }
+            assertTrue(best != null, "path uses a missing edge");
+            cost += best.cost();
+            resource += best.resource();
+        }
+        assertTrue(cost <= path.cost());
+        assertTrue(path.resource() <= maxResource);
+    }
+}
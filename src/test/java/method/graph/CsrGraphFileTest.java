@@ -0,0 +1,108 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsrGraphFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writtenGraphMapsBackAcrossSegments() throws IOException {
+        Random random = new Random(19);
+        int n = 500;
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (int k = 0; k < 3000; k++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(100) - 50, random.nextInt(10));
+        }
+        CsrGraph graph = builder.build();
+        Path file = dir.resolve("graph.csr");
+        CsrGraphFile.write(graph, file);
+
+        // 256-int segments: the edge sections span several mappings
+        CsrGraph mapped = CsrGraphFile.map(file, 8);
+        assertTrue(mapped.isMapped());
+        assertFalse(graph.isMapped());
+        assertSameGraph(graph, mapped);
+        assertSameGraph(graph.transpose(), mapped.transpose());
+        assertEquals(Files.size(file), 32 + 4L * (n + 1) + 3 * 4L * graph.getNumEdges());
+    }
+
+    @Test
+    void edgeListConvertsAndAlgorithmsRunOnTheMapping() throws IOException {
+        Path text = dir.resolve("edges.txt");
+        Files.writeString(text, "# from to\n"
+                + "0 1\n"
+                + "1\t2\n"
+                + "\n"
+                + "2,0\r\n"
+                + "2 3\n"
+                + "% trailing comment\n"
+                + "4 3");
+        Path file = dir.resolve("edges.csr");
+        assertEquals(5, CsrGraphFile.convertEdgeList(text, file));
+        CsrGraph mapped = CsrGraphFile.map(file);
+
+        CsrGraph expected = CsrGraph.builder(5)
+                .addEdge(0, 1).addEdge(1, 2).addEdge(2, 0).addEdge(2, 3).addEdge(4, 3)
+                .build();
+        assertSameGraph(expected, mapped);
+        assertEquals(StronglyConnectedComponents.of(expected).getComponentCount(),
+                StronglyConnectedComponents.of(mapped).getComponentCount());
+        assertEquals(PredecessorConstrainedDfs.dfsRecursiveOrder(expected, 0),
+                PredecessorConstrainedDfs.dfsRecursiveOrder(mapped, 0));
+    }
+
+    @Test
+    void weightedEdgeListsKeepTheirColumns() throws IOException {
+        Path text = dir.resolve("weighted.txt");
+        Files.writeString(text, "1 0 7 2\n0 1 -3 4\n1 2 5 1\n");
+        Path file = dir.resolve("weighted.csr");
+        CsrGraphFile.convertEdgeList(text, file);
+        CsrGraph mapped = CsrGraphFile.map(file);
+
+        assertEquals(3, mapped.getNumNodes());
+        assertEquals(-3, mapped.weight(mapped.firstEdge(0)));
+        assertEquals(0, mapped.target(mapped.firstEdge(1)));
+        assertEquals(2, mapped.target(mapped.firstEdge(1) + 1));
+        assertEquals(1, mapped.resource(mapped.firstEdge(1) + 1));
+
+        Files.writeString(text, "0 1 3\n1 2\n");
+        assertThrows(IllegalArgumentException.class, () -> CsrGraphFile.convertEdgeList(text, file));
+        Files.writeString(text, "0 x\n");
+        assertThrows(IllegalArgumentException.class, () -> CsrGraphFile.convertEdgeList(text, file));
+        Files.writeString(file, "not a graph file, just text");
+        assertThrows(IllegalArgumentException.class, () -> CsrGraphFile.map(file));
+    }
+
+    private static void assertSameGraph(CsrGraph expected, CsrGraph actual) {
+        assertEquals(expected.getNumNodes(), actual.getNumNodes());
+        assertEquals(expected.getNumTargets(), actual.getNumTargets());
+        assertEquals(expected.getNumEdges(), actual.getNumEdges());
+        assertEquals(expected.hasWeights(), actual.hasWeights());
+        assertEquals(expected.hasResources(), actual.hasResources());
+        for (int u = 0; u < expected.getNumNodes(); u++) {
+            assertEquals(expected.firstEdge(u), actual.firstEdge(u));
+            assertEquals(expected.endEdge(u), actual.endEdge(u));
+        }
+        for (int e = 0; e < expected.getNumEdges(); e++) {
+            assertEquals(expected.target(e), actual.target(e));
+            if (expected.hasWeights()) {
+                assertEquals(expected.weight(e), actual.weight(e));
+            }
+            if (expected.hasResources()) {
+                assertEquals(expected.resource(e), actual.resource(e));
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CsrGraphTest {
+
+    @Test
+    void builderGroupsEdgesBySourceInInsertionOrder() {
+        CsrGraph graph = CsrGraph.builder(3).addEdge(2, 0).addEdge(0, 1).addEdge(2, 1).addEdge(0, 2).build();
+
+        assertEquals(4, graph.getNumEdges());
+        assertEquals(2, graph.degree(0));
+        assertEquals(0, graph.degree(1));
+        assertEquals(1, graph.target(graph.firstEdge(0)));
+        assertEquals(2, graph.target(graph.firstEdge(0) + 1));
+        assertEquals(0, graph.target(graph.firstEdge(2)));
+        assertEquals(1, graph.target(graph.firstEdge(2) + 1));
+    }
+
+    @Test
+    void transposeCarriesEdgeAttributes() {
+        CsrGraph graph = CsrGraph.builder(3).addEdge(0, 1, 5, 7).addEdge(2, 1, 3, 4).build();
+        CsrGraph reversed = graph.transpose();
+
+        assertEquals(2, reversed.degree(1));
+        int e = reversed.firstEdge(1);
+        assertEquals(0, reversed.target(e));
+        assertEquals(5, reversed.weight(e));
+        assertEquals(7, reversed.resource(e));
+        assertEquals(2, reversed.target(e + 1));
+        assertEquals(3, reversed.weight(e + 1));
+    }
+
+    @Test
+    void overloadsAgreeWithBoxedSignatures() {
+        Random random = new Random(42);
+        int n = 60;
+        HashMap<Integer, List<Integer>> map = new HashMap<>();
+        List<List<Integer>> list = new ArrayList<>();
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (int u = 0; u < n; u++) {
+            List<Integer> row = new ArrayList<>();
+            for (int k = 0; k < 2; k++) {
+                int v = random.nextInt(n);
+                row.add(v);
+                builder.addEdge(u, v);
+            }
+            map.put(u, row);
+            list.add(row);
+        }
+        CsrGraph graph = builder.build();
+
+        StronglyConnectedComponentOptimized scc = new StronglyConnectedComponentOptimized();
+        assertEquals(scc.getOutput(map, n), scc.getOutput(graph));
+
+        HopcroftKarp boxed = new HopcroftKarp(n, n, list);
+        HopcroftKarp compact = new HopcroftKarp(n, n, graph);
+        assertEquals(boxed.maxMatching(), compact.maxMatching());
+        assertArrayEquals(boxed.getLeftMatches(), compact.getLeftMatches());
+
+        Map<Integer, List<Integer>> successors = new HashMap<>(map);
+        assertEquals(PredecessorConstrainedDfs.dfsRecursiveOrder(successors, 0),
+                PredecessorConstrainedDfs.dfsRecursiveOrder(graph, 0));
+    }
+
+    @Test
+    void constrainedShortestPathRunsOnSnapshot() {
+        ConstrainedShortestPath.Graph graph = new ConstrainedShortestPath.Graph(4);
+        graph.addEdge(0, 1, 1, 5);
+        graph.addEdge(1, 3, 1, 5);
+        graph.addEdge(0, 2, 4, 1);
+        graph.addEdge(2, 3, 4, 1);
+
+        assertEquals(8, new ConstrainedShortestPath(graph, 5).solve(0, 3));
+        assertEquals(2, new ConstrainedShortestPath(graph.toCsrGraph(), 10).solve(0, 3));
+
+        graph.addEdge(0, 3, 1, 1);
+        assertEquals(1, new ConstrainedShortestPath(graph, 5).solve(0, 3));
+    }
+
+    @Test
+    void heldKarpOnCsrMatchesMatrix() {
+        int[][] matrix = {
+            {0, 10, 15, 20},
+            {10, 0, 35, 25},
+            {15, 35, 0, 30},
+            {20, 25, 30, 0}
+        };
+        CsrGraph.Builder builder = CsrGraph.builder(4);
+        for (int i = 0; i < 4; i++) {
+            for (int j = 0; j < 4; j++) {
+                if (i != j) {
+                    builder.addEdge(i, j, matrix[i][j], 0);
+                }
+            }
+        }
+        assertEquals(TravelingSalesman.dynamicProgramming(matrix), TravelingSalesman.dynamicProgramming(builder.build()));
+
+        // a dearer parallel edge and a self-loop change nothing; a star has no tour
+        builder.addEdge(0, 1, 1000, 0);
+        builder.addEdge(2, 2, 1, 0);
+        assertEquals(TravelingSalesman.dynamicProgramming(matrix), TravelingSalesman.dynamicProgramming(builder.build()));
+        CsrGraph.Builder star = CsrGraph.builder(3);
+        star.addEdge(0, 1, 1, 0);
+        star.addEdge(1, 0, 1, 0);
+        star.addEdge(0, 2, 1, 0);
+        star.addEdge(2, 0, 1, 0);
+        assertEquals(Integer.MAX_VALUE, TravelingSalesman.dynamicProgramming(star.build()));
+        assertThrows(IllegalArgumentException.class,
+                () -> TravelingSalesman.dynamicProgramming(CsrGraph.builder(40).addEdge(0, 1, 1, 0).build()));
+    }
+}
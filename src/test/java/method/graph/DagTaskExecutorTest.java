@@ -0,0 +1,129 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class DagTaskExecutorTest {
+
+    @Test
+    void runsEveryNodeAfterAllItsPredecessors() throws InterruptedException {
+        Random random = new Random(17);
+        int n = 300;
+        Map<Integer, List<Integer>> successors = new HashMap<>();
+        Map<Integer, List<Integer>> parents = new HashMap<>();
+        for (int u = 0; u < n; u++) {
+            List<Integer> children = new ArrayList<>();
+            for (int k = random.nextInt(4); k > 0; k--) {
+                int v = u + 1 + random.nextInt(n);
+                if (v < n) {
+                    children.add(v);
+                    parents.computeIfAbsent(v, key -> new ArrayList<>()).add(u);
+                }
+            }
+            successors.put(u, children);
+        }
+        Set<Integer> done = ConcurrentHashMap.newKeySet();
+        List<PredecessorConstrainedDfs.TraversalEvent<Integer>> streamed = new ArrayList<>();
+        DagTaskExecutor<Integer> executor =
+                new DagTaskExecutor<>(PredecessorConstrainedDfs.compile(successors), 8, null);
+
+        DagTaskExecutor.Result<Integer> result = executor.execute(node -> {
+            for (int parent : parents.getOrDefault(node, List.of())) {
+                assertTrue(done.contains(parent), parent + " before " + node);
+            }
+            done.add(node);
+        }, streamed::add);
+
+        assertTrue(result.isComplete());
+        assertEquals(n, result.visits().size());
+        assertEquals(result.visits(), streamed);
+        for (int i = 0; i < n; i++) {
+            assertEquals(i, result.visits().get(i).orderAsInt());
+        }
+    }
+
+    @Test
+    void independentChainsRunSideBySide() throws InterruptedException {
+        // four independent chains of three steps; the four heads only pass the latch together
+        Map<String, List<String>> successors = new HashMap<>();
+        for (int chain = 0; chain < 4; chain++) {
+            successors.put("a" + chain, List.of("b" + chain));
+            successors.put("b" + chain, List.of("c" + chain));
+        }
+        CountDownLatch heads = new CountDownLatch(4);
+        AtomicBoolean overlapped = new AtomicBoolean(true);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        DagTaskExecutor<String> executor = new DagTaskExecutor<>(PredecessorConstrainedDfs.compile(successors), 4, null);
+        DagTaskExecutor.Result<String> result = executor.execute(node -> {
+            peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                if (node.startsWith("a")) {
+                    heads.countDown();
+                    if (!heads.await(10, TimeUnit.SECONDS)) {
+                        overlapped.set(false);
+                    }
+                }
+            } finally {
+                running.decrementAndGet();
+            }
+        });
+
+        assertTrue(result.isComplete());
+        assertTrue(overlapped.get(), "chain heads did not run at the same time");
+        assertEquals(4, peak.get());
+    }
+
+    @Test
+    void failureCancelsTheRest() throws InterruptedException {
+        Map<String, List<String>> successors = Map.of(
+                "root", List.of("bad", "slow"),
+                "bad", List.of("after"),
+                "slow", List.of("after"));
+        DagTaskExecutor<String> executor = new DagTaskExecutor<>(PredecessorConstrainedDfs.compile(successors), 2, null);
+        DagTaskExecutor.Result<String> result = executor.execute(node -> {
+            if (node.equals("bad")) {
+                throw new IllegalStateException("boom");
+            }
+            if (node.equals("slow")) {
+                Thread.sleep(10_000);
+            }
+        });
+
+        assertFalse(result.isComplete());
+        assertEquals("bad", result.failedNode());
+        assertInstanceOf(IllegalStateException.class, result.failure());
+        assertEquals(List.of("root"), result.visits().stream().map(PredecessorConstrainedDfs.TraversalEvent::node).toList());
+        assertEquals(Set.of("slow", "after"), Set.copyOf(result.notCompleted()));
+    }
+
+    @Test
+    void slowNodesTimeOut() throws InterruptedException {
+        Map<String, List<String>> successors = Map.of("a", List.of("b"), "loop", List.of("loop"));
+        DagTaskExecutor<String> executor =
+                new DagTaskExecutor<>(PredecessorConstrainedDfs.compile(successors), 2, Duration.ofMillis(100));
+        DagTaskExecutor.Result<String> result = executor.execute(node -> Thread.sleep(node.equals("b") ? 10_000 : 1));
+
+        assertEquals("b", result.failedNode());
+        assertInstanceOf(TimeoutException.class, result.failure());
+        // a self-loop never becomes ready
+        assertEquals(List.of("loop"), result.notCompleted());
+    }
+}
@@ -0,0 +1,110 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.IntBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class DynamicBipartiteMatchingTest {
+
+    @Test
+    void updatesKeepTheMatchingMaximum() {
+        Random random = new Random(1);
+        for (int round = 0; round < 20; round++) {
+            int nLeft = 1 + random.nextInt(12);
+            int nRight = 1 + random.nextInt(12);
+            Set<Long> edges = new HashSet<>();
+            DynamicBipartiteMatching matching = new DynamicBipartiteMatching(nLeft, nRight);
+
+            for (int step = 0; step < 300; step++) {
+                int u = random.nextInt(matching.getLeftCount());
+                int v = random.nextInt(matching.getRightCount());
+                int op = random.nextInt(20);
+                if (op < 10) {
+                    assertEquals(edges.add(key(u, v)), matching.addEdge(u, v));
+                } else if (op < 17) {
+                    assertEquals(edges.remove(key(u, v)), matching.removeEdge(u, v));
+                } else if (op == 17) {
+                    edges.removeIf(e -> (int) (e >>> 32) == u);
+                    matching.removeLeft(u);
+                } else if (op == 18) {
+                    edges.removeIf(e -> (int) (long) e == v);
+                    matching.removeRight(v);
+                } else if (random.nextBoolean()) {
+                    matching.addLeft();
+                } else {
+                    matching.addRight();
+                }
+                assertMaximum(matching, edges);
+            }
+        }
+    }
+
+    @Test
+    void warmStartKeepsAValidMatchingAndCompletesIt() {
+        CsrGraph graph = CsrGraph.builder(3, 3)
+                .addEdge(0, 0).addEdge(0, 1)
+                .addEdge(1, 0)
+                .addEdge(2, 2)
+                .build();
+        // (0,0) blocks vertex 1, the warm start must still be augmented to size 3
+        DynamicBipartiteMatching matching = new DynamicBipartiteMatching(3, 3, graph, new int[] {0, -1, -1});
+        assertEquals(3, matching.size());
+
+        HopcroftKarp hopcroftKarp = new HopcroftKarp(3, 3, graph, new int[] {1, 0, 2});
+        assertEquals(3, hopcroftKarp.maxMatching());
+        assertEquals(1, hopcroftKarp.leftMatch(0));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new HopcroftKarp(3, 3, graph, new int[] {2, -1, -1}));
+        assertThrows(IllegalArgumentException.class,
+                () -> new HopcroftKarp(3, 3, graph, new int[] {0, 0, -1}));
+    }
+
+    @Test
+    void matchViewsFollowUpdates() {
+        DynamicBipartiteMatching matching = new DynamicBipartiteMatching(2, 2);
+        IntBuffer left = matching.getLeftMatches();
+        assertEquals(-1, left.get(0));
+
+        matching.addEdge(0, 1);
+        assertEquals(1, left.get(0));
+        assertEquals(0, matching.getRightMatches().get(1));
+        assertTrue(left.isReadOnly());
+
+        matching.removeLeft(0);
+        assertEquals(-1, left.get(0));
+        assertFalse(matching.hasEdge(0, 1));
+    }
+
+    private static void assertMaximum(DynamicBipartiteMatching matching, Set<Long> edges) {
+        int nLeft = matching.getLeftCount();
+        int nRight = matching.getRightCount();
+        CsrGraph.Builder builder = CsrGraph.builder(nLeft, nRight);
+        for (long e : edges) {
+            builder.addEdge((int) (e >>> 32), (int) e);
+        }
+        assertEquals(new HopcroftKarp(nLeft, nRight, builder.build()).maxMatching(), matching.size());
+
+        int matched = 0;
+        for (int u = 0; u < nLeft; u++) {
+            int v = matching.leftMatch(u);
+            if (v != -1) {
+                matched++;
+                assertTrue(edges.contains(key(u, v)));
+                assertEquals(u, matching.rightMatch(v));
+            }
+        }
+        assertEquals(matching.size(), matched);
+    }
+
+    private static long key(int u, int v) {
+        return ((long) u << 32) | v;
+    }
+}
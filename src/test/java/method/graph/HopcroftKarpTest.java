@@ -0,0 +1,102 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HopcroftKarpTest {
+
+    @Test
+    void backendsAgreeWithAugmentingPathReference() {
+        Random random = new Random(1);
+        for (int round = 0; round < 200; round++) {
+            int nLeft = 1 + random.nextInt(40);
+            int nRight = 1 + random.nextInt(40);
+            int degree = 1 + random.nextInt(round % 2 == 0 ? 3 : 12);
+            CsrGraph.Builder builder = CsrGraph.builder(nLeft, nRight);
+            for (int u = 0; u < nLeft; u++) {
+                for (int k = random.nextInt(degree + 1); k > 0; k--) {
+                    builder.addEdge(u, random.nextInt(nRight));
+                }
+            }
+            CsrGraph graph = builder.build();
+            int expected = kuhn(graph, nLeft, nRight);
+
+            for (HopcroftKarp.Algorithm algorithm : HopcroftKarp.Algorithm.values()) {
+                HopcroftKarp matching = new HopcroftKarp(nLeft, nRight, graph);
+                assertEquals(expected, matching.maxMatching(algorithm), algorithm.name());
+                assertValid(graph, matching, expected);
+                assertEquals(expected, matching.maxMatching(algorithm), "repeated call keeps the size");
+            }
+        }
+    }
+
+    @Test
+    void longAugmentingPathDoesNotOverflowTheStack() {
+        int n = 300_000;
+        CsrGraph.Builder builder = CsrGraph.builder(n, n);
+        int[] warm = new int[n];
+        for (int u = 0; u < n; u++) {
+            builder.addEdge(u, u);
+            if (u + 1 < n) {
+                builder.addEdge(u, u + 1);
+            }
+            warm[u] = u + 1 < n ? u + 1 : -1;
+        }
+        CsrGraph graph = builder.build();
+        // the only augmenting path runs through every vertex
+        for (HopcroftKarp.Algorithm algorithm : HopcroftKarp.Algorithm.values()) {
+            HopcroftKarp matching = new HopcroftKarp(n, n, graph, warm);
+            assertEquals(n, matching.maxMatching(algorithm), algorithm.name());
+            assertValid(graph, matching, n);
+        }
+    }
+
+    private static void assertValid(CsrGraph graph, HopcroftKarp matching, int size) {
+        int[] left = matching.getLeftMatches();
+        int matched = 0;
+        for (int u = 0; u < left.length; u++) {
+            if (left[u] != -1) {
+                matched++;
+                assertEquals(u, matching.rightMatch(left[u]));
+                boolean edge = false;
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    edge |= graph.target(e) == left[u];
+                }
+                assertTrue(edge);
+            }
+        }
+        assertEquals(size, matched);
+    }
+
+    /** Textbook O(VE) augmenting path matching. */
+    private static int kuhn(CsrGraph graph, int nLeft, int nRight) {
+        int[] pairV = new int[nRight];
+        Arrays.fill(pairV, -1);
+        int size = 0;
+        for (int u = 0; u < nLeft; u++) {
+            if (tryKuhn(graph, u, new boolean[nLeft], pairV)) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static boolean tryKuhn(CsrGraph graph, int u, boolean[] seen, int[] pairV) {
+        if (seen[u]) {
+            return false;
+        }
+        seen[u] = true;
+        for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+            int v = graph.target(e);
+            if (pairV[v] == -1 || tryKuhn(graph, pairV[v], seen, pairV)) {
+                pairV[v] = u;
+                return true;
+            }
+        }
+        return false;
+    }
+}
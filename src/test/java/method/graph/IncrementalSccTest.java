@@ -0,0 +1,127 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IncrementalSccTest {
+
+    @Test
+    void mergesComponentsAsCyclesClose() {
+        IncrementalScc scc = new IncrementalScc(5);
+        scc.addEdge(0, 1);
+        scc.addEdge(1, 2);
+        scc.addEdge(3, 4);
+        assertEquals(5, scc.componentCount());
+        scc.addEdge(2, 0);
+        assertTrue(scc.sameComponent(0, 2));
+        assertFalse(scc.sameComponent(2, 3));
+        assertEquals(3, scc.componentCount());
+        assertEquals(3, scc.componentSize(1));
+        scc.addEdge(4, 1);
+        assertTrue(scc.precedes(3, 0));
+        scc.addEdge(0, 3);
+        assertEquals(1, scc.componentCount());
+        scc.addEdge(2, 2);
+        assertEquals(7, scc.getNumEdges());
+        assertThrows(IndexOutOfBoundsException.class, () -> scc.addEdge(0, 5));
+    }
+
+    @Test
+    void matchesStaticDecompositionAfterEveryInsertion() {
+        Random random = new Random(22);
+        for (int round = 0; round < 40; round++) {
+            int n = 1 + random.nextInt(60);
+            IncrementalScc scc = new IncrementalScc(n);
+            CsrGraph.Builder builder = CsrGraph.builder(n);
+            int edges = random.nextInt(3 * n);
+            for (int i = 0; i < edges; i++) {
+                int u = random.nextInt(n);
+                // mostly forward edges, so components grow gradually instead of all at once
+                int v = random.nextInt(4) == 0 ? random.nextInt(n) : Math.min(n - 1, u + random.nextInt(5));
+                scc.addEdge(u, v);
+                builder.addEdge(u, v);
+                assertConsistent(scc, builder.build());
+            }
+        }
+    }
+
+    @Test
+    void batchesMatchSingleInsertions() {
+        Random random = new Random(22);
+        int n = 2000;
+        IncrementalScc single = new IncrementalScc(n);
+        IncrementalScc batched = new IncrementalScc(n);
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (int batch : new int[] {3000, 10, 200, 1, 50, 400}) {
+            int[] from = new int[batch];
+            int[] to = new int[batch];
+            for (int i = 0; i < batch; i++) {
+                from[i] = random.nextInt(n);
+                to[i] = random.nextInt(4) == 0 ? random.nextInt(n) : (from[i] + 1 + random.nextInt(50)) % n;
+                single.addEdge(from[i], to[i]);
+                builder.addEdge(from[i], to[i]);
+            }
+            batched.addEdges(from, to);
+            CsrGraph graph = builder.build();
+            assertConsistent(single, graph);
+            assertConsistent(batched, graph);
+        }
+        IncrementalScc fromGraph = IncrementalScc.of(builder.build());
+        assertEquals(single.componentCount(), fromGraph.componentCount());
+        assertEquals(single.getNumEdges(), fromGraph.getNumEdges());
+    }
+
+    @Test
+    void streamedQueriesTrackTheGiantComponent() {
+        int n = 10_000;
+        int edges = 30_000;
+        Random random = new Random(22);
+        IncrementalScc scc = new IncrementalScc(n);
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        int merges = 0;
+        for (int i = 0; i < edges; i++) {
+            int from = random.nextInt(n);
+            int to = random.nextInt(8) == 0 ? random.nextInt(n) : Math.min(n - 1, from + 1 + random.nextInt(20));
+            int before = scc.componentCount();
+            scc.addEdge(from, to);
+            builder.addEdge(from, to);
+            // query after every insertion, as a caller keeping membership current would
+            merges += before - scc.componentCount();
+            if (i % 1000 == 999) {
+                assertConsistent(scc, builder.build());
+            }
+        }
+        assertEquals(n - scc.componentCount(), merges);
+    }
+
+    private static void assertConsistent(IncrementalScc scc, CsrGraph graph) {
+        StronglyConnectedComponents expected = StronglyConnectedComponents.of(graph);
+        int n = graph.getNumNodes();
+        assertEquals(expected.getComponentCount(), scc.componentCount());
+        int[] componentOf = scc.getComponentOf();
+        for (int u = 0; u < n; u++) {
+            assertEquals(expected.componentOf(u) == expected.componentOf(0), scc.sameComponent(u, 0));
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                int v = graph.target(e);
+                assertEquals(expected.componentOf(u) == expected.componentOf(v), scc.sameComponent(u, v));
+                if (!scc.sameComponent(u, v)) {
+                    assertTrue(scc.precedes(u, v), "order violated by " + u + " -> " + v);
+                    assertTrue(componentOf[u] < componentOf[v]);
+                }
+            }
+        }
+        int[] sizes = new int[scc.componentCount()];
+        for (int v = 0; v < n; v++) {
+            sizes[componentOf[v]]++;
+        }
+        for (int v = 0; v < n; v++) {
+            assertEquals(sizes[componentOf[v]], scc.componentSize(v));
+            assertEquals(expected.componentSize(expected.componentOf(v)), scc.componentSize(v));
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MinCostAssignmentTest {
+
+    private static final int F = MinCostAssignment.FORBIDDEN;
+
+    @Test
+    void hungarianMatchesBruteForce() {
+        Random random = new Random(3);
+        for (int round = 0; round < 300; round++) {
+            int nLeft = random.nextInt(7);
+            int nRight = random.nextInt(7);
+            int[][] cost = new int[nLeft][nRight];
+            for (int[] row : cost) {
+                for (int v = 0; v < nRight; v++) {
+                    row[v] = random.nextInt(5) == 0 ? F : random.nextInt(41) - 20;
+                }
+            }
+            int[] leftMatches = MinCostAssignment.hungarian(cost);
+            long[] best = bruteForce(cost);
+            assertValid(cost, leftMatches);
+            assertEquals(best[0], Arrays.stream(leftMatches).filter(v -> v != -1).count());
+            assertEquals(best[1], MinCostAssignment.totalCost(cost, leftMatches));
+        }
+    }
+
+    @Test
+    void hungarianSolvesSmallExample() {
+        int[][] cost = {
+                {4, 1, 3},
+                {2, 0, 5},
+                {3, 2, 2}
+        };
+        assertArrayEquals(new int[] {1, 0, 2}, MinCostAssignment.hungarian(cost));
+        // the forbidden pair forces worker 0 onto its most expensive job
+        int[][] forbidden = {
+                {9, F},
+                {F, 1}
+        };
+        assertArrayEquals(new int[] {0, 1}, MinCostAssignment.hungarian(forbidden));
+        assertArrayEquals(new int[] {-1, 1}, MinCostAssignment.hungarian(new int[][] {{F, F}, {F, 1}}));
+    }
+
+    @Test
+    void auctionMatchesHungarian() {
+        Random random = new Random(5);
+        for (int round = 0; round < 200; round++) {
+            int nLeft = 1 + random.nextInt(30);
+            int nRight = nLeft + random.nextInt(round % 2 == 0 ? 1 : 10);
+            int range = round % 3 == 0 ? 3 : 1000;
+            int[][] cost = new int[nLeft][nRight];
+            CsrGraph.Builder builder = CsrGraph.builder(nLeft, nRight);
+            for (int u = 0; u < nLeft; u++) {
+                Arrays.fill(cost[u], F);
+                // a feasible diagonal plus random extra pairs
+                int c = random.nextInt(range);
+                cost[u][u] = c;
+                builder.addEdge(u, u, c, 0);
+                for (int k = random.nextInt(4); k > 0; k--) {
+                    int v = random.nextInt(nRight);
+                    c = random.nextInt(range) - range / 2;
+                    if (c < cost[u][v]) {
+                        cost[u][v] = c;
+                    }
+                    builder.addEdge(u, v, c, 0);
+                }
+            }
+            CsrGraph graph = builder.build();
+            long expected = MinCostAssignment.totalCost(cost, MinCostAssignment.hungarian(cost));
+
+            int[] sequential = MinCostAssignment.auction(nLeft, nRight, graph, 1);
+            assertValid(cost, sequential);
+            assertEquals(expected, MinCostAssignment.totalCost(cost, sequential));
+            assertArrayEquals(sequential, MinCostAssignment.auction(nLeft, nRight, graph, 4));
+        }
+    }
+
+    @Test
+    void auctionBidsInParallelOnLargeInstances() {
+        int n = 2500;
+        Random random = new Random(7);
+        int[][] cost = new int[n][n];
+        CsrGraph.Builder builder = CsrGraph.builder(n, n);
+        for (int u = 0; u < n; u++) {
+            Arrays.fill(cost[u], F);
+            for (int k = 0; k < 8; k++) {
+                int v = k == 0 ? u : random.nextInt(n);
+                int c = random.nextInt(10_000);
+                cost[u][v] = Math.min(cost[u][v], c);
+                builder.addEdge(u, v, c, 0);
+            }
+        }
+        CsrGraph graph = builder.build();
+        int[] parallel = MinCostAssignment.auction(n, n, graph, 4);
+        assertValid(cost, parallel);
+        assertArrayEquals(MinCostAssignment.auction(n, n, graph, 1), parallel);
+    }
+
+    @Test
+    void auctionRejectsInfeasibleInstances() {
+        CsrGraph graph = CsrGraph.builder(2, 2)
+                .addEdge(0, 0, 1, 0)
+                .addEdge(1, 0, 1, 0)
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> MinCostAssignment.auction(2, 2, graph));
+        CsrGraph unweighted = CsrGraph.builder(1, 1).addEdge(0, 0).build();
+        assertThrows(IllegalArgumentException.class, () -> MinCostAssignment.auction(1, 1, unweighted));
+    }
+
+    private static void assertValid(int[][] cost, int[] leftMatches) {
+        assertEquals(cost.length, leftMatches.length);
+        boolean[] taken = new boolean[cost.length == 0 ? 0 : cost[0].length];
+        for (int u = 0; u < leftMatches.length; u++) {
+            int v = leftMatches[u];
+            if (v != -1) {
+                assertNotEquals(F, cost[u][v]);
+                assertEquals(false, taken[v]);
+                taken[v] = true;
+            }
+        }
+    }
+
+    /** {max cardinality, min cost at that cardinality} by trying every assignment. */
+    private static long[] bruteForce(int[][] cost) {
+        long[] best = {-1, 0};
+        int nRight = cost.length == 0 ? 0 : cost[0].length;
+        search(cost, 0, new boolean[nRight], 0, 0, best);
+        return best;
+    }
+
+    private static void search(int[][] cost, int u, boolean[] taken, long pairs, long total, long[] best) {
+        if (u == cost.length) {
+            if (pairs > best[0] || (pairs == best[0] && total < best[1])) {
+                best[0] = pairs;
+                best[1] = total;
+            }
+            return;
+        }
+        search(cost, u + 1, taken, pairs, total, best);
+        for (int v = 0; v < taken.length; v++) {
+            if (!taken[v] && cost[u][v] != F) {
+                taken[v] = true;
+                search(cost, u + 1, taken, pairs + 1, total + cost[u][v], best);
+                taken[v] = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+class PredecessorConstrainedDfsTest {
+
+    @Test
+    void compiledTraversalMatchesRecursiveReference() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            int n = 1 + random.nextInt(25);
+            boolean dag = round % 2 == 0;
+            Map<String, List<String>> successors = new HashMap<>();
+            for (int u = 0; u < n; u++) {
+                List<String> children = new ArrayList<>();
+                for (int k = random.nextInt(4); k > 0; k--) {
+                    int v = dag ? u + 1 + random.nextInt(n) : random.nextInt(n);
+                    children.add("n" + v); // may name a node without its own entry
+                }
+                if (u == 0 || random.nextInt(5) > 0) {
+                    successors.put("n" + u, children);
+                }
+            }
+            PredecessorConstrainedDfs.Compiled<String> compiled = PredecessorConstrainedDfs.compile(successors);
+            for (int start = 0; start <= n; start++) {
+                assertEquals(PredecessorConstrainedDfs.dfsRecursiveOrder(successors, "n" + start),
+                        compiled.dfsOrder("n" + start));
+            }
+        }
+    }
+
+    @Test
+    void explicitPredecessorsAreHonoured() {
+        Map<String, List<String>> successors = Map.of(
+                "a", List.of("b", "c"),
+                "b", List.of("c"));
+        // "c" also waits for "x", which the traversal never reaches
+        Map<String, List<String>> predecessors = Map.of(
+                "b", List.of("a"),
+                "c", List.of("a", "b", "x"));
+        List<PredecessorConstrainedDfs.TraversalEvent<String>> events =
+                PredecessorConstrainedDfs.compile(successors, predecessors).dfsOrder("a");
+        assertEquals(PredecessorConstrainedDfs.dfsRecursiveOrder(successors, predecessors, "a"), events);
+        assertEquals(4, events.size());
+        assertTrue(events.get(3).isSkip());
+        assertEquals(List.of(), PredecessorConstrainedDfs.compile(successors, predecessors).dfsOrder("x"));
+    }
+
+    @Test
+    void streamingFormsMatchTheEventList() {
+        Random random = new Random(13);
+        int n = 200;
+        Map<Integer, List<Integer>> successors = new HashMap<>();
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (int u = 0; u < n; u++) {
+            List<Integer> children = new ArrayList<>();
+            for (int k = 0; k < 3; k++) {
+                int v = random.nextInt(n);
+                children.add(v);
+                builder.addEdge(u, v);
+            }
+            successors.put(u, children);
+        }
+        CsrGraph graph = builder.build();
+        List<PredecessorConstrainedDfs.TraversalEvent<Integer>> expected =
+                PredecessorConstrainedDfs.dfsRecursiveOrder(successors, 0);
+
+        assertEquals(expected, PredecessorConstrainedDfs.stream(graph, 0).collect(Collectors.toList()));
+        List<PredecessorConstrainedDfs.TraversalEvent<Integer>> pushed = new ArrayList<>();
+        assertTrue(PredecessorConstrainedDfs.traverse(graph, 0, new PredecessorConstrainedDfs.IntVisitor() {
+            @Override
+            public boolean visit(int node, int order) {
+                pushed.add(PredecessorConstrainedDfs.TraversalEvent.visit(node, order));
+                return true;
+            }
+
+            @Override
+            public boolean skip(int node) {
+                pushed.add(PredecessorConstrainedDfs.TraversalEvent.skip(node, PredecessorConstrainedDfs.skipNote(node)));
+                return true;
+            }
+        }));
+        assertEquals(expected, pushed);
+    }
+
+    @Test
+    void visitorsAndStreamsStopEarly() {
+        Map<String, List<String>> successors = Map.of(
+                "a", List.of("b", "c", "d"),
+                "c", List.of("b"));
+        PredecessorConstrainedDfs.Compiled<String> compiled = PredecessorConstrainedDfs.compile(successors);
+        List<String> visited = new ArrayList<>();
+        boolean completed = compiled.traverse("a", (node, order) -> {
+            visited.add(node);
+            return order < 1;
+        });
+        assertFalse(completed);
+        assertEquals(List.of("a", "c"), visited);
+
+        PredecessorConstrainedDfs.TraversalEvent<String> skip =
+                compiled.stream("a").filter(PredecessorConstrainedDfs.TraversalEvent::isSkip).findFirst().orElseThrow();
+        assertEquals("b", skip.node());
+        assertEquals(-1, skip.orderAsInt());
+        assertEquals(PredecessorConstrainedDfs.skipNote("b"), skip.note());
+
+        Iterator<PredecessorConstrainedDfs.TraversalEvent<String>> iterator = compiled.iterator("a");
+        assertEquals(0, iterator.next().orderAsInt());
+        assertTrue(iterator.next().isSkip());
+    }
+
+    @Test
+    void deepChainsDoNotOverflowTheStack() {
+        int n = 1_000_000;
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (int u = 0; u + 1 < n; u++) {
+            builder.addEdge(u, u + 1);
+        }
+        List<PredecessorConstrainedDfs.TraversalEvent<Integer>> events =
+                PredecessorConstrainedDfs.dfsRecursiveOrder(builder.build(), 0);
+        assertEquals(n, events.size());
+        assertEquals(n - 1, events.get(n - 1).order());
+    }
+}
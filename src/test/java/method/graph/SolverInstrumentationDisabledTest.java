@@ -0,0 +1,71 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Runs in the build's {@code instrumentation-off} execution, which repeats the tests of this
+ * package with {@code -Dmethod.graph.instrumentation=false}.
+ */
+class SolverInstrumentationDisabledTest {
+
+    private final List<SolverMeasurement> measurements = new ArrayList<>();
+    private final SolverMetrics listener = measurement -> {
+        synchronized (measurements) {
+            measurements.add(measurement);
+        }
+    };
+
+    @BeforeEach
+    void register() {
+        assumeFalse(SolverInstrumentation.ENABLED, "instrumentation is enabled");
+        SolverInstrumentation.addListener(listener);
+    }
+
+    @AfterEach
+    void unregister() {
+        SolverInstrumentation.removeListener(listener);
+    }
+
+    @Test
+    void solversRunWithoutReporting() {
+        assertNull(SolverInstrumentation.start("TravelingSalesman.heldKarp"));
+
+        CsrGraph cycle = CsrGraph.builder(3).addEdge(0, 1).addEdge(1, 2).addEdge(2, 0).build();
+        assertEquals(1, StronglyConnectedComponents.of(cycle).getComponentCount());
+
+        int[][] square = {{0, 1, 2, 3}, {1, 0, 4, 5}, {2, 4, 0, 6}, {3, 5, 6, 0}};
+        int optimum = TravelingSalesman.heldKarp(square, 1).distance();
+        assertEquals(optimum, TravelingSalesman.bruteForce(square));
+        assertEquals(optimum, TravelingSalesman.branchAndBound(square, 1).distance());
+        assertEquals(optimum, TravelingSalesman.heuristic(square, Duration.ofMillis(5)).distance());
+
+        assertArrayEquals(new int[] {1, 0}, MinCostAssignment.hungarian(new int[][] {{4, 1}, {2, 3}}));
+        CsrGraph costs = CsrGraph.builder(2, 2).addEdge(0, 0, 4, 0).addEdge(0, 1, 1, 0).addEdge(1, 0, 2, 0).build();
+        assertArrayEquals(new int[] {1, 0}, MinCostAssignment.auction(2, 2, costs, 1));
+
+        DynamicBipartiteMatching dynamic = new DynamicBipartiteMatching(2, 2);
+        dynamic.addEdge(0, 0);
+        dynamic.addEdge(1, 0);
+        dynamic.addEdge(0, 1);
+        assertEquals(2, dynamic.size());
+
+        IncrementalScc incremental = new IncrementalScc(4);
+        incremental.addEdges(new int[] {0, 1, 2}, new int[] {1, 2, 0});
+        assertEquals(2, incremental.componentCount());
+
+        synchronized (measurements) {
+            assertTrue(measurements.isEmpty(), measurements::toString);
+        }
+    }
+}
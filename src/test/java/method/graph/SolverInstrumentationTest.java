@@ -0,0 +1,171 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Runs with {@code -Dmethod.graph.instrumentation=true}, which the build sets for tests; see
+ * {@link SolverInstrumentationDisabledTest} for the other setting.
+ */
+class SolverInstrumentationTest {
+
+    private final List<SolverMeasurement> measurements = new ArrayList<>();
+    private final SolverMetrics listener = measurement -> {
+        synchronized (measurements) {
+            measurements.add(measurement);
+        }
+    };
+
+    @BeforeEach
+    void register() {
+        assumeTrue(SolverInstrumentation.ENABLED, "instrumentation is disabled");
+        SolverInstrumentation.addListener(listener);
+    }
+
+    @AfterEach
+    void unregister() {
+        SolverInstrumentation.removeListener(listener);
+    }
+
+    @Test
+    void reportsCountersOfEverySolver() {
+        // two 3-cycles joined by an edge, plus an isolated node: 3 components, DFS 6 deep
+        CsrGraph graph = CsrGraph.builder(7)
+                .addEdge(0, 1).addEdge(1, 2).addEdge(2, 0).addEdge(2, 3)
+                .addEdge(3, 4).addEdge(4, 5).addEdge(5, 3)
+                .build();
+        StronglyConnectedComponents.of(graph);
+        SolverMeasurement scc = last("StronglyConnectedComponents.of");
+        assertEquals(3, scc.get(SolverCounter.COMPONENTS));
+        assertEquals(6, scc.get(SolverCounter.RECURSION_DEPTH));
+        assertTrue(scc.wallNanos() > 0);
+
+        CsrGraph bipartite = CsrGraph.builder(3, 3)
+                .addEdge(0, 0).addEdge(0, 1).addEdge(1, 0).addEdge(2, 1).addEdge(2, 2)
+                .build();
+        assertEquals(3, new HopcroftKarp(3, 3, bipartite).maxMatching(HopcroftKarp.Algorithm.HOPCROFT_KARP));
+        SolverMeasurement matching = last("HopcroftKarp.maxMatching");
+        // the greedy pass may leave nothing for the phases to do
+        long paths = matching.get(SolverCounter.AUGMENTING_PATHS);
+        assertTrue(paths <= 3 && (paths == 0 || matching.get(SolverCounter.BFS_PHASES) >= 1));
+
+        ConstrainedShortestPath.Graph roads = new ConstrainedShortestPath.Graph(3);
+        roads.addEdge(0, 1, 1, 2);
+        roads.addEdge(1, 2, 1, 2);
+        roads.addEdge(0, 2, 5, 1);
+        assertEquals(5, new ConstrainedShortestPath(roads, 3).solve(0, 2));
+        SolverMeasurement dp = last("ConstrainedShortestPath.solve");
+        // reachable cells: (r=0, 0), (r=1, 2), (r=2, 1)
+        assertEquals(3, dp.get(SolverCounter.DP_CELLS));
+        assertEquals(2, dp.get(SolverCounter.EDGES_RELAXED));
+
+        new ConstrainedShortestPath(roads, 3).findPath(0, 2);
+        assertTrue(last("ParetoLabelSetting.shortestPath").get(SolverCounter.DP_CELLS) >= 2);
+
+        PredecessorConstrainedDfs.compile(Map.of(1, List.of(2, 3), 2, List.of(3))).dfsOrder(1);
+        SolverMeasurement dfs = last("PredecessorConstrainedDfs");
+        assertEquals(3, dfs.get(SolverCounter.DFS_EVENTS));
+        assertEquals(3, dfs.get(SolverCounter.RECURSION_DEPTH));
+
+        TravelingSalesman.heldKarp(new int[][] {{0, 1, 2, 3}, {1, 0, 4, 5}, {2, 4, 0, 6}, {3, 5, 6, 0}}, 1);
+        SolverMeasurement tsp = last("TravelingSalesman.heldKarp");
+        assertEquals(3 * 4, tsp.get(SolverCounter.DP_CELLS));
+        assertEquals(3 * 2 * 2, tsp.get(SolverCounter.EDGES_RELAXED));
+    }
+
+    @Test
+    void reportsCountersOfTheSearchAndAssignmentSolvers() {
+        int[][] square = {{0, 1, 2, 3}, {1, 0, 4, 5}, {2, 4, 0, 6}, {3, 5, 6, 0}};
+        TravelingSalesman.bruteForce(square);
+        SolverMeasurement brute = last("TravelingSalesman.bruteForce");
+        // routes from city 0: 1 + 3 + 3·2 + 3·2·1
+        assertEquals(16, brute.get(SolverCounter.SEARCH_NODES));
+        assertEquals(3, brute.get(SolverCounter.RECURSION_DEPTH));
+
+        TravelingSalesman.branchAndBound(square, 1);
+        assertEquals(3, last("TravelingSalesman.branchAndBound").get(SolverCounter.RECURSION_DEPTH));
+
+        int[][] ring = new int[12][12];
+        for (int i = 0; i < 12; i++) {
+            for (int j = 0; j < 12; j++) {
+                ring[i][j] = Math.min(Math.abs(i - j), 12 - Math.abs(i - j));
+            }
+        }
+        TravelingSalesman.heuristic(12, (from, to) -> ring[from][to], TravelingSalesman.InitialTour.NEAREST_NEIGHBOUR,
+                Duration.ofMillis(100), 1);
+        // construction takes half the budget at most, kicks go on for the rest
+        assertTrue(last("TravelingSalesman.heuristic").get(SolverCounter.MOVES) > 0);
+
+        MinCostAssignment.hungarian(new int[][] {{4, 1}, {2, 3}});
+        SolverMeasurement hungarian = last("MinCostAssignment.hungarian");
+        assertEquals(2, hungarian.get(SolverCounter.AUGMENTING_PATHS));
+        assertTrue(hungarian.get(SolverCounter.EDGES_RELAXED) >= 2 * 2);
+
+        CsrGraph costs = CsrGraph.builder(2, 2).addEdge(0, 0, 4, 0).addEdge(0, 1, 1, 0).addEdge(1, 0, 2, 0).build();
+        MinCostAssignment.auction(2, 2, costs, 1);
+        SolverMeasurement auction = last("MinCostAssignment.auction");
+        assertTrue(auction.get(SolverCounter.MOVES) >= 2);
+        assertTrue(auction.get(SolverCounter.EDGES_RELAXED) >= auction.get(SolverCounter.MOVES));
+
+        DynamicBipartiteMatching dynamic = new DynamicBipartiteMatching(2, 2);
+        dynamic.addEdge(0, 0);
+        dynamic.addEdge(1, 0);
+        // right 1 -> left 0, whose partner right 0 reaches the free left 1
+        dynamic.addEdge(0, 1);
+        SolverMeasurement augment = last("DynamicBipartiteMatching.augment");
+        assertEquals(2, dynamic.size());
+        assertEquals(1, augment.get(SolverCounter.BFS_PHASES));
+        assertEquals(1, augment.get(SolverCounter.AUGMENTING_PATHS));
+        assertEquals(3, augment.get(SolverCounter.EDGES_RELAXED));
+
+        IncrementalScc incremental = new IncrementalScc(4);
+        incremental.addEdges(new int[] {0, 1, 2}, new int[] {1, 2, 0});
+        assertEquals(2, incremental.componentCount());
+        assertEquals(2, last("IncrementalScc.settle").get(SolverCounter.COMPONENTS));
+    }
+
+    @Test
+    void emitsJfrEvents(@TempDir Path dir) throws Exception {
+        CsrGraph cycle = CsrGraph.builder(3).addEdge(0, 1).addEdge(1, 2).addEdge(2, 0).build();
+        Path file = dir.resolve("solver.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("method.graph.Solver");
+            recording.start();
+            StronglyConnectedComponents.of(cycle);
+            recording.stop();
+            recording.dump(file);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file).stream()
+                .filter(event -> event.getEventType().getName().equals("method.graph.Solver"))
+                .filter(event -> "StronglyConnectedComponents.of".equals(event.getString("solver")))
+                .toList();
+        assertEquals(1, events.size());
+        assertEquals(1, events.get(0).getLong("components"));
+        assertEquals(3, events.get(0).getLong("recursionDepth"));
+    }
+
+    private SolverMeasurement last(String solver) {
+        synchronized (measurements) {
+            for (int i = measurements.size() - 1; i >= 0; i--) {
+                if (measurements.get(i).solver().equals(solver)) {
+                    return measurements.get(i);
+                }
+            }
+        }
+        throw new AssertionError("no measurement of " + solver);
+    }
+}
@@ -0,0 +1,141 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.Stack;
+import org.junit.jupiter.api.Test;
+
+class StronglyConnectedComponentsTest {
+
+    @Test
+    void matchesRecursiveKosarajuPartition() {
+        Random random = new Random(7);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(40);
+            CsrGraph.Builder builder = CsrGraph.builder(n);
+            int edges = random.nextInt(3 * n);
+            for (int i = 0; i < edges; i++) {
+                builder.addEdge(random.nextInt(n), random.nextInt(n));
+            }
+            CsrGraph graph = builder.build();
+            StronglyConnectedComponents scc = StronglyConnectedComponents.of(graph);
+            int[] expected = kosaraju(graph);
+
+            for (int u = 0; u < n; u++) {
+                for (int v = 0; v < n; v++) {
+                    assertEquals(expected[u] == expected[v], scc.componentOf(u) == scc.componentOf(v));
+                }
+            }
+            assertEquals(Arrays.stream(expected).max().orElse(-1) + 1, scc.getComponentCount());
+            assertEquals(n, Arrays.stream(scc.getComponentSizes()).sum());
+
+            CsrGraph dag = scc.getCondensation();
+            assertEquals(scc.getComponentCount(), dag.getNumNodes());
+            for (int c = 0; c < dag.getNumNodes(); c++) {
+                for (int e = dag.firstEdge(c); e < dag.endEdge(c); e++) {
+                    assertTrue(c < dag.target(e), "condensation must be topologically numbered");
+                }
+            }
+        }
+    }
+
+    @Test
+    void longChainDoesNotOverflowTheStack() {
+        int n = 500_000;
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (int i = 0; i + 1 < n; i++) {
+            builder.addEdge(i, i + 1);
+        }
+        builder.addEdge(n - 1, n / 2);
+        StronglyConnectedComponents scc = StronglyConnectedComponents.of(builder.build());
+
+        assertEquals(n / 2 + 1, scc.getComponentCount());
+        assertEquals(n - n / 2, scc.componentSize(scc.componentOf(n - 1)));
+        assertEquals(n / 2, scc.getCondensation().getNumEdges());
+    }
+
+    @Test
+    void parallelDecompositionMatchesSequentialPartition() {
+        Random random = new Random(11);
+        int n = 200_000;
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        // a few large cycles stitched together with random edges, plus trimmable tails
+        for (int i = 0; i < n; i++) {
+            if (i % 50_000 != 49_999) {
+                builder.addEdge(i, i + 1);
+            } else {
+                builder.addEdge(i, i - 49_999);
+            }
+        }
+        for (int i = 0; i < n / 2; i++) {
+            builder.addEdge(random.nextInt(n), random.nextInt(n));
+        }
+        CsrGraph graph = builder.build();
+
+        StronglyConnectedComponents sequential = StronglyConnectedComponents.of(graph);
+        StronglyConnectedComponents parallel = StronglyConnectedComponents.ofParallel(graph, 4);
+
+        assertEquals(sequential.getComponentCount(), parallel.getComponentCount());
+        int[] mapping = new int[sequential.getComponentCount()];
+        Arrays.fill(mapping, -1);
+        for (int v = 0; v < n; v++) {
+            int s = sequential.componentOf(v);
+            if (mapping[s] == -1) {
+                mapping[s] = parallel.componentOf(v);
+            }
+            assertEquals(mapping[s], parallel.componentOf(v));
+        }
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                assertTrue(parallel.componentOf(u) <= parallel.componentOf(graph.target(e)));
+            }
+        }
+    }
+
+    /** Reference partition from the original recursive btrack/btrack2 passes. */
+    private static int[] kosaraju(CsrGraph graph) {
+        int n = graph.getNumNodes();
+        HashMap<Integer, List<Integer>> adj = new HashMap<>();
+        HashMap<Integer, List<Integer>> rev = new HashMap<>();
+        for (int u = 0; u < n; u++) {
+            adj.put(u, new ArrayList<>());
+            rev.put(u, new ArrayList<>());
+        }
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                adj.get(u).add(graph.target(e));
+                rev.get(graph.target(e)).add(u);
+            }
+        }
+        StronglyConnectedComponentOptimized reference = new StronglyConnectedComponentOptimized();
+        int[] visited = new int[n];
+        Arrays.fill(visited, -1);
+        Stack<Integer> order = new Stack<>();
+        for (int u = 0; u < n; u++) {
+            if (visited[u] == -1) {
+                reference.btrack(adj, visited, order, u);
+            }
+        }
+        Arrays.fill(visited, -1);
+        int[] component = new int[n];
+        int count = 0;
+        while (!order.isEmpty()) {
+            int u = order.pop();
+            if (visited[u] == -1) {
+                List<Integer> members = new ArrayList<>();
+                reference.btrack2(rev, visited, u, members);
+                for (int member : members) {
+                    component[member] = count;
+                }
+                count++;
+            }
+        }
+        return component;
+    }
+}
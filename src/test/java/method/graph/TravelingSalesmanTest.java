@@ -0,0 +1,307 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntBinaryOperator;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+class TravelingSalesmanTest {
+
+    @Test
+    void heldKarpMatchesBruteForceAndReturnsItsTour() {
+        Random random = new Random(1);
+        for (int round = 0; round < 60; round++) {
+            int n = 1 + random.nextInt(8);
+            int[][] matrix = randomMatrix(random, n, round % 3 == 0 ? 200 : 30_000, 0.2);
+
+            int expected = TravelingSalesman.bruteForce(matrix);
+            TravelingSalesman.Tour tour = TravelingSalesman.heldKarp(matrix, 1);
+
+            assertEquals(expected, tour.distance());
+            assertEquals(expected, TravelingSalesman.dynamicProgramming(matrix));
+            if (tour.exists()) {
+                assertEquals(n, tour.order().length);
+                assertEquals(expected, TravelingSalesman.calculateDistance(matrix, asList(tour.order())));
+            }
+        }
+    }
+
+    @Test
+    void parallelLayersAgreeWithSequential() {
+        int[][] matrix = randomMatrix(new Random(2), 16, 1_000_000, 0.0);
+        TravelingSalesman.Tour sequential = TravelingSalesman.heldKarp(matrix, 1);
+        TravelingSalesman.Tour parallel = TravelingSalesman.heldKarp(matrix, 4);
+
+        assertEquals(sequential.distance(), parallel.distance());
+        assertEquals(parallel.distance(), TravelingSalesman.calculateDistance(matrix, asList(parallel.order())));
+    }
+
+    @Test
+    void missingTourIsNotReportedAsZero() {
+        int max = Integer.MAX_VALUE;
+        int[][] matrix = {
+            {0, 1, max},
+            {max, 0, 1},
+            {max, max, 0}
+        };
+        assertFalse(TravelingSalesman.heldKarp(matrix).exists());
+        assertEquals(Integer.MAX_VALUE, TravelingSalesman.dynamicProgramming(matrix));
+    }
+
+    @Test
+    void branchAndBoundMatchesHeldKarp() {
+        Random random = new Random(4);
+        for (int round = 0; round < 40; round++) {
+            int n = 1 + random.nextInt(13);
+            int[][] matrix = round % 2 == 0 ? randomMatrix(random, n, 1000, 0.1) : euclidean(random, n);
+
+            TravelingSalesman.Tour expected = TravelingSalesman.heldKarp(matrix, 1);
+            TravelingSalesman.Tour tour = TravelingSalesman.branchAndBound(matrix, 1 + round % 3);
+
+            assertEquals(expected.distance(), tour.distance());
+            if (tour.exists()) {
+                assertEquals(tour.distance(), TravelingSalesman.calculateDistance(matrix, asList(tour.order())));
+            }
+        }
+    }
+
+    @Test
+    void branchAndBoundMatchesHeldKarpOnTwentyCities() {
+        Random random = new Random(9);
+        for (int round = 0; round < 4; round++) {
+            int[][] matrix = round % 2 == 0 ? randomMatrix(random, 20, 1000, 0.0) : euclidean(random, 20);
+            TravelingSalesman.Tour tour = TravelingSalesman.branchAndBound(matrix, 1);
+
+            assertEquals(TravelingSalesman.heldKarp(matrix).distance(), tour.distance());
+            assertEquals(tour.distance(), TravelingSalesman.calculateDistance(matrix, asList(tour.order())));
+        }
+    }
+
+    @Test
+    void branchAndBoundSolvesThirtyCities() {
+        // beyond Held-Karp's memory; asymmetric matrices are the harder case for the bounds
+        int n = 30;
+        List<Integer> around = new ArrayList<>();
+        int[][][] instances = thirtyCityInstances(around);
+        int[][] asymmetric = instances[0];
+        int[][] planar = instances[1];
+        int[][] circle = instances[2];
+
+        TravelingSalesman.Tour first = TravelingSalesman.branchAndBound(asymmetric, 1);
+        TravelingSalesman.Tour second = TravelingSalesman.branchAndBound(planar, 1);
+        TravelingSalesman.Tour third = TravelingSalesman.branchAndBound(circle, 1);
+
+        assertEquals(TravelingSalesman.calculateDistance(circle, around), third.distance());
+        assertEquals(first.distance(), TravelingSalesman.branchAndBound(asymmetric, 4).distance());
+        assertEquals(second.distance(), TravelingSalesman.branchAndBound(planar, 4).distance());
+        assertEquals(first.distance(), TravelingSalesman.calculateDistance(asymmetric, asList(first.order())));
+        assertEquals(second.distance(), TravelingSalesman.calculateDistance(planar, asList(second.order())));
+        assertPermutation(n, first.order());
+        assertPermutation(n, second.order());
+    }
+
+    /** Wall-clock bound for the thirty-city instances; tagged {@code load}, run with {@code mvn test -Pload}. */
+    @Test
+    @Tag("load")
+    void branchAndBoundSolvesThirtyCitiesInSeconds() {
+        int[][][] instances = thirtyCityInstances(new ArrayList<>());
+
+        long start = System.nanoTime();
+        for (int[][] matrix : instances) {
+            assertTrue(TravelingSalesman.branchAndBound(matrix, 1).exists());
+        }
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(millis < 10_000, "took " + millis + " ms");
+    }
+
+    @Test
+    void heuristicStaysCloseToOptimumOnSmallInstances() {
+        Random random = new Random(5);
+        for (int round = 0; round < 10; round++) {
+            int n = 4 + random.nextInt(9);
+            int[][] matrix = euclidean(random, n);
+            int optimum = TravelingSalesman.heldKarp(matrix, 1).distance();
+
+            for (TravelingSalesman.InitialTour initial : TravelingSalesman.InitialTour.values()) {
+                TravelingSalesman.Tour tour = TravelingSalesman.heuristic(matrix.length,
+                        (from, to) -> matrix[from][to], initial, Duration.ofMillis(20));
+                assertPermutation(n, tour.order());
+                assertEquals(TravelingSalesman.calculateDistance(matrix, asList(tour.order())), tour.distance());
+                assertTrue(tour.distance() <= optimum * 105L / 100, tour.distance() + " vs " + optimum);
+
+                TravelingSalesman.Tour own = TravelingSalesman.heuristic(matrix.length,
+                        (from, to) -> matrix[from][to], initial, Duration.ofMillis(20), 1 + round % 3);
+                assertPermutation(n, own.order());
+                assertTrue(own.distance() <= optimum * 105L / 100, own.distance() + " vs " + optimum);
+            }
+        }
+    }
+
+    @Test
+    void heuristicImprovesLargeCallbackInstances() {
+        int n = 2000;
+        Random random = new Random(6);
+        double[] x = random.doubles(n).toArray();
+        double[] y = random.doubles(n).toArray();
+        IntBinaryOperator distance =
+                (a, b) -> (int) Math.round(1_000_000 * Math.hypot(x[a] - x[b], y[a] - y[b]));
+
+        TravelingSalesman.Tour initial = TravelingSalesman.heuristic(n, distance, Duration.ZERO);
+        TravelingSalesman.Tour improved = TravelingSalesman.heuristic(n, distance, Duration.ofMillis(300));
+
+        assertPermutation(n, improved.order());
+        assertTrue(improved.distance() <= initial.distance());
+        // random uniform instances: optimum is about 0.7124 * sqrt(n * area)
+        assertTrue(improved.distance() < 1.1 * 0.7124 * Math.sqrt(n) * 1_000_000);
+    }
+
+    @Test
+    void heuristicFinishesWhenNeighbourListsDoNotFit() {
+        int n = 50_000;
+        IntBinaryOperator distance = uniformPlane(n, new Random(8));
+
+        TravelingSalesman.Tour tour = TravelingSalesman.heuristic(n, distance, Duration.ofMillis(100));
+
+        assertPermutation(n, tour.order());
+        assertTrue(tour.exists());
+    }
+
+    /** Wall-clock bound on the budget; tagged {@code load}, run with {@code mvn test -Pload}. */
+    @Test
+    @Tag("load")
+    void heuristicKeepsToTheBudgetWhenNeighbourListsDoNotFit() {
+        // 2.5 billion distance calls for exact neighbour lists, far more than the budget
+        int n = 50_000;
+        IntBinaryOperator distance = uniformPlane(n, new Random(8));
+
+        long start = System.nanoTime();
+        TravelingSalesman.Tour tour = TravelingSalesman.heuristic(n, distance, Duration.ofMillis(100));
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(millis < 2000, "took " + millis + " ms");
+        assertTrue(tour.exists());
+    }
+
+    @Test
+    void heuristicSaturatesToursLongerThanAnInt() {
+        TravelingSalesman.Tour tour = TravelingSalesman.heuristic(4, (a, b) -> a == b ? 0 : 1_000_000_000,
+                Duration.ZERO);
+        assertPermutation(4, tour.order());
+        assertEquals(Integer.MAX_VALUE, tour.distance());
+    }
+
+    @Test
+    void heuristicAvoidsMissingEdges() {
+        int n = 60;
+        int max = Integer.MAX_VALUE;
+        // the only tour is a ring through a shuffled order of the cities
+        List<Integer> ring = new ArrayList<>(asList(IntStream.range(0, n).toArray()));
+        Collections.shuffle(ring, new Random(7));
+        int[][] matrix = new int[n][n];
+        for (int[] row : matrix) {
+            Arrays.fill(row, max);
+        }
+        for (int i = 0; i < n; i++) {
+            int a = ring.get(i);
+            int b = ring.get((i + 1) % n);
+            matrix[a][b] = 1 + i;
+            matrix[b][a] = 1 + i;
+        }
+        for (TravelingSalesman.InitialTour initial : TravelingSalesman.InitialTour.values()) {
+            TravelingSalesman.Tour tour = TravelingSalesman.heuristic(n, (a, b) -> matrix[a][b], initial,
+                    Duration.ofMillis(20));
+            assertTrue(tour.exists());
+            assertEquals(n * (n + 1) / 2, tour.distance());
+        }
+
+        matrix[ring.get(0)][ring.get(1)] = max;
+        matrix[ring.get(1)][ring.get(0)] = max;
+        TravelingSalesman.Tour none = TravelingSalesman.heuristic(matrix, Duration.ofMillis(20));
+        assertFalse(none.exists());
+        assertPermutation(n, none.order());
+    }
+
+    private static void assertPermutation(int n, int[] order) {
+        assertEquals(0, order[0]);
+        assertArrayEquals(IntStream.range(0, n).toArray(), IntStream.of(order).sorted().toArray());
+    }
+
+    /** Asymmetric, planar and circular instances of thirty cities; {@code around} receives the circle's optimal order. */
+    private static int[][][] thirtyCityInstances(List<Integer> around) {
+        int n = 30;
+        Random random = new Random(10);
+        int[][] asymmetric = randomMatrix(random, n, 1000, 0.0);
+        int[][] planar = euclidean(random, n);
+        // cities spread around a circle: the optimal tour follows it
+        around.addAll(asList(IntStream.range(0, n).toArray()));
+        Collections.shuffle(around, new Random(11));
+        double[] x = new double[n];
+        double[] y = new double[n];
+        for (int i = 0; i < n; i++) {
+            double angle = 2 * Math.PI * (i + 0.4 * random.nextDouble()) / n;
+            x[around.get(i)] = 100_000 * Math.cos(angle);
+            y[around.get(i)] = 100_000 * Math.sin(angle);
+        }
+        int[][] circle = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                circle[i][j] = (int) Math.round(Math.hypot(x[i] - x[j], y[i] - y[j]));
+            }
+        }
+        return new int[][][] {asymmetric, planar, circle};
+    }
+
+    /** Rounded distances between {@code n} uniform points of the unit square, scaled by a million. */
+    private static IntBinaryOperator uniformPlane(int n, Random random) {
+        double[] x = random.doubles(n).toArray();
+        double[] y = random.doubles(n).toArray();
+        return (a, b) -> (int) Math.round(1_000_000 * Math.hypot(x[a] - x[b], y[a] - y[b]));
+    }
+
+    private static int[][] euclidean(Random random, int n) {
+        int[] x = new int[n];
+        int[] y = new int[n];
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextInt(1000);
+            y[i] = random.nextInt(1000);
+        }
+        int[][] matrix = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix[i][j] = (int) Math.round(Math.hypot(x[i] - x[j], y[i] - y[j]));
+            }
+        }
+        return matrix;
+    }
+
+    private static int[][] randomMatrix(Random random, int n, int maxDistance, double missing) {
+        int[][] matrix = new int[n][n];
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                matrix[i][j] = i == j ? 0 : random.nextDouble() < missing ? Integer.MAX_VALUE : random.nextInt(maxDistance);
+            }
+        }
+        return matrix;
+    }
+
+    private static List<Integer> asList(int[] order) {
+        List<Integer> route = new ArrayList<>();
+        for (int city : order) {
+            route.add(city);
+        }
+        return route;
+    }
+}
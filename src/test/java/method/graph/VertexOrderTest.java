@@ -0,0 +1,177 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class VertexOrderTest {
+
+    @Test
+    void everyStrategyPermutesVerticesAndKeepsEdgeAttributes() {
+        Random random = new Random(17);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(40);
+            CsrGraph.Builder builder = CsrGraph.builder(n);
+            for (int i = random.nextInt(3 * n); i > 0; i--) {
+                builder.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(100), random.nextInt(10));
+            }
+            CsrGraph graph = builder.build();
+            for (VertexOrder.Strategy strategy : VertexOrder.Strategy.values()) {
+                VertexOrder order = VertexOrder.compute(graph, strategy);
+                int[] sorted = order.getNewIds();
+                Arrays.sort(sorted);
+                for (int v = 0; v < n; v++) {
+                    assertEquals(v, sorted[v]);
+                    assertEquals(v, order.originalId(order.newId(v)));
+                }
+                CsrGraph permuted = order.apply(graph);
+                for (int u = 0; u < n; u++) {
+                    int w = order.newId(u);
+                    assertEquals(graph.degree(u), permuted.degree(w));
+                    for (int k = 0; k < graph.degree(u); k++) {
+                        int e = graph.firstEdge(u) + k;
+                        int f = permuted.firstEdge(w) + k;
+                        assertEquals(order.newId(graph.target(e)), permuted.target(f));
+                        assertEquals(graph.weight(e), permuted.weight(f));
+                        assertEquals(graph.resource(e), permuted.resource(f));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void reverseCuthillMcKeeRecoversTheBandwidthOfAShuffledGrid() {
+        int side = 60;
+        int n = side * side;
+        int[] shuffled = shuffledIds(n, new Random(19));
+        CsrGraph.Builder builder = CsrGraph.builder(n);
+        for (int r = 0; r < side; r++) {
+            for (int c = 0; c < side; c++) {
+                int v = r * side + c;
+                if (c + 1 < side) {
+                    builder.addEdge(shuffled[v], shuffled[v + 1]);
+                }
+                if (r + 1 < side) {
+                    builder.addEdge(shuffled[v], shuffled[v + side]);
+                }
+            }
+        }
+        CsrGraph graph = builder.build();
+        assertTrue(bandwidth(graph) > n / 2);
+        CsrGraph reordered = VertexOrder.compute(graph, VertexOrder.Strategy.REVERSE_CUTHILL_MCKEE).apply(graph);
+        assertTrue(bandwidth(reordered) <= 2 * side, "bandwidth " + bandwidth(reordered));
+        CsrGraph bfs = VertexOrder.compute(graph, VertexOrder.Strategy.BFS).apply(graph);
+        assertTrue(bandwidth(bfs) <= 4 * side, "bandwidth " + bandwidth(bfs));
+    }
+
+    @Test
+    void reorderedAlgorithmsAnswerInOriginalIds() {
+        Random random = new Random(23);
+        for (int round = 0; round < 40; round++) {
+            int n = 2 + random.nextInt(40);
+            CsrGraph.Builder builder = CsrGraph.builder(n);
+            for (int i = 1 + random.nextInt(4 * n); i > 0; i--) {
+                builder.addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(20), 1 + random.nextInt(5));
+            }
+            CsrGraph graph = builder.build();
+            ReorderedGraph reordered = ReorderedGraph.of(graph, VertexOrder.Strategy.values()[round % 3]);
+
+            StronglyConnectedComponents expected = StronglyConnectedComponents.of(graph);
+            int[] componentOf = reordered.componentOf();
+            for (int u = 0; u < n; u++) {
+                for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                    int v = graph.target(e);
+                    assertEquals(expected.componentOf(u) == expected.componentOf(v), componentOf[u] == componentOf[v]);
+                    assertTrue(componentOf[u] <= componentOf[v]);
+                }
+            }
+            assertEquals(expected.getComponentCount(), Arrays.stream(componentOf).max().orElse(-1) + 1);
+
+            int start = random.nextInt(n);
+            int target = random.nextInt(n);
+            ConstrainedShortestPath.Path want = new ConstrainedShortestPath(graph, 12).findPath(start, target);
+            ConstrainedShortestPath.Path got = reordered.shortestPath(start, target, 12);
+            assertEquals(want.cost(), got.cost());
+            if (got.exists()) {
+                int[] nodes = got.nodes();
+                assertEquals(start, nodes[0]);
+                assertEquals(target, nodes[nodes.length - 1]);
+            }
+
+            int right = 1 + random.nextInt(40);
+            CsrGraph.Builder bipartite = CsrGraph.builder(n, right);
+            for (int i = random.nextInt(3 * n); i > 0; i--) {
+                bipartite.addEdge(random.nextInt(n), random.nextInt(right));
+            }
+            CsrGraph sides = bipartite.build();
+            int[] matches = ReorderedGraph.bipartite(sides, VertexOrder.Strategy.values()[round % 3]).maxMatching();
+            boolean[] taken = new boolean[right];
+            int size = 0;
+            for (int u = 0; u < n; u++) {
+                int v = matches[u];
+                if (v >= 0) {
+                    assertTrue(!taken[v] && neighbours(sides, u).contains(v));
+                    taken[v] = true;
+                    size++;
+                }
+            }
+            assertEquals(new HopcroftKarp(n, right, sides).maxMatching(), size);
+        }
+    }
+
+    @Test
+    void ordersSurviveAWriteAndRead(@TempDir Path dir) throws IOException {
+        VertexOrder order = VertexOrder.of(shuffledIds(1000, new Random(29)));
+        Path file = dir.resolve("graph.vord");
+        order.write(file);
+        assertArrayEquals(order.getNewIds(), VertexOrder.read(file).getNewIds());
+
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12});
+        assertThrows(IllegalArgumentException.class, () -> VertexOrder.read(file));
+        assertThrows(IllegalArgumentException.class, () -> VertexOrder.of(new int[]{0, 2, 2}));
+    }
+
+    private static int[] shuffledIds(int n, Random random) {
+        int[] ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = i;
+        }
+        for (int i = n - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = ids[i];
+            ids[i] = ids[j];
+            ids[j] = swap;
+        }
+        return ids;
+    }
+
+    private static int bandwidth(CsrGraph graph) {
+        int bandwidth = 0;
+        for (int u = 0; u < graph.getNumNodes(); u++) {
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                bandwidth = Math.max(bandwidth, Math.abs(u - graph.target(e)));
+            }
+        }
+        return bandwidth;
+    }
+
+    private static List<Integer> neighbours(CsrGraph graph, int u) {
+        List<Integer> list = new ArrayList<>();
+        for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+            list.add(graph.target(e));
+        }
+        return list;
+    }
+}
@@ -0,0 +1,144 @@
+package method.graph;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+class WorkloadGeneratorTest {
+
+    @Test
+    void instancesDoNotDependOnTheThreadCount() {
+        assertSameGraph(WorkloadGenerator.rmat(5000, 300_000, 4, 0.1, 7, 1),
+                WorkloadGenerator.rmat(5000, 300_000, 4, 0.1, 7, 4));
+        assertSameGraph(WorkloadGenerator.bipartite(3000, 2000, 200_000, 2, 7, 1),
+                WorkloadGenerator.bipartite(3000, 2000, 200_000, 2, 7, 3));
+        assertSameGraph(WorkloadGenerator.layeredDag(10, 5000, 3, 7, 1),
+                WorkloadGenerator.layeredDag(10, 5000, 3, 7, 4));
+        CsrGraph topology = WorkloadGenerator.rmat(2000, 20_000, 1, 0, 7, 2);
+        assertSameGraph(WorkloadGenerator.withResources(topology, 100, 10, 7, 1),
+                WorkloadGenerator.withResources(topology, 100, 10, 7, 4));
+        WorkloadGenerator.Cities cities = WorkloadGenerator.clusteredCities(300, 5, 10_000, 7);
+        assertArrayEquals(cities.toMatrix(1), cities.toMatrix(4));
+
+        CsrGraph other = WorkloadGenerator.rmat(5000, 300_000, 4, 0.1, 8, 4);
+        assertTrue(!Arrays.equals(targets(other), targets(WorkloadGenerator.rmat(5000, 300_000, 4, 0.1, 7, 4))));
+    }
+
+    @Test
+    void rmatComponentsStayInsideTheirBlocks() {
+        int nodes = 20_000;
+        int blocks = 5;
+        CsrGraph graph = WorkloadGenerator.rmat(nodes, 16 * nodes, blocks, 0.05, 11, 4);
+        assertEquals(16 * nodes, graph.getNumEdges());
+        int[] componentOf = StronglyConnectedComponents.of(graph).getComponentOf();
+        int[] size = new int[nodes];
+        int[] blockOf = new int[nodes];
+        Arrays.fill(blockOf, -1);
+        int largestIndegree = 0;
+        int[] indegree = new int[nodes];
+        for (int u = 0; u < nodes; u++) {
+            int block = u / (nodes / blocks);
+            int c = componentOf[u];
+            size[c]++;
+            assertTrue(blockOf[c] < 0 || blockOf[c] == block);
+            blockOf[c] = block;
+            for (int e = graph.firstEdge(u); e < graph.endEdge(u); e++) {
+                assertTrue(graph.target(e) / (nodes / blocks) >= block);
+                largestIndegree = Math.max(largestIndegree, ++indegree[graph.target(e)]);
+            }
+        }
+        // every block has its own giant component, and the degrees follow a power law
+        int giants = 0;
+        for (int c = 0; c < nodes; c++) {
+            if (size[c] > nodes / blocks / 4) {
+                giants++;
+            }
+        }
+        assertEquals(blocks, giants);
+        assertTrue(largestIndegree > 50 * 16, "largest in-degree " + largestIndegree);
+    }
+
+    @Test
+    void shapesMatchTheirAlgorithms() {
+        CsrGraph bipartite = WorkloadGenerator.bipartite(400, 300, 2000, 0, 3, 2);
+        assertEquals(400, bipartite.getNumNodes());
+        assertEquals(300, bipartite.getNumTargets());
+        assertTrue(new HopcroftKarp(400, 300, bipartite).maxMatching() > 250);
+
+        int width = 50;
+        CsrGraph dag = WorkloadGenerator.layeredDag(6, width, 4, 3, 2);
+        for (int u = 0; u < dag.getNumNodes(); u++) {
+            assertEquals(u < 5 * width ? 4 : 0, dag.degree(u));
+            for (int e = dag.firstEdge(u); e < dag.endEdge(u); e++) {
+                assertEquals(u / width + 1, dag.target(e) / width);
+            }
+        }
+        assertEquals(dag.getNumNodes(), StronglyConnectedComponents.of(dag).getComponentCount());
+
+        CsrGraph weighted = WorkloadGenerator.withResources(dag, 100, 8, 3, 2);
+        long lowResourceCost = 0;
+        long highResourceCost = 0;
+        for (int e = 0; e < weighted.getNumEdges(); e++) {
+            assertEquals(dag.target(e), weighted.target(e));
+            assertTrue(weighted.weight(e) >= 1 && weighted.weight(e) <= 100);
+            assertTrue(weighted.resource(e) >= 1 && weighted.resource(e) <= 8);
+            if (weighted.resource(e) <= 2) {
+                lowResourceCost += weighted.weight(e);
+            } else if (weighted.resource(e) >= 7) {
+                highResourceCost += weighted.weight(e);
+            }
+        }
+        assertTrue(lowResourceCost > highResourceCost);
+        assertTrue(new ConstrainedShortestPath(weighted, 40).findPath(0, 5 * width).exists());
+
+        WorkloadGenerator.Cities cities = WorkloadGenerator.euclideanCities(12, 1000, 3);
+        int[][] matrix = cities.toMatrix(2);
+        for (int i = 0; i < 12; i++) {
+            assertEquals(0, matrix[i][i]);
+            for (int j = 0; j < 12; j++) {
+                assertEquals(matrix[j][i], matrix[i][j]);
+                assertTrue(matrix[i][j] < 1415);
+            }
+        }
+        assertEquals(TravelingSalesman.dynamicProgramming(matrix), TravelingSalesman.heldKarp(matrix).distance());
+    }
+
+    @Test
+    void scrambleIsABijection() {
+        for (int n : new int[]{1, 2, 3, 17, 64, 1000}) {
+            boolean[] seen = new boolean[n];
+            for (int x = 0; x < n; x++) {
+                int y = WorkloadGenerator.scramble(x, n, 0x1234_5678_9ABCL);
+                assertTrue(!seen[y]);
+                seen[y] = true;
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> WorkloadGenerator.rmat(10, 10, 11, 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> WorkloadGenerator.layeredDag(1 << 16, 1 << 16, 1, 1, 1));
+    }
+
+    private static void assertSameGraph(CsrGraph expected, CsrGraph actual) {
+        assertEquals(expected.getNumNodes(), actual.getNumNodes());
+        assertEquals(expected.getNumTargets(), actual.getNumTargets());
+        for (int u = 0; u < expected.getNumNodes(); u++) {
+            assertEquals(expected.endEdge(u), actual.endEdge(u));
+        }
+        assertArrayEquals(targets(expected), targets(actual));
+        for (int e = 0; expected.hasWeights() && e < expected.getNumEdges(); e++) {
+            assertEquals(expected.weight(e), actual.weight(e));
+            assertEquals(expected.resource(e), actual.resource(e));
+        }
+    }
+
+    private static int[] targets(CsrGraph graph) {
+        int[] targets = new int[graph.getNumEdges()];
+        for (int e = 0; e < targets.length; e++) {
+            targets[e] = graph.target(e);
+        }
+        return targets;
+    }
+}
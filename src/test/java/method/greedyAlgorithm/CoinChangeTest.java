@@ -0,0 +1,130 @@
+package method.greedyAlgorithm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class CoinChangeTest {
+
+    @Test
+    void detectsCanonicalSystems() {
+        CoinChange euro = CoinChange.of(100, 1, 50, 5, 20, 10, 10);
+        assertTrue(euro.isCanonical());
+        assertEquals(-1, euro.smallestCounterexample());
+        assertArrayEquals(new int[] {1, 5, 10, 20, 50, 100}, euro.denominations());
+        assertEquals(4, euro.minCoins(131));
+        assertArrayEquals(new int[] {1, 0, 1, 1, 0, 1}, euro.change(131));
+
+        CoinChange odd = CoinChange.of(1, 3, 4);
+        assertFalse(odd.isCanonical());
+        assertEquals(6, odd.smallestCounterexample());
+        assertEquals(2, odd.minCoins(6));
+        assertArrayEquals(new int[] {0, 2, 0}, odd.change(6));
+    }
+
+    @Test
+    void matchesDynamicProgrammingOnRandomSystems() {
+        Random random = new Random(20);
+        for (int round = 0; round < 300; round++) {
+            int n = 1 + random.nextInt(5);
+            int[] coins = new int[n];
+            coins[0] = random.nextInt(4) == 0 ? 2 + random.nextInt(5) : 1;
+            for (int i = 1; i < n; i++) {
+                coins[i] = 1 + random.nextInt(60);
+            }
+            CoinChange engine = CoinChange.of(coins);
+            int[] denominations = engine.denominations();
+            int limit = 4000;
+            int[] optimal = optimal(denominations, limit);
+
+            int smallest = -1;
+            for (int amount = 1; amount < limit && smallest < 0; amount++) {
+                if (greedy(denominations, amount) != optimal[amount]) {
+                    smallest = amount;
+                }
+            }
+            String system = Arrays.toString(denominations);
+            assertEquals(smallest, engine.smallestCounterexample(), system);
+            assertEquals(smallest < 0, engine.isCanonical(), system);
+
+            int[] amounts = new int[limit];
+            Arrays.setAll(amounts, i -> i);
+            int[] counts = new int[limit];
+            engine.minCoins(amounts, counts);
+            for (int amount = 0; amount < limit; amount++) {
+                assertEquals(optimal[amount], counts[amount], system + " " + amount);
+                int[] change = engine.change(amount);
+                if (optimal[amount] < 0) {
+                    assertNull(change, system + " " + amount);
+                } else {
+                    int value = 0;
+                    int used = 0;
+                    for (int i = 0; i < change.length; i++) {
+                        value += change[i] * denominations[i];
+                        used += change[i];
+                    }
+                    assertEquals(amount, value, system);
+                    assertEquals(optimal[amount], used, system);
+                }
+            }
+        }
+    }
+
+    @Test
+    void answersLargeAmountsInBulk() {
+        CoinChange canonical = CoinChange.of(1, 2, 5, 10, 20, 50, 100, 200);
+        CoinChange nonCanonical = CoinChange.of(1, 7, 23, 61, 97);
+        assertFalse(nonCanonical.isCanonical());
+        assertEquals(Integer.MAX_VALUE / 200 + 4, canonical.minCoins(Integer.MAX_VALUE));
+
+        int[] amounts = new Random(1).ints(100_000, 0, Integer.MAX_VALUE).toArray();
+        int[] counts = new int[amounts.length];
+        for (CoinChange engine : new CoinChange[] {canonical, nonCanonical}) {
+            engine.minCoins(amounts, counts);
+            for (int i = 0; i < 1000; i++) {
+                assertEquals(engine.minCoins(amounts[i]), counts[i]);
+            }
+        }
+    }
+
+    @Test
+    void rejectsInvalidInput() {
+        assertThrows(IllegalArgumentException.class, CoinChange::of);
+        assertThrows(IllegalArgumentException.class, () -> CoinChange.of(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> CoinChange.of(1, 2).minCoins(-1));
+        assertThrows(IllegalArgumentException.class, () -> CoinChange.of(1, 4999, 5000));
+    }
+
+    private static int[] optimal(int[] coins, int limit) {
+        int[] best = new int[limit];
+        Arrays.fill(best, -1);
+        best[0] = 0;
+        for (int amount = 1; amount < limit; amount++) {
+            for (int c : coins) {
+                if (c <= amount && best[amount - c] >= 0 && (best[amount] < 0 || best[amount - c] + 1 < best[amount])) {
+                    best[amount] = best[amount - c] + 1;
+                }
+            }
+        }
+        return best;
+    }
+
+    /** Greedy taking one coin at a time, as {@link algorithmDemo#coinChangeGreedy} does. */
+    private static int greedy(int[] ascending, int amount) {
+        int count = 0;
+        for (int i = ascending.length - 1; i >= 0; i--) {
+            while (amount >= ascending[i]) {
+                amount -= ascending[i];
+                count++;
+            }
+        }
+        return amount == 0 ? count : -1;
+    }
+}
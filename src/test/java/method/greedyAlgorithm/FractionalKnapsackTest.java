@@ -0,0 +1,60 @@
+package method.greedyAlgorithm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class FractionalKnapsackTest {
+
+    @Test
+    void takesBestRatiosFirst() {
+        long[] values = {60, 100, 120, 0, 5};
+        long[] weights = {10, 20, 30, 4, 0};
+        double[] fractions = new double[5];
+        assertEquals(245, FractionalKnapsack.solve(values, weights, 50, fractions), 1e-9);
+        assertArrayEquals(new double[] {1, 1, 2.0 / 3, 0, 1}, fractions, 1e-12);
+        assertEquals(5, FractionalKnapsack.maxValue(values, weights, 0), 1e-9);
+        assertEquals(285, FractionalKnapsack.maxValue(values, weights, 1000), 1e-9);
+        assertThrows(IllegalArgumentException.class,
+                () -> FractionalKnapsack.maxValue(new long[] {1}, new long[] {-1}, 5));
+    }
+
+    @Test
+    void respectsCapacityOnRandomItems() {
+        Random random = new Random(21);
+        for (int round = 0; round < 200; round++) {
+            int n = random.nextInt(500);
+            long[] values = random.longs(n, 0, 1000).toArray();
+            long[] weights = random.longs(n, 1, 100).toArray();
+            long capacity = random.nextInt(20_000);
+            double[] fractions = new double[n];
+            double total = FractionalKnapsack.solve(values, weights, capacity, fractions);
+            double used = 0;
+            double value = 0;
+            int partial = 0;
+            for (int i = 0; i < n; i++) {
+                assertTrue(fractions[i] >= 0 && fractions[i] <= 1);
+                used += fractions[i] * weights[i];
+                value += fractions[i] * values[i];
+                if (fractions[i] > 0 && fractions[i] < 1) {
+                    partial++;
+                }
+            }
+            assertTrue(used <= capacity + 1e-6);
+            assertEquals(value, total, 1e-6 * Math.max(1, total));
+            assertTrue(partial <= 1);
+            // exchange argument: nothing left out is worth more per unit than something taken
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    if (fractions[i] < 1 && fractions[j] > 0) {
+                        assertTrue(values[i] * weights[j] <= values[j] * weights[i]);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package method.greedyAlgorithm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.PriorityQueue;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HuffmanCodingTest {
+
+    @Test
+    void buildsCanonicalPrefixCode() {
+        long[] frequencies = {45, 13, 12, 16, 9, 5, 0};
+        int[] lengths = HuffmanCoding.codeLengths(frequencies);
+        assertArrayEquals(new int[] {1, 3, 3, 3, 4, 4, 0}, lengths);
+        assertEquals(224, HuffmanCoding.encodedBits(frequencies, lengths));
+        assertArrayEquals(new long[] {0b0, 0b100, 0b101, 0b110, 0b1110, 0b1111, 0},
+                HuffmanCoding.canonicalCodes(lengths));
+
+        assertArrayEquals(new int[] {0, 1, 0}, HuffmanCoding.codeLengths(new long[] {0, 7, 0}));
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCoding.canonicalCodes(new int[] {1, 1, 1}));
+        assertThrows(IllegalArgumentException.class, () -> HuffmanCoding.codeLengths(new long[] {-1}));
+    }
+
+    @Test
+    void costMatchesPriorityQueueHuffman() {
+        Random random = new Random(21);
+        for (int round = 0; round < 100; round++) {
+            int n = 1 + random.nextInt(round < 50 ? 20 : 5000);
+            long[] frequencies = random.longs(n, 0, round % 2 == 0 ? 10 : 1L << 40).toArray();
+            int[] lengths = HuffmanCoding.codeLengths(frequencies);
+            assertEquals(referenceCost(frequencies), HuffmanCoding.encodedBits(frequencies, lengths));
+
+            double kraft = 0;
+            for (int length : lengths) {
+                kraft += length == 0 ? 0 : Math.scalb(1.0, -length);
+            }
+            assertTrue(kraft <= 1 + 1e-9);
+            if (lengths.length > 0 && max(lengths) <= HuffmanCoding.MAX_CODE_LENGTH) {
+                long[] codes = HuffmanCoding.canonicalCodes(lengths);
+                for (int a = 0; a < Math.min(n, 200); a++) {
+                    for (int b = 0; b < Math.min(n, 200); b++) {
+                        if (a != b && lengths[a] > 0 && lengths[b] >= lengths[a]) {
+                            assertTrue(codes[b] >>> (lengths[b] - lengths[a]) != codes[a], "prefix");
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /** Total encoded bits: the sum of all merge weights, computed with a boxed priority queue. */
+    private static long referenceCost(long[] frequencies) {
+        PriorityQueue<Long> queue = new PriorityQueue<>();
+        for (long f : frequencies) {
+            if (f > 0) {
+                queue.add(f);
+            }
+        }
+        if (queue.size() == 1) {
+            return queue.peek();
+        }
+        long cost = 0;
+        while (queue.size() > 1) {
+            long merged = queue.poll() + queue.poll();
+            cost += merged;
+            queue.add(merged);
+        }
+        return cost;
+    }
+
+    private static int max(int[] values) {
+        int max = 0;
+        for (int v : values) {
+            max = Math.max(max, v);
+        }
+        return max;
+    }
+}
@@ -0,0 +1,94 @@
+package method.greedyAlgorithm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class IntervalSchedulingTest {
+
+    @Test
+    void selectsAndPartitionsSmallSchedule() {
+        long[] start = {1, 3, 0, 5, 8, 5};
+        long[] end = {2, 4, 6, 7, 9, 9};
+        assertArrayEquals(new int[] {0, 1, 3, 4}, IntervalScheduling.maxNonOverlapping(start, end));
+        // [0,6) overlaps [1,2), [3,4) and [5,7) and [5,9); touching ends do not count
+        assertEquals(3, IntervalScheduling.roomsNeeded(start, end));
+        assertEquals(1, IntervalScheduling.roomsNeeded(new long[] {0, 5, 10}, new long[] {5, 10, 15}));
+        assertEquals(0, IntervalScheduling.maxNonOverlapping(new long[0], new long[0]).length);
+        assertThrows(IllegalArgumentException.class,
+                () -> IntervalScheduling.assignRooms(new long[] {2}, new long[] {1}));
+        // an empty interval inside a busy period shares room 0 instead of opening a room
+        assertArrayEquals(new int[] {0, 1, 0}, IntervalScheduling.assignRooms(new long[] {0, 1, 3}, new long[] {5, 6, 3}));
+        assertArrayEquals(new int[] {2, 0, 1}, IntervalScheduling.maxNonOverlapping(new long[] {0, 6, 3}, new long[] {5, 7, 3}));
+        assertEquals(1, IntervalScheduling.roomsNeeded(new long[] {2}, new long[] {2}));
+    }
+
+    @Test
+    void matchesBruteForceOnRandomBookings() {
+        Random random = new Random(21);
+        for (int round = 0; round < 200; round++) {
+            int n = random.nextInt(14);
+            long[] start = new long[n];
+            long[] end = new long[n];
+            for (int i = 0; i < n; i++) {
+                start[i] = random.nextInt(50);
+                end[i] = start[i] + random.nextInt(16);
+            }
+            int best = 0;
+            for (int subset = 0; subset < 1 << n; subset++) {
+                if (Integer.bitCount(subset) > best && disjoint(start, end, subset)) {
+                    best = Integer.bitCount(subset);
+                }
+            }
+            int[] chosen = IntervalScheduling.maxNonOverlapping(start, end);
+            int mask = 0;
+            for (int i : chosen) {
+                mask |= 1 << i;
+            }
+            assertEquals(best, chosen.length);
+            assertTrue(disjoint(start, end, mask));
+
+            int[] room = IntervalScheduling.assignRooms(start, end);
+            int maxOverlap = 0;
+            for (long t = 0; t < 70; t++) {
+                int overlap = 0;
+                for (int i = 0; i < n; i++) {
+                    if (start[i] <= t && t < end[i]) {
+                        overlap++;
+                    }
+                }
+                maxOverlap = Math.max(maxOverlap, overlap);
+            }
+            int rooms = 0;
+            for (int i = 0; i < n; i++) {
+                rooms = Math.max(rooms, room[i] + 1);
+                for (int j = i + 1; j < n; j++) {
+                    if (room[i] == room[j]) {
+                        assertTrue(!overlap(start, end, i, j));
+                    }
+                }
+            }
+            assertEquals(n == 0 ? 0 : Math.max(1, maxOverlap), rooms);
+        }
+    }
+
+    private static boolean disjoint(long[] start, long[] end, int subset) {
+        for (int i = 0; i < start.length; i++) {
+            for (int j = i + 1; j < start.length; j++) {
+                if ((subset >> i & 1) == 1 && (subset >> j & 1) == 1 && overlap(start, end, i, j)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /** Whether two intervals share an instant; empty intervals contain none. */
+    private static boolean overlap(long[] start, long[] end, int i, int j) {
+        return start[i] < end[i] && start[j] < end[j] && start[i] < end[j] && start[j] < end[i];
+    }
+}
@@ -0,0 +1,69 @@
+package method.greedyAlgorithm;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class PrimitiveSortTest {
+
+    @Test
+    void sortsKeysWithTheirValues() {
+        Random random = new Random(21);
+        for (int n : new int[] {0, 1, 2, 23, 24, 25, 1000, 100_000}) {
+            for (int range : new int[] {3, 1 << 30}) {
+                long[] keys = random.longs(n, -range, range).toArray();
+                long[] original = keys.clone();
+                int[] values = new int[n];
+                Arrays.setAll(values, i -> i);
+                PrimitiveSort.sort(keys, values);
+
+                long[] expected = original.clone();
+                Arrays.sort(expected);
+                assertArrayEquals(expected, keys);
+                boolean[] seen = new boolean[n];
+                for (int i = 0; i < n; i++) {
+                    assertEquals(original[values[i]], keys[i]);
+                    seen[values[i]] = true;
+                }
+                for (boolean s : seen) {
+                    assertTrue(s);
+                }
+            }
+        }
+    }
+
+    @Test
+    void survivesAdversarialInput() {
+        int n = 1 << 18;
+        long[] sorted = new long[n];
+        long[] reversed = new long[n];
+        long[] organPipe = new long[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+            reversed[i] = n - i;
+            organPipe[i] = Math.min(i, n - i);
+        }
+        for (long[] keys : new long[][] {sorted, reversed, organPipe}) {
+            int[] values = new int[n];
+            PrimitiveSort.sort(keys, values);
+            for (int i = 1; i < n; i++) {
+                assertTrue(keys[i - 1] <= keys[i]);
+            }
+        }
+    }
+
+    @Test
+    void sortableBitsPreserveDoubleOrder() {
+        double[] doubles = {Double.NEGATIVE_INFINITY, -1e300, -2.5, -Double.MIN_VALUE, -0.0, 0.0,
+                Double.MIN_VALUE, 1, 3.75, 1e300, Double.POSITIVE_INFINITY};
+        for (int i = 1; i < doubles.length; i++) {
+            assertTrue(PrimitiveSort.sortableBits(doubles[i - 1]) < PrimitiveSort.sortableBits(doubles[i]),
+                    doubles[i - 1] + " < " + doubles[i]);
+        }
+        assertArrayEquals(new int[] {2, 0, 1}, PrimitiveSort.order(new long[] {5, 9, -1}));
+    }
+}